@@ -0,0 +1,692 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.TypePath;
+
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.ASMLoopSplitterProvider;
+
+/**
+ * Implementation of {@link ASMLoopSplitterProvider} with the ASM library.
+ *
+ * <p>
+ * For a loop such as {@code for (@Parallel int i = init; i < n; i += step)},
+ * the copy of the method stores {@code init} in a new local variable and
+ * replaces the increment of {@code i} with:
+ * </p>
+ *
+ * <pre>
+ * if (++k &lt; blockSize) {
+ *     i += step;
+ * } else {
+ *     long start = init + Math.min((long) blocks.getAndIncrement() * blockSize, 0xFFFFFFFFL) * step;
+ *     i = (int) Math.max(Math.min(start, Integer.MAX_VALUE), Integer.MIN_VALUE);
+ *     k = 0;
+ * }
+ * </pre>
+ *
+ * <p>
+ * The first block is taken in the same way, right after the initialisation of
+ * {@code i}. A thread leaves the loop when the first index of the block it
+ * takes does not satisfy the loop condition. The loop condition and the body
+ * are not modified.
+ * </p>
+ *
+ * <p>
+ * The first index of a block is computed with {@code long} arithmetic and
+ * clamped to the range of {@code int}, so the blocks taken after the end of the
+ * iteration space do not wrap around when the loop bound is close to
+ * {@link Integer#MAX_VALUE} (or {@link Integer#MIN_VALUE} for negative steps).
+ * Offsets of {@code 2^32 - 1} iterations or more are beyond the range of
+ * {@code int} for any {@code init}, so they are clamped before the
+ * multiplication by the step, which cannot overflow.
+ * </p>
+ *
+ * <p>
+ * Loops are not split when the update of the index is not a constant increment,
+ * when the method has more than one outermost parallel loop, or when the
+ * parallel loop is nested in a sequential loop.
+ * </p>
+ *
+ * <p>
+ * Every thread runs the whole copy of the method, so the code before and after
+ * the parallel loop runs once per thread. Loops are not split when that code
+ * has side effects: stores to arrays or fields, and calls other than the
+ * getters of native arrays and the methods of {@link Math}. The only exception
+ * is the initialisation of an element of a {@link Reduce} parameter with a
+ * constant before the loop (e.g. {@code result.set(0, 0)}), because each thread
+ * runs with its own copy of the reduction variables. As on the devices, that
+ * constant must be the neutral element of the reduction.
+ * </p>
+ */
+public class ASMLoopSplitter implements ASMLoopSplitterProvider {
+
+    private static final String COUNTER_TYPE = "java/util/concurrent/atomic/AtomicInteger";
+    // Number of iterations from init beyond which the first index of a block is out of the range of int
+    private static final long MAX_OFFSET = 0xFFFFFFFFL;
+    static final String PARALLEL_ANNOTATION = "L" + System.getProperty("tornado.load.annotation.parallel", "uk.ac.manchester.tornado.api.annotations.Parallel").replace('.', '/') + ";";
+
+    @Override
+    public byte[] splitParallelLoop(Method method, String className) {
+        if (!Modifier.isStatic(method.getModifiers())) {
+            return null;
+        }
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final String descriptor = Type.getMethodDescriptor(method);
+        final ClassReader classReader = new ClassReader(readClassFile(declaringClass));
+
+        LoopAnalysis analysis = new LoopAnalysis(method.getName(), descriptor);
+        classReader.accept(analysis, ClassReader.SKIP_FRAMES);
+        ParallelLoop loop = analysis.findSplittableLoop();
+        if (loop == null || analysis.hasSideEffectsOutside(loop, reduceSlots(method)) || accessesPrivateMembers(declaringClass, analysis.ownMembers)) {
+            return null;
+        }
+
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                return declaringClass.getClassLoader();
+            }
+        };
+        classWriter.visit(analysis.version, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, "java/lang/Object", null);
+        // The size of the arguments includes the receiver, which static methods do not have
+        int parameterSlots = (Type.getArgumentsAndReturnSizes(descriptor) >> 2) - 1;
+        String splitDescriptor = descriptor.replace(")", "L" + COUNTER_TYPE + ";I)");
+        classReader.accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String methodDescriptor, String signature, String[] exceptions) {
+                if (name.equals(method.getName()) && methodDescriptor.equals(descriptor)) {
+                    MethodVisitor methodWriter = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, name, splitDescriptor, null, exceptions);
+                    return new SplitMethodVisitor(methodWriter, loop, parameterSlots, analysis.maxLocals);
+                }
+                return null;
+            }
+        }, ClassReader.SKIP_FRAMES);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * The new class is not a nestmate of the declaring class, so the method
+     * cannot be copied if it accesses private members of the declaring class.
+     */
+    static boolean accessesPrivateMembers(Class<?> klass, List<String[]> members) {
+        for (String[] member : members) {
+            String name = member[0];
+            String descriptor = member[1];
+            if (descriptor.startsWith("(")) {
+                for (Method method : klass.getDeclaredMethods()) {
+                    if (method.getName().equals(name) && Type.getMethodDescriptor(method).equals(descriptor) && Modifier.isPrivate(method.getModifiers())) {
+                        return true;
+                    }
+                }
+                for (Constructor<?> constructor : klass.getDeclaredConstructors()) {
+                    if (name.equals("<init>") && Type.getConstructorDescriptor(constructor).equals(descriptor) && Modifier.isPrivate(constructor.getModifiers())) {
+                        return true;
+                    }
+                }
+            } else {
+                for (Field field : klass.getDeclaredFields()) {
+                    if (field.getName().equals(name) && Modifier.isPrivate(field.getModifiers())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Local variable slots of the parameters annotated with {@link Reduce}.
+     */
+    private static Set<Integer> reduceSlots(Method method) {
+        Set<Integer> slots = new HashSet<>();
+        Annotation[][] annotations = method.getParameterAnnotations();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        int slot = 0;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof Reduce) {
+                    slots.add(slot);
+                }
+            }
+            slot += Type.getType(parameterTypes[i]).getSize();
+        }
+        return slots;
+    }
+
+    static byte[] readClassFile(Class<?> klass) {
+        String classFile = "/" + klass.getName().replace('.', '/') + ".class";
+        try (InputStream inputStream = klass.getResourceAsStream(classFile)) {
+            if (inputStream == null) {
+                throw new TornadoRuntimeException("[ERROR] Class file not found: " + classFile);
+            }
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new TornadoRuntimeException(e);
+        }
+    }
+
+    private record ParallelLoop(int start, int end, int index, int increment) {
+    }
+
+    /**
+     * Visitor that counts the instructions of a method and it records the
+     * positions of the stores to local variables, the increments, the jumps and
+     * the ranges of the parallel loop indices. The position of a label is the
+     * position of the instruction that follows it.
+     */
+    private static class LoopAnalysis extends ClassVisitor {
+
+        private final String name;
+        private final String descriptor;
+        private final Map<Label, Integer> labels = new HashMap<>();
+        private final Map<Integer, Integer> stores = new HashMap<>();
+        private final List<int[]> increments = new ArrayList<>();
+        private final List<Object[]> jumps = new ArrayList<>();
+        private final List<Label[]> parallelRanges = new ArrayList<>();
+        private final List<Integer> parallelIndices = new ArrayList<>();
+        // Opcode and local variable (or -1) of each instruction
+        private final List<int[]> code = new ArrayList<>();
+        // Owner and name of the methods called at each position
+        private final Map<Integer, String[]> invokes = new HashMap<>();
+        private final Set<Integer> storedReferences = new HashSet<>();
+        private int version;
+        private final List<String[]> ownMembers = new ArrayList<>();
+        private String className;
+        private int maxLocals;
+        private int instructions;
+        private boolean found;
+
+        LoopAnalysis(String name, String descriptor) {
+            super(Opcodes.ASM9);
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.version = version;
+            this.className = name;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String methodName, String methodDescriptor, String signature, String[] exceptions) {
+            if (!methodName.equals(name) || !methodDescriptor.equals(descriptor)) {
+                return null;
+            }
+            found = true;
+            return new MethodVisitor(Opcodes.ASM9) {
+
+                private int next() {
+                    return next(-1, -1);
+                }
+
+                private int next(int opcode, int varIndex) {
+                    code.add(new int[] { opcode, varIndex });
+                    return instructions++;
+                }
+
+                @Override
+                public void visitLabel(Label label) {
+                    labels.put(label, instructions);
+                }
+
+                @Override
+                public void visitInsn(int opcode) {
+                    next(opcode, -1);
+                }
+
+                @Override
+                public void visitIntInsn(int opcode, int operand) {
+                    next(opcode, -1);
+                }
+
+                @Override
+                public void visitVarInsn(int opcode, int varIndex) {
+                    int position = next(opcode, varIndex);
+                    if (opcode == Opcodes.ISTORE) {
+                        stores.put(position, varIndex);
+                    } else if (opcode == Opcodes.ASTORE) {
+                        storedReferences.add(varIndex);
+                    }
+                }
+
+                @Override
+                public void visitTypeInsn(int opcode, String type) {
+                    next();
+                }
+
+                @Override
+                public void visitFieldInsn(int opcode, String owner, String fieldName, String fieldDescriptor) {
+                    next(opcode, -1);
+                    recordMember(owner, fieldName, fieldDescriptor);
+                }
+
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String methodName, String methodDescriptor, boolean isInterface) {
+                    invokes.put(next(opcode, -1), new String[] { owner, methodName });
+                    recordMember(owner, methodName, methodDescriptor);
+                }
+
+                @Override
+                public void visitInvokeDynamicInsn(String indyName, String indyDescriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+                    next(Opcodes.INVOKEDYNAMIC, -1);
+                    // Lambdas refer to private methods of the class
+                    for (Object argument : bootstrapMethodArguments) {
+                        if (argument instanceof Handle handle) {
+                            recordMember(handle.getOwner(), handle.getName(), handle.getDesc());
+                        }
+                    }
+                }
+
+                @Override
+                public void visitJumpInsn(int opcode, Label label) {
+                    jumps.add(new Object[] { next(), label });
+                }
+
+                @Override
+                public void visitLdcInsn(Object value) {
+                    next(Opcodes.LDC, -1);
+                }
+
+                @Override
+                public void visitIincInsn(int varIndex, int increment) {
+                    increments.add(new int[] { next(), varIndex, increment });
+                }
+
+                @Override
+                public void visitTableSwitchInsn(int min, int max, Label dflt, Label... targets) {
+                    int position = next();
+                    jumps.add(new Object[] { position, dflt });
+                    for (Label target : targets) {
+                        jumps.add(new Object[] { position, target });
+                    }
+                }
+
+                @Override
+                public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] targets) {
+                    int position = next();
+                    jumps.add(new Object[] { position, dflt });
+                    for (Label target : targets) {
+                        jumps.add(new Object[] { position, target });
+                    }
+                }
+
+                @Override
+                public void visitMultiANewArrayInsn(String arrayDescriptor, int numDimensions) {
+                    next();
+                }
+
+                @Override
+                public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String annotationDescriptor, boolean visible) {
+                    if (PARALLEL_ANNOTATION.equals(annotationDescriptor)) {
+                        // A local variable can be live in several ranges. We take the whole span.
+                        parallelRanges.add(new Label[] { start[0], end[end.length - 1] });
+                        parallelIndices.add(index[0]);
+                    }
+                    return null;
+                }
+
+                @Override
+                public void visitMaxs(int maxStack, int maxLocalVariables) {
+                    maxLocals = maxLocalVariables;
+                }
+            };
+        }
+
+        private void recordMember(String owner, String memberName, String memberDescriptor) {
+            if (owner.equals(className)) {
+                ownMembers.add(new String[] { memberName, memberDescriptor });
+            }
+        }
+
+        ParallelLoop findSplittableLoop() {
+            if (!found) {
+                return null;
+            }
+            ParallelLoop outermost = null;
+            for (int i = 0; i < parallelRanges.size(); i++) {
+                int start = labels.get(parallelRanges.get(i)[0]);
+                int end = labels.get(parallelRanges.get(i)[1]);
+                if (!isNested(start, end)) {
+                    if (outermost != null) {
+                        return null;
+                    }
+                    outermost = new ParallelLoop(start, end, parallelIndices.get(i), 0);
+                }
+            }
+            if (outermost == null) {
+                return null;
+            }
+
+            // The index is initialised by the instruction before its range
+            Integer initialised = stores.get(outermost.start() - 1);
+            if (initialised == null || initialised != outermost.index()) {
+                return null;
+            }
+
+            // The index must only be updated by one constant increment inside the loop
+            int increment = 0;
+            for (int[] iinc : increments) {
+                if (iinc[1] == outermost.index() && iinc[0] >= outermost.start() && iinc[0] < outermost.end()) {
+                    if (increment != 0) {
+                        return null;
+                    }
+                    increment = iinc[2];
+                }
+            }
+            for (Map.Entry<Integer, Integer> store : stores.entrySet()) {
+                if (store.getValue() == outermost.index() && store.getKey() >= outermost.start() && store.getKey() < outermost.end()) {
+                    return null;
+                }
+            }
+            if (increment == 0) {
+                return null;
+            }
+
+            // A backward jump to a position before the loop means that the loop is nested in another loop
+            for (Object[] jump : jumps) {
+                int source = (int) jump[0];
+                int target = labels.get((Label) jump[1]);
+                if (source >= outermost.start() && target < outermost.start()) {
+                    return null;
+                }
+            }
+            return new ParallelLoop(outermost.start(), outermost.end(), outermost.index(), increment);
+        }
+
+        /**
+         * Checks whether the instructions before or after the loop have side
+         * effects, other than the initialisation of reduction variables with
+         * constants before the loop.
+         */
+        boolean hasSideEffectsOutside(ParallelLoop loop, Set<Integer> reduceSlots) {
+            for (int position = 0; position < code.size(); position++) {
+                if (position >= loop.start() - 1 && position < loop.end()) {
+                    continue;
+                }
+                int opcode = code.get(position)[0];
+                boolean sideEffect = switch (opcode) {
+                    case Opcodes.IASTORE, Opcodes.LASTORE, Opcodes.FASTORE, Opcodes.DASTORE, Opcodes.AASTORE, Opcodes.BASTORE, Opcodes.CASTORE, Opcodes.SASTORE -> true;
+                    case Opcodes.PUTFIELD, Opcodes.PUTSTATIC, Opcodes.MONITORENTER, Opcodes.MONITOREXIT, Opcodes.INVOKEDYNAMIC -> true;
+                    case Opcodes.INVOKEVIRTUAL, Opcodes.INVOKESPECIAL, Opcodes.INVOKESTATIC, Opcodes.INVOKEINTERFACE -> !isPure(invokes.get(position));
+                    default -> false;
+                };
+                if (sideEffect && !(position < loop.start() && isReductionInit(position, reduceSlots))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isPure(String[] invoke) {
+            String owner = invoke[0];
+            String methodName = invoke[1];
+            if (owner.equals("java/lang/Math")) {
+                return true;
+            }
+            return owner.startsWith("uk/ac/manchester/tornado/api/types/arrays/") && (methodName.equals("get") || methodName.equals("getSize"));
+        }
+
+        /**
+         * Matches {@code reduction[constant] = constant}, for Java arrays and
+         * native arrays.
+         */
+        private boolean isReductionInit(int position, Set<Integer> reduceSlots) {
+            if (position < 3) {
+                return false;
+            }
+            int opcode = code.get(position)[0];
+            if (opcode == Opcodes.INVOKEVIRTUAL && !invokes.get(position)[1].equals("set")) {
+                return false;
+            }
+            int[] receiver = code.get(position - 3);
+            return receiver[0] == Opcodes.ALOAD && reduceSlots.contains(receiver[1]) && !storedReferences.contains(receiver[1]) //
+                    && isConstant(code.get(position - 2)[0]) && isConstant(code.get(position - 1)[0]);
+        }
+
+        private static boolean isConstant(int opcode) {
+            return (opcode >= Opcodes.ICONST_M1 && opcode <= Opcodes.DCONST_1) || opcode == Opcodes.BIPUSH || opcode == Opcodes.SIPUSH || opcode == Opcodes.LDC;
+        }
+
+        private boolean isNested(int start, int end) {
+            for (Label[] range : parallelRanges) {
+                int otherStart = labels.get(range[0]);
+                int otherEnd = labels.get(range[1]);
+                boolean sameRange = otherStart == start && otherEnd == end;
+                if (!sameRange && otherStart <= start && end <= otherEnd) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Copies the instructions of the method, counting them in the same way as
+     * {@link LoopAnalysis}, and it inserts the code to take blocks of iterations.
+     * The two new parameters are placed after the original parameters, so the
+     * other local variables are shifted by two slots.
+     */
+    private static class SplitMethodVisitor extends MethodVisitor {
+
+        private final ParallelLoop loop;
+        private final int parameterSlots;
+        private final int counterSlot;
+        private final int blockSizeSlot;
+        private final int initSlot;
+        private final int iterationSlot;
+        private int instructions;
+
+        SplitMethodVisitor(MethodVisitor methodVisitor, ParallelLoop loop, int parameterSlots, int maxLocals) {
+            super(Opcodes.ASM9, methodVisitor);
+            this.loop = loop;
+            this.parameterSlots = parameterSlots;
+            this.counterSlot = parameterSlots;
+            this.blockSizeSlot = parameterSlots + 1;
+            this.initSlot = maxLocals + 2;
+            this.iterationSlot = maxLocals + 3;
+        }
+
+        private int remap(int varIndex) {
+            return varIndex < parameterSlots ? varIndex : varIndex + 2;
+        }
+
+        private int next() {
+            return instructions++;
+        }
+
+        /**
+         * Emits the code that takes a block, with the first index of the block
+         * clamped to the range of {@code int}, and {@code k = 0}.
+         */
+        private void emitTakeBlock() {
+            int index = remap(loop.index());
+            mv.visitVarInsn(Opcodes.ALOAD, counterSlot);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, COUNTER_TYPE, "getAndIncrement", "()I", false);
+            mv.visitInsn(Opcodes.I2L);
+            mv.visitVarInsn(Opcodes.ILOAD, blockSizeSlot);
+            mv.visitInsn(Opcodes.I2L);
+            mv.visitInsn(Opcodes.LMUL);
+            mv.visitLdcInsn(MAX_OFFSET);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "min", "(JJ)J", false);
+            mv.visitLdcInsn((long) loop.increment());
+            mv.visitInsn(Opcodes.LMUL);
+            mv.visitVarInsn(Opcodes.ILOAD, initSlot);
+            mv.visitInsn(Opcodes.I2L);
+            mv.visitInsn(Opcodes.LADD);
+            mv.visitLdcInsn((long) Integer.MAX_VALUE);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "min", "(JJ)J", false);
+            mv.visitLdcInsn((long) Integer.MIN_VALUE);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "max", "(JJ)J", false);
+            mv.visitInsn(Opcodes.L2I);
+            mv.visitVarInsn(Opcodes.ISTORE, index);
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitVarInsn(Opcodes.ISTORE, iterationSlot);
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            if (instructions == loop.start()) {
+                // The index has just been initialised
+                mv.visitVarInsn(Opcodes.ILOAD, remap(loop.index()));
+                mv.visitVarInsn(Opcodes.ISTORE, initSlot);
+                emitTakeBlock();
+            }
+            super.visitLabel(label);
+        }
+
+        @Override
+        public void visitIincInsn(int varIndex, int increment) {
+            int position = next();
+            if (varIndex != loop.index() || position < loop.start() || position >= loop.end()) {
+                super.visitIincInsn(remap(varIndex), increment);
+                return;
+            }
+            Label takeBlock = new Label();
+            Label done = new Label();
+            mv.visitIincInsn(iterationSlot, 1);
+            mv.visitVarInsn(Opcodes.ILOAD, iterationSlot);
+            mv.visitVarInsn(Opcodes.ILOAD, blockSizeSlot);
+            mv.visitJumpInsn(Opcodes.IF_ICMPGE, takeBlock);
+            mv.visitIincInsn(remap(varIndex), increment);
+            mv.visitJumpInsn(Opcodes.GOTO, done);
+            mv.visitLabel(takeBlock);
+            emitTakeBlock();
+            mv.visitLabel(done);
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int varIndex) {
+            next();
+            super.visitVarInsn(opcode, remap(varIndex));
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            next();
+            super.visitInsn(opcode);
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            next();
+            super.visitIntInsn(opcode, operand);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            next();
+            super.visitTypeInsn(opcode, type);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            next();
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            next();
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+            next();
+            super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            next();
+            super.visitJumpInsn(opcode, label);
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            next();
+            super.visitLdcInsn(value);
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            next();
+            super.visitTableSwitchInsn(min, max, dflt, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            next();
+            super.visitLookupSwitchInsn(dflt, keys, labels);
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            next();
+            super.visitMultiANewArrayInsn(descriptor, numDimensions);
+        }
+
+        @Override
+        public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index) {
+            super.visitLocalVariable(name, descriptor, signature, start, end, remap(index));
+        }
+
+        @Override
+        public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public void visitMaxs(int maxStack, int maxLocals) {
+            super.visitMaxs(maxStack, maxLocals + 4);
+        }
+    }
+}
@@ -0,0 +1,1349 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.TypePath;
+
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.runtime.ASMVectorizerProvider;
+
+/**
+ * Implementation of {@link ASMVectorizerProvider} with the ASM library.
+ *
+ * <p>
+ * The vectoriser accepts loops of the form
+ * {@code for (@Parallel int i = init; i < n; i++)}, where {@code n} is not
+ * modified by the loop, and whose body only contains:
+ * </p>
+ * <ul>
+ * <li>stores at index {@code i} of arithmetic expressions ({@code + - * /},
+ * negation, and the {@code abs}, {@code sqrt}, {@code min}, {@code max} and
+ * {@code fma} methods of {@link Math} and {@code TornadoMath}) over the elements
+ * at index {@code i} of other arrays and values that are not modified by the
+ * loop;</li>
+ * <li>reductions such as {@code result.set(0, result.get(0) + expression)} into
+ * a parameter annotated with {@link Reduce}, with addition, multiplication,
+ * minimum or maximum;</li>
+ * <li>local variables that hold intermediate values of an iteration.</li>
+ * </ul>
+ *
+ * <p>
+ * All the arrays of the loop must have the same element type ({@code int},
+ * {@code long}, {@code float} or {@code double}). The vector loop is inserted
+ * right before the condition of the original loop, and it advances the index
+ * of the loop by the number of lanes of the preferred vector species. The
+ * original loop then runs the remaining iterations. The partial results of the
+ * reductions are accumulated in vectors, and they are combined into the
+ * reduction variables between both loops.
+ * </p>
+ *
+ * <p>
+ * Native arrays can share memory, e.g., views of the same array or arrays
+ * mapped over the same memory. The vector loop reads whole vectors before it
+ * writes them, so it is only correct if each array that the loop writes is
+ * either disjoint from the other arrays of the loop or starts at the same
+ * address. This is checked at run time with the address ranges of the
+ * segments, and the vector loop is skipped otherwise, so the original loop
+ * runs all the iterations.
+ * </p>
+ */
+public class ASMVectorizer implements ASMVectorizerProvider {
+
+    private static final String VECTOR_PACKAGE = "jdk/incubator/vector/";
+    private static final String SPECIES = "SPECIES_PREFERRED";
+    private static final String SPECIES_DESCRIPTOR = "L" + VECTOR_PACKAGE + "VectorSpecies;";
+    private static final String GENERIC_VECTOR_DESCRIPTOR = "L" + VECTOR_PACKAGE + "Vector;";
+    private static final String ASSOCIATIVE_DESCRIPTOR = "L" + VECTOR_PACKAGE + "VectorOperators$Associative;";
+    private static final String SEGMENT_DESCRIPTOR = "Ljava/lang/foreign/MemorySegment;";
+    private static final String BYTE_ORDER_DESCRIPTOR = "Ljava/nio/ByteOrder;";
+    private static final String NATIVE_ARRAY_PACKAGE = "uk/ac/manchester/tornado/api/types/arrays/";
+    private static final String TORNADO_MATH = "uk/ac/manchester/tornado/api/math/TornadoMath";
+
+    @Override
+    public byte[] vectorizeParallelLoop(Method method, String className) {
+        if (!Modifier.isStatic(method.getModifiers())) {
+            return null;
+        }
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final String descriptor = Type.getMethodDescriptor(method);
+        final ClassReader classReader = new ClassReader(ASMLoopSplitter.readClassFile(declaringClass));
+
+        MethodRecorder recorder = new MethodRecorder(method.getName(), descriptor);
+        classReader.accept(recorder, ClassReader.SKIP_FRAMES);
+        if (!recorder.found || ASMLoopSplitter.accessesPrivateMembers(declaringClass, recorder.ownMembers)) {
+            return null;
+        }
+        VectorLoop loop = new LoopParser(method, recorder).parse();
+        if (loop == null) {
+            return null;
+        }
+
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                return declaringClass.getClassLoader();
+            }
+        };
+        classWriter.visit(recorder.version, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, "java/lang/Object", null);
+        classReader.accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String methodDescriptor, String signature, String[] exceptions) {
+                if (name.equals(method.getName()) && methodDescriptor.equals(descriptor)) {
+                    MethodVisitor methodWriter = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, name, descriptor, null, exceptions);
+                    return new VectorizingMethodVisitor(methodWriter, loop);
+                }
+                return null;
+            }
+        }, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    private enum ElementType {
+        INT('I', "IntArray", "IntVector", Integer.BYTES, Opcodes.IALOAD, Opcodes.IASTORE),
+        LONG('J', "LongArray", "LongVector", Long.BYTES, Opcodes.LALOAD, Opcodes.LASTORE),
+        FLOAT('F', "FloatArray", "FloatVector", Float.BYTES, Opcodes.FALOAD, Opcodes.FASTORE),
+        DOUBLE('D', "DoubleArray", "DoubleVector", Double.BYTES, Opcodes.DALOAD, Opcodes.DASTORE);
+
+        private final char descriptor;
+        private final String nativeArrayType;
+        private final String vectorType;
+        private final int bytes;
+        private final int arrayLoad;
+        private final int arrayStore;
+
+        ElementType(char descriptor, String nativeArray, String vector, int bytes, int arrayLoad, int arrayStore) {
+            this.descriptor = descriptor;
+            this.nativeArrayType = NATIVE_ARRAY_PACKAGE + nativeArray;
+            this.vectorType = VECTOR_PACKAGE + vector;
+            this.bytes = bytes;
+            this.arrayLoad = arrayLoad;
+            this.arrayStore = arrayStore;
+        }
+
+        String vectorDescriptor() {
+            return "L" + vectorType + ";";
+        }
+
+        boolean isFloatingPoint() {
+            return this == FLOAT || this == DOUBLE;
+        }
+
+        boolean isWide() {
+            return this == LONG || this == DOUBLE;
+        }
+
+        /**
+         * The typed instructions of the JVM are ordered as int, long, float and
+         * double, starting with the int variant.
+         */
+        static ElementType fromTypedOpcode(int opcode, int intOpcode) {
+            return values()[opcode - intOpcode];
+        }
+
+        static ElementType fromDescriptor(String descriptor) {
+            for (ElementType type : values()) {
+                if (descriptor.length() == 1 && descriptor.charAt(0) == type.descriptor) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        static ElementType fromArrayType(Class<?> klass) {
+            for (ElementType type : values()) {
+                if (Type.getInternalName(klass).equals(type.nativeArrayType) || Type.getDescriptor(klass).equals("[" + type.descriptor)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        Object identity(String operation) {
+            return switch (operation) {
+                case "add" -> 0;
+                case "mul" -> 1;
+                case "min" -> switch (this) {
+                    case INT -> Integer.MAX_VALUE;
+                    case LONG -> Long.MAX_VALUE;
+                    case FLOAT -> Float.POSITIVE_INFINITY;
+                    case DOUBLE -> Double.POSITIVE_INFINITY;
+                };
+                default -> switch (this) {
+                    case INT -> Integer.MIN_VALUE;
+                    case LONG -> Long.MIN_VALUE;
+                    case FLOAT -> Float.NEGATIVE_INFINITY;
+                    case DOUBLE -> Double.NEGATIVE_INFINITY;
+                };
+            };
+        }
+
+        Object cast(Object value) {
+            Number number = (Number) value;
+            return switch (this) {
+                case INT -> number.intValue();
+                case LONG -> number.longValue();
+                case FLOAT -> number.floatValue();
+                case DOUBLE -> number.doubleValue();
+            };
+        }
+    }
+
+    private enum Kind {
+        INSN, INT, VAR, TYPE, FIELD, METHOD, JUMP, LDC, IINC, OTHER
+    }
+
+    /**
+     * An instruction of the original method. Only the instructions that are
+     * copied into the vector loop are replayed.
+     */
+    private record Instruction(Kind kind, int opcode, int operand, Object value, String owner, String name, String descriptor, Label label) {
+
+        static Instruction of(Kind kind, int opcode) {
+            return new Instruction(kind, opcode, 0, null, null, null, null, null);
+        }
+
+        void accept(MethodVisitor mv) {
+            switch (kind) {
+                case INSN -> mv.visitInsn(opcode);
+                case INT -> mv.visitIntInsn(opcode, operand);
+                case VAR -> mv.visitVarInsn(opcode, operand);
+                case LDC -> mv.visitLdcInsn(value);
+                case METHOD -> mv.visitMethodInsn(opcode, owner, name, descriptor, (Boolean) value);
+                default -> throw new IllegalStateException("Instruction cannot be copied: " + opcode);
+            }
+        }
+    }
+
+    /**
+     * Records the instructions of a method, the positions of its labels and the
+     * ranges of the parallel loop indices. The position of a label is the
+     * position of the instruction that follows it.
+     */
+    private static class MethodRecorder extends ClassVisitor {
+
+        private final String name;
+        private final String descriptor;
+        private final List<Instruction> code = new ArrayList<>();
+        private final Map<Label, Integer> labels = new HashMap<>();
+        private final List<Label> parallelStarts = new ArrayList<>();
+        private final List<Integer> parallelIndices = new ArrayList<>();
+        private final List<String[]> ownMembers = new ArrayList<>();
+        private String className;
+        private int version;
+        private int maxLocals;
+        private boolean found;
+
+        MethodRecorder(String name, String descriptor) {
+            super(Opcodes.ASM9);
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.version = version;
+            this.className = name;
+        }
+
+        private void recordMember(String owner, String memberName, String memberDescriptor) {
+            if (owner.equals(className)) {
+                ownMembers.add(new String[] { memberName, memberDescriptor });
+            }
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String methodName, String methodDescriptor, String signature, String[] exceptions) {
+            if (!methodName.equals(name) || !methodDescriptor.equals(descriptor)) {
+                return null;
+            }
+            found = true;
+            return new MethodVisitor(Opcodes.ASM9) {
+
+                @Override
+                public void visitLabel(Label label) {
+                    labels.put(label, code.size());
+                }
+
+                @Override
+                public void visitInsn(int opcode) {
+                    code.add(Instruction.of(Kind.INSN, opcode));
+                }
+
+                @Override
+                public void visitIntInsn(int opcode, int operand) {
+                    code.add(new Instruction(Kind.INT, opcode, operand, null, null, null, null, null));
+                }
+
+                @Override
+                public void visitVarInsn(int opcode, int varIndex) {
+                    code.add(new Instruction(Kind.VAR, opcode, varIndex, null, null, null, null, null));
+                }
+
+                @Override
+                public void visitTypeInsn(int opcode, String type) {
+                    code.add(Instruction.of(Kind.TYPE, opcode));
+                }
+
+                @Override
+                public void visitFieldInsn(int opcode, String owner, String fieldName, String fieldDescriptor) {
+                    code.add(Instruction.of(Kind.FIELD, opcode));
+                    recordMember(owner, fieldName, fieldDescriptor);
+                }
+
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String methodName, String methodDescriptor, boolean isInterface) {
+                    code.add(new Instruction(Kind.METHOD, opcode, 0, isInterface, owner, methodName, methodDescriptor, null));
+                    recordMember(owner, methodName, methodDescriptor);
+                }
+
+                @Override
+                public void visitInvokeDynamicInsn(String indyName, String indyDescriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+                    code.add(Instruction.of(Kind.OTHER, Opcodes.INVOKEDYNAMIC));
+                    for (Object argument : bootstrapMethodArguments) {
+                        if (argument instanceof Handle handle) {
+                            recordMember(handle.getOwner(), handle.getName(), handle.getDesc());
+                        }
+                    }
+                }
+
+                @Override
+                public void visitJumpInsn(int opcode, Label label) {
+                    code.add(new Instruction(Kind.JUMP, opcode, 0, null, null, null, null, label));
+                }
+
+                @Override
+                public void visitLdcInsn(Object value) {
+                    code.add(new Instruction(Kind.LDC, Opcodes.LDC, 0, value, null, null, null, null));
+                }
+
+                @Override
+                public void visitIincInsn(int varIndex, int increment) {
+                    code.add(new Instruction(Kind.IINC, Opcodes.IINC, varIndex, increment, null, null, null, null));
+                }
+
+                @Override
+                public void visitTableSwitchInsn(int min, int max, Label dflt, Label... targets) {
+                    code.add(Instruction.of(Kind.OTHER, Opcodes.TABLESWITCH));
+                }
+
+                @Override
+                public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] targets) {
+                    code.add(Instruction.of(Kind.OTHER, Opcodes.LOOKUPSWITCH));
+                }
+
+                @Override
+                public void visitMultiANewArrayInsn(String arrayDescriptor, int numDimensions) {
+                    code.add(Instruction.of(Kind.OTHER, Opcodes.MULTIANEWARRAY));
+                }
+
+                @Override
+                public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+                    // Exception handlers are not supported
+                    found = false;
+                }
+
+                @Override
+                public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String annotationDescriptor, boolean visible) {
+                    if (ASMLoopSplitter.PARALLEL_ANNOTATION.equals(annotationDescriptor)) {
+                        for (int i = 0; i < start.length; i++) {
+                            parallelStarts.add(start[i]);
+                            parallelIndices.add(index[i]);
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public void visitMaxs(int maxStack, int maxLocalVariables) {
+                    maxLocals = maxLocalVariables;
+                }
+            };
+        }
+    }
+
+    private sealed interface Value {
+    }
+
+    private record Index() implements Value {
+    }
+
+    private record ArrayRef(int slot, ElementType type, boolean nativeArray, boolean reduce) implements Value {
+    }
+
+    /**
+     * A value that is not modified by the loop, with the instructions that compute
+     * it.
+     */
+    private record Scalar(ElementType type, List<Instruction> code) implements Value {
+    }
+
+    private sealed interface Node extends Value {
+    }
+
+    private record Load(ArrayRef array) implements Node {
+    }
+
+    private record Broadcast(Scalar scalar) implements Node {
+    }
+
+    private record Unary(String operation, Node operand) implements Node {
+    }
+
+    private record Binary(String operation, Node left, Node right) implements Node {
+    }
+
+    private record Fma(Node a, Node b, Node c) implements Node {
+    }
+
+    private record TempRef(int slot) implements Node {
+    }
+
+    private record ReductionRead(ArrayRef array, Scalar index) implements Node {
+    }
+
+    private sealed interface Statement {
+    }
+
+    private record Store(ArrayRef array, Node value) implements Statement {
+    }
+
+    private record TempStore(int slot, Node value) implements Statement {
+    }
+
+    private record Reduction(ArrayRef array, Scalar index, String operation, Node value, int accumulator) implements Statement {
+    }
+
+    /**
+     * Description of a vectorisable loop, and the local variables used by the
+     * vector loop. The new local variables are placed after the local variables
+     * of the original method.
+     */
+    private record VectorLoop(int start, int index, List<Instruction> bound, List<Statement> statements, ElementType type, Map<Integer, Integer> segments, int laneCount, int offset) {
+    }
+
+    /**
+     * Parses the parallel loop of a method into a list of vector statements. It
+     * returns {@code null} at the first construct that cannot be vectorised.
+     */
+    private static class LoopParser {
+
+        private static final Set<String> REDUCTIONS = Set.of("add", "mul", "min", "max");
+
+        private final MethodRecorder recorder;
+        private final Map<Integer, ArrayRef> arrayParameters = new HashMap<>();
+        private final Map<Integer, Value> temps = new HashMap<>();
+        private final Set<Integer> storedInLoop = new HashSet<>();
+        private final Deque<Value> stack = new ArrayDeque<>();
+        private final List<Statement> statements = new ArrayList<>();
+        private ElementType type;
+        private int index;
+        private int nextLocal;
+
+        LoopParser(Method method, MethodRecorder recorder) {
+            this.recorder = recorder;
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            Annotation[][] annotations = method.getParameterAnnotations();
+            int slot = 0;
+            for (int i = 0; i < parameterTypes.length; i++) {
+                ElementType elementType = ElementType.fromArrayType(parameterTypes[i]);
+                if (elementType != null) {
+                    boolean reduce = false;
+                    for (Annotation annotation : annotations[i]) {
+                        reduce |= annotation instanceof Reduce;
+                    }
+                    arrayParameters.put(slot, new ArrayRef(slot, elementType, !parameterTypes[i].isArray(), reduce));
+                }
+                slot += Type.getType(parameterTypes[i]).getSize();
+            }
+        }
+
+        private int position(Label label) {
+            return recorder.labels.get(label);
+        }
+
+        VectorLoop parse() {
+            if (recorder.parallelStarts.size() != 1) {
+                return null;
+            }
+            final List<Instruction> code = recorder.code;
+            final int start = position(recorder.parallelStarts.getFirst());
+            index = recorder.parallelIndices.getFirst();
+
+            // i = init; L: if (i >= n) goto end; body; i++; goto L; end:
+            if (start < 1 || start >= code.size() || !isVar(code.get(start - 1), Opcodes.ISTORE, index) || !isVar(code.get(start), Opcodes.ILOAD, index)) {
+                return null;
+            }
+            int condition = start + 1;
+            while (condition < code.size() && code.get(condition).kind() != Kind.JUMP) {
+                condition++;
+            }
+            if (condition == code.size() || code.get(condition).opcode() != Opcodes.IF_ICMPGE) {
+                return null;
+            }
+            final int end = position(code.get(condition).label());
+            if (end < condition + 3 || !isBackEdge(code.get(end - 1), start) || !isIncrement(code.get(end - 2))) {
+                return null;
+            }
+            final List<Instruction> body = code.subList(condition + 1, end - 2);
+
+            // No other jump can enter or leave the loop
+            for (int position = 0; position < code.size(); position++) {
+                Instruction instruction = code.get(position);
+                if (instruction.kind() == Kind.OTHER && position > start && position < end) {
+                    return null;
+                }
+                if (instruction.kind() == Kind.JUMP && position != condition && position != end - 1) {
+                    int target = position(instruction.label());
+                    boolean inside = position > start && position < end;
+                    if (inside || (target > start && target < end)) {
+                        return null;
+                    }
+                }
+            }
+
+            for (Instruction instruction : body) {
+                if (instruction.kind() == Kind.VAR && isStore(instruction.opcode())) {
+                    storedInLoop.add(instruction.operand());
+                }
+            }
+            if (storedInLoop.contains(index)) {
+                return null;
+            }
+            List<Instruction> bound = code.subList(start + 1, condition);
+            for (Instruction instruction : bound) {
+                if (!isBoundInstruction(instruction)) {
+                    return null;
+                }
+            }
+
+            // The temporary values of the loop must not be read after the loop
+            for (int position = 0; position < code.size(); position++) {
+                Instruction instruction = code.get(position);
+                if ((position < start || position >= end) && instruction.kind() == Kind.VAR && storedInLoop.contains(instruction.operand())) {
+                    return null;
+                }
+            }
+
+            // New local variables: lane count, offset (long), then the vectors and segments
+            final int laneCount = recorder.maxLocals;
+            final int offset = laneCount + 1;
+            nextLocal = offset + 2;
+
+            for (Instruction instruction : body) {
+                if (!parse(instruction)) {
+                    return null;
+                }
+            }
+            if (!stack.isEmpty() || type == null || statements.isEmpty() || !isValid()) {
+                return null;
+            }
+
+            Map<Integer, Integer> segments = new LinkedHashMap<>();
+            for (Statement statement : statements) {
+                collectSegments(statement, segments);
+            }
+            return new VectorLoop(start, index, List.copyOf(bound), statements, type, segments, laneCount, offset);
+        }
+
+        private static boolean isVar(Instruction instruction, int opcode, int slot) {
+            return instruction.kind() == Kind.VAR && instruction.opcode() == opcode && instruction.operand() == slot;
+        }
+
+        private boolean isBackEdge(Instruction instruction, int start) {
+            return instruction.kind() == Kind.JUMP && instruction.opcode() == Opcodes.GOTO && position(instruction.label()) == start;
+        }
+
+        private boolean isIncrement(Instruction instruction) {
+            return instruction.kind() == Kind.IINC && instruction.operand() == index && (Integer) instruction.value() == 1;
+        }
+
+        private static boolean isStore(int opcode) {
+            return opcode >= Opcodes.ISTORE && opcode <= Opcodes.ASTORE;
+        }
+
+        private boolean isBoundInstruction(Instruction instruction) {
+            return switch (instruction.kind()) {
+                case VAR -> (instruction.opcode() == Opcodes.ILOAD || instruction.opcode() == Opcodes.ALOAD) && instruction.operand() != index && !storedInLoop.contains(instruction.operand());
+                case INT -> instruction.opcode() != Opcodes.NEWARRAY;
+                case LDC -> instruction.value() instanceof Integer;
+                case INSN -> (instruction.opcode() >= Opcodes.ICONST_M1 && instruction.opcode() <= Opcodes.ICONST_5) || instruction.opcode() == Opcodes.IADD || instruction.opcode() == Opcodes.ISUB
+                        || instruction.opcode() == Opcodes.IMUL || instruction.opcode() == Opcodes.ARRAYLENGTH;
+                case METHOD -> isGetSize(instruction);
+                default -> false;
+            };
+        }
+
+        private static boolean isNativeArray(String owner) {
+            for (ElementType elementType : ElementType.values()) {
+                if (elementType.nativeArrayType.equals(owner)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isGetSize(Instruction instruction) {
+            return instruction.opcode() == Opcodes.INVOKEVIRTUAL && isNativeArray(instruction.owner()) && instruction.name().equals("getSize") && instruction.descriptor().equals("()I");
+        }
+
+        private boolean setType(ElementType elementType) {
+            if (type == null) {
+                type = elementType;
+            }
+            return type == elementType;
+        }
+
+        private Node toNode(Value value) {
+            if (value instanceof Node node) {
+                return node;
+            } else if (value instanceof Scalar scalar && scalar.type() == type) {
+                return new Broadcast(scalar);
+            }
+            return null;
+        }
+
+        private static Scalar constant(ElementType elementType, Instruction instruction) {
+            return new Scalar(elementType, List.of(instruction));
+        }
+
+        private boolean parse(Instruction instruction) {
+            final int opcode = instruction.opcode();
+            switch (instruction.kind()) {
+                case VAR -> {
+                    int slot = instruction.operand();
+                    if (opcode == Opcodes.ALOAD) {
+                        ArrayRef array = arrayParameters.get(slot);
+                        if (array == null || storedInLoop.contains(slot) || !setType(array.type())) {
+                            return false;
+                        }
+                        stack.push(array);
+                    } else if (opcode >= Opcodes.ILOAD && opcode <= Opcodes.DLOAD) {
+                        if (slot == index) {
+                            stack.push(new Index());
+                        } else if (storedInLoop.contains(slot)) {
+                            Value temp = temps.get(slot);
+                            if (temp == null) {
+                                return false;
+                            }
+                            stack.push(temp);
+                        } else {
+                            stack.push(constant(ElementType.fromTypedOpcode(opcode, Opcodes.ILOAD), instruction));
+                        }
+                    } else if (opcode >= Opcodes.ISTORE && opcode <= Opcodes.DSTORE) {
+                        Value value = stack.pop();
+                        if (value instanceof Scalar scalar && scalar.type() == ElementType.fromTypedOpcode(opcode, Opcodes.ISTORE)) {
+                            temps.put(slot, scalar);
+                        } else if (value instanceof Node node && type == ElementType.fromTypedOpcode(opcode, Opcodes.ISTORE)) {
+                            int vector = nextLocal++;
+                            statements.add(new TempStore(vector, node));
+                            temps.put(slot, new TempRef(vector));
+                        } else {
+                            return false;
+                        }
+                    } else {
+                        return false;
+                    }
+                }
+                case INT -> {
+                    if (opcode == Opcodes.NEWARRAY) {
+                        return false;
+                    }
+                    stack.push(constant(ElementType.INT, instruction));
+                }
+                case LDC -> {
+                    ElementType elementType = switch (instruction.value()) {
+                        case Integer ignored -> ElementType.INT;
+                        case Long ignored -> ElementType.LONG;
+                        case Float ignored -> ElementType.FLOAT;
+                        case Double ignored -> ElementType.DOUBLE;
+                        default -> null;
+                    };
+                    if (elementType == null) {
+                        return false;
+                    }
+                    stack.push(constant(elementType, instruction));
+                }
+                case INSN -> {
+                    return parseInsn(instruction);
+                }
+                case METHOD -> {
+                    return parseMethod(instruction);
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean parseInsn(Instruction instruction) {
+            final int opcode = instruction.opcode();
+            if (opcode >= Opcodes.ICONST_M1 && opcode <= Opcodes.ICONST_5) {
+                stack.push(constant(ElementType.INT, instruction));
+            } else if (opcode == Opcodes.LCONST_0 || opcode == Opcodes.LCONST_1) {
+                stack.push(constant(ElementType.LONG, instruction));
+            } else if (opcode >= Opcodes.FCONST_0 && opcode <= Opcodes.FCONST_2) {
+                stack.push(constant(ElementType.FLOAT, instruction));
+            } else if (opcode == Opcodes.DCONST_0 || opcode == Opcodes.DCONST_1) {
+                stack.push(constant(ElementType.DOUBLE, instruction));
+            } else if (opcode >= Opcodes.IALOAD && opcode <= Opcodes.DALOAD) {
+                Value arrayIndex = stack.pop();
+                return access(stack.pop(), arrayIndex, ElementType.fromTypedOpcode(opcode, Opcodes.IALOAD));
+            } else if (opcode >= Opcodes.IASTORE && opcode <= Opcodes.DASTORE) {
+                Value value = stack.pop();
+                Value arrayIndex = stack.pop();
+                return store(stack.pop(), arrayIndex, value, ElementType.fromTypedOpcode(opcode, Opcodes.IASTORE));
+            } else if (opcode >= Opcodes.IADD && opcode <= Opcodes.DDIV) {
+                String operation = switch ((opcode - Opcodes.IADD) / 4) {
+                    case 0 -> "add";
+                    case 1 -> "sub";
+                    case 2 -> "mul";
+                    default -> "div";
+                };
+                ElementType operationType = ElementType.fromTypedOpcode(Opcodes.IADD + (opcode - Opcodes.IADD) % 4, Opcodes.IADD);
+                if (operation.equals("div") && !operationType.isFloatingPoint()) {
+                    // Integer divisions by zero throw an exception in the scalar loop
+                    return false;
+                }
+                Value right = stack.pop();
+                return binary(operation, operationType, instruction, stack.pop(), right);
+            } else if (opcode >= Opcodes.INEG && opcode <= Opcodes.DNEG) {
+                return unary("neg", ElementType.fromTypedOpcode(opcode, Opcodes.INEG), instruction);
+            } else if (opcode == Opcodes.DUP) {
+                stack.push(stack.peek());
+            } else if (opcode == Opcodes.DUP2) {
+                Value top = stack.pop();
+                if (isWide(top)) {
+                    stack.push(top);
+                    stack.push(top);
+                } else {
+                    Value second = stack.pop();
+                    stack.push(second);
+                    stack.push(top);
+                    stack.push(second);
+                    stack.push(top);
+                }
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private boolean isWide(Value value) {
+            return (value instanceof Scalar scalar && scalar.type().isWide()) || (value instanceof Node && type.isWide());
+        }
+
+        private boolean parseMethod(Instruction instruction) {
+            String owner = instruction.owner();
+            String name = instruction.name();
+            if (instruction.opcode() == Opcodes.INVOKEVIRTUAL && isNativeArray(owner)) {
+                if (isGetSize(instruction)) {
+                    if (!(stack.pop() instanceof ArrayRef array)) {
+                        return false;
+                    }
+                    stack.push(new Scalar(ElementType.INT, List.of(new Instruction(Kind.VAR, Opcodes.ALOAD, array.slot(), null, null, null, null, null), instruction)));
+                    return true;
+                }
+                ElementType elementType = ElementType.fromDescriptor(Type.getReturnType(instruction.descriptor()).getDescriptor());
+                if (name.equals("get") && instruction.descriptor().startsWith("(I)") && elementType != null) {
+                    Value arrayIndex = stack.pop();
+                    return access(stack.pop(), arrayIndex, elementType);
+                }
+                Type[] arguments = Type.getArgumentTypes(instruction.descriptor());
+                if (name.equals("set") && arguments.length == 2 && arguments[0] == Type.INT_TYPE) {
+                    Value value = stack.pop();
+                    Value arrayIndex = stack.pop();
+                    return store(stack.pop(), arrayIndex, value, ElementType.fromDescriptor(arguments[1].getDescriptor()));
+                }
+                return false;
+            }
+
+            if (instruction.opcode() != Opcodes.INVOKESTATIC || !(owner.equals("java/lang/Math") || owner.equals(TORNADO_MATH))) {
+                return false;
+            }
+            Type[] arguments = Type.getArgumentTypes(instruction.descriptor());
+            ElementType operationType = ElementType.fromDescriptor(Type.getReturnType(instruction.descriptor()).getDescriptor());
+            for (Type argument : arguments) {
+                if (operationType == null || !argument.getDescriptor().equals(String.valueOf(operationType.descriptor))) {
+                    return false;
+                }
+            }
+            if ((name.equals("min") || name.equals("max")) && arguments.length == 2) {
+                Value right = stack.pop();
+                return binary(name, operationType, instruction, stack.pop(), right);
+            } else if ((name.equals("abs") || (name.equals("sqrt") && operationType.isFloatingPoint())) && arguments.length == 1) {
+                return unary(name, operationType, instruction);
+            } else if (name.equals("fma") && operationType.isFloatingPoint() && arguments.length == 3) {
+                Value c = stack.pop();
+                Value b = stack.pop();
+                Value a = stack.pop();
+                if (a instanceof Scalar sa && b instanceof Scalar sb && c instanceof Scalar sc) {
+                    stack.push(new Scalar(operationType, concat(sa.code(), sb.code(), sc.code(), List.of(instruction))));
+                    return true;
+                }
+                if (operationType != type) {
+                    return false;
+                }
+                Node na = toNode(a);
+                Node nb = toNode(b);
+                Node nc = toNode(c);
+                if (na == null || nb == null || nc == null) {
+                    return false;
+                }
+                stack.push(new Fma(na, nb, nc));
+                return true;
+            }
+            return false;
+        }
+
+        @SafeVarargs
+        private static List<Instruction> concat(List<Instruction>... lists) {
+            List<Instruction> result = new ArrayList<>();
+            for (List<Instruction> list : lists) {
+                result.addAll(list);
+            }
+            return List.copyOf(result);
+        }
+
+        private boolean unary(String operation, ElementType operationType, Instruction instruction) {
+            Value operand = stack.pop();
+            if (operand instanceof Scalar scalar && scalar.type() == operationType) {
+                stack.push(new Scalar(operationType, concat(scalar.code(), List.of(instruction))));
+                return true;
+            }
+            if (!(operand instanceof Node node) || operationType != type) {
+                return false;
+            }
+            stack.push(new Unary(operation, node));
+            return true;
+        }
+
+        private boolean binary(String operation, ElementType operationType, Instruction instruction, Value left, Value right) {
+            if (left instanceof Scalar l && right instanceof Scalar r) {
+                if (l.type() != operationType || r.type() != operationType) {
+                    return false;
+                }
+                stack.push(new Scalar(operationType, concat(l.code(), r.code(), List.of(instruction))));
+                return true;
+            }
+            if (operationType != type) {
+                return false;
+            }
+            Node l = toNode(left);
+            Node r = toNode(right);
+            if (l == null || r == null) {
+                return false;
+            }
+            stack.push(new Binary(operation, l, r));
+            return true;
+        }
+
+        private boolean access(Value array, Value arrayIndex, ElementType elementType) {
+            if (!(array instanceof ArrayRef ref) || ref.type() != elementType) {
+                return false;
+            }
+            if (arrayIndex instanceof Index) {
+                stack.push(new Load(ref));
+                return true;
+            } else if (arrayIndex instanceof Scalar scalar && scalar.type() == ElementType.INT && ref.reduce()) {
+                stack.push(new ReductionRead(ref, scalar));
+                return true;
+            }
+            return false;
+        }
+
+        private boolean store(Value array, Value arrayIndex, Value value, ElementType elementType) {
+            if (!(array instanceof ArrayRef ref) || ref.type() != elementType) {
+                return false;
+            }
+            if (arrayIndex instanceof Index) {
+                Node node = toNode(value);
+                if (node == null) {
+                    return false;
+                }
+                statements.add(new Store(ref, node));
+                return true;
+            }
+            // result[k] = result[k] op expression
+            if (!(arrayIndex instanceof Scalar scalar) || !(value instanceof Binary binary) || !REDUCTIONS.contains(binary.operation())) {
+                return false;
+            }
+            ReductionRead read = new ReductionRead(ref, scalar);
+            Node operand;
+            if (read.equals(binary.left())) {
+                operand = binary.right();
+            } else if (read.equals(binary.right())) {
+                operand = binary.left();
+            } else {
+                return false;
+            }
+            statements.add(new Reduction(ref, scalar, binary.operation(), operand, nextLocal++));
+            return true;
+        }
+
+        /**
+         * Reduction variables can only be read by the reduction that updates them,
+         * and they cannot be accessed by other statements of the loop.
+         */
+        private boolean isValid() {
+            Set<ArrayRef> reductions = new HashSet<>();
+            Set<ArrayRef> accessed = new HashSet<>();
+            for (Statement statement : statements) {
+                Node value = switch (statement) {
+                    case Store store -> {
+                        accessed.add(store.array());
+                        yield store.value();
+                    }
+                    case TempStore temp -> temp.value();
+                    case Reduction reduction -> {
+                        if (!reductions.add(reduction.array())) {
+                            yield null;
+                        }
+                        yield reduction.value();
+                    }
+                };
+                if (value == null || !collectLoads(value, accessed)) {
+                    return false;
+                }
+            }
+            for (ArrayRef reduction : reductions) {
+                if (accessed.contains(reduction)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean collectLoads(Node node, Set<ArrayRef> accessed) {
+            return switch (node) {
+                case Load load -> {
+                    accessed.add(load.array());
+                    yield true;
+                }
+                case Broadcast ignored -> true;
+                case TempRef ignored -> true;
+                case ReductionRead ignored -> false;
+                case Unary unary -> collectLoads(unary.operand(), accessed);
+                case Binary binary -> collectLoads(binary.left(), accessed) && collectLoads(binary.right(), accessed);
+                case Fma fma -> collectLoads(fma.a(), accessed) && collectLoads(fma.b(), accessed) && collectLoads(fma.c(), accessed);
+            };
+        }
+
+        private void collectSegments(Statement statement, Map<Integer, Integer> segments) {
+            switch (statement) {
+                case Store store -> {
+                    addSegment(store.array(), segments);
+                    collectSegments(store.value(), segments);
+                }
+                case TempStore temp -> collectSegments(temp.value(), segments);
+                case Reduction reduction -> collectSegments(reduction.value(), segments);
+            }
+        }
+
+        private void collectSegments(Node node, Map<Integer, Integer> segments) {
+            switch (node) {
+                case Load load -> addSegment(load.array(), segments);
+                case Unary unary -> collectSegments(unary.operand(), segments);
+                case Binary binary -> {
+                    collectSegments(binary.left(), segments);
+                    collectSegments(binary.right(), segments);
+                }
+                case Fma fma -> {
+                    collectSegments(fma.a(), segments);
+                    collectSegments(fma.b(), segments);
+                    collectSegments(fma.c(), segments);
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void addSegment(ArrayRef array, Map<Integer, Integer> segments) {
+            if (array.nativeArray() && !segments.containsKey(array.slot())) {
+                segments.put(array.slot(), nextLocal++);
+            }
+        }
+    }
+
+    /**
+     * Copies the instructions of the method, counting them in the same way as
+     * {@link MethodRecorder}, and it inserts the vector loop right before the
+     * condition of the parallel loop.
+     */
+    private static class VectorizingMethodVisitor extends MethodVisitor {
+
+        private final VectorLoop loop;
+        private final ElementType type;
+        private int instructions;
+        private boolean inserted;
+
+        VectorizingMethodVisitor(MethodVisitor methodVisitor, VectorLoop loop) {
+            super(Opcodes.ASM9, methodVisitor);
+            this.loop = loop;
+            this.type = loop.type();
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            if (instructions == loop.start() && !inserted) {
+                inserted = true;
+                emitVectorLoop();
+            }
+            super.visitLabel(label);
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            instructions++;
+            super.visitInsn(opcode);
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            instructions++;
+            super.visitIntInsn(opcode, operand);
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int varIndex) {
+            instructions++;
+            super.visitVarInsn(opcode, varIndex);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String typeName) {
+            instructions++;
+            super.visitTypeInsn(opcode, typeName);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            instructions++;
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            instructions++;
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+            instructions++;
+            super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            instructions++;
+            super.visitJumpInsn(opcode, label);
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            instructions++;
+            super.visitLdcInsn(value);
+        }
+
+        @Override
+        public void visitIincInsn(int varIndex, int increment) {
+            instructions++;
+            super.visitIincInsn(varIndex, increment);
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            instructions++;
+            super.visitTableSwitchInsn(min, max, dflt, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            instructions++;
+            super.visitLookupSwitchInsn(dflt, keys, labels);
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            instructions++;
+            super.visitMultiANewArrayInsn(descriptor, numDimensions);
+        }
+
+        @Override
+        public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+            // The ranges of the annotations do not cover the vector loop
+            return null;
+        }
+
+        private void species() {
+            super.visitFieldInsn(Opcodes.GETSTATIC, type.vectorType, SPECIES, SPECIES_DESCRIPTOR);
+        }
+
+        private void nativeOrder() {
+            super.visitMethodInsn(Opcodes.INVOKESTATIC, "java/nio/ByteOrder", "nativeOrder", "()" + BYTE_ORDER_DESCRIPTOR, false);
+        }
+
+        private void broadcast(Object value) {
+            species();
+            super.visitLdcInsn(type.cast(value));
+            super.visitMethodInsn(Opcodes.INVOKESTATIC, type.vectorType, "broadcast", "(" + SPECIES_DESCRIPTOR + type.descriptor + ")" + type.vectorDescriptor(), false);
+        }
+
+        private void emitVectorLoop() {
+            final int index = loop.index();
+            species();
+            super.visitMethodInsn(Opcodes.INVOKEINTERFACE, VECTOR_PACKAGE + "VectorSpecies", "length", "()I", true);
+            super.visitVarInsn(Opcodes.ISTORE, loop.laneCount());
+
+            for (Map.Entry<Integer, Integer> segment : loop.segments().entrySet()) {
+                super.visitVarInsn(Opcodes.ALOAD, segment.getKey());
+                super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.nativeArrayType, "getSegment", "()" + SEGMENT_DESCRIPTOR, false);
+                super.visitVarInsn(Opcodes.ASTORE, segment.getValue());
+            }
+            Label skip = new Label();
+            emitOverlapChecks(skip);
+            for (Statement statement : loop.statements()) {
+                if (statement instanceof Reduction reduction) {
+                    broadcast(type.identity(reduction.operation()));
+                    super.visitVarInsn(Opcodes.ASTORE, reduction.accumulator());
+                }
+            }
+
+            // while (i <= n - lanes) { statements; i += lanes; }
+            Label head = new Label();
+            Label exit = new Label();
+            super.visitLabel(head);
+            super.visitVarInsn(Opcodes.ILOAD, index);
+            for (Instruction instruction : loop.bound()) {
+                instruction.accept(mv);
+            }
+            super.visitVarInsn(Opcodes.ILOAD, loop.laneCount());
+            super.visitInsn(Opcodes.ISUB);
+            super.visitJumpInsn(Opcodes.IF_ICMPGT, exit);
+            if (!loop.segments().isEmpty()) {
+                super.visitVarInsn(Opcodes.ILOAD, index);
+                super.visitInsn(Opcodes.I2L);
+                super.visitLdcInsn((long) type.bytes);
+                super.visitInsn(Opcodes.LMUL);
+                super.visitVarInsn(Opcodes.LSTORE, loop.offset());
+            }
+            for (Statement statement : loop.statements()) {
+                emit(statement);
+            }
+            super.visitVarInsn(Opcodes.ILOAD, index);
+            super.visitVarInsn(Opcodes.ILOAD, loop.laneCount());
+            super.visitInsn(Opcodes.IADD);
+            super.visitVarInsn(Opcodes.ISTORE, index);
+            super.visitJumpInsn(Opcodes.GOTO, head);
+            super.visitLabel(exit);
+
+            for (Statement statement : loop.statements()) {
+                if (statement instanceof Reduction reduction) {
+                    combine(reduction);
+                }
+            }
+            super.visitLabel(skip);
+        }
+
+        /**
+         * Emits a jump to {@code skip} if a native array written by the loop
+         * overlaps another native array of the loop at a different address. Java
+         * arrays never overlap, and an array passed twice has the same address.
+         */
+        private void emitOverlapChecks(Label skip) {
+            Set<Integer> written = new LinkedHashSet<>();
+            for (Statement statement : loop.statements()) {
+                switch (statement) {
+                    case Store store when store.array().nativeArray() -> written.add(store.array().slot());
+                    case Reduction reduction when reduction.array().nativeArray() -> written.add(reduction.array().slot());
+                    default -> {
+                    }
+                }
+            }
+            Set<Integer> accessed = new LinkedHashSet<>(loop.segments().keySet());
+            accessed.addAll(written);
+
+            Set<List<Integer>> checked = new HashSet<>();
+            for (int writtenSlot : written) {
+                for (int accessedSlot : accessed) {
+                    if (writtenSlot == accessedSlot || !checked.add(List.of(Math.min(writtenSlot, accessedSlot), Math.max(writtenSlot, accessedSlot)))) {
+                        continue;
+                    }
+                    // if (a.asOverlappingSlice(b).isPresent() && a.address() != b.address()) goto skip;
+                    Label next = new Label();
+                    loadSegment(writtenSlot);
+                    loadSegment(accessedSlot);
+                    super.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/lang/foreign/MemorySegment", "asOverlappingSlice", "(" + SEGMENT_DESCRIPTOR + ")Ljava/util/Optional;", true);
+                    super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/util/Optional", "isPresent", "()Z", false);
+                    super.visitJumpInsn(Opcodes.IFEQ, next);
+                    loadSegment(writtenSlot);
+                    super.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/lang/foreign/MemorySegment", "address", "()J", true);
+                    loadSegment(accessedSlot);
+                    super.visitMethodInsn(Opcodes.INVOKEINTERFACE, "java/lang/foreign/MemorySegment", "address", "()J", true);
+                    super.visitInsn(Opcodes.LCMP);
+                    super.visitJumpInsn(Opcodes.IFNE, skip);
+                    super.visitLabel(next);
+                }
+            }
+        }
+
+        private void loadSegment(int slot) {
+            Integer segment = loop.segments().get(slot);
+            if (segment != null) {
+                super.visitVarInsn(Opcodes.ALOAD, segment);
+            } else {
+                // Reduction arrays are only accessed by the original loop and the combination
+                super.visitVarInsn(Opcodes.ALOAD, slot);
+                super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.nativeArrayType, "getSegment", "()" + SEGMENT_DESCRIPTOR, false);
+            }
+        }
+
+        private void emit(Statement statement) {
+            switch (statement) {
+                case Store store -> {
+                    emit(store.value());
+                    ArrayRef array = store.array();
+                    if (array.nativeArray()) {
+                        super.visitVarInsn(Opcodes.ALOAD, loop.segments().get(array.slot()));
+                        super.visitVarInsn(Opcodes.LLOAD, loop.offset());
+                        nativeOrder();
+                        super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.vectorType, "intoMemorySegment", "(" + SEGMENT_DESCRIPTOR + "J" + BYTE_ORDER_DESCRIPTOR + ")V", false);
+                    } else {
+                        super.visitVarInsn(Opcodes.ALOAD, array.slot());
+                        super.visitVarInsn(Opcodes.ILOAD, loop.index());
+                        super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.vectorType, "intoArray", "([" + type.descriptor + "I)V", false);
+                    }
+                }
+                case TempStore temp -> {
+                    emit(temp.value());
+                    super.visitVarInsn(Opcodes.ASTORE, temp.slot());
+                }
+                case Reduction reduction -> {
+                    super.visitVarInsn(Opcodes.ALOAD, reduction.accumulator());
+                    emit(reduction.value());
+                    super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.vectorType, reduction.operation(), "(" + GENERIC_VECTOR_DESCRIPTOR + ")" + type.vectorDescriptor(), false);
+                    super.visitVarInsn(Opcodes.ASTORE, reduction.accumulator());
+                }
+            }
+        }
+
+        private void emit(Node node) {
+            switch (node) {
+                case Load load -> {
+                    ArrayRef array = load.array();
+                    species();
+                    if (array.nativeArray()) {
+                        super.visitVarInsn(Opcodes.ALOAD, loop.segments().get(array.slot()));
+                        super.visitVarInsn(Opcodes.LLOAD, loop.offset());
+                        nativeOrder();
+                        super.visitMethodInsn(Opcodes.INVOKESTATIC, type.vectorType, "fromMemorySegment", "(" + SPECIES_DESCRIPTOR + SEGMENT_DESCRIPTOR + "J" + BYTE_ORDER_DESCRIPTOR + ")" + type
+                                .vectorDescriptor(), false);
+                    } else {
+                        super.visitVarInsn(Opcodes.ALOAD, array.slot());
+                        super.visitVarInsn(Opcodes.ILOAD, loop.index());
+                        super.visitMethodInsn(Opcodes.INVOKESTATIC, type.vectorType, "fromArray", "(" + SPECIES_DESCRIPTOR + "[" + type.descriptor + "I)" + type.vectorDescriptor(), false);
+                    }
+                }
+                case Broadcast broadcast -> {
+                    species();
+                    for (Instruction instruction : broadcast.scalar().code()) {
+                        instruction.accept(mv);
+                    }
+                    super.visitMethodInsn(Opcodes.INVOKESTATIC, type.vectorType, "broadcast", "(" + SPECIES_DESCRIPTOR + type.descriptor + ")" + type.vectorDescriptor(), false);
+                }
+                case Unary unary -> {
+                    emit(unary.operand());
+                    super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.vectorType, unary.operation(), "()" + type.vectorDescriptor(), false);
+                }
+                case Binary binary -> {
+                    emit(binary.left());
+                    emit(binary.right());
+                    super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.vectorType, binary.operation(), "(" + GENERIC_VECTOR_DESCRIPTOR + ")" + type.vectorDescriptor(), false);
+                }
+                case Fma fma -> {
+                    emit(fma.a());
+                    emit(fma.b());
+                    emit(fma.c());
+                    super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.vectorType, "fma", "(" + GENERIC_VECTOR_DESCRIPTOR + GENERIC_VECTOR_DESCRIPTOR + ")" + type.vectorDescriptor(), false);
+                }
+                case TempRef temp -> super.visitVarInsn(Opcodes.ALOAD, temp.slot());
+                case ReductionRead ignored -> throw new IllegalStateException("Reduction variables cannot be vectorised");
+            }
+        }
+
+        /**
+         * Emits {@code result[k] = result[k] op accumulator.reduceLanes(OP)}.
+         */
+        private void combine(Reduction reduction) {
+            ArrayRef array = reduction.array();
+            String descriptor = String.valueOf(type.descriptor);
+            super.visitVarInsn(Opcodes.ALOAD, array.slot());
+            for (Instruction instruction : reduction.index().code()) {
+                instruction.accept(mv);
+            }
+            if (array.nativeArray()) {
+                super.visitVarInsn(Opcodes.ALOAD, array.slot());
+                for (Instruction instruction : reduction.index().code()) {
+                    instruction.accept(mv);
+                }
+                super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.nativeArrayType, "get", "(I)" + descriptor, false);
+            } else {
+                super.visitInsn(Opcodes.DUP2);
+                super.visitInsn(type.arrayLoad);
+            }
+            super.visitVarInsn(Opcodes.ALOAD, reduction.accumulator());
+            super.visitFieldInsn(Opcodes.GETSTATIC, VECTOR_PACKAGE + "VectorOperators", reduction.operation().toUpperCase(), ASSOCIATIVE_DESCRIPTOR);
+            super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.vectorType, "reduceLanes", "(" + ASSOCIATIVE_DESCRIPTOR + ")" + descriptor, false);
+            switch (reduction.operation()) {
+                case "add" -> super.visitInsn(Opcodes.IADD + type.ordinal());
+                case "mul" -> super.visitInsn(Opcodes.IMUL + type.ordinal());
+                default -> super.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", reduction.operation(), "(" + descriptor + descriptor + ")" + descriptor, false);
+            }
+            if (array.nativeArray()) {
+                super.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.nativeArrayType, "set", "(I" + descriptor + ")V", false);
+            } else {
+                super.visitInsn(type.arrayStore);
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@
  *
  */
 module tornado.api {
+    requires static jdk.incubator.vector;
+
     exports uk.ac.manchester.tornado.api;
     exports uk.ac.manchester.tornado.api.annotations;
     exports uk.ac.manchester.tornado.api.common;
@@ -29,6 +31,10 @@ module tornado.api {
 
     opens uk.ac.manchester.tornado.api;
     exports uk.ac.manchester.tornado.api.math;
+    exports uk.ac.manchester.tornado.api.primitives;
+    opens uk.ac.manchester.tornado.api.primitives;
+    exports uk.ac.manchester.tornado.api.random;
+    opens uk.ac.manchester.tornado.api.random;
     exports uk.ac.manchester.tornado.api.types.arrays;
     opens uk.ac.manchester.tornado.api.types.arrays;
     exports uk.ac.manchester.tornado.api.types.collections;
@@ -49,6 +49,14 @@ public class ImmutableTaskGraph {
         this.taskGraph.execute(executionPackage);
     }
 
+    void executeAsync(ExecutorFrame executionPackage) {
+        this.taskGraph.executeAsync(executionPackage);
+    }
+
+    void waitOn() {
+        this.taskGraph.waitOn();
+    }
+
     void warmup() {
         taskGraph.warmup();
     }
@@ -173,6 +181,34 @@ public class ImmutableTaskGraph {
         taskGraph.withoutConcurrentDevices();
     }
 
+    void withOutOfOrderExecution() {
+        taskGraph.withOutOfOrderExecution();
+    }
+
+    void withoutOutOfOrderExecution() {
+        taskGraph.withoutOutOfOrderExecution();
+    }
+
+    void withConcurrentTasks() {
+        taskGraph.withConcurrentTasks();
+    }
+
+    void withoutConcurrentTasks() {
+        taskGraph.withoutConcurrentTasks();
+    }
+
+    void withImplicitDataTransfers() {
+        taskGraph.withImplicitDataTransfers();
+    }
+
+    void withoutImplicitDataTransfers() {
+        taskGraph.withoutImplicitDataTransfers();
+    }
+
+    long getImplicitTransferSavedBytes() {
+        return taskGraph.getImplicitTransferSavedBytes();
+    }
+
     void withThreadInfo() {
         taskGraph.withThreadInfo();
     }
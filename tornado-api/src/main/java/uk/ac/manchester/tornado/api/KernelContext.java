@@ -49,7 +49,7 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: blockIdx.x * blockDim.x + threadIdx.x
      */
-    public final Integer globalIdx = 0;
+    public final Integer globalIdx;
 
     /**
      * It returns the thread identifier for the second dimension.
@@ -58,7 +58,7 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: blockIdx.y * blockDim.y + threadIdx.y
      */
-    public final Integer globalIdy = 0;
+    public final Integer globalIdy;
 
     /**
      * It returns the thread identifier for the third dimension.
@@ -67,14 +67,14 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: blockIdx.z * blockDim.z + threadIdx.z
      */
-    public final Integer globalIdz = 0;
-    public final Integer groupIdx = 0;
-    public final Integer groupIdy = 0;
-    public final Integer groupIdz = 0;
+    public final Integer globalIdz;
+    public final Integer groupIdx;
+    public final Integer groupIdy;
+    public final Integer groupIdz;
 
-    public final Integer localIdx = 0;
-    public final Integer localIdy = 0;
-    public final Integer localIdz = 0;
+    public final Integer localIdx;
+    public final Integer localIdy;
+    public final Integer localIdz;
 
     /**
      * It returns the global group size of a particular dimension (e.g. X, Y, Z).
@@ -83,9 +83,9 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: gridDim * blockDim
      */
-    public final Integer globalGroupSizeX = 0;
-    public final Integer globalGroupSizeY = 0;
-    public final Integer globalGroupSizeZ = 0;
+    public final Integer globalGroupSizeX;
+    public final Integer globalGroupSizeY;
+    public final Integer globalGroupSizeZ;
 
     /**
      * It returns the global group size of a particular dimension (e.g. X, Y, Z).
@@ -94,15 +94,36 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: blockDim
      */
-    public final Integer localGroupSizeX = 0;
-    public final Integer localGroupSizeY = 0;
-    public final Integer localGroupSizeZ = 0;
+    public final Integer localGroupSizeX;
+    public final Integer localGroupSizeY;
+    public final Integer localGroupSizeZ;
 
     /**
      * Class constructor specifying a particular {@link WorkerGrid} object.
      */
     public KernelContext() {
+        this(new int[3], new int[3], new int[3], new int[3], new int[3]);
+    }
 
+    /**
+     * Class constructor for a work-item of the {@link KernelEmulator}.
+     */
+    KernelContext(int[] globalId, int[] groupId, int[] localId, int[] globalGroupSize, int[] localGroupSize) {
+        this.globalIdx = globalId[0];
+        this.globalIdy = globalId[1];
+        this.globalIdz = globalId[2];
+        this.groupIdx = groupId[0];
+        this.groupIdy = groupId[1];
+        this.groupIdz = groupId[2];
+        this.localIdx = localId[0];
+        this.localIdy = localId[1];
+        this.localIdz = localId[2];
+        this.globalGroupSizeX = globalGroupSize[0];
+        this.globalGroupSizeY = globalGroupSize[1];
+        this.globalGroupSizeZ = globalGroupSize[2];
+        this.localGroupSizeX = localGroupSize[0];
+        this.localGroupSizeY = localGroupSize[1];
+        this.localGroupSizeZ = localGroupSize[2];
     }
 
     /**
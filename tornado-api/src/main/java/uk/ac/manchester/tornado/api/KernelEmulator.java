@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+
+/**
+ * Runs kernels written with the {@link KernelContext} API in Java, across the
+ * work-groups and work-items of a {@link WorkerGrid}.
+ *
+ * <p>
+ * The work-groups are distributed between a number of worker threads. Each
+ * work-item of a work-group runs in a virtual thread, and the work-items of a
+ * group are synchronised with a {@link Phaser} in
+ * {@link KernelContext#localBarrier()} and
+ * {@link KernelContext#globalBarrier()}. As in OpenCL, barriers only
+ * synchronise the work-items of the same work-group. The arrays allocated in
+ * local memory are shared by the work-items of a group, so the work-items must
+ * allocate them in the same order.
+ * </p>
+ *
+ * <p>
+ * The emulator is used to run kernels on the CPU without an accelerator, and to
+ * check the results of kernels tuned for a device:
+ * </p>
+ *
+ * <code>
+ * new KernelEmulator().execute(workerGrid, context -> reduce(context, input, output));
+ * </code>
+ */
+public final class KernelEmulator {
+
+    /**
+     * Size of the work-groups in the first dimension when the grid does not set
+     * the local work.
+     */
+    private static final int DEFAULT_LOCAL_SIZE = 64;
+
+    /**
+     * Maximum number of parties of a {@link Phaser}.
+     */
+    private static final int MAX_LOCAL_SIZE = 65535;
+
+    private final int parallelism;
+
+    /**
+     * Creates an emulator with a worker thread per available processor.
+     */
+    public KernelEmulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an emulator.
+     *
+     * @param parallelism
+     *     The maximum number of work-groups that run at the same time.
+     */
+    public KernelEmulator(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    private static int[] toIntArray(long[] values, String name) {
+        int[] result = new int[3];
+        for (int i = 0; i < values.length && i < 3; i++) {
+            if (values[i] < 1 || values[i] > Integer.MAX_VALUE) {
+                throw new TornadoRuntimeException("[ERROR] Invalid " + name + " for the kernel emulator: " + values[i]);
+            }
+            result[i] = (int) values[i];
+        }
+        for (int i = values.length; i < 3; i++) {
+            result[i] = 1;
+        }
+        return result;
+    }
+
+    private static int[] defaultLocalWork(int[] globalWork) {
+        int localX = Math.min(DEFAULT_LOCAL_SIZE, globalWork[0]);
+        while (globalWork[0] % localX != 0) {
+            localX--;
+        }
+        return new int[] { localX, 1, 1 };
+    }
+
+    /**
+     * Runs a kernel across all the work-items of a grid. The method returns when
+     * all the work-items have finished.
+     *
+     * @param grid
+     *     The grid of the kernel. If the grid does not set the local work, the
+     *     emulator uses one-dimensional work-groups.
+     * @param kernel
+     *     The kernel, which is invoked once per work-item with the
+     *     {@link KernelContext} of the work-item.
+     * @throws TornadoRuntimeException
+     *     if the global work is not a multiple of the local work.
+     */
+    public void execute(WorkerGrid grid, Consumer<KernelContext> kernel) {
+        final int[] globalWork = toIntArray(grid.getGlobalWork(), "global work");
+        final int[] localWork = (grid.getLocalWork() == null) ? defaultLocalWork(globalWork) : toIntArray(grid.getLocalWork(), "local work");
+        final int[] globalOffset = new int[3];
+        if (grid.getGlobalOffset() != null) {
+            for (int i = 0; i < grid.getGlobalOffset().length && i < 3; i++) {
+                globalOffset[i] = (int) grid.getGlobalOffset()[i];
+            }
+        }
+
+        final int[] numGroups = new int[3];
+        for (int i = 0; i < 3; i++) {
+            if (globalWork[i] % localWork[i] != 0) {
+                throw new TornadoRuntimeException("[ERROR] The global work " + globalWork[i] + " is not a multiple of the local work " + localWork[i] + " in dimension " + i);
+            }
+            numGroups[i] = globalWork[i] / localWork[i];
+        }
+        long localSize = (long) localWork[0] * localWork[1] * localWork[2];
+        if (localSize > MAX_LOCAL_SIZE) {
+            throw new TornadoRuntimeException("[ERROR] The local work of the kernel emulator cannot exceed " + MAX_LOCAL_SIZE + " work-items: " + localSize);
+        }
+
+        final long totalGroups = (long) numGroups[0] * numGroups[1] * numGroups[2];
+        final AtomicLong nextGroup = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Runnable worker = () -> {
+            long group;
+            while (failure.get() == null && (group = nextGroup.getAndIncrement()) < totalGroups) {
+                int[] groupId = { (int) (group % numGroups[0]), (int) ((group / numGroups[0]) % numGroups[1]), (int) (group / ((long) numGroups[0] * numGroups[1])) };
+                new WorkGroup(groupId, globalOffset, globalWork, localWork).run(kernel, failure);
+            }
+        };
+
+        int numWorkers = (int) Math.min(parallelism, totalGroups);
+        List<Thread> workers = new ArrayList<>(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            workers.add(Thread.ofPlatform().name("tornado-emulator-" + i).daemon().start(worker));
+        }
+        join(workers);
+
+        Throwable throwable = failure.get();
+        if (throwable instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (throwable instanceof Error error) {
+            throw error;
+        } else if (throwable instanceof Exception exception) {
+            throw new TornadoRuntimeException(exception);
+        }
+    }
+
+    private static void join(List<Thread> threads) {
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TornadoRuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * State shared by the work-items of a work-group: the barrier and the arrays
+     * in local memory.
+     */
+    private static final class WorkGroup {
+
+        private final int[] groupId;
+        private final int[] globalOffset;
+        private final int[] globalWork;
+        private final int[] localWork;
+        private final Phaser barrier;
+        private final List<Object> localArrays;
+
+        WorkGroup(int[] groupId, int[] globalOffset, int[] globalWork, int[] localWork) {
+            this.groupId = groupId;
+            this.globalOffset = globalOffset;
+            this.globalWork = globalWork;
+            this.localWork = localWork;
+            this.barrier = new Phaser(localWork[0] * localWork[1] * localWork[2]);
+            this.localArrays = new ArrayList<>();
+        }
+
+        void run(Consumer<KernelContext> kernel, AtomicReference<Throwable> failure) {
+            List<Thread> workItems = new ArrayList<>(barrier.getRegisteredParties());
+            for (int z = 0; z < localWork[2]; z++) {
+                for (int y = 0; y < localWork[1]; y++) {
+                    for (int x = 0; x < localWork[0]; x++) {
+                        int[] localId = { x, y, z };
+                        int[] globalId = new int[3];
+                        for (int i = 0; i < 3; i++) {
+                            globalId[i] = globalOffset[i] + groupId[i] * localWork[i] + localId[i];
+                        }
+                        WorkItemContext context = new WorkItemContext(this, globalId, groupId, localId, globalWork, localWork);
+                        workItems.add(Thread.ofVirtual().start(() -> {
+                            try {
+                                kernel.accept(context);
+                            } catch (Throwable t) {
+                                failure.compareAndSet(null, t);
+                            } finally {
+                                // Work-items that finish no longer take part in the barriers of the group
+                                barrier.arriveAndDeregister();
+                            }
+                        }));
+                    }
+                }
+            }
+            join(workItems);
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized <T> T getLocalArray(int index, IntFunction<T> allocator, int size) {
+            if (index == localArrays.size()) {
+                localArrays.add(allocator.apply(size));
+            }
+            return (T) localArrays.get(index);
+        }
+    }
+
+    /**
+     * Context of a work-item, which synchronises with the other work-items of its
+     * group.
+     */
+    private static final class WorkItemContext extends KernelContext {
+
+        private final WorkGroup group;
+        private int allocations;
+
+        WorkItemContext(WorkGroup group, int[] globalId, int[] groupId, int[] localId, int[] globalGroupSize, int[] localGroupSize) {
+            super(globalId, groupId, localId, globalGroupSize, localGroupSize);
+            this.group = group;
+        }
+
+        @Override
+        public void localBarrier() {
+            group.barrier.arriveAndAwaitAdvance();
+        }
+
+        @Override
+        public void globalBarrier() {
+            group.barrier.arriveAndAwaitAdvance();
+        }
+
+        @Override
+        public int[] allocateIntLocalArray(int size) {
+            return group.getLocalArray(allocations++, int[]::new, size);
+        }
+
+        @Override
+        public long[] allocateLongLocalArray(int size) {
+            return group.getLocalArray(allocations++, long[]::new, size);
+        }
+
+        @Override
+        public float[] allocateFloatLocalArray(int size) {
+            return group.getLocalArray(allocations++, float[]::new, size);
+        }
+
+        @Override
+        public double[] allocateDoubleLocalArray(int size) {
+            return group.getLocalArray(allocations++, double[]::new, size);
+        }
+    }
+}
@@ -43,8 +43,15 @@ import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task8;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task9;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
+import uk.ac.manchester.tornado.api.primitives.Histogram;
+import uk.ac.manchester.tornado.api.primitives.Scan;
+import uk.ac.manchester.tornado.api.primitives.Sort;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 import uk.ac.manchester.tornado.api.runtime.TornadoAPIProvider;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 
 /**
  * Tornado Task Graph API.
@@ -60,6 +67,16 @@ public class TaskGraph implements TaskGraphInterface {
     private static final String ERROR_TASK_NAME_DUPLICATION = //
             "[TornadoVM ERROR]. There are more than 1 tasks with the same task-name. Use different a different task name for each task within " + "a TaskGraph.";
 
+    private static final String SCAN_REDUCE_SUFFIX = "_reduce";
+    private static final String SCAN_OFFSETS_SUFFIX = "_offsets";
+    private static final String SORT_HISTOGRAM_SUFFIX = "_histogram";
+    private static final String SORT_OFFSETS_SUFFIX = "_offsets";
+    private static final String SORT_SCATTER_SUFFIX = "_scatter";
+    private static final String SORT_BITONIC_SUFFIX = "_bitonic";
+    private static final String HISTOGRAM_PRIVATE_SUFFIX = "_private";
+    private static final String HISTOGRAM_COPY_SUFFIX = "_copy";
+    private static final String HISTOGRAM_SORT_SUFFIX = "_sort";
+
     private final String taskGraphName;
     protected TornadoTaskGraphInterface taskGraphImpl;
     protected HashSet<String> taskNames;
@@ -667,6 +684,481 @@ public class TaskGraph implements TaskGraphInterface {
         return this;
     }
 
+    /**
+     * Adds the tasks that compute the inclusive prefix sum of an array:
+     * {@code output[i] = input[0] + ... + input[i]}.
+     *
+     * <p>
+     * The scan runs in three tasks with the reduce-then-scan method of
+     * {@link Scan}: {@code id + "_reduce"}, {@code id + "_offsets"} and
+     * {@code id}. The tasks use a {@link KernelContext} and have a default worker
+     * grid, which a {@link GridScheduler} of the execution plan can override for
+     * any of them. The input and the output must be transferred by the task-graph
+     * as the arguments of any other task. The same tasks are used for
+     * {@code LongArray}, {@code FloatArray} and {@code DoubleArray}, and the
+     * exclusive variants only differ in the last task.
+     * </p>
+     *
+     * @param id
+     *     Task-id of the last task of the scan
+     * @param input
+     *     Input array
+     * @param output
+     *     Output array, which can be the input array
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph inclusiveScan(String id, IntArray input, IntArray output) {
+        return scan(id, input, output, Scan::inclusiveScanBlocks);
+    }
+
+    /**
+     * Exclusive prefix sum: {@code output[0] = 0} and
+     * {@code output[i] = input[0] + ... + input[i - 1]}. See
+     * {@link #inclusiveScan(String, IntArray, IntArray)}.
+     */
+    public TaskGraph exclusiveScan(String id, IntArray input, IntArray output) {
+        return scan(id, input, output, Scan::exclusiveScanBlocks);
+    }
+
+    /**
+     * See {@link #inclusiveScan(String, IntArray, IntArray)}.
+     */
+    public TaskGraph inclusiveScan(String id, LongArray input, LongArray output) {
+        return scan(id, input, output, Scan::inclusiveScanBlocks);
+    }
+
+    /**
+     * See {@link #exclusiveScan(String, IntArray, IntArray)}.
+     */
+    public TaskGraph exclusiveScan(String id, LongArray input, LongArray output) {
+        return scan(id, input, output, Scan::exclusiveScanBlocks);
+    }
+
+    /**
+     * See {@link #inclusiveScan(String, IntArray, IntArray)}.
+     */
+    public TaskGraph inclusiveScan(String id, FloatArray input, FloatArray output) {
+        return scan(id, input, output, Scan::inclusiveScanBlocks);
+    }
+
+    /**
+     * See {@link #exclusiveScan(String, IntArray, IntArray)}.
+     */
+    public TaskGraph exclusiveScan(String id, FloatArray input, FloatArray output) {
+        return scan(id, input, output, Scan::exclusiveScanBlocks);
+    }
+
+    /**
+     * See {@link #inclusiveScan(String, IntArray, IntArray)}.
+     */
+    public TaskGraph inclusiveScan(String id, DoubleArray input, DoubleArray output) {
+        return scan(id, input, output, Scan::inclusiveScanBlocks);
+    }
+
+    /**
+     * See {@link #exclusiveScan(String, IntArray, IntArray)}.
+     */
+    public TaskGraph exclusiveScan(String id, DoubleArray input, DoubleArray output) {
+        return scan(id, input, output, Scan::exclusiveScanBlocks);
+    }
+
+    private TaskGraph scan(String id, IntArray input, IntArray output, Task5<KernelContext, IntArray, IntArray, IntArray, Integer> scanBlocks) {
+        Scan.checkSizes(input.getSize(), output.getSize());
+        IntArray blockSums = new IntArray(Scan.numBlocks(input.getSize()));
+        int blockSize = Scan.blockSize(input.getSize());
+        KernelContext context = new KernelContext();
+        task(id + SCAN_REDUCE_SUFFIX, Scan::reduceBlocks, context, input, blockSums, blockSize);
+        task(id + SCAN_OFFSETS_SUFFIX, Scan::scanBlockSums, context, blockSums);
+        task(id, scanBlocks, context, input, output, blockSums, blockSize);
+        return withScanWorkerGrids(id, blockSums.getSize());
+    }
+
+    private TaskGraph scan(String id, LongArray input, LongArray output, Task5<KernelContext, LongArray, LongArray, LongArray, Integer> scanBlocks) {
+        Scan.checkSizes(input.getSize(), output.getSize());
+        LongArray blockSums = new LongArray(Scan.numBlocks(input.getSize()));
+        int blockSize = Scan.blockSize(input.getSize());
+        KernelContext context = new KernelContext();
+        task(id + SCAN_REDUCE_SUFFIX, Scan::reduceBlocks, context, input, blockSums, blockSize);
+        task(id + SCAN_OFFSETS_SUFFIX, Scan::scanBlockSums, context, blockSums);
+        task(id, scanBlocks, context, input, output, blockSums, blockSize);
+        return withScanWorkerGrids(id, blockSums.getSize());
+    }
+
+    private TaskGraph scan(String id, FloatArray input, FloatArray output, Task5<KernelContext, FloatArray, FloatArray, FloatArray, Integer> scanBlocks) {
+        Scan.checkSizes(input.getSize(), output.getSize());
+        FloatArray blockSums = new FloatArray(Scan.numBlocks(input.getSize()));
+        int blockSize = Scan.blockSize(input.getSize());
+        KernelContext context = new KernelContext();
+        task(id + SCAN_REDUCE_SUFFIX, Scan::reduceBlocks, context, input, blockSums, blockSize);
+        task(id + SCAN_OFFSETS_SUFFIX, Scan::scanBlockSums, context, blockSums);
+        task(id, scanBlocks, context, input, output, blockSums, blockSize);
+        return withScanWorkerGrids(id, blockSums.getSize());
+    }
+
+    private TaskGraph scan(String id, DoubleArray input, DoubleArray output, Task5<KernelContext, DoubleArray, DoubleArray, DoubleArray, Integer> scanBlocks) {
+        Scan.checkSizes(input.getSize(), output.getSize());
+        DoubleArray blockSums = new DoubleArray(Scan.numBlocks(input.getSize()));
+        int blockSize = Scan.blockSize(input.getSize());
+        KernelContext context = new KernelContext();
+        task(id + SCAN_REDUCE_SUFFIX, Scan::reduceBlocks, context, input, blockSums, blockSize);
+        task(id + SCAN_OFFSETS_SUFFIX, Scan::scanBlockSums, context, blockSums);
+        task(id, scanBlocks, context, input, output, blockSums, blockSize);
+        return withScanWorkerGrids(id, blockSums.getSize());
+    }
+
+    private TaskGraph withScanWorkerGrids(String id, int numBlocks) {
+        taskGraphImpl.withDefaultWorkerGrid(id + SCAN_REDUCE_SUFFIX, scanWorkerGrid(numBlocks));
+        taskGraphImpl.withDefaultWorkerGrid(id + SCAN_OFFSETS_SUFFIX, scanWorkerGrid(1));
+        taskGraphImpl.withDefaultWorkerGrid(id, scanWorkerGrid(numBlocks));
+        return this;
+    }
+
+    private static WorkerGrid scanWorkerGrid(int numWorkGroups) {
+        WorkerGrid workerGrid = new WorkerGrid1D(numWorkGroups * Scan.WORK_GROUP_SIZE);
+        workerGrid.setLocalWork(Scan.WORK_GROUP_SIZE, 1, 1);
+        return workerGrid;
+    }
+
+    /**
+     * Adds the tasks that sort an array in ascending order on the device.
+     *
+     * <p>
+     * The array is sorted with the radix sort of {@link Sort}. Each pass runs in
+     * the tasks {@code id + "_histogram" + pass}, the exclusive scan
+     * {@code id + "_offsets" + pass}, and {@code id + "_scatter" + pass}. The
+     * last task of the sort is named {@code id}. The array must be transferred by
+     * the task-graph as the arguments of any other task.
+     * </p>
+     *
+     * @param id
+     *     Task-id of the last task of the sort
+     * @param keys
+     *     Array to sort
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph sort(String id, IntArray keys) {
+        IntArray buffer = new IntArray(keys.getSize());
+        IntArray counts = new IntArray(Sort.RADIX * Sort.numBlocks(keys.getSize()));
+        int blockSize = Sort.blockSize(keys.getSize());
+        for (int pass = 0; pass < Sort.RADIX_PASSES; pass++) {
+            IntArray source = (pass % 2 == 0) ? keys : buffer;
+            IntArray destination = (pass % 2 == 0) ? buffer : keys;
+            int shift = pass * Sort.RADIX_BITS;
+            task(id + SORT_HISTOGRAM_SUFFIX + pass, Sort::radixHistogram, source, counts, shift, blockSize);
+            exclusiveScan(id + SORT_OFFSETS_SUFFIX + pass, counts, counts);
+            task(radixScatterTaskName(id, pass), Sort::radixScatter, source, destination, counts, shift, blockSize);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that sort an array of keys in ascending order on the device,
+     * and apply the same permutation to an array of values. The sort is stable.
+     * See {@link #sort(String, IntArray)}.
+     *
+     * @param id
+     *     Task-id of the last task of the sort
+     * @param keys
+     *     Array to sort
+     * @param values
+     *     Values of the keys, for example their original indices
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph sortByKey(String id, IntArray keys, IntArray values) {
+        Sort.checkValues(keys.getSize(), values.getSize());
+        IntArray buffer = new IntArray(keys.getSize());
+        IntArray valuesBuffer = new IntArray(values.getSize());
+        IntArray counts = new IntArray(Sort.RADIX * Sort.numBlocks(keys.getSize()));
+        int blockSize = Sort.blockSize(keys.getSize());
+        for (int pass = 0; pass < Sort.RADIX_PASSES; pass++) {
+            IntArray source = (pass % 2 == 0) ? keys : buffer;
+            IntArray destination = (pass % 2 == 0) ? buffer : keys;
+            IntArray sourceValues = (pass % 2 == 0) ? values : valuesBuffer;
+            IntArray destinationValues = (pass % 2 == 0) ? valuesBuffer : values;
+            int shift = pass * Sort.RADIX_BITS;
+            task(id + SORT_HISTOGRAM_SUFFIX + pass, Sort::radixHistogram, source, counts, shift, blockSize);
+            exclusiveScan(id + SORT_OFFSETS_SUFFIX + pass, counts, counts);
+            task(radixScatterTaskName(id, pass), Sort::radixScatter, source, destination, sourceValues, destinationValues, counts, shift, blockSize);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that sort each segment of an array in ascending order on the
+     * device. The segments are sorted with the bitonic sorting network of
+     * {@link Sort}, which suits small segments: a segment of {@code 2^m}
+     * elements needs {@code m * (m + 1) / 2} tasks. The tasks are named
+     * {@code id + "_bitonic" + step}, and the last one is named {@code id}.
+     *
+     * @param id
+     *     Task-id of the last task of the sort
+     * @param keys
+     *     Array with the segments to sort
+     * @param segmentSize
+     *     Number of elements of each segment: a power of two that divides the
+     *     size of the array
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph segmentedSort(String id, IntArray keys, int segmentSize) {
+        Sort.checkSegments(keys.getSize(), segmentSize);
+        int step = 0;
+        for (int k = 2; k <= segmentSize; k <<= 1) {
+            for (int j = k >> 1; j > 0; j >>= 1) {
+                task(bitonicTaskName(id, step++, k, j, segmentSize), Sort::bitonicStep, keys, segmentSize, k, j);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that sort each segment of an array of keys in ascending order
+     * on the device, and apply the same permutation to an array of values. See
+     * {@link #segmentedSort(String, IntArray, int)}. The bitonic sort is not
+     * stable.
+     *
+     * @param id
+     *     Task-id of the last task of the sort
+     * @param keys
+     *     Array with the segments to sort
+     * @param values
+     *     Values of the keys
+     * @param segmentSize
+     *     Number of elements of each segment: a power of two that divides the
+     *     size of the array
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph segmentedSortByKey(String id, IntArray keys, IntArray values, int segmentSize) {
+        Sort.checkValues(keys.getSize(), values.getSize());
+        Sort.checkSegments(keys.getSize(), segmentSize);
+        int step = 0;
+        for (int k = 2; k <= segmentSize; k <<= 1) {
+            for (int j = k >> 1; j > 0; j >>= 1) {
+                task(bitonicTaskName(id, step++, k, j, segmentSize), Sort::bitonicStep, keys, values, segmentSize, k, j);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that sort an array in ascending order on the device.
+     * See {@link #sort(String, IntArray)}.
+     *
+     * @param id
+     *     Task-id of the last task of the sort
+     * @param keys
+     *     Array to sort
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph sort(String id, FloatArray keys) {
+        FloatArray buffer = new FloatArray(keys.getSize());
+        IntArray counts = new IntArray(Sort.RADIX * Sort.numBlocks(keys.getSize()));
+        int blockSize = Sort.blockSize(keys.getSize());
+        for (int pass = 0; pass < Sort.RADIX_PASSES; pass++) {
+            FloatArray source = (pass % 2 == 0) ? keys : buffer;
+            FloatArray destination = (pass % 2 == 0) ? buffer : keys;
+            int shift = pass * Sort.RADIX_BITS;
+            task(id + SORT_HISTOGRAM_SUFFIX + pass, Sort::radixHistogram, source, counts, shift, blockSize);
+            exclusiveScan(id + SORT_OFFSETS_SUFFIX + pass, counts, counts);
+            task(radixScatterTaskName(id, pass), Sort::radixScatter, source, destination, counts, shift, blockSize);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that sort an array of keys in ascending order on the device,
+     * and apply the same permutation to an array of values. The sort is stable.
+     * See {@link #sort(String, IntArray)}.
+     *
+     * @param id
+     *     Task-id of the last task of the sort
+     * @param keys
+     *     Array to sort
+     * @param values
+     *     Values of the keys, for example their original indices
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph sortByKey(String id, FloatArray keys, IntArray values) {
+        Sort.checkValues(keys.getSize(), values.getSize());
+        FloatArray buffer = new FloatArray(keys.getSize());
+        IntArray valuesBuffer = new IntArray(values.getSize());
+        IntArray counts = new IntArray(Sort.RADIX * Sort.numBlocks(keys.getSize()));
+        int blockSize = Sort.blockSize(keys.getSize());
+        for (int pass = 0; pass < Sort.RADIX_PASSES; pass++) {
+            FloatArray source = (pass % 2 == 0) ? keys : buffer;
+            FloatArray destination = (pass % 2 == 0) ? buffer : keys;
+            IntArray sourceValues = (pass % 2 == 0) ? values : valuesBuffer;
+            IntArray destinationValues = (pass % 2 == 0) ? valuesBuffer : values;
+            int shift = pass * Sort.RADIX_BITS;
+            task(id + SORT_HISTOGRAM_SUFFIX + pass, Sort::radixHistogram, source, counts, shift, blockSize);
+            exclusiveScan(id + SORT_OFFSETS_SUFFIX + pass, counts, counts);
+            task(radixScatterTaskName(id, pass), Sort::radixScatter, source, destination, sourceValues, destinationValues, counts, shift, blockSize);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that sort each segment of an array in ascending order on the
+     * device.
+     * See {@link #segmentedSort(String, IntArray, int)}.
+     *
+     * @param id
+     *     Task-id of the last task of the sort
+     * @param keys
+     *     Array with the segments to sort
+     * @param segmentSize
+     *     Number of elements of each segment: a power of two that divides the
+     *     size of the array
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph segmentedSort(String id, FloatArray keys, int segmentSize) {
+        Sort.checkSegments(keys.getSize(), segmentSize);
+        int step = 0;
+        for (int k = 2; k <= segmentSize; k <<= 1) {
+            for (int j = k >> 1; j > 0; j >>= 1) {
+                task(bitonicTaskName(id, step++, k, j, segmentSize), Sort::bitonicStep, keys, segmentSize, k, j);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that sort each segment of an array of keys in ascending order
+     * on the device, and apply the same permutation to an array of values. See
+     * {@link #segmentedSort(String, IntArray, int)}. The bitonic sort is not
+     * stable.
+     *
+     * @param id
+     *     Task-id of the last task of the sort
+     * @param keys
+     *     Array with the segments to sort
+     * @param values
+     *     Values of the keys
+     * @param segmentSize
+     *     Number of elements of each segment: a power of two that divides the
+     *     size of the array
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph segmentedSortByKey(String id, FloatArray keys, IntArray values, int segmentSize) {
+        Sort.checkValues(keys.getSize(), values.getSize());
+        Sort.checkSegments(keys.getSize(), segmentSize);
+        int step = 0;
+        for (int k = 2; k <= segmentSize; k <<= 1) {
+            for (int j = k >> 1; j > 0; j >>= 1) {
+                task(bitonicTaskName(id, step++, k, j, segmentSize), Sort::bitonicStep, keys, values, segmentSize, k, j);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that count the elements of each bin of an array on the
+     * device. The bins are the integers in {@code [0, bins.getSize())}, and the
+     * elements outside that range are not counted. With up to
+     * {@link Histogram#MAX_PRIVATE_BINS} bins, each thread counts a block of the
+     * input into its own copy of the bins, and a second task merges the copies
+     * with one thread per bin. With more bins, a copy of the input is sorted with
+     * {@link #sortByKey(String, IntArray, IntArray)} and each bin is counted with
+     * a binary search.
+     *
+     * @param id
+     *     Task-id of the last task of the histogram
+     * @param input
+     *     Array with the bin of each element
+     * @param bins
+     *     Array with the count of each bin
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph histogram(String id, IntArray input, IntArray bins) {
+        Histogram.checkBins(bins.getSize());
+        int numBins = bins.getSize();
+        if (Histogram.usesPrivateBins(numBins)) {
+            IntArray privateBins = new IntArray(numBins * Histogram.numBlocks(input.getSize(), numBins));
+            task(id + HISTOGRAM_PRIVATE_SUFFIX, Histogram::privateHistograms, input, privateBins, numBins, Histogram.blockSize(input.getSize(), numBins));
+            task(id, Histogram::mergeBins, privateBins, bins);
+        } else {
+            IntArray sortedKeys = new IntArray(input.getSize());
+            IntArray indices = new IntArray(input.getSize());
+            task(id + HISTOGRAM_COPY_SUFFIX, Histogram::copyWithIndices, input, sortedKeys, indices);
+            sortByKey(id + HISTOGRAM_SORT_SUFFIX, sortedKeys, indices);
+            task(id, Histogram::countSorted, sortedKeys, bins);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that add the values of each key on the device, as a group-by
+     * of the keys. The keys are the integers in {@code [0, sums.getSize())}, and
+     * the elements with other keys are not added. The tasks are the ones of
+     * {@link #histogram(String, IntArray, IntArray)}.
+     *
+     * @param id
+     *     Task-id of the last task of the group-by
+     * @param keys
+     *     Array with the key of each value
+     * @param values
+     *     Array with the values to add
+     * @param sums
+     *     Array with the sum of each key
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph groupBySum(String id, IntArray keys, IntArray values, IntArray sums) {
+        Histogram.checkValues(keys.getSize(), values.getSize());
+        Histogram.checkBins(sums.getSize());
+        int numBins = sums.getSize();
+        if (Histogram.usesPrivateBins(numBins)) {
+            IntArray privateBins = new IntArray(numBins * Histogram.numBlocks(keys.getSize(), numBins));
+            task(id + HISTOGRAM_PRIVATE_SUFFIX, Histogram::privateSums, keys, values, privateBins, numBins, Histogram.blockSize(keys.getSize(), numBins));
+            task(id, Histogram::mergeBins, privateBins, sums);
+        } else {
+            IntArray sortedKeys = new IntArray(keys.getSize());
+            IntArray indices = new IntArray(keys.getSize());
+            task(id + HISTOGRAM_COPY_SUFFIX, Histogram::copyWithIndices, keys, sortedKeys, indices);
+            sortByKey(id + HISTOGRAM_SORT_SUFFIX, sortedKeys, indices);
+            task(id, Histogram::sumSorted, sortedKeys, indices, values, sums);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the tasks that add the values of each key on the device, as a group-by
+     * of the keys. See {@link #groupBySum(String, IntArray, IntArray, IntArray)}.
+     *
+     * @param id
+     *     Task-id of the last task of the group-by
+     * @param keys
+     *     Array with the key of each value
+     * @param values
+     *     Array with the values to add
+     * @param sums
+     *     Array with the sum of each key
+     * @return {@link TaskGraph}
+     */
+    public TaskGraph groupBySum(String id, IntArray keys, FloatArray values, FloatArray sums) {
+        Histogram.checkValues(keys.getSize(), values.getSize());
+        Histogram.checkBins(sums.getSize());
+        int numBins = sums.getSize();
+        if (Histogram.usesPrivateBins(numBins)) {
+            FloatArray privateBins = new FloatArray(numBins * Histogram.numBlocks(keys.getSize(), numBins));
+            task(id + HISTOGRAM_PRIVATE_SUFFIX, Histogram::privateSums, keys, values, privateBins, numBins, Histogram.blockSize(keys.getSize(), numBins));
+            task(id, Histogram::mergeBins, privateBins, sums);
+        } else {
+            IntArray sortedKeys = new IntArray(keys.getSize());
+            IntArray indices = new IntArray(keys.getSize());
+            task(id + HISTOGRAM_COPY_SUFFIX, Histogram::copyWithIndices, keys, sortedKeys, indices);
+            sortByKey(id + HISTOGRAM_SORT_SUFFIX, sortedKeys, indices);
+            task(id, Histogram::sumSorted, sortedKeys, indices, values, sums);
+        }
+        return this;
+    }
+
+    private static String radixScatterTaskName(String id, int pass) {
+        return (pass == Sort.RADIX_PASSES - 1) ? id : id + SORT_SCATTER_SUFFIX + pass;
+    }
+
+    private static String bitonicTaskName(String id, int step, int k, int j, int segmentSize) {
+        return (k == segmentSize && j == 1) ? id : id + SORT_BITONIC_SUFFIX + step;
+    }
+
     /**
      * Obtains the task-schedule name that was assigned.
      *
@@ -707,7 +1199,7 @@ public class TaskGraph implements TaskGraphInterface {
 
     /**
      * Tag a set of objects (Java objects) to be transferred from the device to the
-     * host after the execution completes. There are two modes:
+     * host after the execution completes. There are three modes:
      *
      * <p>
      * {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#EVERY_EXECUTION}:
@@ -721,6 +1213,13 @@ public class TaskGraph implements TaskGraphInterface {
      * `transferToHost` function. This is used for optimization of data transfers.
      * </p>
      *
+     * <p>
+     * {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#LAZY}: data
+     * stay on the device and native arrays are marked as device-newer. The
+     * runtime copies the data when the host accesses the array (see
+     * {@link uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray#syncFromDevice(int, int)}).
+     * </p>
+     *
      * @param mode
      *     A mode from
      *     {@link uk.ac.manchester.tornado.api.enums.DataTransferMode}
@@ -735,6 +1234,46 @@ public class TaskGraph implements TaskGraphInterface {
         return this;
     }
 
+    /**
+     * Tag a set of objects (Java objects) to stay resident on the device after
+     * the execution of the task-graph. Task-graphs from other execution plans
+     * that run on the same device can use the device buffers of these objects
+     * through {@link #consumeFromDevice(Object...)}, without copying the data
+     * from the host again (e.g., model weights shared by several plans).
+     *
+     * <p>
+     * The buffers are released when the last execution plan that uses them
+     * frees its device memory.
+     * </p>
+     *
+     * @param objects
+     *     List of Java objects (usually arrays) to keep on the device.
+     * @return {@link TaskGraph}
+     */
+    @Override
+    public TaskGraph persistOnDevice(Object... objects) {
+        taskGraphImpl.persistOnDevice(objects);
+        return this;
+    }
+
+    /**
+     * Tag a set of objects (Java objects) that were persisted on the device by a
+     * task-graph of another execution plan. The task-graph uses the existing
+     * device buffers instead of copying the data from the host. If an object is
+     * not resident on the device used by this task-graph, it is copied from the
+     * host in the first execution, as with
+     * {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#FIRST_EXECUTION}.
+     *
+     * @param objects
+     *     List of Java objects (usually arrays) to take from the device.
+     * @return {@link TaskGraph}
+     */
+    @Override
+    public TaskGraph consumeFromDevice(Object... objects) {
+        taskGraphImpl.consumeFromDevice(objects);
+        return this;
+    }
+
     /**
      * Function that closes a task-graph definition and creates an immutable
      * task-graph ready for execution.
@@ -777,6 +1316,14 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.execute(executionPackage).waitOn();
     }
 
+    void executeAsync(ExecutorFrame executionPackage) {
+        taskGraphImpl.execute(executionPackage);
+    }
+
+    void waitOn() {
+        taskGraphImpl.waitOn();
+    }
+
     void warmup() {
         taskGraphImpl.warmup();
     }
@@ -894,6 +1441,34 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.withoutConcurrentDevices();
     }
 
+    void withOutOfOrderExecution() {
+        taskGraphImpl.withOutOfOrderExecution();
+    }
+
+    void withoutOutOfOrderExecution() {
+        taskGraphImpl.withoutOutOfOrderExecution();
+    }
+
+    void withConcurrentTasks() {
+        taskGraphImpl.withConcurrentTasks();
+    }
+
+    void withoutConcurrentTasks() {
+        taskGraphImpl.withoutConcurrentTasks();
+    }
+
+    void withImplicitDataTransfers() {
+        taskGraphImpl.withImplicitDataTransfers();
+    }
+
+    void withoutImplicitDataTransfers() {
+        taskGraphImpl.withoutImplicitDataTransfers();
+    }
+
+    long getImplicitTransferSavedBytes() {
+        return taskGraphImpl.getImplicitTransferSavedBytes();
+    }
+
     void withThreadInfo() {
         taskGraphImpl.withThreadInfo();
     }
@@ -551,7 +551,7 @@ public interface TaskGraphInterface {
 
     /**
      * Tag a set of objects (Java objects) to be transferred from the device to the
-     * host after the execution completes. There are two modes:
+     * host after the execution completes. There are three modes:
      *
      * <p>
      * {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#EVERY_EXECUTION}:
@@ -565,6 +565,13 @@ public interface TaskGraphInterface {
      * `transferToHost` function. This is used for optimization of data transfers.
      * </p>
      *
+     * <p>
+     * {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#LAZY}: data
+     * stay on the device and native arrays are marked as device-newer. The
+     * runtime copies the data when the host accesses the array (see
+     * {@link uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray#syncFromDevice(int, int)}).
+     * </p>
+     *
      * @param mode
      *     A mode from
      *     {@link uk.ac.manchester.tornado.api.enums.DataTransferMode}
@@ -575,6 +582,33 @@ public interface TaskGraphInterface {
      */
     TaskGraphInterface transferToHost(int mode, Object... objects);
 
+    /**
+     * Tag a set of objects to stay resident on the device after the execution of
+     * the task-graph. Task-graphs from other execution plans that run on the
+     * same device can use the device buffers of these objects through
+     * {@link #consumeFromDevice(Object...)}, without copying the data from the
+     * host again. The buffers are released when the last execution plan that
+     * uses them frees its device memory.
+     *
+     * @param objects
+     *     List of Java objects (usually arrays) to keep on the device.
+     * @return {@link TaskGraphInterface}
+     */
+    TaskGraphInterface persistOnDevice(Object... objects);
+
+    /**
+     * Tag a set of objects that are already resident on the device, because a
+     * task-graph of another execution plan persisted them with
+     * {@link #persistOnDevice(Object...)}. If an object is not resident on the
+     * device used by this task-graph, it is copied from the host in the first
+     * execution.
+     *
+     * @param objects
+     *     List of Java objects (usually arrays) to take from the device.
+     * @return {@link TaskGraphInterface}
+     */
+    TaskGraphInterface consumeFromDevice(Object... objects);
+
     /**
      * Function that closes a task-graph definition and creates an immutable
      * task-graph ready for execution.
@@ -190,6 +190,139 @@ public class TornadoExecutionPlan implements AutoCloseable {
         return this;
     }
 
+    /**
+     * It submits the data transfers and kernels of the execution plan to
+     * out-of-order command queues, if the device supports them. Commands are
+     * ordered only by the data dependencies between tasks and transfers that
+     * the TornadoVM graph compiler extracts from the task graph. Thus,
+     * independent kernels and copies can overlap on the device.
+     *
+     * <p>
+     * Devices that do not support out-of-order queues fall back to in-order
+     * queues.
+     * </p>
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withOutOfOrderExecution() {
+        tornadoExecutor.withOutOfOrderExecution();
+        return this;
+    }
+
+    /**
+     * It submits all commands of the execution plan to in-order command
+     * queues. This is the default mode.
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withoutOutOfOrderExecution() {
+        tornadoExecutor.withoutOutOfOrderExecution();
+        return this;
+    }
+
+    /**
+     * It enables independent tasks of a task-graph to run concurrently on the
+     * same device. The TornadoVM graph compiler groups the tasks into chains
+     * of dependent tasks and submits each chain to a different command queue
+     * of the device. A task that depends on several chains (e.g., a merge task)
+     * waits for all of them. In contrast to
+     * {@link TornadoExecutionPlan#withConcurrentDevices()}, the data
+     * dependencies across tasks are respected.
+     *
+     * <p>
+     * The maximum number of command queues per device can be set with
+     * {@code -Dtornado.concurrent.tasks.queues=<value>}. Backends that only
+     * support a single queue per device run the tasks sequentially.
+     * </p>
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withConcurrentTasks() {
+        tornadoExecutor.withConcurrentTasks();
+        return this;
+    }
+
+    /**
+     * It runs all tasks of a task-graph that share a device in a single command
+     * queue. This is the default mode.
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withoutConcurrentTasks() {
+        tornadoExecutor.withoutConcurrentTasks();
+        return this;
+    }
+
+    /**
+     * It derives the data transfers of each task-graph from the accesses of
+     * its tasks, instead of using the declared modes. An object is copied to
+     * the device in every execution only if the first task that accesses it
+     * reads it, and it is copied to the host only if it is written and no
+     * later task reads the result. Objects written by a task and read by a
+     * later task are device-only intermediates and they are never transferred.
+     *
+     * <p>
+     * Objects declared with
+     * {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#FIRST_EXECUTION}
+     * are copied to the device only once, and objects declared with
+     * {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#UNDER_DEMAND}
+     * or {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#LAZY} are
+     * still copied to the host under demand. The bytes of declared transfers
+     * that are not performed are reported by
+     * {@link TornadoExecutionResult#getImplicitTransferSavedBytes()}.
+     * </p>
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withImplicitDataTransfers() {
+        tornadoExecutor.withImplicitDataTransfers();
+        return this;
+    }
+
+    /**
+     * It uses the data transfers declared in each task-graph. This is the
+     * default mode.
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withoutImplicitDataTransfers() {
+        tornadoExecutor.withoutImplicitDataTransfers();
+        return this;
+    }
+
+    /**
+     * It enables the pipelined execution of the task-graphs of the execution
+     * plan. By default, each task-graph runs to completion before the next
+     * one starts. In pipelined mode, the runtime submits all task-graphs
+     * without waiting, so the data transfers of a task-graph can overlap the
+     * kernels of the previous task-graphs. Data that flows between
+     * task-graphs through the host is ordered with events. The call to
+     * {@link TornadoExecutionPlan#execute()} returns once all task-graphs
+     * have finished.
+     *
+     * <p>
+     * This mode is useful for plans with several stages that run repeatedly
+     * (e.g., multi-stage video or audio processing).
+     * </p>
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withPipelinedExecution() {
+        executionPackage.withPipelinedExecution(true);
+        return this;
+    }
+
+    /**
+     * It disables the pipelined execution of the task-graphs of the execution
+     * plan. This is the default mode.
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withoutPipelinedExecution() {
+        executionPackage.withPipelinedExecution(false);
+        return this;
+    }
+
     /**
      * It obtains the device for a specific immutable task-graph. Note that,
      * ideally, different task immutable task-graph could be executed on different
@@ -403,7 +536,15 @@ public class TornadoExecutionPlan implements AutoCloseable {
         }
 
         void execute(ExecutorFrame executionPackage) {
-            immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.execute(executionPackage));
+            if (executionPackage.isPipelinedExecution() && executionPackage.getDynamicReconfigurationPolicy() == null && immutableTaskGraphList.size() > 1) {
+                for (int stage = 0; stage < immutableTaskGraphList.size(); stage++) {
+                    immutableTaskGraphList.get(stage).executeAsync(executionPackage.withPipelineStage(stage));
+                }
+                executionPackage.withPipelineStage(-1);
+                immutableTaskGraphList.forEach(ImmutableTaskGraph::waitOn);
+            } else {
+                immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.execute(executionPackage));
+            }
         }
 
         void withGridScheduler(GridScheduler gridScheduler) {
@@ -448,6 +589,34 @@ public class TornadoExecutionPlan implements AutoCloseable {
             immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutConcurrentDevices);
         }
 
+        void withOutOfOrderExecution() {
+            immutableTaskGraphList.forEach(ImmutableTaskGraph::withOutOfOrderExecution);
+        }
+
+        void withoutOutOfOrderExecution() {
+            immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutOutOfOrderExecution);
+        }
+
+        void withConcurrentTasks() {
+            immutableTaskGraphList.forEach(ImmutableTaskGraph::withConcurrentTasks);
+        }
+
+        void withoutConcurrentTasks() {
+            immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutConcurrentTasks);
+        }
+
+        void withImplicitDataTransfers() {
+            immutableTaskGraphList.forEach(ImmutableTaskGraph::withImplicitDataTransfers);
+        }
+
+        void withoutImplicitDataTransfers() {
+            immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutImplicitDataTransfers);
+        }
+
+        long getImplicitTransferSavedBytes() {
+            return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getImplicitTransferSavedBytes).mapToLong(Long::longValue).sum();
+        }
+
         void freeDeviceMemory() {
             immutableTaskGraphList.forEach(ImmutableTaskGraph::freeDeviceMemory);
         }
@@ -84,6 +84,19 @@ public class TornadoExecutionResult {
         return this;
     }
 
+    /**
+     * Returns the total number of bytes of declared data transfers that were not
+     * performed because the execution plan inferred the transfers from the
+     * accesses of the tasks (see
+     * {@link TornadoExecutionPlan#withImplicitDataTransfers()}). The value
+     * accumulates all executions of the plan.
+     *
+     * @return long
+     */
+    public long getImplicitTransferSavedBytes() {
+        return tornadoProfilerResult.getExecutor().getImplicitTransferSavedBytes();
+    }
+
     /**
      * It returns true if all task-graphs associated to the executor finished
      * execution.
@@ -71,6 +71,10 @@ public interface TornadoTaskGraphInterface extends ProfileInterface {
 
     void transferToHost(int mode, Object... objects);
 
+    void persistOnDevice(Object... objects);
+
+    void consumeFromDevice(Object... objects);
+
     void dump();
 
     void warmup();
@@ -111,6 +115,20 @@ public interface TornadoTaskGraphInterface extends ProfileInterface {
 
     void withoutConcurrentDevices();
 
+    void withOutOfOrderExecution();
+
+    void withoutOutOfOrderExecution();
+
+    void withConcurrentTasks();
+
+    void withoutConcurrentTasks();
+
+    void withImplicitDataTransfers();
+
+    void withoutImplicitDataTransfers();
+
+    long getImplicitTransferSavedBytes();
+
     void withThreadInfo();
 
     void withoutThreadInfo();
@@ -120,4 +138,11 @@ public interface TornadoTaskGraphInterface extends ProfileInterface {
     void withoutPrintKernel();
 
     void withGridScheduler(GridScheduler gridScheduler);
+
+    /**
+     * Sets the worker grid of a task when the {@link GridScheduler} of the
+     * execution plan does not have one. It is used by the tasks that the
+     * task-graph adds for parallel primitives.
+     */
+    void withDefaultWorkerGrid(String taskId, WorkerGrid workerGrid);
 }
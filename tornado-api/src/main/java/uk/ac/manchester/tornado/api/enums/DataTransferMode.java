@@ -45,4 +45,18 @@ public class DataTransferMode {
      * method.
      */
     public static final int UNDER_DEMAND = 2;
+
+    /**
+     * Flag to keep the results on the device after the execution, and copy them
+     * to the host only when the host accesses them. Native arrays
+     * ({@link uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray}) are
+     * marked as device-newer, and the runtime copies the data back when the
+     * segment of the array is accessed, when the array is synchronised with
+     * {@link uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray#syncFromDevice()},
+     * or when a range of elements is requested with
+     * {@link uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray#syncFromDevice(int, int)}.
+     * Element accessors ({@code get}) do not trigger the copy: synchronise the
+     * array once before reading its elements on the host.
+     */
+    public static final int LAZY = 3;
 }
@@ -31,6 +31,7 @@ public class TornadoBailoutRuntimeException extends RuntimeException {
     public TornadoBailoutRuntimeException(final String msg, Exception e) {
         message = RED + msg + RESET;
         this.e = e;
+        this.initCause(e);
     }
 
     public Exception getException() {
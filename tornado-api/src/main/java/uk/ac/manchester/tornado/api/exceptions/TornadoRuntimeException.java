@@ -31,6 +31,11 @@ public class TornadoRuntimeException extends RuntimeException {
         this.initCause(e.getCause());
     }
 
+    public TornadoRuntimeException(final String msg, final Throwable cause) {
+        message = msg;
+        this.initCause(cause);
+    }
+
     @Override
     public String getMessage() {
         return message;
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.primitives;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Kernels of histograms and group-by aggregations of native arrays.
+ *
+ * <p>
+ * The bins (or keys) are integers in {@code [0, numBins)}, and the elements
+ * outside that range are ignored. With up to {@value #MAX_PRIVATE_BINS} bins,
+ * the aggregation is privatised: each thread aggregates a block of the input
+ * into its own copy of the bins, and a second task merges the copies with one
+ * thread per bin. No update is shared between threads, so hot bins do not
+ * serialise the kernel and the result does not depend on the schedule.
+ * </p>
+ *
+ * <p>
+ * With more bins, the private copies would not fit in memory, and the input is
+ * grouped with the radix sort of {@link Sort} instead. Each thread then finds the
+ * range of its bin in the sorted keys with a binary search, and aggregates it.
+ * </p>
+ *
+ * <p>
+ * Limitations: the privatised aggregation uses one thread per block, so it
+ * launches at most {@value #MAX_BLOCKS} threads, and their reads are a block
+ * apart and not coalesced on GPUs. The private copies are in global memory
+ * rather than in the local memory of a work-group: a sub-histogram per
+ * work-group would be merged into the result with atomic additions, and no
+ * backend compiles an atomic addition to an element of a native array, nor
+ * offers atomics in local memory through {@code KernelContext}. The
+ * {@code JMHHistogram} benchmark compares this design with the atomic
+ * histogram of {@code TornadoVMIntrinsics.atomic_add} on the JVM backend.
+ * </p>
+ *
+ * <p>
+ * The tasks are added to a task graph with
+ * {@link TaskGraph#histogram(String, IntArray, IntArray)} and
+ * {@link TaskGraph#groupBySum(String, IntArray, FloatArray, FloatArray)}.
+ * </p>
+ */
+public final class Histogram {
+
+    /**
+     * Maximum number of bins of the privatised aggregation.
+     */
+    public static final int MAX_PRIVATE_BINS = 4096;
+
+    /**
+     * Minimum number of elements of the block of each thread in the privatised
+     * aggregation.
+     */
+    public static final int MIN_BLOCK_SIZE = 1024;
+
+    /**
+     * Maximum number of private copies of the bins, which bounds their memory to
+     * {@code MAX_BLOCKS * MAX_PRIVATE_BINS} elements.
+     */
+    public static final int MAX_BLOCKS = 1024;
+
+    private Histogram() {
+    }
+
+    /**
+     * Checks whether an aggregation is privatised.
+     *
+     * @param numBins
+     *     Number of bins.
+     * @return {@code true} if each thread can have a copy of the bins.
+     */
+    public static boolean usesPrivateBins(int numBins) {
+        return numBins <= MAX_PRIVATE_BINS;
+    }
+
+    /**
+     * Number of elements of the block of each thread in the privatised
+     * aggregation. A block has at least as many elements as bins, so that
+     * clearing and merging the private copies costs no more than aggregating the
+     * input.
+     *
+     * @param size
+     *     Number of elements of the input.
+     * @param numBins
+     *     Number of bins.
+     * @return The size of the blocks.
+     */
+    public static int blockSize(int size, int numBins) {
+        return Math.max(Math.max(MIN_BLOCK_SIZE, numBins), (int) ((size + (long) MAX_BLOCKS - 1) / MAX_BLOCKS));
+    }
+
+    /**
+     * Number of private copies of the bins in the privatised aggregation.
+     *
+     * @param size
+     *     Number of elements of the input.
+     * @param numBins
+     *     Number of bins.
+     * @return The number of blocks, which is at least one.
+     */
+    public static int numBlocks(int size, int numBins) {
+        int blockSize = blockSize(size, numBins);
+        return Math.max(1, (int) ((size + (long) blockSize - 1) / blockSize));
+    }
+
+    /**
+     * Checks that an aggregation has at least one bin.
+     *
+     * @param numBins
+     *     Number of bins.
+     * @throws TornadoRuntimeException
+     *     if there are no bins.
+     */
+    public static void checkBins(int numBins) {
+        if (numBins <= 0) {
+            throw new TornadoRuntimeException("[ERROR] A histogram must have at least one bin: " + numBins);
+        }
+    }
+
+    /**
+     * Checks that the keys and the values of an aggregation have the same size.
+     *
+     * @param numKeys
+     *     Number of keys.
+     * @param numValues
+     *     Number of values.
+     * @throws TornadoRuntimeException
+     *     if the sizes are different.
+     */
+    public static void checkValues(int numKeys, int numValues) {
+        if (numKeys != numValues) {
+            throw new TornadoRuntimeException("[ERROR] The keys and the values of a group-by must have the same size: " + numKeys + " != " + numValues);
+        }
+    }
+
+    /**
+     * Position of the first element of a sorted array that is not less than a
+     * value.
+     *
+     * @param sorted
+     *     Array sorted in ascending order.
+     * @param value
+     *     Value to search.
+     * @return The position, which is the size of the array if all the elements
+     *     are less than the value.
+     */
+    public static int lowerBound(IntArray sorted, int value) {
+        int low = 0;
+        int high = sorted.getSize();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted.get(middle) < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Counts the elements of each block of the input into the private bins of the
+     * block, which start at {@code block * numBins}.
+     */
+    public static void privateHistograms(IntArray input, IntArray privateBins, int numBins, int blockSize) {
+        int numBlocks = privateBins.getSize() / numBins;
+        for (@Parallel int block = 0; block < numBlocks; block++) {
+            int base = block * numBins;
+            for (int bin = 0; bin < numBins; bin++) {
+                privateBins.set(base + bin, 0);
+            }
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, input.getSize());
+            for (int i = start; i < end; i++) {
+                int bin = input.get(i);
+                if (bin >= 0 && bin < numBins) {
+                    privateBins.set(base + bin, privateBins.get(base + bin) + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the values of each block of the input into the private bins of the
+     * block, which start at {@code block * numBins}.
+     */
+    public static void privateSums(IntArray keys, IntArray values, IntArray privateBins, int numBins, int blockSize) {
+        int numBlocks = privateBins.getSize() / numBins;
+        for (@Parallel int block = 0; block < numBlocks; block++) {
+            int base = block * numBins;
+            for (int bin = 0; bin < numBins; bin++) {
+                privateBins.set(base + bin, 0);
+            }
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, keys.getSize());
+            for (int i = start; i < end; i++) {
+                int bin = keys.get(i);
+                if (bin >= 0 && bin < numBins) {
+                    privateBins.set(base + bin, privateBins.get(base + bin) + values.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the values of each block of the input into the private bins of the
+     * block, which start at {@code block * numBins}.
+     */
+    public static void privateSums(IntArray keys, FloatArray values, FloatArray privateBins, int numBins, int blockSize) {
+        int numBlocks = privateBins.getSize() / numBins;
+        for (@Parallel int block = 0; block < numBlocks; block++) {
+            int base = block * numBins;
+            for (int bin = 0; bin < numBins; bin++) {
+                privateBins.set(base + bin, 0.0f);
+            }
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, keys.getSize());
+            for (int i = start; i < end; i++) {
+                int bin = keys.get(i);
+                if (bin >= 0 && bin < numBins) {
+                    privateBins.set(base + bin, privateBins.get(base + bin) + values.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the private copies of each bin.
+     */
+    public static void mergeBins(IntArray privateBins, IntArray bins) {
+        int numBins = bins.getSize();
+        int numBlocks = privateBins.getSize() / numBins;
+        for (@Parallel int bin = 0; bin < numBins; bin++) {
+            int sum = 0;
+            for (int block = 0; block < numBlocks; block++) {
+                sum += privateBins.get(block * numBins + bin);
+            }
+            bins.set(bin, sum);
+        }
+    }
+
+    /**
+     * Adds the private copies of each bin.
+     */
+    public static void mergeBins(FloatArray privateBins, FloatArray bins) {
+        int numBins = bins.getSize();
+        int numBlocks = privateBins.getSize() / numBins;
+        for (@Parallel int bin = 0; bin < numBins; bin++) {
+            float sum = 0.0f;
+            for (int block = 0; block < numBlocks; block++) {
+                sum += privateBins.get(block * numBins + bin);
+            }
+            bins.set(bin, sum);
+        }
+    }
+
+    /**
+     * Copies the keys before they are sorted, and initialises the index of each
+     * key.
+     */
+    public static void copyWithIndices(IntArray keys, IntArray sortedKeys, IntArray indices) {
+        for (@Parallel int i = 0; i < keys.getSize(); i++) {
+            sortedKeys.set(i, keys.get(i));
+            indices.set(i, i);
+        }
+    }
+
+    /**
+     * Counts the elements of each bin in the sorted input.
+     */
+    public static void countSorted(IntArray sortedKeys, IntArray bins) {
+        for (@Parallel int bin = 0; bin < bins.getSize(); bin++) {
+            bins.set(bin, lowerBound(sortedKeys, bin + 1) - lowerBound(sortedKeys, bin));
+        }
+    }
+
+    /**
+     * Adds the values of each bin, with the positions of the bin in the sorted
+     * keys.
+     */
+    public static void sumSorted(IntArray sortedKeys, IntArray indices, IntArray values, IntArray bins) {
+        for (@Parallel int bin = 0; bin < bins.getSize(); bin++) {
+            int end = lowerBound(sortedKeys, bin + 1);
+            int sum = 0;
+            for (int i = lowerBound(sortedKeys, bin); i < end; i++) {
+                sum += values.get(indices.get(i));
+            }
+            bins.set(bin, sum);
+        }
+    }
+
+    /**
+     * Adds the values of each bin, with the positions of the bin in the sorted
+     * keys.
+     */
+    public static void sumSorted(IntArray sortedKeys, IntArray indices, FloatArray values, FloatArray bins) {
+        for (@Parallel int bin = 0; bin < bins.getSize(); bin++) {
+            int end = lowerBound(sortedKeys, bin + 1);
+            float sum = 0.0f;
+            for (int i = lowerBound(sortedKeys, bin); i < end; i++) {
+                sum += values.get(indices.get(i));
+            }
+            bins.set(bin, sum);
+        }
+    }
+}
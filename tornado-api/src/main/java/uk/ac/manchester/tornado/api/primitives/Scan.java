@@ -0,0 +1,863 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.primitives;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.KernelEmulator;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+
+/**
+ * Kernels of the parallel prefix sum (scan) of native arrays.
+ *
+ * <p>
+ * The scan is computed with the reduce-then-scan method, which performs
+ * {@code O(n)} additions. The input is divided into contiguous blocks, one per
+ * work-group of {@value #WORK_GROUP_SIZE} work-items, and the scan runs in
+ * three {@link KernelContext} tasks:
+ * </p>
+ * <ol>
+ * <li>{@code reduceBlocks}: each work-group computes the sum of a block with a
+ * tree reduction in local memory.</li>
+ * <li>{@code scanBlockSums}: a single work-group computes the exclusive scan of
+ * the sums of the blocks in local memory, which is the offset of each
+ * block.</li>
+ * <li>{@code inclusiveScanBlocks} or {@code exclusiveScanBlocks}: each
+ * work-group scans its block in local memory, starting from its offset.</li>
+ * </ol>
+ *
+ * <p>
+ * Neighbouring work-items read neighbouring elements, so the accesses to global
+ * memory are coalesced on GPUs. The work-group scans are Hillis-Steele scans of
+ * {@code log2(WORK_GROUP_SIZE)} steps.
+ * </p>
+ *
+ * <p>
+ * The tasks are added to a task graph with
+ * {@link TaskGraph#inclusiveScan(String, IntArray, IntArray)} and
+ * {@link TaskGraph#exclusiveScan(String, IntArray, IntArray)}, which also set
+ * the worker grid of each task. When the task graph falls back to Java, or runs
+ * on the JVM backend, the kernels run in the {@link KernelEmulator}. The
+ * {@code inclusiveScan} and {@code exclusiveScan} methods of this class compute
+ * the same result sequentially on the host.
+ * </p>
+ *
+ * <p>
+ * Limitations: a scan launches at most {@value #MAX_BLOCKS} work-groups, so
+ * larger inputs get larger blocks rather than more work-groups. The scan of the
+ * block sums runs in one work-group, which is idle for most of the device but
+ * only scans {@value #MAX_BLOCKS} values. Measure the scan with
+ * {@code JMHPrefixScan} before using it on a hot path.
+ * </p>
+ */
+public final class Scan {
+
+    /**
+     * Number of work-items of the work-groups of the scan, which is also the
+     * size of the arrays in local memory.
+     */
+    public static final int WORK_GROUP_SIZE = 256;
+
+    /**
+     * Minimum number of elements of a block, so that each work-item adds several
+     * elements in {@code reduceBlocks}.
+     */
+    public static final int MIN_BLOCK_SIZE = 4 * WORK_GROUP_SIZE;
+
+    /**
+     * Maximum number of blocks, which bounds the scan of the block sums and the
+     * number of work-groups of the other kernels.
+     */
+    public static final int MAX_BLOCKS = 8192;
+
+    private Scan() {
+    }
+
+    /**
+     * Size of the blocks of the scan of an array.
+     *
+     * @param size
+     *     Number of elements of the array.
+     * @return The number of elements of each block, which is a multiple of
+     *     {@link #WORK_GROUP_SIZE}.
+     */
+    public static int blockSize(int size) {
+        int blockSize = Math.max(MIN_BLOCK_SIZE, (int) ((size + (long) MAX_BLOCKS - 1) / MAX_BLOCKS));
+        return (blockSize + WORK_GROUP_SIZE - 1) / WORK_GROUP_SIZE * WORK_GROUP_SIZE;
+    }
+
+    /**
+     * Number of blocks of the scan of an array.
+     *
+     * @param size
+     *     Number of elements of the array.
+     * @return The number of blocks, which is at least one.
+     */
+    public static int numBlocks(int size) {
+        int blockSize = blockSize(size);
+        return Math.max(1, (int) ((size + (long) blockSize - 1) / blockSize));
+    }
+
+    /**
+     * Checks that the output of a scan has the size of its input.
+     *
+     * @param inputSize
+     *     Number of elements of the input.
+     * @param outputSize
+     *     Number of elements of the output.
+     * @throws TornadoRuntimeException
+     *     if the sizes are different.
+     */
+    public static void checkSizes(int inputSize, int outputSize) {
+        if (inputSize != outputSize) {
+            throw new TornadoRuntimeException("[ERROR] The input and the output of a scan must have the same size: " + inputSize + " != " + outputSize);
+        }
+    }
+
+    /**
+     * Computes the sum of each block of the input. Each work-group reduces a
+     * block: the work-items add elements that are {@value #WORK_GROUP_SIZE}
+     * apart, so that neighbouring work-items read neighbouring elements, and the
+     * partial sums are added in local memory.
+     */
+    public static void reduceBlocks(KernelContext context, IntArray input, IntArray blockSums, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        int[] partialSums = context.allocateIntLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        int sum = 0;
+        for (int i = start + localIdx; i < end; i += WORK_GROUP_SIZE) {
+            sum += input.get(i);
+        }
+        partialSums[localIdx] = sum;
+        for (int stride = WORK_GROUP_SIZE / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                partialSums[localIdx] += partialSums[localIdx + stride];
+            }
+        }
+        if (localIdx == 0) {
+            blockSums.set(block, partialSums[0]);
+        }
+    }
+
+    /**
+     * Replaces the sums of the blocks with their exclusive prefix sum, which is the
+     * offset of each block in the scan. A single work-group scans the sums in
+     * chunks of {@value #WORK_GROUP_SIZE} in local memory, and carries the total
+     * of each chunk to the next one.
+     */
+    public static void scanBlockSums(KernelContext context, IntArray blockSums) {
+        int localIdx = context.localIdx;
+        int[] chunk = context.allocateIntLocalArray(WORK_GROUP_SIZE);
+        int carry = 0;
+        for (int base = 0; base < blockSums.getSize(); base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            int value = 0;
+            if (i < blockSums.getSize()) {
+                value = blockSums.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                int sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            int exclusive = 0;
+            if (localIdx > 0) {
+                exclusive = chunk[localIdx - 1];
+            }
+            if (i < blockSums.getSize()) {
+                blockSums.set(i, carry + exclusive);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Scans each block of the input, starting from the offset of the block. Each
+     * work-group scans its block in chunks of {@value #WORK_GROUP_SIZE} elements
+     * in local memory.
+     */
+    public static void inclusiveScanBlocks(KernelContext context, IntArray input, IntArray output, IntArray blockOffsets, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        int[] chunk = context.allocateIntLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        int carry = blockOffsets.get(block);
+        for (int base = start; base < end; base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            int value = 0;
+            if (i < end) {
+                value = input.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                int sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            if (i < end) {
+                output.set(i, carry + chunk[localIdx]);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Scans each block of the input, starting from the offset of the block. The
+     * element {@code i} of the output does not include the element {@code i} of
+     * the input.
+     */
+    public static void exclusiveScanBlocks(KernelContext context, IntArray input, IntArray output, IntArray blockOffsets, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        int[] chunk = context.allocateIntLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        int carry = blockOffsets.get(block);
+        for (int base = start; base < end; base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            int value = 0;
+            if (i < end) {
+                value = input.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                int sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            int exclusive = 0;
+            if (localIdx > 0) {
+                exclusive = chunk[localIdx - 1];
+            }
+            if (i < end) {
+                output.set(i, carry + exclusive);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Sequential inclusive prefix sum on the host:
+     * {@code output[i] = input[0] + ... + input[i]}.
+     *
+     * @param input
+     *     The input array.
+     * @param output
+     *     The output array, which can be the input array.
+     */
+    public static void inclusiveScan(IntArray input, IntArray output) {
+        checkSizes(input.getSize(), output.getSize());
+        int sum = 0;
+        for (int i = 0; i < input.getSize(); i++) {
+            sum += input.get(i);
+            output.set(i, sum);
+        }
+    }
+
+    /**
+     * Sequential exclusive prefix sum on the host: {@code output[0] = 0} and
+     * {@code output[i] = input[0] + ... + input[i - 1]}.
+     *
+     * @param input
+     *     The input array.
+     * @param output
+     *     The output array, which can be the input array.
+     */
+    public static void exclusiveScan(IntArray input, IntArray output) {
+        checkSizes(input.getSize(), output.getSize());
+        int sum = 0;
+        for (int i = 0; i < input.getSize(); i++) {
+            int value = input.get(i);
+            output.set(i, sum);
+            sum += value;
+        }
+    }
+
+    /**
+     * Computes the sum of each block of the input. Each work-group reduces a
+     * block: the work-items add elements that are {@value #WORK_GROUP_SIZE}
+     * apart, so that neighbouring work-items read neighbouring elements, and the
+     * partial sums are added in local memory.
+     */
+    public static void reduceBlocks(KernelContext context, LongArray input, LongArray blockSums, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        long[] partialSums = context.allocateLongLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        long sum = 0;
+        for (int i = start + localIdx; i < end; i += WORK_GROUP_SIZE) {
+            sum += input.get(i);
+        }
+        partialSums[localIdx] = sum;
+        for (int stride = WORK_GROUP_SIZE / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                partialSums[localIdx] += partialSums[localIdx + stride];
+            }
+        }
+        if (localIdx == 0) {
+            blockSums.set(block, partialSums[0]);
+        }
+    }
+
+    /**
+     * Replaces the sums of the blocks with their exclusive prefix sum, which is the
+     * offset of each block in the scan. A single work-group scans the sums in
+     * chunks of {@value #WORK_GROUP_SIZE} in local memory, and carries the total
+     * of each chunk to the next one.
+     */
+    public static void scanBlockSums(KernelContext context, LongArray blockSums) {
+        int localIdx = context.localIdx;
+        long[] chunk = context.allocateLongLocalArray(WORK_GROUP_SIZE);
+        long carry = 0;
+        for (int base = 0; base < blockSums.getSize(); base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            long value = 0;
+            if (i < blockSums.getSize()) {
+                value = blockSums.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                long sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            long exclusive = 0;
+            if (localIdx > 0) {
+                exclusive = chunk[localIdx - 1];
+            }
+            if (i < blockSums.getSize()) {
+                blockSums.set(i, carry + exclusive);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Scans each block of the input, starting from the offset of the block. Each
+     * work-group scans its block in chunks of {@value #WORK_GROUP_SIZE} elements
+     * in local memory.
+     */
+    public static void inclusiveScanBlocks(KernelContext context, LongArray input, LongArray output, LongArray blockOffsets, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        long[] chunk = context.allocateLongLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        long carry = blockOffsets.get(block);
+        for (int base = start; base < end; base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            long value = 0;
+            if (i < end) {
+                value = input.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                long sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            if (i < end) {
+                output.set(i, carry + chunk[localIdx]);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Scans each block of the input, starting from the offset of the block. The
+     * element {@code i} of the output does not include the element {@code i} of
+     * the input.
+     */
+    public static void exclusiveScanBlocks(KernelContext context, LongArray input, LongArray output, LongArray blockOffsets, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        long[] chunk = context.allocateLongLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        long carry = blockOffsets.get(block);
+        for (int base = start; base < end; base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            long value = 0;
+            if (i < end) {
+                value = input.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                long sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            long exclusive = 0;
+            if (localIdx > 0) {
+                exclusive = chunk[localIdx - 1];
+            }
+            if (i < end) {
+                output.set(i, carry + exclusive);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Sequential inclusive prefix sum on the host:
+     * {@code output[i] = input[0] + ... + input[i]}.
+     *
+     * @param input
+     *     The input array.
+     * @param output
+     *     The output array, which can be the input array.
+     */
+    public static void inclusiveScan(LongArray input, LongArray output) {
+        checkSizes(input.getSize(), output.getSize());
+        long sum = 0;
+        for (int i = 0; i < input.getSize(); i++) {
+            sum += input.get(i);
+            output.set(i, sum);
+        }
+    }
+
+    /**
+     * Sequential exclusive prefix sum on the host: {@code output[0] = 0} and
+     * {@code output[i] = input[0] + ... + input[i - 1]}.
+     *
+     * @param input
+     *     The input array.
+     * @param output
+     *     The output array, which can be the input array.
+     */
+    public static void exclusiveScan(LongArray input, LongArray output) {
+        checkSizes(input.getSize(), output.getSize());
+        long sum = 0;
+        for (int i = 0; i < input.getSize(); i++) {
+            long value = input.get(i);
+            output.set(i, sum);
+            sum += value;
+        }
+    }
+
+    /**
+     * Computes the sum of each block of the input. Each work-group reduces a
+     * block: the work-items add elements that are {@value #WORK_GROUP_SIZE}
+     * apart, so that neighbouring work-items read neighbouring elements, and the
+     * partial sums are added in local memory.
+     */
+    public static void reduceBlocks(KernelContext context, FloatArray input, FloatArray blockSums, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        float[] partialSums = context.allocateFloatLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        float sum = 0.0f;
+        for (int i = start + localIdx; i < end; i += WORK_GROUP_SIZE) {
+            sum += input.get(i);
+        }
+        partialSums[localIdx] = sum;
+        for (int stride = WORK_GROUP_SIZE / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                partialSums[localIdx] += partialSums[localIdx + stride];
+            }
+        }
+        if (localIdx == 0) {
+            blockSums.set(block, partialSums[0]);
+        }
+    }
+
+    /**
+     * Replaces the sums of the blocks with their exclusive prefix sum, which is the
+     * offset of each block in the scan. A single work-group scans the sums in
+     * chunks of {@value #WORK_GROUP_SIZE} in local memory, and carries the total
+     * of each chunk to the next one.
+     */
+    public static void scanBlockSums(KernelContext context, FloatArray blockSums) {
+        int localIdx = context.localIdx;
+        float[] chunk = context.allocateFloatLocalArray(WORK_GROUP_SIZE);
+        float carry = 0.0f;
+        for (int base = 0; base < blockSums.getSize(); base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            float value = 0.0f;
+            if (i < blockSums.getSize()) {
+                value = blockSums.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                float sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            float exclusive = 0.0f;
+            if (localIdx > 0) {
+                exclusive = chunk[localIdx - 1];
+            }
+            if (i < blockSums.getSize()) {
+                blockSums.set(i, carry + exclusive);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Scans each block of the input, starting from the offset of the block. Each
+     * work-group scans its block in chunks of {@value #WORK_GROUP_SIZE} elements
+     * in local memory.
+     */
+    public static void inclusiveScanBlocks(KernelContext context, FloatArray input, FloatArray output, FloatArray blockOffsets, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        float[] chunk = context.allocateFloatLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        float carry = blockOffsets.get(block);
+        for (int base = start; base < end; base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            float value = 0.0f;
+            if (i < end) {
+                value = input.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                float sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            if (i < end) {
+                output.set(i, carry + chunk[localIdx]);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Scans each block of the input, starting from the offset of the block. The
+     * element {@code i} of the output does not include the element {@code i} of
+     * the input.
+     */
+    public static void exclusiveScanBlocks(KernelContext context, FloatArray input, FloatArray output, FloatArray blockOffsets, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        float[] chunk = context.allocateFloatLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        float carry = blockOffsets.get(block);
+        for (int base = start; base < end; base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            float value = 0.0f;
+            if (i < end) {
+                value = input.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                float sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            float exclusive = 0.0f;
+            if (localIdx > 0) {
+                exclusive = chunk[localIdx - 1];
+            }
+            if (i < end) {
+                output.set(i, carry + exclusive);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Sequential inclusive prefix sum on the host:
+     * {@code output[i] = input[0] + ... + input[i]}.
+     *
+     * @param input
+     *     The input array.
+     * @param output
+     *     The output array, which can be the input array.
+     */
+    public static void inclusiveScan(FloatArray input, FloatArray output) {
+        checkSizes(input.getSize(), output.getSize());
+        float sum = 0.0f;
+        for (int i = 0; i < input.getSize(); i++) {
+            sum += input.get(i);
+            output.set(i, sum);
+        }
+    }
+
+    /**
+     * Sequential exclusive prefix sum on the host: {@code output[0] = 0} and
+     * {@code output[i] = input[0] + ... + input[i - 1]}.
+     *
+     * @param input
+     *     The input array.
+     * @param output
+     *     The output array, which can be the input array.
+     */
+    public static void exclusiveScan(FloatArray input, FloatArray output) {
+        checkSizes(input.getSize(), output.getSize());
+        float sum = 0.0f;
+        for (int i = 0; i < input.getSize(); i++) {
+            float value = input.get(i);
+            output.set(i, sum);
+            sum += value;
+        }
+    }
+
+    /**
+     * Computes the sum of each block of the input. Each work-group reduces a
+     * block: the work-items add elements that are {@value #WORK_GROUP_SIZE}
+     * apart, so that neighbouring work-items read neighbouring elements, and the
+     * partial sums are added in local memory.
+     */
+    public static void reduceBlocks(KernelContext context, DoubleArray input, DoubleArray blockSums, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        double[] partialSums = context.allocateDoubleLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        double sum = 0.0;
+        for (int i = start + localIdx; i < end; i += WORK_GROUP_SIZE) {
+            sum += input.get(i);
+        }
+        partialSums[localIdx] = sum;
+        for (int stride = WORK_GROUP_SIZE / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                partialSums[localIdx] += partialSums[localIdx + stride];
+            }
+        }
+        if (localIdx == 0) {
+            blockSums.set(block, partialSums[0]);
+        }
+    }
+
+    /**
+     * Replaces the sums of the blocks with their exclusive prefix sum, which is the
+     * offset of each block in the scan. A single work-group scans the sums in
+     * chunks of {@value #WORK_GROUP_SIZE} in local memory, and carries the total
+     * of each chunk to the next one.
+     */
+    public static void scanBlockSums(KernelContext context, DoubleArray blockSums) {
+        int localIdx = context.localIdx;
+        double[] chunk = context.allocateDoubleLocalArray(WORK_GROUP_SIZE);
+        double carry = 0.0;
+        for (int base = 0; base < blockSums.getSize(); base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            double value = 0.0;
+            if (i < blockSums.getSize()) {
+                value = blockSums.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                double sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            double exclusive = 0.0;
+            if (localIdx > 0) {
+                exclusive = chunk[localIdx - 1];
+            }
+            if (i < blockSums.getSize()) {
+                blockSums.set(i, carry + exclusive);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Scans each block of the input, starting from the offset of the block. Each
+     * work-group scans its block in chunks of {@value #WORK_GROUP_SIZE} elements
+     * in local memory.
+     */
+    public static void inclusiveScanBlocks(KernelContext context, DoubleArray input, DoubleArray output, DoubleArray blockOffsets, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        double[] chunk = context.allocateDoubleLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        double carry = blockOffsets.get(block);
+        for (int base = start; base < end; base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            double value = 0.0;
+            if (i < end) {
+                value = input.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                double sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            if (i < end) {
+                output.set(i, carry + chunk[localIdx]);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Scans each block of the input, starting from the offset of the block. The
+     * element {@code i} of the output does not include the element {@code i} of
+     * the input.
+     */
+    public static void exclusiveScanBlocks(KernelContext context, DoubleArray input, DoubleArray output, DoubleArray blockOffsets, int blockSize) {
+        int localIdx = context.localIdx;
+        int block = context.groupIdx;
+        double[] chunk = context.allocateDoubleLocalArray(WORK_GROUP_SIZE);
+        int start = block * blockSize;
+        int end = Math.min(start + blockSize, input.getSize());
+        double carry = blockOffsets.get(block);
+        for (int base = start; base < end; base += WORK_GROUP_SIZE) {
+            int i = base + localIdx;
+            double value = 0.0;
+            if (i < end) {
+                value = input.get(i);
+            }
+            chunk[localIdx] = value;
+            for (int offset = 1; offset < WORK_GROUP_SIZE; offset *= 2) {
+                context.localBarrier();
+                double sum = chunk[localIdx];
+                if (localIdx >= offset) {
+                    sum += chunk[localIdx - offset];
+                }
+                context.localBarrier();
+                chunk[localIdx] = sum;
+            }
+            context.localBarrier();
+            double exclusive = 0.0;
+            if (localIdx > 0) {
+                exclusive = chunk[localIdx - 1];
+            }
+            if (i < end) {
+                output.set(i, carry + exclusive);
+            }
+            carry += chunk[WORK_GROUP_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    /**
+     * Sequential inclusive prefix sum on the host:
+     * {@code output[i] = input[0] + ... + input[i]}.
+     *
+     * @param input
+     *     The input array.
+     * @param output
+     *     The output array, which can be the input array.
+     */
+    public static void inclusiveScan(DoubleArray input, DoubleArray output) {
+        checkSizes(input.getSize(), output.getSize());
+        double sum = 0.0;
+        for (int i = 0; i < input.getSize(); i++) {
+            sum += input.get(i);
+            output.set(i, sum);
+        }
+    }
+
+    /**
+     * Sequential exclusive prefix sum on the host: {@code output[0] = 0} and
+     * {@code output[i] = input[0] + ... + input[i - 1]}.
+     *
+     * @param input
+     *     The input array.
+     * @param output
+     *     The output array, which can be the input array.
+     */
+    public static void exclusiveScan(DoubleArray input, DoubleArray output) {
+        checkSizes(input.getSize(), output.getSize());
+        double sum = 0.0;
+        for (int i = 0; i < input.getSize(); i++) {
+            double value = input.get(i);
+            output.set(i, sum);
+            sum += value;
+        }
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.primitives;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Kernels that sort native arrays on the device.
+ *
+ * <p>
+ * Arrays are sorted with a least-significant-digit radix sort of
+ * {@value #RADIX_BITS}-bit digits, with {@link TaskGraph#sort(String, IntArray)}
+ * and {@link TaskGraph#sortByKey(String, IntArray, IntArray)}. Each of the
+ * {@value #RADIX_PASSES} passes runs in three steps:
+ * </p>
+ * <ol>
+ * <li>{@code radixHistogram}: each thread counts the digits of a block of
+ * keys.</li>
+ * <li>The exclusive {@link Scan} of the counts gives the position of the keys of
+ * each digit and block.</li>
+ * <li>{@code radixScatter}: each thread moves the keys of its block to their
+ * positions.</li>
+ * </ol>
+ * <p>
+ * The passes alternate between the keys and a buffer of the same size, and the
+ * sorted keys end in the original array. Integers are sorted as signed values.
+ * Floats are sorted by the total order of {@link Float#compare(float, float)},
+ * with {@code -0.0f} before {@code 0.0f} and positive NaNs last.
+ * </p>
+ *
+ * <p>
+ * Limitations: {@code radixHistogram} and {@code radixScatter} have one thread
+ * per block of at least {@value #MIN_BLOCK_SIZE} keys, so a pass launches at
+ * most {@value #MAX_BLOCKS} threads, and the reads of neighbouring threads are a
+ * block apart and not coalesced on GPUs. Each thread scatters its keys in order,
+ * which keeps the sort stable without the local-memory ranking of a work-group
+ * radix sort. The counts of each pass are scanned with {@link Scan}, which has
+ * the same design.
+ * </p>
+ *
+ * <p>
+ * Small segments of an array are sorted with the bitonic sorting network, with
+ * {@link TaskGraph#segmentedSort(String, IntArray, int)}. Each step of the
+ * network runs in a task, so a segment of {@code 2^m} elements needs
+ * {@code m * (m + 1) / 2} tasks.
+ * </p>
+ */
+public final class Sort {
+
+    /**
+     * Number of bits of each digit of the radix sort.
+     */
+    public static final int RADIX_BITS = 8;
+
+    /**
+     * Number of values of a digit.
+     */
+    public static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * Number of passes to sort 32-bit keys.
+     */
+    public static final int RADIX_PASSES = Integer.SIZE / RADIX_BITS;
+
+    /**
+     * Minimum number of keys of a block of the radix sort.
+     */
+    public static final int MIN_BLOCK_SIZE = 1024;
+
+    /**
+     * Maximum number of blocks of the radix sort, which bounds the size of the
+     * counts to {@code RADIX * MAX_BLOCKS}.
+     */
+    public static final int MAX_BLOCKS = 4096;
+
+    private static final int RADIX_MASK = RADIX - 1;
+
+    private Sort() {
+    }
+
+    /**
+     * Number of keys of each block of the radix sort of an array.
+     *
+     * @param size
+     *     Number of keys.
+     * @return The size of the blocks.
+     */
+    public static int blockSize(int size) {
+        return Math.max(MIN_BLOCK_SIZE, (int) ((size + (long) MAX_BLOCKS - 1) / MAX_BLOCKS));
+    }
+
+    /**
+     * Number of blocks of the radix sort of an array.
+     *
+     * @param size
+     *     Number of keys.
+     * @return The number of blocks, which is at least one.
+     */
+    public static int numBlocks(int size) {
+        int blockSize = blockSize(size);
+        return Math.max(1, (int) ((size + (long) blockSize - 1) / blockSize));
+    }
+
+    /**
+     * Checks that the values of a sort have one element per key.
+     *
+     * @param numKeys
+     *     Number of keys.
+     * @param numValues
+     *     Number of values.
+     * @throws TornadoRuntimeException
+     *     if the sizes are different.
+     */
+    public static void checkValues(int numKeys, int numValues) {
+        if (numKeys != numValues) {
+            throw new TornadoRuntimeException("[ERROR] The keys and the values of a sort must have the same size: " + numKeys + " != " + numValues);
+        }
+    }
+
+    /**
+     * Checks that an array can be divided into segments for the bitonic sort.
+     *
+     * @param size
+     *     Number of keys.
+     * @param segmentSize
+     *     Number of keys of each segment.
+     * @throws TornadoRuntimeException
+     *     if the segment size is not a power of two greater than one, or if the
+     *     size of the array is not a multiple of the segment size.
+     */
+    public static void checkSegments(int size, int segmentSize) {
+        if (segmentSize < 2 || Integer.bitCount(segmentSize) != 1 || size % segmentSize != 0) {
+            throw new TornadoRuntimeException("[ERROR] The segments of a bitonic sort must be a power of two greater than one that divides the size of the array: " + segmentSize);
+        }
+    }
+
+    /**
+     * Counts the keys of each block whose digit at {@code shift} has each value.
+     * The count of digit {@code d} in block {@code b} is stored at
+     * {@code d * numBlocks + b}, so the exclusive scan of the counts gives the
+     * position of the first key of each digit and block in the sorted array.
+     */
+    public static void radixHistogram(IntArray keys, IntArray counts, int shift, int blockSize) {
+        int numBlocks = counts.getSize() / RADIX;
+        for (@Parallel int block = 0; block < numBlocks; block++) {
+            for (int digit = 0; digit < RADIX; digit++) {
+                counts.set(digit * numBlocks + block, 0);
+            }
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, keys.getSize());
+            for (int i = start; i < end; i++) {
+                int key = keys.get(i);
+                int position = (((key ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK) * numBlocks + block;
+                counts.set(position, counts.get(position) + 1);
+            }
+        }
+    }
+
+    /**
+     * Moves the keys of each block to their position in the order of the digit at
+     * {@code shift}. The keys of a block keep their relative order, so each pass
+     * is stable.
+     */
+    public static void radixScatter(IntArray keys, IntArray sortedKeys, IntArray offsets, int shift, int blockSize) {
+        int numBlocks = offsets.getSize() / RADIX;
+        for (@Parallel int block = 0; block < numBlocks; block++) {
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, keys.getSize());
+            for (int i = start; i < end; i++) {
+                int key = keys.get(i);
+                int position = (((key ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK) * numBlocks + block;
+                int destination = offsets.get(position);
+                offsets.set(position, destination + 1);
+                sortedKeys.set(destination, key);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #radixScatter(IntArray, IntArray, IntArray, int, int)}, moving
+     * the value of each key with it.
+     */
+    public static void radixScatter(IntArray keys, IntArray sortedKeys, IntArray values, IntArray sortedValues, IntArray offsets, int shift, int blockSize) {
+        int numBlocks = offsets.getSize() / RADIX;
+        for (@Parallel int block = 0; block < numBlocks; block++) {
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, keys.getSize());
+            for (int i = start; i < end; i++) {
+                int key = keys.get(i);
+                int position = (((key ^ Integer.MIN_VALUE) >>> shift) & RADIX_MASK) * numBlocks + block;
+                int destination = offsets.get(position);
+                offsets.set(position, destination + 1);
+                sortedKeys.set(destination, key);
+                sortedValues.set(destination, values.get(i));
+            }
+        }
+    }
+
+    /**
+     * Counts the keys of each block whose digit at {@code shift} has each value.
+     * The count of digit {@code d} in block {@code b} is stored at
+     * {@code d * numBlocks + b}, so the exclusive scan of the counts gives the
+     * position of the first key of each digit and block in the sorted array.
+     */
+    public static void radixHistogram(FloatArray keys, IntArray counts, int shift, int blockSize) {
+        int numBlocks = counts.getSize() / RADIX;
+        for (@Parallel int block = 0; block < numBlocks; block++) {
+            for (int digit = 0; digit < RADIX; digit++) {
+                counts.set(digit * numBlocks + block, 0);
+            }
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, keys.getSize());
+            for (int i = start; i < end; i++) {
+                float key = keys.get(i);
+                int bits = Float.floatToRawIntBits(key);
+                int position = (((bits ^ ((bits >> 31) | Integer.MIN_VALUE)) >>> shift) & RADIX_MASK) * numBlocks + block;
+                counts.set(position, counts.get(position) + 1);
+            }
+        }
+    }
+
+    /**
+     * Moves the keys of each block to their position in the order of the digit at
+     * {@code shift}. The keys of a block keep their relative order, so each pass
+     * is stable.
+     */
+    public static void radixScatter(FloatArray keys, FloatArray sortedKeys, IntArray offsets, int shift, int blockSize) {
+        int numBlocks = offsets.getSize() / RADIX;
+        for (@Parallel int block = 0; block < numBlocks; block++) {
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, keys.getSize());
+            for (int i = start; i < end; i++) {
+                float key = keys.get(i);
+                int bits = Float.floatToRawIntBits(key);
+                int position = (((bits ^ ((bits >> 31) | Integer.MIN_VALUE)) >>> shift) & RADIX_MASK) * numBlocks + block;
+                int destination = offsets.get(position);
+                offsets.set(position, destination + 1);
+                sortedKeys.set(destination, key);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #radixScatter(FloatArray, FloatArray, IntArray, int, int)}, moving
+     * the value of each key with it.
+     */
+    public static void radixScatter(FloatArray keys, FloatArray sortedKeys, IntArray values, IntArray sortedValues, IntArray offsets, int shift, int blockSize) {
+        int numBlocks = offsets.getSize() / RADIX;
+        for (@Parallel int block = 0; block < numBlocks; block++) {
+            int start = block * blockSize;
+            int end = Math.min(start + blockSize, keys.getSize());
+            for (int i = start; i < end; i++) {
+                float key = keys.get(i);
+                int bits = Float.floatToRawIntBits(key);
+                int position = (((bits ^ ((bits >> 31) | Integer.MIN_VALUE)) >>> shift) & RADIX_MASK) * numBlocks + block;
+                int destination = offsets.get(position);
+                offsets.set(position, destination + 1);
+                sortedKeys.set(destination, key);
+                sortedValues.set(destination, values.get(i));
+            }
+        }
+    }
+
+    /**
+     * Compare-and-swap step {@code (k, j)} of the bitonic sorting network, applied
+     * to every segment of the keys.
+     */
+    public static void bitonicStep(IntArray keys, int segmentSize, int k, int j) {
+        for (@Parallel int i = 0; i < keys.getSize(); i++) {
+            int partner = i ^ j;
+            if (partner > i) {
+                int a = keys.get(i);
+                int b = keys.get(partner);
+                boolean ascending = (i & k) == 0 || k == segmentSize;
+                if (ascending ? a > b : a < b) {
+                    keys.set(i, b);
+                    keys.set(partner, a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #bitonicStep(IntArray, int, int, int)}, moving the value of
+     * each key with it.
+     */
+    public static void bitonicStep(IntArray keys, IntArray values, int segmentSize, int k, int j) {
+        for (@Parallel int i = 0; i < keys.getSize(); i++) {
+            int partner = i ^ j;
+            if (partner > i) {
+                int a = keys.get(i);
+                int b = keys.get(partner);
+                boolean ascending = (i & k) == 0 || k == segmentSize;
+                if (ascending ? a > b : a < b) {
+                    keys.set(i, b);
+                    keys.set(partner, a);
+                    int value = values.get(i);
+                    values.set(i, values.get(partner));
+                    values.set(partner, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare-and-swap step {@code (k, j)} of the bitonic sorting network, applied
+     * to every segment of the keys.
+     */
+    public static void bitonicStep(FloatArray keys, int segmentSize, int k, int j) {
+        for (@Parallel int i = 0; i < keys.getSize(); i++) {
+            int partner = i ^ j;
+            if (partner > i) {
+                float a = keys.get(i);
+                float b = keys.get(partner);
+                int bitsA = Float.floatToRawIntBits(a);
+                int bitsB = Float.floatToRawIntBits(b);
+                int sortableA = bitsA ^ ((bitsA >> 31) & Integer.MAX_VALUE);
+                int sortableB = bitsB ^ ((bitsB >> 31) & Integer.MAX_VALUE);
+                boolean ascending = (i & k) == 0 || k == segmentSize;
+                if (ascending ? sortableA > sortableB : sortableA < sortableB) {
+                    keys.set(i, b);
+                    keys.set(partner, a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #bitonicStep(FloatArray, int, int, int)}, moving the value of
+     * each key with it.
+     */
+    public static void bitonicStep(FloatArray keys, IntArray values, int segmentSize, int k, int j) {
+        for (@Parallel int i = 0; i < keys.getSize(); i++) {
+            int partner = i ^ j;
+            if (partner > i) {
+                float a = keys.get(i);
+                float b = keys.get(partner);
+                int bitsA = Float.floatToRawIntBits(a);
+                int bitsB = Float.floatToRawIntBits(b);
+                int sortableA = bitsA ^ ((bitsA >> 31) & Integer.MAX_VALUE);
+                int sortableB = bitsB ^ ((bitsB >> 31) & Integer.MAX_VALUE);
+                boolean ascending = (i & k) == 0 || k == segmentSize;
+                if (ascending ? sortableA > sortableB : sortableA < sortableB) {
+                    keys.set(i, b);
+                    keys.set(partner, a);
+                    int value = values.get(i);
+                    values.set(i, values.get(partner));
+                    values.set(partner, value);
+                }
+            }
+        }
+    }
+}
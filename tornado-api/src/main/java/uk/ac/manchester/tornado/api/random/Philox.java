@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.random;
+
+import uk.ac.manchester.tornado.api.types.vectors.Int4;
+
+/**
+ * Philox-4x32-10 counter-based random number generator (Salmon et al.,
+ * "Parallel random numbers: as easy as 1, 2, 3", SC 2011).
+ *
+ * <p>
+ * The generator is a function of a 128-bit counter and a 64-bit key, with no
+ * state. A kernel obtains an independent and reproducible stream for each
+ * thread by using the thread index and the iteration as the counter, and the
+ * seed as the key:
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * for (@Parallel int i = 0; i < size; i++) {
+ *     for (int j = 0; j < iterations; j++) {
+ *         Int4 bits = Philox.philox4x32(RandomBits.counter(i, j), 0, seed);
+ *         float x = RandomBits.uniformFloat(bits.getX());
+ *         float y = RandomBits.uniformFloat(bits.getY());
+ *         ...
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * <p>
+ * The methods are plain Java, which is the reference implementation, and are
+ * compiled to integer operations in the kernels. The OpenCL backend lowers
+ * {@link #multiplyHigh(int, int)} to {@code mul_hi}.
+ * </p>
+ */
+public final class Philox {
+
+    /**
+     * Multiplier of the first and third words.
+     */
+    public static final int MULTIPLIER_0 = 0xD2511F53;
+
+    /**
+     * Multiplier of the second and fourth words.
+     */
+    public static final int MULTIPLIER_1 = 0xCD9E8D57;
+
+    /**
+     * Increment of the first word of the key between rounds (golden ratio).
+     */
+    public static final int KEY_INCREMENT_0 = 0x9E3779B9;
+
+    /**
+     * Increment of the second word of the key between rounds (square root of 3).
+     */
+    public static final int KEY_INCREMENT_1 = 0xBB67AE85;
+
+    /**
+     * Number of rounds.
+     */
+    public static final int ROUNDS = 10;
+
+    private Philox() {
+    }
+
+    /**
+     * Upper 32 bits of the 64-bit product of two signed integers.
+     *
+     * @param a
+     *     First factor.
+     * @param b
+     *     Second factor.
+     * @return The upper 32 bits of {@code a * b}.
+     */
+    public static int multiplyHigh(int a, int b) {
+        return (int) (((long) a * b) >> 32);
+    }
+
+    /**
+     * Upper 32 bits of the 64-bit product of two unsigned integers.
+     *
+     * @param a
+     *     First factor.
+     * @param b
+     *     Second factor.
+     * @return The upper 32 bits of {@code a * b}.
+     */
+    public static int multiplyHighUnsigned(int a, int b) {
+        return multiplyHigh(a, b) + ((a >> 31) & b) + ((b >> 31) & a);
+    }
+
+    /**
+     * Philox-4x32-10 function.
+     *
+     * @param counterLow
+     *     First and second words of the counter, with the first word in the
+     *     lower 32 bits.
+     * @param counterHigh
+     *     Third and fourth words of the counter.
+     * @param key
+     *     Key, usually the seed, with the first word in the lower 32 bits.
+     * @return 128 random bits, as four words.
+     */
+    public static Int4 philox4x32(long counterLow, long counterHigh, long key) {
+        int x0 = (int) counterLow;
+        int x1 = (int) (counterLow >>> 32);
+        int x2 = (int) counterHigh;
+        int x3 = (int) (counterHigh >>> 32);
+        int k0 = (int) key;
+        int k1 = (int) (key >>> 32);
+        for (int round = 0; round < ROUNDS; round++) {
+            int high0 = multiplyHighUnsigned(MULTIPLIER_0, x0);
+            int low0 = MULTIPLIER_0 * x0;
+            int high1 = multiplyHighUnsigned(MULTIPLIER_1, x2);
+            int low1 = MULTIPLIER_1 * x2;
+            x0 = high1 ^ x1 ^ k0;
+            x1 = low1;
+            x2 = high0 ^ x3 ^ k1;
+            x3 = low0;
+            k0 += KEY_INCREMENT_0;
+            k1 += KEY_INCREMENT_1;
+        }
+        return new Int4(x0, x1, x2, x3);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.random;
+
+/**
+ * Helpers to build the counters of the counter-based generators of
+ * {@link Philox} and {@link Threefry}, and to convert their output to numbers.
+ */
+public final class RandomBits {
+
+    private RandomBits() {
+    }
+
+    /**
+     * Packs two words in a counter.
+     *
+     * @param first
+     *     First word, usually the index of the thread.
+     * @param second
+     *     Second word, usually the iteration.
+     * @return The counter, with the first word in the lower 32 bits.
+     */
+    public static long counter(int first, int second) {
+        return ((long) second << 32) | (first & 0xFFFFFFFFL);
+    }
+
+    /**
+     * First word of the output of a generator.
+     *
+     * @param bits
+     *     Output of a generator.
+     * @return The lower 32 bits.
+     */
+    public static int low(long bits) {
+        return (int) bits;
+    }
+
+    /**
+     * Second word of the output of a generator.
+     *
+     * @param bits
+     *     Output of a generator.
+     * @return The upper 32 bits.
+     */
+    public static int high(long bits) {
+        return (int) (bits >>> 32);
+    }
+
+    /**
+     * Uniform float in {@code [0, 1)} from the upper 24 bits of a word.
+     *
+     * @param bits
+     *     Random word.
+     * @return The float.
+     */
+    public static float uniformFloat(int bits) {
+        return (bits >>> 8) * 0x1.0p-24f;
+    }
+
+    /**
+     * Uniform double in {@code [0, 1)} from the upper 53 bits of the output of a
+     * generator.
+     *
+     * @param bits
+     *     Output of a generator.
+     * @return The double.
+     */
+    public static double uniformDouble(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+}
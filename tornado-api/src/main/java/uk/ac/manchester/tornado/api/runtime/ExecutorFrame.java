@@ -30,9 +30,12 @@ public class ExecutorFrame {
     private DRMode dynamicReconfigurationMode;
     private Policy dynamicReconfigurationPolicy;
     private GridScheduler gridScheduler;
+    private boolean pipelined;
+    private int pipelineStage;
 
     public ExecutorFrame(long id) {
         this.executionPlanId = id;
+        this.pipelineStage = -1;
     }
 
     public ExecutorFrame withPolicy(Policy policy) {
@@ -50,6 +53,33 @@ public class ExecutorFrame {
         return this;
     }
 
+    public ExecutorFrame withPipelinedExecution(boolean pipelined) {
+        this.pipelined = pipelined;
+        return this;
+    }
+
+    /**
+     * It sets the index of the task-graph that is dispatched next within a
+     * pipelined execution plan. A negative value means that the task-graph is
+     * not dispatched in pipelined mode.
+     *
+     * @param stage
+     *     Index of the task-graph in the execution plan.
+     * @return {@link ExecutorFrame}
+     */
+    public ExecutorFrame withPipelineStage(int stage) {
+        this.pipelineStage = stage;
+        return this;
+    }
+
+    public boolean isPipelinedExecution() {
+        return pipelined;
+    }
+
+    public int getPipelineStage() {
+        return pipelineStage;
+    }
+
     public Policy getDynamicReconfigurationPolicy() {
         return dynamicReconfigurationPolicy;
     }
@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.arrays;
+
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_SHORT;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
+
+/**
+ * This class represents an array of bfloat16 values stored in native memory. A bfloat16 value has the sign and the
+ * 8-bit exponent of a float, and the 7 upper bits of its mantissa, so it is stored as the upper 16 bits of the float.
+ *
+ * <p>
+ * The elements are read and written as floats: {@link #get(int)} widens a value to float by shifting its bits, and
+ * {@link #set(int, float)} narrows a float by rounding to the nearest bfloat16, with ties to even. Both conversions
+ * only use integer operations and bit casts, so the accessors can be invoked from kernels, which then compute in
+ * float and move half of the data of a {@link FloatArray}.
+ * </p>
+ */
+@SegmentElementSize(size = 2)
+public final class BFloat16Array extends TornadoNativeArray {
+
+    private static final int BFLOAT16_BYTES = 2;
+    private MemorySegment segment;
+
+    private int numberOfElements;
+
+    private int arrayHeaderSize;
+
+    private int baseIndex;
+
+    private long segmentByteSize;
+
+    /**
+     * Constructs a new instance of the {@link BFloat16Array} that will store a user-specified number of elements.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    public BFloat16Array(int numberOfElements) {
+        this((long) numberOfElements);
+    }
+
+    /**
+     * Constructs a new instance of the {@link BFloat16Array} that will store a user-specified number of elements. The
+     * number of elements can exceed {@link Integer#MAX_VALUE}: the elements beyond that index are accessed with the
+     * long-indexed accessors, as described in {@link TornadoNativeArray#getSizeAsLong()}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    public BFloat16Array(long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / BFLOAT16_BYTES;
+        segmentByteSize = numberOfElements * BFLOAT16_BYTES + arrayHeaderSize;
+
+        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
+        segment.setAtIndex(JAVA_INT, 0, this.numberOfElements);
+    }
+
+    /**
+     * Internal constructor over an existing segment, such as a view over the memory of another {@link BFloat16Array}
+     * or a mapped file. The header of the segment is not initialized, since it might overlap memory that is not
+     * owned by the array.
+     *
+     * @param segment
+     *     The {@link MemorySegment} of the array, including the header.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     */
+    private BFloat16Array(MemorySegment segment, long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / BFLOAT16_BYTES;
+        segmentByteSize = numberOfElements * BFLOAT16_BYTES + arrayHeaderSize;
+        this.segment = segment;
+    }
+
+    /**
+     * Constructs a new {@link BFloat16Array} instance by concatenating the contents of the given array of
+     * {@link BFloat16Array} instances.
+     *
+     * @param arrays
+     *     An array of {@link BFloat16Array} instances to be concatenated into the new instance.
+     */
+    public BFloat16Array(BFloat16Array... arrays) {
+        concat(arrays);
+    }
+
+    /**
+     * Converts the bits of a bfloat16 value to a float. This method can be invoked from kernels.
+     *
+     * @param bits
+     *     The bfloat16 bits.
+     * @return The float value.
+     */
+    public static float toFloat(short bits) {
+        return Float.intBitsToFloat(bits << 16);
+    }
+
+    /**
+     * Converts a float to the bits of the nearest bfloat16 value, with ties to even. NaNs are kept as quiet NaNs.
+     * This method can be invoked from kernels.
+     *
+     * @param value
+     *     The float value.
+     * @return The bfloat16 bits.
+     */
+    public static short fromFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        if ((bits & 0x7FFFFFFF) > 0x7F800000) {
+            // Rounding could turn the NaN into an infinity
+            return (short) ((bits >>> 16) | 0x40);
+        }
+        return (short) ((bits + 0x7FFF + ((bits >>> 16) & 1)) >>> 16);
+    }
+
+    /**
+     * Creates a new instance of the {@link BFloat16Array} class from an on-heap float array, rounding each value to
+     * bfloat16.
+     *
+     * @param values
+     *     The on-heap float array to convert.
+     * @return A new {@link BFloat16Array} instance, initialized with the converted values.
+     */
+    public static BFloat16Array fromArray(float[] values) {
+        BFloat16Array array = new BFloat16Array(values.length);
+        for (int i = 0; i < values.length; i++) {
+            array.set(i, values[i]);
+        }
+        return array;
+    }
+
+    /**
+     * Creates a new instance of the {@link BFloat16Array} class from a set of float values, rounding each value to
+     * bfloat16.
+     *
+     * @param values
+     *     The float values to initialize the array with.
+     * @return A new {@link BFloat16Array} instance, initialized with the converted values.
+     */
+    public static BFloat16Array fromElements(float... values) {
+        return fromArray(values);
+    }
+
+    /**
+     * Creates a new instance of the {@link BFloat16Array} class from a {@link FloatArray}, rounding each value to
+     * bfloat16.
+     *
+     * @param values
+     *     The {@link FloatArray} to convert.
+     * @return A new {@link BFloat16Array} instance, initialized with the converted values.
+     */
+    public static BFloat16Array fromFloatArray(FloatArray values) {
+        MemorySegment source = values.getSegment();
+        long numberOfElements = values.getSizeAsLong();
+        BFloat16Array array = new BFloat16Array(numberOfElements);
+        for (long i = 0; i < numberOfElements; i++) {
+            array.segment.setAtIndex(JAVA_SHORT, array.baseIndex + i, fromFloat(source.getAtIndex(JAVA_FLOAT, i)));
+        }
+        return array;
+    }
+
+    /**
+     * Creates a new instance of the {@link BFloat16Array} class from a {@link MemorySegment} of bfloat16 values.
+     *
+     * @param segment
+     *     The {@link MemorySegment} containing the off-heap bfloat16 data.
+     * @return A new {@link BFloat16Array} instance, initialized with the segment data.
+     */
+    public static BFloat16Array fromSegment(MemorySegment segment) {
+        long byteSize = segment.byteSize();
+        long numElements = byteSize / BFLOAT16_BYTES;
+        BFloat16Array array = new BFloat16Array(numElements);
+        MemorySegment.copy(segment, 0, array.segment, (long) array.baseIndex * BFLOAT16_BYTES, byteSize);
+        return array;
+    }
+
+    /**
+     * Creates a new instance of the {@link BFloat16Array} class over a region of a file, without copying the data. The
+     * region is memory-mapped, and the transfers to the devices read the data directly from the mapping. The array is
+     * read-only on the host, so it can only be transferred to the devices.
+     *
+     * <p>
+     * The region must start at an offset of, at least, {@link TornadoNativeArray#ARRAY_HEADER} bytes, aligned to the
+     * size of the elements. Otherwise, the region is read into a new array.
+     * </p>
+     *
+     * @param path
+     *     The path of the file that contains the bfloat16 values, in the native byte order.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link BFloat16Array} instance backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static BFloat16Array fromFile(Path path, long offset, long numberOfElements) throws IOException {
+        return new BFloat16Array(mapFile(path, offset, numberOfElements, BFLOAT16_BYTES), numberOfElements);
+    }
+
+    /**
+     * Creates a new instance of the {@link BFloat16Array} class with memory from the given allocator. With an
+     * {@link Arena}, the memory is released when the arena is closed, instead of when the array is garbage collected.
+     * With a {@link NativeArrayPool}, the memory can be returned to the pool with {@link NativeArrayPool#release}.
+     *
+     * <p>
+     * The elements are not initialized if the allocator recycles memory.
+     * </p>
+     *
+     * @param allocator
+     *     The allocator of the memory of the array.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link BFloat16Array} instance that uses memory of the allocator.
+     */
+    public static BFloat16Array allocate(SegmentAllocator allocator, long numberOfElements) {
+        return new BFloat16Array(allocateSegment(allocator, numberOfElements, BFLOAT16_BYTES), numberOfElements);
+    }
+
+    /**
+     * Converts the values of the {@link BFloat16Array} instance into a new on-heap float array.
+     *
+     * @return A new on-heap float array with the converted values.
+     */
+    public float[] toHeapArray() {
+        syncFromDevice();
+        float[] outputArray = new float[getSize()];
+        for (int i = 0; i < outputArray.length; i++) {
+            outputArray[i] = get(i);
+        }
+        return outputArray;
+    }
+
+    /**
+     * Converts the values of the {@link BFloat16Array} instance into a new {@link FloatArray}.
+     *
+     * @return A new {@link FloatArray} with the converted values.
+     */
+    public FloatArray toFloatArray() {
+        syncFromDevice();
+        long numberOfElements = getSizeAsLong();
+        FloatArray floatArray = new FloatArray(numberOfElements);
+        MemorySegment destination = floatArray.getSegment();
+        for (long i = 0; i < numberOfElements; i++) {
+            destination.setAtIndex(JAVA_FLOAT, i, get(i));
+        }
+        return floatArray;
+    }
+
+    /**
+     * Copies the bfloat16 bits of the {@link BFloat16Array} instance into a new on-heap short array.
+     *
+     * @return A new on-heap short array with the bfloat16 bits.
+     */
+    public short[] toShortArray() {
+        syncFromDevice();
+        short[] outputArray = new short[getSize()];
+        MemorySegment.copy(segment, JAVA_SHORT, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
+        return outputArray;
+    }
+
+    /**
+     * Sets the value at a specified index of the {@link BFloat16Array} instance, rounded to bfloat16.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The float value to store at the specified index.
+     */
+    public void set(int index, float value) {
+        segment.setAtIndex(JAVA_SHORT, baseIndex + index, fromFloat(value));
+    }
+
+    /**
+     * Gets the value stored at the specified index of the {@link BFloat16Array} instance, as a float.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public float get(int index) {
+        return toFloat(segment.getAtIndex(JAVA_SHORT, baseIndex + index));
+    }
+
+    /**
+     * Sets the value at a specified index of the {@link BFloat16Array} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The float value to store at the specified index.
+     */
+    public void set(long index, float value) {
+        segment.setAtIndex(JAVA_SHORT, baseIndex + index, fromFloat(value));
+    }
+
+    /**
+     * Gets the value stored at the specified index of the {@link BFloat16Array} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public float get(long index) {
+        return toFloat(segment.getAtIndex(JAVA_SHORT, baseIndex + index));
+    }
+
+    /**
+     * Gets the bfloat16 bits stored at the specified index of the {@link BFloat16Array} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The bfloat16 bits at the specified index.
+     */
+    public short getShortBits(int index) {
+        return segment.getAtIndex(JAVA_SHORT, baseIndex + index);
+    }
+
+    /**
+     * Sets the bfloat16 bits at a specified index of the {@link BFloat16Array} instance.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param bits
+     *     The bfloat16 bits to store at the specified index.
+     */
+    public void setShortBits(int index, short bits) {
+        segment.setAtIndex(JAVA_SHORT, baseIndex + index, bits);
+    }
+
+    /**
+     * Sets all the values of the {@link BFloat16Array} instance to zero.
+     */
+    @Override
+    public void clear() {
+        init(0.0f);
+    }
+
+    @Override
+    public int getElementSize() {
+        return BFLOAT16_BYTES;
+    }
+
+    /**
+     * Initializes all the elements of the {@link BFloat16Array} instance with a specified value.
+     *
+     * @param value
+     *     The float value to initialize the {@link BFloat16Array} instance with, rounded to bfloat16.
+     */
+    public void init(float value) {
+        short bits = fromFloat(value);
+        for (long i = 0; i < getSizeAsLong(); i++) {
+            segment.setAtIndex(JAVA_SHORT, baseIndex + i, bits);
+        }
+    }
+
+    /**
+     * Returns the number of bfloat16 elements stored in the {@link BFloat16Array} instance.
+     *
+     * @return The number of elements.
+     */
+    @Override
+    public int getSize() {
+        return numberOfElements;
+    }
+
+    /**
+     * Returns the underlying {@link MemorySegment} of the {@link BFloat16Array} instance.
+     *
+     * @return The {@link MemorySegment} associated with the {@link BFloat16Array} instance.
+     */
+    @Override
+    public MemorySegment getSegment() {
+        syncFromDevice();
+        return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
+    }
+
+    /**
+     * Returns the underlying {@link MemorySegment} of the {@link BFloat16Array} instance, including the header.
+     *
+     * @return The {@link MemorySegment} associated with the {@link BFloat16Array} instance.
+     */
+    @Override
+    public MemorySegment getSegmentWithHeader() {
+        return segment;
+    }
+
+    /**
+     * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link BFloat16Array}
+     * instance, occupies.
+     *
+     * @return The total number of bytes of the {@link MemorySegment}.
+     */
+    @Override
+    public long getNumBytesOfSegmentWithHeader() {
+        return segmentByteSize;
+    }
+
+    /**
+     * Returns the number of bytes of the {@link MemorySegment} that is associated with the {@link BFloat16Array}
+     * instance, excluding the header bytes.
+     *
+     * @return The number of bytes of the raw data in the {@link MemorySegment}.
+     */
+    @Override
+    public long getNumBytesOfSegment() {
+        return segmentByteSize - TornadoNativeArray.ARRAY_HEADER;
+    }
+
+    /**
+     * Factory method to initialize a {@link BFloat16Array}. This method can be invoked from a Task-Graph.
+     *
+     * @param array
+     *     Input Array.
+     * @param value
+     *     The float value to initialize the {@code BFloat16Array} instance with.
+     */
+    public static void initialize(BFloat16Array array, float value) {
+        for (@Parallel int i = 0; i < array.getSize(); i++) {
+            array.set(i, value);
+        }
+    }
+
+    /**
+     * Concatenates multiple {@link BFloat16Array} instances into a single {@link BFloat16Array}.
+     *
+     * @param arrays
+     *     Variable number of {@link BFloat16Array} objects to be concatenated.
+     * @return A new {@link BFloat16Array} instance containing all the elements of the input arrays,
+     *     concatenated in the order they were provided.
+     */
+    public static BFloat16Array concat(BFloat16Array... arrays) {
+        long newSize = Arrays.stream(arrays).mapToLong(BFloat16Array::getSizeAsLong).sum();
+        BFloat16Array concatArray = new BFloat16Array(newSize);
+        long currentPositionBytes = 0;
+        for (BFloat16Array array : arrays) {
+            MemorySegment.copy(array.getSegment(), 0, concatArray.getSegment(), currentPositionBytes, array.getNumBytesOfSegment());
+            currentPositionBytes += array.getNumBytesOfSegment();
+        }
+        return concatArray;
+    }
+
+    /**
+     * Extracts a slice of elements from a given {@link BFloat16Array}, creating a new {@link BFloat16Array} instance.
+     *
+     * @param offset
+     *     The starting index from which to begin the slice, inclusive.
+     * @param length
+     *     The number of elements to include in the slice.
+     * @return A new {@link BFloat16Array} instance representing the specified slice of the original array.
+     * @throws IllegalArgumentException
+     *     if the specified slice is out of the bounds of the original array.
+     */
+    public BFloat16Array slice(int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > getSize()) {
+            throw new IllegalArgumentException("Slice out of bounds");
+        }
+
+        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + (long) offset * BFLOAT16_BYTES;
+        long sliceByteLength = (long) length * BFLOAT16_BYTES;
+        MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
+        return fromSegment(sliceSegment);
+    }
+
+    /**
+     * Creates a view of a range of elements of this {@link BFloat16Array}. Unlike {@link #slice(int, int)}, the data
+     * is not copied: the view shares the off-heap memory of this array, and updates through one of them are visible
+     * through the other. Views are transferred to the devices as described in {@link FloatArray#view(long, long)}.
+     *
+     * @param offset
+     *     The index of the first element of the view.
+     * @param length
+     *     The number of elements of the view.
+     * @return A new {@link BFloat16Array} instance that shares the memory of this array.
+     * @throws IllegalArgumentException
+     *     if the specified range is out of the bounds of the original array.
+     */
+    public BFloat16Array view(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > getSizeAsLong()) {
+            throw new IllegalArgumentException("View out of bounds");
+        }
+
+        long viewOffsetInBytes = offset * BFLOAT16_BYTES;
+        MemorySegment viewSegment = segment.asSlice(viewOffsetInBytes, TornadoNativeArray.ARRAY_HEADER + length * BFLOAT16_BYTES);
+        BFloat16Array view = new BFloat16Array(viewSegment, length);
+        view.setViewOf(this, viewOffsetInBytes);
+        return view;
+    }
+}
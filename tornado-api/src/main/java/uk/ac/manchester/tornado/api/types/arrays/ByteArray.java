@@ -20,8 +20,11 @@ package uk.ac.manchester.tornado.api.types.arrays;
 import static java.lang.foreign.ValueLayout.JAVA_BYTE;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
@@ -51,13 +54,43 @@ public final class ByteArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public ByteArray(int numberOfElements) {
-        this.numberOfElements = numberOfElements;
+        this((long) numberOfElements);
+    }
+
+    /**
+     * Constructs a new instance of the {@link ByteArray} that will store a user-specified number of elements. The number
+     * of elements can exceed {@link Integer#MAX_VALUE}: the elements beyond that index are accessed with the
+     * long-indexed accessors, as described in {@link TornadoNativeArray#getSizeAsLong()}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    public ByteArray(long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / BYTE_BYTES;
         segmentByteSize = numberOfElements * BYTE_BYTES + arrayHeaderSize;
 
         segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment.setAtIndex(JAVA_INT, 0, this.numberOfElements);
+    }
+
+    /**
+     * Internal constructor over an existing segment, such as a view over the memory of another {@link ByteArray}
+     * or a mapped file. The header of the segment is not initialized, since it might overlap memory that is not
+     * owned by the array.
+     *
+     * @param segment
+     *     The {@link MemorySegment} of the array, including the header.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     */
+    private ByteArray(MemorySegment segment, long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / BYTE_BYTES;
+        segmentByteSize = numberOfElements * BYTE_BYTES + arrayHeaderSize;
+        this.segment = segment;
     }
 
     /**
@@ -116,12 +149,55 @@ public final class ByteArray extends TornadoNativeArray {
      */
     public static ByteArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / BYTE_BYTES);
+        long numElements = byteSize / BYTE_BYTES;
         ByteArray byteArray = new ByteArray(numElements);
         MemorySegment.copy(segment, 0, byteArray.segment, byteArray.baseIndex * BYTE_BYTES, byteSize);
         return byteArray;
     }
 
+    /**
+     * Creates a new instance of the {@link ByteArray} class over a region of a file, without copying the data. The region
+     * is memory-mapped, and the transfers to the devices read the data directly from the mapping. The array is
+     * read-only on the host, so it can only be transferred to the devices.
+     *
+     * <p>
+     * The region must start at an offset of, at least, {@link TornadoNativeArray#ARRAY_HEADER} bytes, aligned to the
+     * size of the elements. Otherwise, the region is read into a new array.
+     * </p>
+     *
+     * @param path
+     *     The path of the file that contains the bytes, in the native byte order.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link ByteArray} instance backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static ByteArray fromFile(Path path, long offset, long numberOfElements) throws IOException {
+        return new ByteArray(mapFile(path, offset, numberOfElements, BYTE_BYTES), numberOfElements);
+    }
+
+    /**
+     * Creates a new instance of the {@link ByteArray} class with memory from the given allocator. With an {@link Arena},
+     * the memory is released when the arena is closed, instead of when the array is garbage collected. With a
+     * {@link NativeArrayPool}, the memory can be returned to the pool with {@link NativeArrayPool#release}.
+     *
+     * <p>
+     * The elements are not initialized if the allocator recycles memory.
+     * </p>
+     *
+     * @param allocator
+     *     The allocator of the memory of the array.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link ByteArray} instance that uses memory of the allocator.
+     */
+    public static ByteArray allocate(SegmentAllocator allocator, long numberOfElements) {
+        return new ByteArray(allocateSegment(allocator, numberOfElements, BYTE_BYTES), numberOfElements);
+    }
+
     /**
      * Converts the byte data from off-heap to on-heap, by copying the values of a {@link ByteArray}
      * instance into a new on-heap array.
@@ -129,6 +205,7 @@ public final class ByteArray extends TornadoNativeArray {
      * @return A new on-heap byte array, initialized with the values stored in the {@link ByteArray} instance.
      */
     public byte[] toHeapArray() {
+        syncFromDevice();
         byte[] outputArray = new byte[getSize()];
         for (int i = 0; i < getSize(); i++) {
             outputArray[i] = get(i);
@@ -159,6 +236,31 @@ public final class ByteArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_BYTE, baseIndex + index);
     }
 
+    /**
+     * Sets the value at a specified index of the {@link ByteArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, byte value) {
+        segment.setAtIndex(JAVA_BYTE, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the {@link ByteArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public byte get(long index) {
+        return segment.getAtIndex(JAVA_BYTE, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link ByteArray} instance to zero.
      */
@@ -179,7 +281,7 @@ public final class ByteArray extends TornadoNativeArray {
      *     The byte value to initialize the {@link ByteArray} instance with.
      */
     public void init(byte value) {
-        for (int i = 0; i < getSize(); i++) {
+        for (long i = 0; i < getSizeAsLong(); i++) {
             segment.setAtIndex(JAVA_BYTE, baseIndex + i, value);
         }
     }
@@ -200,6 +302,7 @@ public final class ByteArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
     }
 
@@ -257,7 +360,7 @@ public final class ByteArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static ByteArray concat(ByteArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(ByteArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(ByteArray::getSizeAsLong).sum();
         ByteArray concatArray = new ByteArray(newSize);
         long currentPositionBytes = 0;
         for (ByteArray array : arrays) {
@@ -290,4 +393,36 @@ public final class ByteArray extends TornadoNativeArray {
         ByteArray slice = fromSegment(sliceSegment);
         return slice;
     }
+
+    /**
+     * Creates a view of a range of elements of this {@link ByteArray}. Unlike {@link #slice(int, int)}, the data is
+     * not copied: the view shares the off-heap memory of this array, and updates through one of them are visible
+     * through the other.
+     *
+     * <p>
+     * If this array is allocated on the device that runs a task, a view passed to the task is backed by a
+     * sub-buffer of the device buffer of this array, and it is neither allocated nor copied. The device must
+     * support sub-buffers, and the offset of the view in bytes must be a multiple of the base address alignment
+     * of the device. Otherwise, the view is allocated and transferred as any other array.
+     * </p>
+     *
+     * @param offset
+     *     The index of the first element of the view.
+     * @param length
+     *     The number of elements of the view.
+     * @return A new {@link ByteArray} instance that shares the memory of this array.
+     * @throws IllegalArgumentException
+     *     if the specified range is out of the bounds of the original array.
+     */
+    public ByteArray view(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > getSizeAsLong()) {
+            throw new IllegalArgumentException("View out of bounds");
+        }
+
+        long viewOffsetInBytes = (long) offset * BYTE_BYTES;
+        MemorySegment viewSegment = segment.asSlice(viewOffsetInBytes, TornadoNativeArray.ARRAY_HEADER + (long) length * BYTE_BYTES);
+        ByteArray view = new ByteArray(viewSegment, length);
+        view.setViewOf(this, viewOffsetInBytes);
+        return view;
+    }
 }
@@ -20,12 +20,16 @@ package uk.ac.manchester.tornado.api.types.arrays;
 import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
 
 /**
  * This class represents an array of doubles stored in native memory.
@@ -52,14 +56,44 @@ public final class DoubleArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public DoubleArray(int numberOfElements) {
-        this.numberOfElements = numberOfElements;
+        this((long) numberOfElements);
+    }
+
+    /**
+     * Constructs a new instance of the {@link DoubleArray} that will store a user-specified number of elements. The number
+     * of elements can exceed {@link Integer#MAX_VALUE}: the elements beyond that index are accessed with the
+     * long-indexed accessors, as described in {@link TornadoNativeArray#getSizeAsLong()}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    public DoubleArray(long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         assert arrayHeaderSize >= 8;
         baseIndex = arrayHeaderSize / DOUBLE_BYTES;
         segmentByteSize = numberOfElements * DOUBLE_BYTES + arrayHeaderSize;
 
         segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment.setAtIndex(JAVA_INT, 0, this.numberOfElements);
+    }
+
+    /**
+     * Internal constructor over an existing segment, such as a view over the memory of another {@link DoubleArray}
+     * or a mapped file. The header of the segment is not initialized, since it might overlap memory that is not
+     * owned by the array.
+     *
+     * @param segment
+     *     The {@link MemorySegment} of the array, including the header.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     */
+    private DoubleArray(MemorySegment segment, long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / DOUBLE_BYTES;
+        segmentByteSize = numberOfElements * DOUBLE_BYTES + arrayHeaderSize;
+        this.segment = segment;
     }
 
     /**
@@ -81,9 +115,7 @@ public final class DoubleArray extends TornadoNativeArray {
      */
     private static DoubleArray createSegment(double[] values) {
         DoubleArray array = new DoubleArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_DOUBLE, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -118,12 +150,55 @@ public final class DoubleArray extends TornadoNativeArray {
      */
     public static DoubleArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / DOUBLE_BYTES);
+        long numElements = byteSize / DOUBLE_BYTES;
         DoubleArray doubleArray = new DoubleArray(numElements);
         MemorySegment.copy(segment, 0, doubleArray.segment, doubleArray.baseIndex * DOUBLE_BYTES, byteSize);
         return doubleArray;
     }
 
+    /**
+     * Creates a new instance of the {@link DoubleArray} class over a region of a file, without copying the data. The region
+     * is memory-mapped, and the transfers to the devices read the data directly from the mapping. The array is
+     * read-only on the host, so it can only be transferred to the devices.
+     *
+     * <p>
+     * The region must start at an offset of, at least, {@link TornadoNativeArray#ARRAY_HEADER} bytes, aligned to the
+     * size of the elements. Otherwise, the region is read into a new array.
+     * </p>
+     *
+     * @param path
+     *     The path of the file that contains the doubles, in the native byte order.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link DoubleArray} instance backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static DoubleArray fromFile(Path path, long offset, long numberOfElements) throws IOException {
+        return new DoubleArray(mapFile(path, offset, numberOfElements, DOUBLE_BYTES), numberOfElements);
+    }
+
+    /**
+     * Creates a new instance of the {@link DoubleArray} class with memory from the given allocator. With an {@link Arena},
+     * the memory is released when the arena is closed, instead of when the array is garbage collected. With a
+     * {@link NativeArrayPool}, the memory can be returned to the pool with {@link NativeArrayPool#release}.
+     *
+     * <p>
+     * The elements are not initialized if the allocator recycles memory.
+     * </p>
+     *
+     * @param allocator
+     *     The allocator of the memory of the array.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link DoubleArray} instance that uses memory of the allocator.
+     */
+    public static DoubleArray allocate(SegmentAllocator allocator, long numberOfElements) {
+        return new DoubleArray(allocateSegment(allocator, numberOfElements, DOUBLE_BYTES), numberOfElements);
+    }
+
     /**
      * Converts the double data from off-heap to on-heap, by copying the values of a {@link DoubleArray}
      * instance into a new on-heap array.
@@ -131,10 +206,9 @@ public final class DoubleArray extends TornadoNativeArray {
      * @return A new on-heap double array, initialized with the values stored in the {@link DoubleArray} instance.
      */
     public double[] toHeapArray() {
+        syncFromDevice();
         double[] outputArray = new double[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        MemorySegment.copy(segment, JAVA_DOUBLE, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -161,6 +235,31 @@ public final class DoubleArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_DOUBLE, baseIndex + index);
     }
 
+    /**
+     * Sets the value at a specified index of the {@link DoubleArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, double value) {
+        segment.setAtIndex(JAVA_DOUBLE, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the {@link DoubleArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public double get(long index) {
+        return segment.getAtIndex(JAVA_DOUBLE, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link DoubleArray} instance to zero.
      */
@@ -181,9 +280,7 @@ public final class DoubleArray extends TornadoNativeArray {
      *     The double value to initialize the {@link DoubleArray} instance with.
      */
     public void init(double value) {
-        for (int i = 0; i < getSize(); i++) {
-            segment.setAtIndex(JAVA_DOUBLE, baseIndex + i, value);
-        }
+        SegmentOps.fillDoubles(segment.asSlice(TornadoNativeArray.ARRAY_HEADER, getNumBytesOfSegment()), value);
     }
 
     /**
@@ -203,6 +300,7 @@ public final class DoubleArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
     }
 
@@ -260,7 +358,7 @@ public final class DoubleArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static DoubleArray concat(DoubleArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(DoubleArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(DoubleArray::getSizeAsLong).sum();
         DoubleArray concatArray = new DoubleArray(newSize);
         long currentPositionBytes = 0;
         for (DoubleArray array : arrays) {
@@ -293,4 +391,36 @@ public final class DoubleArray extends TornadoNativeArray {
         DoubleArray slice = fromSegment(sliceSegment);
         return slice;
     }
+
+    /**
+     * Creates a view of a range of elements of this {@link DoubleArray}. Unlike {@link #slice(int, int)}, the data is
+     * not copied: the view shares the off-heap memory of this array, and updates through one of them are visible
+     * through the other.
+     *
+     * <p>
+     * If this array is allocated on the device that runs a task, a view passed to the task is backed by a
+     * sub-buffer of the device buffer of this array, and it is neither allocated nor copied. The device must
+     * support sub-buffers, and the offset of the view in bytes must be a multiple of the base address alignment
+     * of the device. Otherwise, the view is allocated and transferred as any other array.
+     * </p>
+     *
+     * @param offset
+     *     The index of the first element of the view.
+     * @param length
+     *     The number of elements of the view.
+     * @return A new {@link DoubleArray} instance that shares the memory of this array.
+     * @throws IllegalArgumentException
+     *     if the specified range is out of the bounds of the original array.
+     */
+    public DoubleArray view(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > getSizeAsLong()) {
+            throw new IllegalArgumentException("View out of bounds");
+        }
+
+        long viewOffsetInBytes = (long) offset * DOUBLE_BYTES;
+        MemorySegment viewSegment = segment.asSlice(viewOffsetInBytes, TornadoNativeArray.ARRAY_HEADER + (long) length * DOUBLE_BYTES);
+        DoubleArray view = new DoubleArray(viewSegment, length);
+        view.setViewOf(this, viewOffsetInBytes);
+        return view;
+    }
 }
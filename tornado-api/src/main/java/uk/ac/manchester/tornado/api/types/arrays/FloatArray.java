@@ -20,12 +20,16 @@ package uk.ac.manchester.tornado.api.types.arrays;
 import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
 
 /**
  * This class represents an array of floats stored in native memory.
@@ -53,13 +57,43 @@ public final class FloatArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public FloatArray(int numberOfElements) {
-        this.numberOfElements = numberOfElements;
+        this((long) numberOfElements);
+    }
+
+    /**
+     * Constructs a new instance of the {@link FloatArray} that will store a user-specified number of elements. The number
+     * of elements can exceed {@link Integer#MAX_VALUE}: the elements beyond that index are accessed with the
+     * long-indexed accessors, as described in {@link TornadoNativeArray#getSizeAsLong()}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    public FloatArray(long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / FLOAT_BYTES;
         segmentByteSize = numberOfElements * FLOAT_BYTES + arrayHeaderSize;
 
         segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment.setAtIndex(JAVA_INT, 0, this.numberOfElements);
+    }
+
+    /**
+     * Internal constructor over an existing segment, such as a view over the memory of another {@link FloatArray}
+     * or a mapped file. The header of the segment is not initialized, since it might overlap memory that is not
+     * owned by the array.
+     *
+     * @param segment
+     *     The {@link MemorySegment} of the array, including the header.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     */
+    private FloatArray(MemorySegment segment, long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / FLOAT_BYTES;
+        segmentByteSize = numberOfElements * FLOAT_BYTES + arrayHeaderSize;
+        this.segment = segment;
     }
 
     /**
@@ -81,9 +115,7 @@ public final class FloatArray extends TornadoNativeArray {
      */
     private static FloatArray createSegment(float[] values) {
         FloatArray array = new FloatArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_FLOAT, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -118,12 +150,55 @@ public final class FloatArray extends TornadoNativeArray {
      */
     public static FloatArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / FLOAT_BYTES);
+        long numElements = byteSize / FLOAT_BYTES;
         FloatArray floatArray = new FloatArray(numElements);
         MemorySegment.copy(segment, 0, floatArray.segment, floatArray.baseIndex * FLOAT_BYTES, byteSize);
         return floatArray;
     }
 
+    /**
+     * Creates a new instance of the {@link FloatArray} class over a region of a file, without copying the data. The region
+     * is memory-mapped, and the transfers to the devices read the data directly from the mapping. The array is
+     * read-only on the host, so it can only be transferred to the devices.
+     *
+     * <p>
+     * The region must start at an offset of, at least, {@link TornadoNativeArray#ARRAY_HEADER} bytes, aligned to the
+     * size of the elements. Otherwise, the region is read into a new array.
+     * </p>
+     *
+     * @param path
+     *     The path of the file that contains the floats, in the native byte order.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link FloatArray} instance backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static FloatArray fromFile(Path path, long offset, long numberOfElements) throws IOException {
+        return new FloatArray(mapFile(path, offset, numberOfElements, FLOAT_BYTES), numberOfElements);
+    }
+
+    /**
+     * Creates a new instance of the {@link FloatArray} class with memory from the given allocator. With an {@link Arena},
+     * the memory is released when the arena is closed, instead of when the array is garbage collected. With a
+     * {@link NativeArrayPool}, the memory can be returned to the pool with {@link NativeArrayPool#release}.
+     *
+     * <p>
+     * The elements are not initialized if the allocator recycles memory.
+     * </p>
+     *
+     * @param allocator
+     *     The allocator of the memory of the array.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link FloatArray} instance that uses memory of the allocator.
+     */
+    public static FloatArray allocate(SegmentAllocator allocator, long numberOfElements) {
+        return new FloatArray(allocateSegment(allocator, numberOfElements, FLOAT_BYTES), numberOfElements);
+    }
+
     /**
      * Converts the float data from off-heap to on-heap, by copying the values of a {@link FloatArray}
      * instance into a new on-heap array.
@@ -131,10 +206,9 @@ public final class FloatArray extends TornadoNativeArray {
      * @return A new on-heap float array, initialized with the values stored in the {@link FloatArray} instance.
      */
     public float[] toHeapArray() {
+        syncFromDevice();
         float[] outputArray = new float[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        MemorySegment.copy(segment, JAVA_FLOAT, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -161,6 +235,31 @@ public final class FloatArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_FLOAT, baseIndex + index);
     }
 
+    /**
+     * Sets the value at a specified index of the {@link FloatArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, float value) {
+        segment.setAtIndex(JAVA_FLOAT, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the {@link FloatArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public float get(long index) {
+        return segment.getAtIndex(JAVA_FLOAT, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link FloatArray} instance to zero.
      */
@@ -181,9 +280,7 @@ public final class FloatArray extends TornadoNativeArray {
      *     The float value to initialize the {@link FloatArray} instance with.
      */
     public void init(float value) {
-        for (int i = 0; i < getSize(); i++) {
-            segment.setAtIndex(JAVA_FLOAT, baseIndex + i, value);
-        }
+        SegmentOps.fillFloats(segment.asSlice(TornadoNativeArray.ARRAY_HEADER, getNumBytesOfSegment()), value);
     }
 
     /**
@@ -203,6 +300,7 @@ public final class FloatArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
     }
 
@@ -260,7 +358,7 @@ public final class FloatArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static FloatArray concat(FloatArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(FloatArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(FloatArray::getSizeAsLong).sum();
         FloatArray concatArray = new FloatArray(newSize);
         long currentPositionBytes = 0;
         for (FloatArray array : arrays) {
@@ -293,4 +391,36 @@ public final class FloatArray extends TornadoNativeArray {
         FloatArray slice = fromSegment(sliceSegment);
         return slice;
     }
+
+    /**
+     * Creates a view of a range of elements of this {@link FloatArray}. Unlike {@link #slice(int, int)}, the data is
+     * not copied: the view shares the off-heap memory of this array, and updates through one of them are visible
+     * through the other.
+     *
+     * <p>
+     * If this array is allocated on the device that runs a task, a view passed to the task is backed by a
+     * sub-buffer of the device buffer of this array, and it is neither allocated nor copied. The device must
+     * support sub-buffers, and the offset of the view in bytes must be a multiple of the base address alignment
+     * of the device. Otherwise, the view is allocated and transferred as any other array.
+     * </p>
+     *
+     * @param offset
+     *     The index of the first element of the view.
+     * @param length
+     *     The number of elements of the view.
+     * @return A new {@link FloatArray} instance that shares the memory of this array.
+     * @throws IllegalArgumentException
+     *     if the specified range is out of the bounds of the original array.
+     */
+    public FloatArray view(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > getSizeAsLong()) {
+            throw new IllegalArgumentException("View out of bounds");
+        }
+
+        long viewOffsetInBytes = (long) offset * FLOAT_BYTES;
+        MemorySegment viewSegment = segment.asSlice(viewOffsetInBytes, TornadoNativeArray.ARRAY_HEADER + (long) length * FLOAT_BYTES);
+        FloatArray view = new FloatArray(viewSegment, length);
+        view.setViewOf(this, viewOffsetInBytes);
+        return view;
+    }
 }
@@ -17,11 +17,15 @@
  */
 package uk.ac.manchester.tornado.api.types.arrays;
 
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 import static java.lang.foreign.ValueLayout.JAVA_SHORT;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
@@ -55,13 +59,43 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public HalfFloatArray(int numberOfElements) {
-        this.numberOfElements = numberOfElements;
+        this((long) numberOfElements);
+    }
+
+    /**
+     * Constructs a new instance of the {@link HalfFloatArray} that will store a user-specified number of elements. The number
+     * of elements can exceed {@link Integer#MAX_VALUE}: the elements beyond that index are accessed with the
+     * long-indexed accessors, as described in {@link TornadoNativeArray#getSizeAsLong()}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    public HalfFloatArray(long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / HALF_FLOAT_BYTES;
         segmentByteSize = numberOfElements * HALF_FLOAT_BYTES + arrayHeaderSize;
 
         segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment.setAtIndex(JAVA_INT, 0, this.numberOfElements);
+    }
+
+    /**
+     * Internal constructor over an existing segment, such as a view over the memory of another {@link HalfFloatArray}
+     * or a mapped file. The header of the segment is not initialized, since it might overlap memory that is not
+     * owned by the array.
+     *
+     * @param segment
+     *     The {@link MemorySegment} of the array, including the header.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     */
+    private HalfFloatArray(MemorySegment segment, long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / HALF_FLOAT_BYTES;
+        segmentByteSize = numberOfElements * HALF_FLOAT_BYTES + arrayHeaderSize;
+        this.segment = segment;
     }
 
     /**
@@ -120,12 +154,55 @@ public final class HalfFloatArray extends TornadoNativeArray {
      */
     public static HalfFloatArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / HALF_FLOAT_BYTES);
+        long numElements = byteSize / HALF_FLOAT_BYTES;
         HalfFloatArray halfFloatArray = new HalfFloatArray(numElements);
         MemorySegment.copy(segment, 0, halfFloatArray.segment, (long) halfFloatArray.baseIndex * HALF_FLOAT_BYTES, byteSize);
         return halfFloatArray;
     }
 
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class over a region of a file, without copying the data. The region
+     * is memory-mapped, and the transfers to the devices read the data directly from the mapping. The array is
+     * read-only on the host, so it can only be transferred to the devices.
+     *
+     * <p>
+     * The region must start at an offset of, at least, {@link TornadoNativeArray#ARRAY_HEADER} bytes, aligned to the
+     * size of the elements. Otherwise, the region is read into a new array.
+     * </p>
+     *
+     * @param path
+     *     The path of the file that contains the half-floats, in the native byte order.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link HalfFloatArray} instance backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static HalfFloatArray fromFile(Path path, long offset, long numberOfElements) throws IOException {
+        return new HalfFloatArray(mapFile(path, offset, numberOfElements, HALF_FLOAT_BYTES), numberOfElements);
+    }
+
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class with memory from the given allocator. With an {@link Arena},
+     * the memory is released when the arena is closed, instead of when the array is garbage collected. With a
+     * {@link NativeArrayPool}, the memory can be returned to the pool with {@link NativeArrayPool#release}.
+     *
+     * <p>
+     * The elements are not initialized if the allocator recycles memory.
+     * </p>
+     *
+     * @param allocator
+     *     The allocator of the memory of the array.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link HalfFloatArray} instance that uses memory of the allocator.
+     */
+    public static HalfFloatArray allocate(SegmentAllocator allocator, long numberOfElements) {
+        return new HalfFloatArray(allocateSegment(allocator, numberOfElements, HALF_FLOAT_BYTES), numberOfElements);
+    }
+
     /**
      * Converts the {@link HalfFloat} data from off-heap to on-heap, by copying the values of a {@link HalfFloatArray}
      * instance into a new on-heap {@link HalfFloat}.
@@ -133,6 +210,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      * @return A new on-heap {@link HalfFloat} array, initialized with the values stored in the {@link HalfFloatArray} instance.
      */
     public HalfFloat[] toHeapArray() {
+        syncFromDevice();
         HalfFloat[] outputArray = new HalfFloat[getSize()];
         for (int i = 0; i < getSize(); i++) {
             outputArray[i] = get(i);
@@ -148,13 +226,82 @@ public final class HalfFloatArray extends TornadoNativeArray {
      * @return A new on-heap short array, initialized with the values stored in the {@link HalfFloatArray} instance.
      */
     public short[] toShortArray() {
+        syncFromDevice();
         short[] outputArray = new short[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i).getHalfFloatValue();
+        MemorySegment.copy(segment, JAVA_SHORT, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
+        return outputArray;
+    }
+
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class from an on-heap float array, converting each value
+     * to float-16 with {@link Float#floatToFloat16(float)}. No {@link HalfFloat} objects are allocated.
+     *
+     * @param values
+     *     The on-heap float array to convert.
+     * @return A new {@link HalfFloatArray} instance, initialized with the converted values.
+     */
+    public static HalfFloatArray fromFloatArray(float[] values) {
+        HalfFloatArray array = new HalfFloatArray(values.length);
+        MemorySegment segment = array.segment;
+        long baseIndex = array.baseIndex;
+        for (int i = 0; i < values.length; i++) {
+            segment.setAtIndex(JAVA_SHORT, baseIndex + i, Float.floatToFloat16(values[i]));
+        }
+        return array;
+    }
+
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class from a {@link FloatArray}, converting each value
+     * to float-16 with {@link Float#floatToFloat16(float)}. No {@link HalfFloat} objects are allocated.
+     *
+     * @param values
+     *     The {@link FloatArray} to convert.
+     * @return A new {@link HalfFloatArray} instance, initialized with the converted values.
+     */
+    public static HalfFloatArray fromFloatArray(FloatArray values) {
+        MemorySegment source = values.getSegment();
+        long numberOfElements = values.getSizeAsLong();
+        HalfFloatArray array = new HalfFloatArray(numberOfElements);
+        MemorySegment segment = array.segment;
+        long baseIndex = array.baseIndex;
+        for (long i = 0; i < numberOfElements; i++) {
+            segment.setAtIndex(JAVA_SHORT, baseIndex + i, Float.floatToFloat16(source.getAtIndex(JAVA_FLOAT, i)));
+        }
+        return array;
+    }
+
+    /**
+     * Converts the float-16 values of the {@link HalfFloatArray} instance into a new on-heap float array, with
+     * {@link Float#float16ToFloat(short)}. No {@link HalfFloat} objects are allocated.
+     *
+     * @return A new on-heap float array with the converted values.
+     */
+    public float[] toFloatHeapArray() {
+        syncFromDevice();
+        float[] outputArray = new float[getSize()];
+        for (int i = 0; i < outputArray.length; i++) {
+            outputArray[i] = Float.float16ToFloat(segment.getAtIndex(JAVA_SHORT, baseIndex + i));
         }
         return outputArray;
     }
 
+    /**
+     * Converts the float-16 values of the {@link HalfFloatArray} instance into a new {@link FloatArray}, with
+     * {@link Float#float16ToFloat(short)}. No {@link HalfFloat} objects are allocated.
+     *
+     * @return A new {@link FloatArray} with the converted values.
+     */
+    public FloatArray toFloatArray() {
+        syncFromDevice();
+        long numberOfElements = getSizeAsLong();
+        FloatArray floatArray = new FloatArray(numberOfElements);
+        MemorySegment destination = floatArray.getSegment();
+        for (long i = 0; i < numberOfElements; i++) {
+            destination.setAtIndex(JAVA_FLOAT, i, Float.float16ToFloat(segment.getAtIndex(JAVA_SHORT, baseIndex + i)));
+        }
+        return floatArray;
+    }
+
     /**
      * Sets the {@link HalfFloat} value at a specified index of the {@link HalfFloatArray} instance.
      *
@@ -179,6 +326,80 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return new HalfFloat(halfFloatValue);
     }
 
+    /**
+     * Sets the value at a specified index of the {@link HalfFloatArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, HalfFloat value) {
+        segment.setAtIndex(JAVA_SHORT, baseIndex + index, value.getHalfFloatValue());
+    }
+
+    /**
+     * Gets the value stored at the specified index of the {@link HalfFloatArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public HalfFloat get(long index) {
+        short halfFloatValue = segment.getAtIndex(JAVA_SHORT, baseIndex + index);
+        return new HalfFloat(halfFloatValue);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the {@link HalfFloatArray} instance, converted to a float. Unlike
+     * {@link #get(int)}, no {@link HalfFloat} object is allocated.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index, as a float.
+     */
+    public float getFloat(int index) {
+        return Float.float16ToFloat(segment.getAtIndex(JAVA_SHORT, baseIndex + index));
+    }
+
+    /**
+     * Sets the value at a specified index of the {@link HalfFloatArray} instance from a float, which is rounded to
+     * float-16. Unlike {@link #set(int, HalfFloat)}, no {@link HalfFloat} object is needed.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The float value to store at the specified index.
+     */
+    public void setFloat(int index, float value) {
+        segment.setAtIndex(JAVA_SHORT, baseIndex + index, Float.floatToFloat16(value));
+    }
+
+    /**
+     * Gets the bits of the float-16 value stored at the specified index of the {@link HalfFloatArray} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The float-16 bits at the specified index.
+     */
+    public short getShortBits(int index) {
+        return segment.getAtIndex(JAVA_SHORT, baseIndex + index);
+    }
+
+    /**
+     * Sets the bits of the float-16 value at a specified index of the {@link HalfFloatArray} instance.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param bits
+     *     The float-16 bits to store at the specified index.
+     */
+    public void setShortBits(int index, short bits) {
+        segment.setAtIndex(JAVA_SHORT, baseIndex + index, bits);
+    }
+
     /**
      * Sets all the values of the {@link HalfFloatArray} instance to zero.
      */
@@ -199,8 +420,9 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     The {@link HalfFloat} value to initialize the {@link HalfFloatArray} instance with.
      */
     public void init(HalfFloat value) {
-        for (int i = 0; i < getSize(); i++) {
-            segment.setAtIndex(JAVA_SHORT, baseIndex + i, value.getHalfFloatValue());
+        short bits = value.getHalfFloatValue();
+        for (long i = 0; i < getSizeAsLong(); i++) {
+            segment.setAtIndex(JAVA_SHORT, baseIndex + i, bits);
         }
     }
 
@@ -221,6 +443,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
     }
 
@@ -278,7 +501,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static HalfFloatArray concat(HalfFloatArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(HalfFloatArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(HalfFloatArray::getSizeAsLong).sum();
         HalfFloatArray concatArray = new HalfFloatArray(newSize);
         long currentPositionBytes = 0;
         for (HalfFloatArray array : arrays) {
@@ -312,4 +535,35 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return slice;
     }
 
+    /**
+     * Creates a view of a range of elements of this {@link HalfFloatArray}. Unlike {@link #slice(int, int)}, the data is
+     * not copied: the view shares the off-heap memory of this array, and updates through one of them are visible
+     * through the other.
+     *
+     * <p>
+     * If this array is allocated on the device that runs a task, a view passed to the task is backed by a
+     * sub-buffer of the device buffer of this array, and it is neither allocated nor copied. The device must
+     * support sub-buffers, and the offset of the view in bytes must be a multiple of the base address alignment
+     * of the device. Otherwise, the view is allocated and transferred as any other array.
+     * </p>
+     *
+     * @param offset
+     *     The index of the first element of the view.
+     * @param length
+     *     The number of elements of the view.
+     * @return A new {@link HalfFloatArray} instance that shares the memory of this array.
+     * @throws IllegalArgumentException
+     *     if the specified range is out of the bounds of the original array.
+     */
+    public HalfFloatArray view(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > getSizeAsLong()) {
+            throw new IllegalArgumentException("View out of bounds");
+        }
+
+        long viewOffsetInBytes = (long) offset * HALF_FLOAT_BYTES;
+        MemorySegment viewSegment = segment.asSlice(viewOffsetInBytes, TornadoNativeArray.ARRAY_HEADER + (long) length * HALF_FLOAT_BYTES);
+        HalfFloatArray view = new HalfFloatArray(viewSegment, length);
+        view.setViewOf(this, viewOffsetInBytes);
+        return view;
+    }
 }
@@ -19,12 +19,16 @@ package uk.ac.manchester.tornado.api.types.arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
 
 /**
  * This class represents an array of ints stored in native memory.
@@ -50,13 +54,43 @@ public final class IntArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public IntArray(int numberOfElements) {
-        this.numberOfElements = numberOfElements;
+        this((long) numberOfElements);
+    }
+
+    /**
+     * Constructs a new instance of the {@link IntArray} that will store a user-specified number of elements. The number
+     * of elements can exceed {@link Integer#MAX_VALUE}: the elements beyond that index are accessed with the
+     * long-indexed accessors, as described in {@link TornadoNativeArray#getSizeAsLong()}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    public IntArray(long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / INT_BYTES;
         segmentByteSize = numberOfElements * INT_BYTES + arrayHeaderSize;
 
         segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment.setAtIndex(JAVA_INT, 0, this.numberOfElements);
+    }
+
+    /**
+     * Internal constructor over an existing segment, such as a view over the memory of another {@link IntArray}
+     * or a mapped file. The header of the segment is not initialized, since it might overlap memory that is not
+     * owned by the array.
+     *
+     * @param segment
+     *     The {@link MemorySegment} of the array, including the header.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     */
+    private IntArray(MemorySegment segment, long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / INT_BYTES;
+        segmentByteSize = numberOfElements * INT_BYTES + arrayHeaderSize;
+        this.segment = segment;
     }
 
     /**
@@ -78,9 +112,7 @@ public final class IntArray extends TornadoNativeArray {
      */
     private static IntArray createSegment(int[] values) {
         IntArray array = new IntArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_INT, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -115,12 +147,55 @@ public final class IntArray extends TornadoNativeArray {
      */
     public static IntArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / INT_BYTES);
+        long numElements = byteSize / INT_BYTES;
         IntArray intArray = new IntArray(numElements);
         MemorySegment.copy(segment, 0, intArray.segment, intArray.baseIndex * INT_BYTES, byteSize);
         return intArray;
     }
 
+    /**
+     * Creates a new instance of the {@link IntArray} class over a region of a file, without copying the data. The region
+     * is memory-mapped, and the transfers to the devices read the data directly from the mapping. The array is
+     * read-only on the host, so it can only be transferred to the devices.
+     *
+     * <p>
+     * The region must start at an offset of, at least, {@link TornadoNativeArray#ARRAY_HEADER} bytes, aligned to the
+     * size of the elements. Otherwise, the region is read into a new array.
+     * </p>
+     *
+     * @param path
+     *     The path of the file that contains the ints, in the native byte order.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link IntArray} instance backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static IntArray fromFile(Path path, long offset, long numberOfElements) throws IOException {
+        return new IntArray(mapFile(path, offset, numberOfElements, INT_BYTES), numberOfElements);
+    }
+
+    /**
+     * Creates a new instance of the {@link IntArray} class with memory from the given allocator. With an {@link Arena},
+     * the memory is released when the arena is closed, instead of when the array is garbage collected. With a
+     * {@link NativeArrayPool}, the memory can be returned to the pool with {@link NativeArrayPool#release}.
+     *
+     * <p>
+     * The elements are not initialized if the allocator recycles memory.
+     * </p>
+     *
+     * @param allocator
+     *     The allocator of the memory of the array.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link IntArray} instance that uses memory of the allocator.
+     */
+    public static IntArray allocate(SegmentAllocator allocator, long numberOfElements) {
+        return new IntArray(allocateSegment(allocator, numberOfElements, INT_BYTES), numberOfElements);
+    }
+
     /**
      * Converts the int data from off-heap to on-heap, by copying the values of a {@link IntArray}
      * instance into a new on-heap array.
@@ -128,10 +203,9 @@ public final class IntArray extends TornadoNativeArray {
      * @return A new on-heap int array, initialized with the values stored in the {@link IntArray} instance.
      */
     public int[] toHeapArray() {
+        syncFromDevice();
         int[] outputArray = new int[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        MemorySegment.copy(segment, JAVA_INT, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -158,6 +232,31 @@ public final class IntArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_INT, baseIndex + index);
     }
 
+    /**
+     * Sets the value at a specified index of the {@link IntArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, int value) {
+        segment.setAtIndex(JAVA_INT, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the {@link IntArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public int get(long index) {
+        return segment.getAtIndex(JAVA_INT, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link IntArray} instance to zero.
      */
@@ -178,9 +277,7 @@ public final class IntArray extends TornadoNativeArray {
      *     The int value to initialize the {@link IntArray} instance with.
      */
     public void init(int value) {
-        for (int i = 0; i < getSize(); i++) {
-            segment.setAtIndex(JAVA_INT, baseIndex + i, value);
-        }
+        SegmentOps.fillInts(segment.asSlice(TornadoNativeArray.ARRAY_HEADER, getNumBytesOfSegment()), value);
     }
 
     /**
@@ -221,6 +318,7 @@ public final class IntArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
     }
 
@@ -257,7 +355,7 @@ public final class IntArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static IntArray concat(IntArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(IntArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(IntArray::getSizeAsLong).sum();
         IntArray concatArray = new IntArray(newSize);
         long currentPositionBytes = 0;
         for (IntArray array : arrays) {
@@ -290,4 +388,36 @@ public final class IntArray extends TornadoNativeArray {
         IntArray slice = fromSegment(sliceSegment);
         return slice;
     }
+
+    /**
+     * Creates a view of a range of elements of this {@link IntArray}. Unlike {@link #slice(int, int)}, the data is
+     * not copied: the view shares the off-heap memory of this array, and updates through one of them are visible
+     * through the other.
+     *
+     * <p>
+     * If this array is allocated on the device that runs a task, a view passed to the task is backed by a
+     * sub-buffer of the device buffer of this array, and it is neither allocated nor copied. The device must
+     * support sub-buffers, and the offset of the view in bytes must be a multiple of the base address alignment
+     * of the device. Otherwise, the view is allocated and transferred as any other array.
+     * </p>
+     *
+     * @param offset
+     *     The index of the first element of the view.
+     * @param length
+     *     The number of elements of the view.
+     * @return A new {@link IntArray} instance that shares the memory of this array.
+     * @throws IllegalArgumentException
+     *     if the specified range is out of the bounds of the original array.
+     */
+    public IntArray view(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > getSizeAsLong()) {
+            throw new IllegalArgumentException("View out of bounds");
+        }
+
+        long viewOffsetInBytes = (long) offset * INT_BYTES;
+        MemorySegment viewSegment = segment.asSlice(viewOffsetInBytes, TornadoNativeArray.ARRAY_HEADER + (long) length * INT_BYTES);
+        IntArray view = new IntArray(viewSegment, length);
+        view.setViewOf(this, viewOffsetInBytes);
+        return view;
+    }
 }
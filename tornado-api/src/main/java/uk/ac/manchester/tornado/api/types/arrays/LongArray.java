@@ -20,8 +20,11 @@ package uk.ac.manchester.tornado.api.types.arrays;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 import static java.lang.foreign.ValueLayout.JAVA_LONG;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
@@ -51,13 +54,43 @@ public final class LongArray extends TornadoNativeArray {
      *     The number of elements in the array.
      */
     public LongArray(int numberOfElements) {
-        this.numberOfElements = numberOfElements;
+        this((long) numberOfElements);
+    }
+
+    /**
+     * Constructs a new instance of the {@link LongArray} that will store a user-specified number of elements. The number
+     * of elements can exceed {@link Integer#MAX_VALUE}: the elements beyond that index are accessed with the
+     * long-indexed accessors, as described in {@link TornadoNativeArray#getSizeAsLong()}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    public LongArray(long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / LONG_BYTES;
 
         segmentByteSize = numberOfElements * LONG_BYTES + arrayHeaderSize;
         segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment.setAtIndex(JAVA_INT, 0, this.numberOfElements);
+    }
+
+    /**
+     * Internal constructor over an existing segment, such as a view over the memory of another {@link LongArray}
+     * or a mapped file. The header of the segment is not initialized, since it might overlap memory that is not
+     * owned by the array.
+     *
+     * @param segment
+     *     The {@link MemorySegment} of the array, including the header.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     */
+    private LongArray(MemorySegment segment, long numberOfElements) {
+        this.numberOfElements = toIntSize(numberOfElements);
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / LONG_BYTES;
+        segmentByteSize = numberOfElements * LONG_BYTES + arrayHeaderSize;
+        this.segment = segment;
     }
 
     /**
@@ -116,12 +149,55 @@ public final class LongArray extends TornadoNativeArray {
      */
     public static LongArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / LONG_BYTES);
+        long numElements = byteSize / LONG_BYTES;
         LongArray longArray = new LongArray(numElements);
         MemorySegment.copy(segment, 0, longArray.segment, longArray.baseIndex * LONG_BYTES, byteSize);
         return longArray;
     }
 
+    /**
+     * Creates a new instance of the {@link LongArray} class over a region of a file, without copying the data. The region
+     * is memory-mapped, and the transfers to the devices read the data directly from the mapping. The array is
+     * read-only on the host, so it can only be transferred to the devices.
+     *
+     * <p>
+     * The region must start at an offset of, at least, {@link TornadoNativeArray#ARRAY_HEADER} bytes, aligned to the
+     * size of the elements. Otherwise, the region is read into a new array.
+     * </p>
+     *
+     * @param path
+     *     The path of the file that contains the longs, in the native byte order.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link LongArray} instance backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static LongArray fromFile(Path path, long offset, long numberOfElements) throws IOException {
+        return new LongArray(mapFile(path, offset, numberOfElements, LONG_BYTES), numberOfElements);
+    }
+
+    /**
+     * Creates a new instance of the {@link LongArray} class with memory from the given allocator. With an {@link Arena},
+     * the memory is released when the arena is closed, instead of when the array is garbage collected. With a
+     * {@link NativeArrayPool}, the memory can be returned to the pool with {@link NativeArrayPool#release}.
+     *
+     * <p>
+     * The elements are not initialized if the allocator recycles memory.
+     * </p>
+     *
+     * @param allocator
+     *     The allocator of the memory of the array.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @return A new {@link LongArray} instance that uses memory of the allocator.
+     */
+    public static LongArray allocate(SegmentAllocator allocator, long numberOfElements) {
+        return new LongArray(allocateSegment(allocator, numberOfElements, LONG_BYTES), numberOfElements);
+    }
+
     /**
      * Converts the long data from off-heap to on-heap, by copying the values of a {@link LongArray}
      * instance into a new on-heap array.
@@ -129,6 +205,7 @@ public final class LongArray extends TornadoNativeArray {
      * @return A new on-heap long array, initialized with the values stored in the {@link LongArray} instance.
      */
     public long[] toHeapArray() {
+        syncFromDevice();
         long[] outputArray = new long[getSize()];
         for (int i = 0; i < getSize(); i++) {
             outputArray[i] = get(i);
@@ -159,6 +236,31 @@ public final class LongArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_LONG, baseIndex + index);
     }
 
+    /**
+     * Sets the value at a specified index of the {@link LongArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, long value) {
+        segment.setAtIndex(JAVA_LONG, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the {@link LongArray} instance, for arrays of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public long get(long index) {
+        return segment.getAtIndex(JAVA_LONG, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link LongArray} instance to zero.
      */
@@ -179,7 +281,7 @@ public final class LongArray extends TornadoNativeArray {
      *     The long value to initialize the {@link LongArray} instance with.
      */
     public void init(long value) {
-        for (int i = 0; i < getSize(); i++) {
+        for (long i = 0; i < getSizeAsLong(); i++) {
             segment.setAtIndex(JAVA_LONG, baseIndex + i, value);
         }
     }
@@ -201,6 +303,7 @@ public final class LongArray extends TornadoNativeArray {
      */
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return segment.asSlice(TornadoNativeArray.ARRAY_HEADER);
     }
 
@@ -258,7 +361,7 @@ public final class LongArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static LongArray concat(LongArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(LongArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(LongArray::getSizeAsLong).sum();
         LongArray concatArray = new LongArray(newSize);
         long currentPositionBytes = 0;
         for (LongArray array : arrays) {
@@ -291,4 +394,36 @@ public final class LongArray extends TornadoNativeArray {
         LongArray slice = fromSegment(sliceSegment);
         return slice;
     }
+
+    /**
+     * Creates a view of a range of elements of this {@link LongArray}. Unlike {@link #slice(int, int)}, the data is
+     * not copied: the view shares the off-heap memory of this array, and updates through one of them are visible
+     * through the other.
+     *
+     * <p>
+     * If this array is allocated on the device that runs a task, a view passed to the task is backed by a
+     * sub-buffer of the device buffer of this array, and it is neither allocated nor copied. The device must
+     * support sub-buffers, and the offset of the view in bytes must be a multiple of the base address alignment
+     * of the device. Otherwise, the view is allocated and transferred as any other array.
+     * </p>
+     *
+     * @param offset
+     *     The index of the first element of the view.
+     * @param length
+     *     The number of elements of the view.
+     * @return A new {@link LongArray} instance that shares the memory of this array.
+     * @throws IllegalArgumentException
+     *     if the specified range is out of the bounds of the original array.
+     */
+    public LongArray view(long offset, long length) {
+        if (offset < 0 || length < 0 || offset + length > getSizeAsLong()) {
+            throw new IllegalArgumentException("View out of bounds");
+        }
+
+        long viewOffsetInBytes = (long) offset * LONG_BYTES;
+        MemorySegment viewSegment = segment.asSlice(viewOffsetInBytes, TornadoNativeArray.ARRAY_HEADER + (long) length * LONG_BYTES);
+        LongArray view = new LongArray(viewSegment, length);
+        view.setViewOf(this, viewOffsetInBytes);
+        return view;
+    }
 }
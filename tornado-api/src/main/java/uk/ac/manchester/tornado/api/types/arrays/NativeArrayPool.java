@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.arrays;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of native memory for temporary arrays. The memory of released arrays is kept in buckets of power-of-two
+ * sizes, and it is recycled by the next allocations of the same bucket, instead of waiting for the garbage
+ * collector to free it.
+ *
+ * <p>
+ * The pool is used as the allocator of the {@code allocate} methods of the native arrays and tensors:
+ * </p>
+ *
+ * <pre>{@code
+ * try (NativeArrayPool pool = new NativeArrayPool()) {
+ *     FloatArray temp = FloatArray.allocate(pool, size);
+ *     ...
+ *     pool.release(temp);
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Recycled memory is not cleared. A released array must not be used, since its memory can be given to another
+ * array. Closing the pool frees all its memory, including the memory of arrays that have not been released. The
+ * pool is thread-safe.
+ * </p>
+ */
+public final class NativeArrayPool implements SegmentAllocator, AutoCloseable {
+
+    /**
+     * The smallest bucket. Each bucket is aligned to this size.
+     */
+    private static final int MIN_BUCKET_BITS = 6;
+
+    private static final int NUM_BUCKETS = Long.SIZE;
+
+    /**
+     * Memory of a bucket. Each block has its own arena, so it can be freed when
+     * it is evicted from the pool.
+     */
+    private record Block(MemorySegment segment, Arena arena) {
+    }
+
+    private final long maxPooledBytes;
+    private final ArrayDeque<Block>[] freeBlocks;
+    private final Map<Long, Block> blocksInUse;
+    private final long[] hits;
+    private final long[] misses;
+    private long pooledBytes;
+    private long allocatedBytes;
+    private boolean closed;
+
+    /**
+     * Creates a pool without a limit on the memory kept for recycling.
+     */
+    public NativeArrayPool() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a pool that keeps, at most, the given number of bytes of released
+     * memory. Released memory over this limit is freed.
+     *
+     * @param maxPooledBytes
+     *     Maximum number of bytes of released memory kept by the pool.
+     */
+    @SuppressWarnings("unchecked")
+    public NativeArrayPool(long maxPooledBytes) {
+        if (maxPooledBytes < 0) {
+            throw new IllegalArgumentException(STR."Invalid pool size: \{maxPooledBytes}");
+        }
+        this.maxPooledBytes = maxPooledBytes;
+        this.freeBlocks = new ArrayDeque[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            freeBlocks[i] = new ArrayDeque<>();
+        }
+        this.blocksInUse = new HashMap<>();
+        this.hits = new long[NUM_BUCKETS];
+        this.misses = new long[NUM_BUCKETS];
+    }
+
+    private static int bucketOf(long byteSize) {
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(Math.max(byteSize, 1) - 1);
+        return Math.max(bits, MIN_BUCKET_BITS);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The pool is closed");
+        }
+    }
+
+    /**
+     * Allocates memory from the pool. The memory of a previously released array
+     * of the same bucket is recycled if there is one. Otherwise, new memory is
+     * allocated.
+     *
+     * @param byteSize
+     *     The number of bytes.
+     * @param byteAlignment
+     *     The alignment of the memory, up to the size of the smallest bucket.
+     * @return A {@link MemorySegment} of the given size.
+     */
+    @Override
+    public synchronized MemorySegment allocate(long byteSize, long byteAlignment) {
+        checkOpen();
+        if (byteAlignment > (1L << MIN_BUCKET_BITS)) {
+            throw new IllegalArgumentException(STR."Unsupported alignment: \{byteAlignment}");
+        }
+        int bucket = bucketOf(byteSize);
+        Block block = freeBlocks[bucket].pollFirst();
+        if (block != null) {
+            hits[bucket]++;
+            pooledBytes -= block.segment().byteSize();
+        } else {
+            misses[bucket]++;
+            Arena arena = Arena.ofShared();
+            block = new Block(arena.allocate(1L << bucket, 1L << MIN_BUCKET_BITS), arena);
+            allocatedBytes += block.segment().byteSize();
+        }
+        blocksInUse.put(block.segment().address(), block);
+        return block.segment().asSlice(0, byteSize);
+    }
+
+    /**
+     * Returns the memory of an array to the pool. The array must have been
+     * allocated from this pool, and it must not be used after this call.
+     *
+     * @param array
+     *     The array to release.
+     */
+    public synchronized void release(TornadoNativeArray array) {
+        checkOpen();
+        if (array.isView()) {
+            throw new IllegalArgumentException("Views of native arrays cannot be released");
+        }
+        Block block = blocksInUse.remove(array.getSegmentWithHeader().address());
+        if (block == null) {
+            throw new IllegalArgumentException("The array was not allocated from this pool, or it was already released");
+        }
+        long byteSize = block.segment().byteSize();
+        if (pooledBytes + byteSize > maxPooledBytes) {
+            allocatedBytes -= byteSize;
+            block.arena().close();
+        } else {
+            pooledBytes += byteSize;
+            freeBlocks[bucketOf(byteSize)].addFirst(block);
+        }
+    }
+
+    /**
+     * Returns the number of allocations served with recycled memory.
+     *
+     * @return long
+     */
+    public synchronized long getHits() {
+        long total = 0;
+        for (long hit : hits) {
+            total += hit;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of allocations that required new memory.
+     *
+     * @return long
+     */
+    public synchronized long getMisses() {
+        long total = 0;
+        for (long miss : misses) {
+            total += miss;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the fraction of allocations served with recycled memory.
+     *
+     * @return A value between 0 and 1, or 0 if there were no allocations.
+     */
+    public synchronized double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the fraction of allocations served with recycled memory for the
+     * bucket that contains allocations of the given size.
+     *
+     * @param byteSize
+     *     Size in bytes of an allocation, including the header of the arrays.
+     * @return A value between 0 and 1, or 0 if there were no allocations.
+     */
+    public synchronized double getHitRate(long byteSize) {
+        int bucket = bucketOf(byteSize);
+        long total = hits[bucket] + misses[bucket];
+        return total == 0 ? 0 : (double) hits[bucket] / total;
+    }
+
+    /**
+     * Returns the number of bytes of released memory kept for recycling.
+     *
+     * @return long
+     */
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * Returns the number of bytes of native memory owned by the pool, both in
+     * use and kept for recycling.
+     *
+     * @return long
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Frees all the memory of the pool. Arrays allocated from the pool must not
+     * be used after this call.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (ArrayDeque<Block> blocks : freeBlocks) {
+            blocks.forEach(block -> block.arena().close());
+            blocks.clear();
+        }
+        blocksInUse.values().forEach(block -> block.arena().close());
+        blocksInUse.clear();
+        pooledBytes = 0;
+        allocatedBytes = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return STR."NativeArrayPool[hits=\{getHits()}, misses=\{getMisses()}, pooledBytes=\{pooledBytes}, allocatedBytes=\{allocatedBytes}]";
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.arrays;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Allocator of page-aligned memory for native arrays and tensors. The memory of the arrays, starting with the
+ * header, is aligned to the page size, which satisfies the alignment of the device buffers of all the backends
+ * and lets the drivers copy whole pages.
+ *
+ * <p>
+ * On Linux, the allocator can also request transparent huge pages for large arrays. Those arrays are aligned to
+ * the size of a huge page. Their memory is mapped with {@code mmap} and advised with {@code madvise(MADV_HUGEPAGE)}
+ * before it is first touched, so the kernel can back it with huge pages from the first page fault, which reduces the
+ * TLB misses of host-side initialization and copies. The mapping is released with {@code munmap} when the arena of the
+ * allocator is closed, or when the array is garbage collected for {@link #ofAuto(boolean)}. The advice is only a
+ * hint: the kernel might still back the memory with small pages, e.g., when transparent huge pages are disabled. On
+ * other platforms, the memory is only page-aligned.
+ * </p>
+ *
+ * <pre>{@code
+ * FloatArray weights = FloatArray.allocate(PageAlignedAllocator.ofAuto(true), size);
+ * }</pre>
+ */
+public final class PageAlignedAllocator implements SegmentAllocator {
+
+    private static final long DEFAULT_PAGE_SIZE = 4096;
+    private static final long DEFAULT_HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+    private static final int MADV_HUGEPAGE = 14;
+    private static final int PROT_READ_WRITE = 0x1 | 0x2;
+    private static final int MAP_PRIVATE_ANONYMOUS = 0x02 | 0x20;
+    private static final long MAP_FAILED = -1L;
+
+    private static final boolean IS_LINUX = System.getProperty("os.name", "").toLowerCase().startsWith("linux");
+    private static final MethodHandle MADVISE = IS_LINUX ? lookup("madvise", FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_LONG, JAVA_INT)) : null;
+    private static final MethodHandle MMAP = IS_LINUX ? lookup("mmap", FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_LONG, JAVA_INT, JAVA_INT, JAVA_INT, JAVA_LONG)) : null;
+    private static final MethodHandle MUNMAP = IS_LINUX ? lookup("munmap", FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_LONG)) : null;
+    private static final long PAGE_SIZE = IS_LINUX ? queryPageSize() : DEFAULT_PAGE_SIZE;
+    private static final long HUGE_PAGE_SIZE = IS_LINUX ? queryHugePageSize() : DEFAULT_HUGE_PAGE_SIZE;
+
+    private final Arena arena;
+    private final boolean hugePages;
+
+    private PageAlignedAllocator(Arena arena, boolean hugePages) {
+        this.arena = arena;
+        this.hugePages = hugePages;
+    }
+
+    /**
+     * Creates an allocator whose memory is released when the arrays are garbage
+     * collected, as the memory of the arrays created with their constructors.
+     *
+     * @param hugePages
+     *     True to request transparent huge pages for large arrays.
+     * @return A {@link PageAlignedAllocator}.
+     */
+    public static PageAlignedAllocator ofAuto(boolean hugePages) {
+        return new PageAlignedAllocator(null, hugePages);
+    }
+
+    /**
+     * Creates an allocator that allocates the memory in the given arena.
+     *
+     * @param arena
+     *     The arena that owns the memory.
+     * @param hugePages
+     *     True to request transparent huge pages for large arrays.
+     * @return A {@link PageAlignedAllocator}.
+     */
+    public static PageAlignedAllocator of(Arena arena, boolean hugePages) {
+        return new PageAlignedAllocator(arena, hugePages);
+    }
+
+    /**
+     * Returns the size in bytes of the pages of the host.
+     *
+     * @return long
+     */
+    public static long getPageSize() {
+        return PAGE_SIZE;
+    }
+
+    /**
+     * Returns the size in bytes of the transparent huge pages of the host.
+     *
+     * @return long
+     */
+    public static long getHugePageSize() {
+        return HUGE_PAGE_SIZE;
+    }
+
+    /**
+     * Returns true if the allocator requests transparent huge pages.
+     *
+     * @return boolean
+     */
+    public boolean isHugePages() {
+        return hugePages;
+    }
+
+    /**
+     * Allocates page-aligned memory. If huge pages are requested, memory of, at
+     * least, the size of a huge page is mapped aligned to the huge page size and
+     * advised to be backed by huge pages before it is first touched. As any
+     * anonymous mapping, that memory is zero-filled by the kernel.
+     *
+     * @param byteSize
+     *     The number of bytes.
+     * @param byteAlignment
+     *     The minimum alignment of the memory.
+     * @return A {@link MemorySegment} of the given size.
+     */
+    @Override
+    public MemorySegment allocate(long byteSize, long byteAlignment) {
+        Arena owner = arena != null ? arena : Arena.ofAuto();
+        if (hugePages && MADVISE != null && MMAP != null && MUNMAP != null && byteSize >= HUGE_PAGE_SIZE) {
+            MemorySegment segment = mapHugePages(owner, byteSize, Math.max(byteAlignment, HUGE_PAGE_SIZE));
+            if (segment != null) {
+                return segment;
+            }
+        }
+        // Not advised: Arena::allocate zero-fills, and so faults in, the memory before it could be advised
+        return owner.allocate(byteSize, Math.max(byteAlignment, PAGE_SIZE));
+    }
+
+    /**
+     * Maps anonymous memory aligned to the given alignment and advises it before
+     * the first write. The mapping is over-sized by the alignment, so an aligned
+     * start always exists, and the whole mapping is unmapped when the arena is
+     * closed. The pages of the excess are never touched, so they only reserve
+     * address space.
+     *
+     * @return The aligned segment, or null if the memory could not be mapped.
+     */
+    private static MemorySegment mapHugePages(Arena owner, long byteSize, long alignment) {
+        long length = (byteSize + HUGE_PAGE_SIZE - 1) / HUGE_PAGE_SIZE * HUGE_PAGE_SIZE;
+        long mappingSize = length + alignment;
+        MemorySegment mapping;
+        try {
+            mapping = (MemorySegment) MMAP.invokeExact(MemorySegment.NULL, mappingSize, PROT_READ_WRITE, MAP_PRIVATE_ANONYMOUS, -1, 0L);
+        } catch (Throwable e) {
+            throw new RuntimeException("Unable to call mmap", e);
+        }
+        if (mapping.address() == MAP_FAILED) {
+            return null;
+        }
+        long mappingAddress = mapping.address();
+        long address = (mappingAddress + alignment - 1) / alignment * alignment;
+        MemorySegment segment = MemorySegment.ofAddress(address);
+        madvise(segment, length);
+        return segment.reinterpret(byteSize, owner, unused -> munmap(mappingAddress, mappingSize));
+    }
+
+    private static void madvise(MemorySegment segment, long length) {
+        try {
+            // The advice is a hint: if the kernel rejects it, the memory is backed by small pages
+            int ignored = (int) MADVISE.invokeExact(segment, length, MADV_HUGEPAGE);
+        } catch (Throwable e) {
+            throw new RuntimeException("Unable to call madvise", e);
+        }
+    }
+
+    private static void munmap(long address, long length) {
+        try {
+            int ignored = (int) MUNMAP.invokeExact(MemorySegment.ofAddress(address), length);
+        } catch (Throwable e) {
+            throw new RuntimeException("Unable to call munmap", e);
+        }
+    }
+
+    private static MethodHandle lookup(String name, FunctionDescriptor descriptor) {
+        Linker linker = Linker.nativeLinker();
+        return linker.defaultLookup().find(name) //
+                .map(address -> linker.downcallHandle(address, descriptor)) //
+                .orElse(null);
+    }
+
+    private static long queryPageSize() {
+        Linker linker = Linker.nativeLinker();
+        return linker.defaultLookup().find("getpagesize").map(address -> {
+            try {
+                return (long) (int) linker.downcallHandle(address, FunctionDescriptor.of(JAVA_INT)).invokeExact();
+            } catch (Throwable e) {
+                return DEFAULT_PAGE_SIZE;
+            }
+        }).orElse(DEFAULT_PAGE_SIZE);
+    }
+
+    private static long queryHugePageSize() {
+        try {
+            return Long.parseLong(Files.readString(Path.of("/sys/kernel/mm/transparent_hugepage/hpage_pmd_size")).trim());
+        } catch (IOException | NumberFormatException e) {
+            return DEFAULT_HUGE_PAGE_SIZE;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.arrays;
+
+/**
+ * An array of floats quantized to 8-bit integers in blocks of {@link #BLOCK_SIZE} elements, as the Q8_0 format. Each
+ * block stores one float scale and {@link #BLOCK_SIZE} signed 8-bit values, and element {@code i} is
+ * {@code scale[i / BLOCK_SIZE] * q[i]}.
+ *
+ * <p>
+ * The quantized values are packed four per int in an {@link IntArray}, with element {@code i} in the bits
+ * {@code 8 * (i % 4)} to {@code 8 * (i % 4) + 7} of int {@code i / 4}, and the scales are stored in a
+ * {@link FloatArray}. Both arrays are passed to the kernels, which use the static methods of this class to
+ * dequantize the elements, or to compute dot products directly over the packed values. The kernels read one int for
+ * every four weights, so weight-bound kernels move about 3.5x less memory than with a {@link FloatArray}.
+ * </p>
+ *
+ * <pre>{@code
+ * public static void matVec(IntArray quants, FloatArray scales, FloatArray x, FloatArray y, int columns) {
+ *     for (@Parallel int row = 0; row < y.getSize(); row++) {
+ *         y.set(row, QuantizedInt8Array.dotRow(quants, scales, x, row, columns));
+ *     }
+ * }
+ * }</pre>
+ */
+public final class QuantizedInt8Array {
+
+    /**
+     * Number of elements of each block.
+     */
+    public static final int BLOCK_SIZE = 32;
+
+    /**
+     * Number of ints of packed values of each block.
+     */
+    public static final int WORDS_PER_BLOCK = BLOCK_SIZE / 4;
+
+    private final IntArray quants;
+    private final FloatArray scales;
+    private final int numberOfElements;
+
+    /**
+     * Creates a quantized array over packed values and scales, e.g., loaded from a model file.
+     *
+     * @param quants
+     *     The packed values, {@link #WORDS_PER_BLOCK} ints per block.
+     * @param scales
+     *     The scales, one per block.
+     */
+    public QuantizedInt8Array(IntArray quants, FloatArray scales) {
+        if ((long) scales.getSize() * WORDS_PER_BLOCK != quants.getSize()) {
+            throw new IllegalArgumentException(STR."Expected \{scales.getSize() * WORDS_PER_BLOCK} packed values for \{scales.getSize()} blocks, but got \{quants.getSize()}");
+        }
+        this.quants = quants;
+        this.scales = scales;
+        this.numberOfElements = scales.getSize() * BLOCK_SIZE;
+    }
+
+    /**
+     * Quantizes an array of floats. The scale of each block maps the largest absolute value of the block to 127.
+     *
+     * @param values
+     *     The floats to quantize. The number of elements must be a multiple of {@link #BLOCK_SIZE}.
+     * @return A new {@link QuantizedInt8Array}.
+     */
+    public static QuantizedInt8Array quantize(FloatArray values) {
+        int size = values.getSize();
+        if (size % BLOCK_SIZE != 0) {
+            throw new IllegalArgumentException(STR."The number of elements must be a multiple of \{BLOCK_SIZE}: \{size}");
+        }
+        int numBlocks = size / BLOCK_SIZE;
+        IntArray quants = new IntArray(numBlocks * WORDS_PER_BLOCK);
+        FloatArray scales = new FloatArray(numBlocks);
+        for (int block = 0; block < numBlocks; block++) {
+            int base = block * BLOCK_SIZE;
+            float max = 0;
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                max = Math.max(max, Math.abs(values.get(base + i)));
+            }
+            float scale = max / 127;
+            float inverse = scale != 0 ? 1 / scale : 0;
+            for (int word = 0; word < WORDS_PER_BLOCK; word++) {
+                int packed = 0;
+                for (int lane = 0; lane < 4; lane++) {
+                    int q = Math.round(values.get(base + word * 4 + lane) * inverse);
+                    packed |= (q & 0xFF) << (lane * 8);
+                }
+                quants.set(block * WORDS_PER_BLOCK + word, packed);
+            }
+            scales.set(block, scale);
+        }
+        return new QuantizedInt8Array(quants, scales);
+    }
+
+    /**
+     * Returns the packed values, to be passed to the kernels.
+     *
+     * @return {@link IntArray}
+     */
+    public IntArray getQuants() {
+        return quants;
+    }
+
+    /**
+     * Returns the scales of the blocks, to be passed to the kernels.
+     *
+     * @return {@link FloatArray}
+     */
+    public FloatArray getScales() {
+        return scales;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return int
+     */
+    public int getSize() {
+        return numberOfElements;
+    }
+
+    /**
+     * Returns the number of blocks.
+     *
+     * @return int
+     */
+    public int getNumberOfBlocks() {
+        return scales.getSize();
+    }
+
+    /**
+     * Returns the dequantized value of an element.
+     *
+     * @param index
+     *     The index of the element.
+     * @return float
+     */
+    public float get(int index) {
+        return dequantize(quants, scales, index);
+    }
+
+    /**
+     * Dequantizes all the elements into a new {@link FloatArray}.
+     *
+     * @return A new {@link FloatArray}.
+     */
+    public FloatArray dequantize() {
+        FloatArray values = new FloatArray(numberOfElements);
+        for (int i = 0; i < numberOfElements; i++) {
+            values.set(i, dequantize(quants, scales, i));
+        }
+        return values;
+    }
+
+    /**
+     * Dequantizes one element. This method can be invoked from kernels.
+     *
+     * @param quants
+     *     The packed values.
+     * @param scales
+     *     The scales of the blocks.
+     * @param index
+     *     The index of the element.
+     * @return float
+     */
+    public static float dequantize(IntArray quants, FloatArray scales, int index) {
+        int word = quants.get(index >> 2);
+        int shift = (index & 3) << 3;
+        // Sign extension of the byte
+        int q = (word << (24 - shift)) >> 24;
+        return q * scales.get(index / BLOCK_SIZE);
+    }
+
+    /**
+     * Computes the dot product of a row of a quantized matrix with a vector of floats. The matrix is stored by
+     * rows, and the number of columns must be a multiple of {@link #BLOCK_SIZE}. The values are unpacked from
+     * each int with shifts, and each block is scaled once. This method can be invoked from kernels.
+     *
+     * @param quants
+     *     The packed values of the matrix.
+     * @param scales
+     *     The scales of the blocks of the matrix.
+     * @param x
+     *     The vector, with one element per column.
+     * @param row
+     *     The row of the matrix.
+     * @param columns
+     *     The number of columns of the matrix.
+     * @return The dot product.
+     */
+    public static float dotRow(IntArray quants, FloatArray scales, FloatArray x, int row, int columns) {
+        int blocksPerRow = columns / BLOCK_SIZE;
+        float sum = 0;
+        for (int b = 0; b < blocksPerRow; b++) {
+            int block = row * blocksPerRow + b;
+            float blockSum = 0;
+            for (int w = 0; w < WORDS_PER_BLOCK; w++) {
+                int word = quants.get(block * WORDS_PER_BLOCK + w);
+                int base = b * BLOCK_SIZE + w * 4;
+                blockSum += ((word << 24) >> 24) * x.get(base) //
+                        + ((word << 16) >> 24) * x.get(base + 1) //
+                        + ((word << 8) >> 24) * x.get(base + 2) //
+                        + (word >> 24) * x.get(base + 3);
+            }
+            sum += blockSum * scales.get(block);
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the dot product of a row of a quantized matrix with a quantized vector, such as activations
+     * quantized with {@link #quantize(FloatArray)}. The products of each block are accumulated in integer
+     * arithmetic, and only the block sums are scaled. This method can be invoked from kernels.
+     *
+     * @param quants
+     *     The packed values of the matrix.
+     * @param scales
+     *     The scales of the blocks of the matrix.
+     * @param xQuants
+     *     The packed values of the vector.
+     * @param xScales
+     *     The scales of the blocks of the vector.
+     * @param row
+     *     The row of the matrix.
+     * @param columns
+     *     The number of columns of the matrix.
+     * @return The dot product.
+     */
+    public static float dotRow(IntArray quants, FloatArray scales, IntArray xQuants, FloatArray xScales, int row, int columns) {
+        int blocksPerRow = columns / BLOCK_SIZE;
+        float sum = 0;
+        for (int b = 0; b < blocksPerRow; b++) {
+            int block = row * blocksPerRow + b;
+            int blockSum = 0;
+            for (int w = 0; w < WORDS_PER_BLOCK; w++) {
+                int word = quants.get(block * WORDS_PER_BLOCK + w);
+                int xWord = xQuants.get(b * WORDS_PER_BLOCK + w);
+                blockSum += ((word << 24) >> 24) * ((xWord << 24) >> 24) //
+                        + ((word << 16) >> 24) * ((xWord << 16) >> 24) //
+                        + ((word << 8) >> 24) * ((xWord << 8) >> 24) //
+                        + (word >> 24) * (xWord >> 24);
+            }
+            sum += blockSum * scales.get(block) * xScales.get(b);
+        }
+        return sum;
+    }
+}
@@ -17,7 +17,16 @@
  */
 package uk.ac.manchester.tornado.api.types.arrays;
 
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import uk.ac.manchester.tornado.api.types.tensors.Tensor;
 
@@ -36,9 +45,9 @@ import uk.ac.manchester.tornado.api.types.tensors.Tensor;
  * </p>
  */
 public abstract sealed class TornadoNativeArray //
-        permits ByteArray, CharArray, DoubleArray, //
-        FloatArray, HalfFloatArray, IntArray, //
-        LongArray, ShortArray, Tensor {
+        permits BFloat16Array, ByteArray, CharArray, //
+        DoubleArray, FloatArray, HalfFloatArray, //
+        IntArray, LongArray, ShortArray, Tensor {
 
     /**
      * The size of the header in bytes. The default value is 24, but it can be configurable through
@@ -47,12 +56,37 @@ public abstract sealed class TornadoNativeArray //
     public static final long ARRAY_HEADER = Long.parseLong(System.getProperty("tornado.panama.objectHeader", "24"));
 
     /**
-     * Returns the number of elements stored in the native array.
+     * Returns the number of elements stored in the native array. For arrays of more than {@link Integer#MAX_VALUE}
+     * elements, it returns {@link Integer#MAX_VALUE}, and {@link #getSizeAsLong()} returns the number of elements.
      *
      * @return The number of elements of the native data array.
      */
     public abstract int getSize();
 
+    /**
+     * Returns the number of elements stored in the native array, including arrays of more than
+     * {@link Integer#MAX_VALUE} elements. Those arrays are accessed on the host with the long-indexed accessors
+     * ({@code get(long)} and {@code set(long, value)}). Kernels use {@code int} indexes, so a task-graph processes
+     * them in batches of less than {@link Integer#MAX_VALUE} elements, as configured with
+     * {@code TornadoExecutionPlan::withBatch}.
+     *
+     * @return The number of elements of the native data array.
+     */
+    public long getSizeAsLong() {
+        return getNumBytesOfSegment() / getElementSize();
+    }
+
+    /**
+     * Returns the number of elements reported by {@link #getSize()} and stored in the header of the arrays.
+     *
+     * @param numberOfElements
+     *     The number of elements of an array.
+     * @return The number of elements, saturated to {@link Integer#MAX_VALUE}.
+     */
+    static int toIntSize(long numberOfElements) {
+        return (int) Math.min(numberOfElements, Integer.MAX_VALUE);
+    }
+
     /**
      * Returns the underlying {@link MemorySegment} of the native array, without the Tornado Array header.
      *
@@ -88,4 +122,219 @@ public abstract sealed class TornadoNativeArray //
 
     public abstract int getElementSize();
 
+    /**
+     * Copy of a native array that is only valid on a device. It is set by the TornadoVM runtime for
+     * arrays transferred to the host with {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#LAZY}.
+     */
+    @FunctionalInterface
+    public interface DeviceCopy {
+
+        /**
+         * Performs a blocking copy of a region of the device buffer into the native array.
+         *
+         * @param offset
+         *     Offset in bytes, including the array header.
+         * @param size
+         *     Number of bytes to copy.
+         */
+        void transferToHost(long offset, long size);
+    }
+
+    private volatile DeviceCopy deviceNewerCopy;
+
+    /**
+     * Marks the native array as newer on a device than on the host. The host copy is updated when
+     * the array is accessed through {@link #getSegment()} or the {@code toHeapArray} methods, when any
+     * of the {@code syncFromDevice} methods is invoked, or when the array is transferred with
+     * {@link uk.ac.manchester.tornado.api.TornadoExecutionResult#transferToHost(Object...)}.
+     *
+     * <p>
+     * Element accessors ({@code get}, {@code set} and {@code init}) are compiled into the kernels, and
+     * they do not check this state, so that element loops on the host do not pay for a check per
+     * element. Callers must synchronise the array once, e.g. with {@link #syncFromDevice()}, before
+     * accessing its elements on the host.
+     * </p>
+     *
+     * @param deviceCopy
+     *     Copy of the array on the device.
+     */
+    public void markDeviceNewer(DeviceCopy deviceCopy) {
+        this.deviceNewerCopy = deviceCopy;
+    }
+
+    /**
+     * Clears the device-newer state without copying the data from the device.
+     */
+    public void clearDeviceNewer() {
+        this.deviceNewerCopy = null;
+    }
+
+    /**
+     * Returns true if the device holds a newer version of the data than the host.
+     *
+     * @return boolean
+     */
+    public boolean isDeviceNewer() {
+        return deviceNewerCopy != null;
+    }
+
+    /**
+     * Copies the whole array from the device if the device holds a newer version of the data.
+     * After this call, the host copy is up-to-date.
+     */
+    public void syncFromDevice() {
+        DeviceCopy deviceCopy = deviceNewerCopy;
+        if (deviceCopy != null) {
+            deviceNewerCopy = null;
+            deviceCopy.transferToHost(ARRAY_HEADER, getNumBytesOfSegment());
+        }
+    }
+
+    /**
+     * Copies a range of elements from the device if the device holds a newer version of the data.
+     * The array remains marked as device-newer, since the rest of the elements are not copied.
+     *
+     * @param fromIndex
+     *     Index of the first element to copy.
+     * @param length
+     *     Number of elements to copy.
+     */
+    public void syncFromDevice(int fromIndex, int length) {
+        DeviceCopy deviceCopy = deviceNewerCopy;
+        if (deviceCopy == null) {
+            return;
+        }
+        if (fromIndex < 0 || length < 0 || (long) fromIndex + length > getSize()) {
+            throw new IndexOutOfBoundsException(STR."Range [\{fromIndex}, \{fromIndex + length}) out of bounds for size \{getSize()}");
+        }
+        if (fromIndex == 0 && length == getSize()) {
+            syncFromDevice();
+        } else if (length > 0) {
+            deviceCopy.transferToHost(ARRAY_HEADER + (long) fromIndex * getElementSize(), (long) length * getElementSize());
+        }
+    }
+
+    private TornadoNativeArray viewParent;
+
+    private long viewOffset;
+
+    /**
+     * Records that this native array is a view over the memory of another native array. Views of views
+     * refer to the array that owns the memory.
+     *
+     * @param parent
+     *     Native array that shares its memory with this view.
+     * @param offsetInBytes
+     *     Offset of the first element of the view in the parent, in bytes.
+     */
+    void setViewOf(TornadoNativeArray parent, long offsetInBytes) {
+        if (parent.viewParent != null) {
+            this.viewParent = parent.viewParent;
+            this.viewOffset = parent.viewOffset + offsetInBytes;
+        } else {
+            this.viewParent = parent;
+            this.viewOffset = offsetInBytes;
+        }
+    }
+
+    /**
+     * Returns true if this native array is a view over the memory of another native array (e.g.,
+     * created with {@link FloatArray#view(long, long)}).
+     *
+     * @return boolean
+     */
+    public boolean isView() {
+        return viewParent != null;
+    }
+
+    /**
+     * Returns the native array that owns the memory of this view, or null if this array is not a view.
+     *
+     * @return {@link TornadoNativeArray}
+     */
+    public TornadoNativeArray getViewParent() {
+        return viewParent;
+    }
+
+    /**
+     * Returns the offset in bytes of the first element of this view in the native array that owns the memory.
+     * Since both arrays have the same header size, this is also the offset of the header of the view.
+     *
+     * @return long
+     */
+    public long getViewOffset() {
+        return viewOffset;
+    }
+
+    /**
+     * Maps a region of a file as the segment of a native array, including the header. The header overlaps the
+     * bytes of the file that precede the region, and it is never written. The data is not copied: it is read from
+     * the page cache of the operating system, and the transfers to the devices read directly from the mapping.
+     * The mapping is read-only.
+     *
+     * <p>
+     * If the region starts before the size of the header, or it is not aligned to the size of the elements, the
+     * region cannot be mapped, and it is read into a new segment instead.
+     * </p>
+     *
+     * @param path
+     *     Path of the file.
+     * @param offset
+     *     Offset in bytes of the first element in the file.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @param elementSize
+     *     The size of the elements in bytes.
+     * @return A {@link MemorySegment} with the header followed by the elements.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    static MemorySegment mapFile(Path path, long offset, long numberOfElements, int elementSize) throws IOException {
+        if (offset < 0 || numberOfElements < 0) {
+            throw new IllegalArgumentException(STR."Invalid region of \{numberOfElements} elements at offset \{offset}");
+        }
+        final long numBytes = (long) numberOfElements * elementSize;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (offset + numBytes > channel.size()) {
+                throw new IllegalArgumentException(STR."Region [\{offset}, \{offset + numBytes}) out of bounds for file of \{channel.size()} bytes");
+            }
+            if (offset >= ARRAY_HEADER && offset % elementSize == 0) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, offset - ARRAY_HEADER, ARRAY_HEADER + numBytes, Arena.ofAuto());
+            }
+
+            MemorySegment segment = Arena.ofAuto().allocate(ARRAY_HEADER + numBytes, 1);
+            segment.setAtIndex(JAVA_INT, 0, toIntSize(numberOfElements));
+            ByteBuffer buffer = segment.asSlice(ARRAY_HEADER).asByteBuffer();
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                int bytesRead = channel.read(buffer, position);
+                if (bytesRead < 0) {
+                    throw new IOException(STR."Unexpected end of file: \{path}");
+                }
+                position += bytesRead;
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * Allocates the memory of a native array, including the header, with the given allocator.
+     *
+     * @param allocator
+     *     The allocator of the memory, such as an {@link Arena} or a {@link NativeArrayPool}.
+     * @param numberOfElements
+     *     The number of elements of the array.
+     * @param elementSize
+     *     The size of the elements in bytes.
+     * @return A {@link MemorySegment} with the header followed by the elements.
+     */
+    static MemorySegment allocateSegment(SegmentAllocator allocator, long numberOfElements, int elementSize) {
+        if (numberOfElements < 0) {
+            throw new IllegalArgumentException(STR."Invalid number of elements: \{numberOfElements}");
+        }
+        MemorySegment segment = allocator.allocate(ARRAY_HEADER + numberOfElements * elementSize, 1);
+        segment.setAtIndex(JAVA_INT, 0, toIntSize(numberOfElements));
+        return segment;
+    }
+
 }
@@ -28,6 +28,10 @@ public enum DType {
      * Represents a half-precision floating-point data type using 2 bytes.
      */
     HALF_FLOAT(2, ValueLayout.JAVA_SHORT),
+    /**
+     * Represents a bfloat16 floating-point data type using 2 bytes, with the 8-bit exponent of a float and a 7-bit mantissa.
+     */
+    BFLOAT16(2, ValueLayout.JAVA_SHORT),
     /**
      * Represents a single-precision 32-bit IEEE floating-point data type using 4 bytes.
      */
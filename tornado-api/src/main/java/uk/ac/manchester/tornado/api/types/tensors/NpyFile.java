@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.tensors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reader and writer of tensors in the NumPy {@code .npy} format.
+ *
+ * <p>
+ * A {@code .npy} file starts with a header that describes the data type, the memory order and the shape of the
+ * array, and it is padded so the data starts at a multiple of 64 bytes. The loader parses the header and maps the
+ * data of the file into a tensor of the corresponding type, without copying it (see
+ * {@link TensorFP32#map(Path, long, Shape)}). Only arrays in C order and in the native byte order are supported.
+ * </p>
+ */
+public final class NpyFile {
+
+    private static final byte[] MAGIC = { (byte) 0x93, 'N', 'U', 'M', 'P', 'Y' };
+
+    /**
+     * The data starts at a multiple of this alignment, as written by NumPy.
+     */
+    private static final int ALIGNMENT = 64;
+
+    /**
+     * Size of the magic string, the version and the length of the header in version 1.0 of the format.
+     */
+    private static final int PREAMBLE_V1 = 10;
+
+    /**
+     * Size of the magic string, the version and the length of the header in versions 2.0 and 3.0 of the format.
+     */
+    private static final int PREAMBLE_V2 = 12;
+
+    private static final Pattern DESCR = Pattern.compile("'descr'\\s*:\\s*'([^']*)'");
+    private static final Pattern FORTRAN_ORDER = Pattern.compile("'fortran_order'\\s*:\\s*(True|False)");
+    private static final Pattern SHAPE = Pattern.compile("'shape'\\s*:\\s*\\(([^)]*)\\)");
+
+    private NpyFile() {
+    }
+
+    /**
+     * Loads a {@code .npy} file into a tensor backed by the file. The data type of the tensor is given by the type of
+     * the array in the file: {@code f2}, {@code f4} and {@code f8} are loaded into {@link TensorFP16},
+     * {@link TensorFP32} and {@link TensorFP64}; {@code i2}, {@code i4} and {@code i8} into {@link TensorInt16},
+     * {@link TensorInt32} and {@link TensorInt64}; and {@code i1}, {@code u1} and {@code b1} into {@link TensorByte}.
+     *
+     * @param path
+     *     The path of the file.
+     * @return A tensor that maps the data of the file.
+     * @throws IOException
+     *     if the file cannot be read, or the array of the file is not supported.
+     */
+    public static Tensor load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer preamble = readFully(channel, 0, PREAMBLE_V2);
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (preamble.get(i) != MAGIC[i]) {
+                    throw new IOException(STR."Not a .npy file: \{path}");
+                }
+            }
+            int majorVersion = preamble.get(MAGIC.length);
+            long headerLength;
+            long headerStart;
+            if (majorVersion == 1) {
+                headerLength = Short.toUnsignedInt(preamble.getShort(8));
+                headerStart = PREAMBLE_V1;
+            } else if (majorVersion == 2 || majorVersion == 3) {
+                headerLength = Integer.toUnsignedLong(preamble.getInt(8));
+                headerStart = PREAMBLE_V2;
+            } else {
+                throw new IOException(STR."Unsupported .npy version \{majorVersion}: \{path}");
+            }
+            ByteBuffer headerBytes = readFully(channel, headerStart, (int) headerLength);
+            String header = new String(headerBytes.array(), 0, (int) headerLength, majorVersion == 3 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+            long dataOffset = headerStart + headerLength;
+
+            String descr = match(DESCR, header, path);
+            if (match(FORTRAN_ORDER, header, path).equals("True")) {
+                throw new IOException(STR."Arrays in Fortran order are not supported: \{path}");
+            }
+            Shape shape = parseShape(match(SHAPE, header, path));
+            long numBytes = shape.getSizeAsLong() * elementSize(descr, path);
+            if (dataOffset + numBytes > channel.size()) {
+                throw new IOException(STR."The file is smaller than the array of its header: \{path}");
+            }
+            return map(path, dataOffset, shape, descr);
+        }
+    }
+
+    /**
+     * Writes a tensor to a {@code .npy} file in version 1.0 of the format. The data of the tensor is streamed to the
+     * file from native memory.
+     *
+     * @param path
+     *     The path of the file. An existing file is overwritten.
+     * @param tensor
+     *     The tensor to write.
+     * @throws IOException
+     *     if the file cannot be written, or the tensor is a {@link TensorBF16}, since the format has no bfloat16
+     *     data type.
+     */
+    public static void save(Path path, Tensor tensor) throws IOException {
+        String dict = STR."{'descr': '\{descr(tensor.getDType())}', 'fortran_order': False, 'shape': \{shapeToString(tensor.getShape())}, }";
+        // The header ends with a new line, and it is padded with spaces so the data is aligned
+        int padding = ALIGNMENT - (PREAMBLE_V1 + dict.length() + 1) % ALIGNMENT;
+        int headerLength = dict.length() + (padding == ALIGNMENT ? 0 : padding) + 1;
+        boolean version2 = headerLength > 0xFFFF;
+        if (version2) {
+            padding = ALIGNMENT - (PREAMBLE_V2 + dict.length() + 1) % ALIGNMENT;
+            headerLength = dict.length() + (padding == ALIGNMENT ? 0 : padding) + 1;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate((version2 ? PREAMBLE_V2 : PREAMBLE_V1) + headerLength).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC);
+        header.put((byte) (version2 ? 2 : 1));
+        header.put((byte) 0);
+        if (version2) {
+            header.putInt(headerLength);
+        } else {
+            header.putShort((short) headerLength);
+        }
+        header.put(dict.getBytes(StandardCharsets.ISO_8859_1));
+        while (header.position() < header.limit() - 1) {
+            header.put((byte) ' ');
+        }
+        header.put((byte) '\n');
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            TensorFiles.writeSegment(channel, tensor.getSegment());
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of .npy file");
+            }
+        }
+        return buffer;
+    }
+
+    private static String match(Pattern pattern, String header, Path path) throws IOException {
+        Matcher matcher = pattern.matcher(header);
+        if (!matcher.find()) {
+            throw new IOException(STR."Invalid .npy header \{header.trim()}: \{path}");
+        }
+        return matcher.group(1);
+    }
+
+    private static Shape parseShape(String dimensions) {
+        List<Long> values = new ArrayList<>();
+        for (String dimension : dimensions.split(",")) {
+            if (!dimension.isBlank()) {
+                values.add(Long.parseLong(dimension.trim()));
+            }
+        }
+        return new Shape(values.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static String shapeToString(Shape shape) {
+        long[] dimensions = shape.getDimensions();
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < dimensions.length; i++) {
+            builder.append(i == 0 ? "" : ", ").append(dimensions[i]);
+        }
+        return builder.append(dimensions.length == 1 ? ",)" : ")").toString();
+    }
+
+    private static char nativeOrder() {
+        return ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? '<' : '>';
+    }
+
+    private static String descr(DType dType) throws IOException {
+        return switch (dType) {
+            case HALF_FLOAT -> STR."\{nativeOrder()}f2";
+            case FLOAT -> STR."\{nativeOrder()}f4";
+            case DOUBLE -> STR."\{nativeOrder()}f8";
+            case INT16 -> STR."\{nativeOrder()}i2";
+            case INT32 -> STR."\{nativeOrder()}i4";
+            case INT64 -> STR."\{nativeOrder()}i8";
+            case INT8, QINT8 -> "|i1";
+            case UINT8, QUINT8 -> "|u1";
+            case BOOL -> "|b1";
+            case BFLOAT16 -> throw new IOException("The .npy format has no bfloat16 data type");
+        };
+    }
+
+    private static int elementSize(String descr, Path path) throws IOException {
+        if (descr.length() != 3) {
+            throw new IOException(STR."Unsupported .npy data type \{descr}: \{path}");
+        }
+        char order = descr.charAt(0);
+        int size = descr.charAt(2) - '0';
+        if (size > 1 && order != '=' && order != nativeOrder()) {
+            throw new IOException(STR."Only the native byte order is supported, found \{descr}: \{path}");
+        }
+        return size;
+    }
+
+    private static Tensor map(Path path, long offset, Shape shape, String descr) throws IOException {
+        return switch (descr.substring(1)) {
+            case "f2" -> TensorFP16.map(path, offset, shape);
+            case "f4" -> TensorFP32.map(path, offset, shape);
+            case "f8" -> TensorFP64.map(path, offset, shape);
+            case "i2" -> TensorInt16.map(path, offset, shape);
+            case "i4" -> TensorInt32.map(path, offset, shape);
+            case "i8" -> TensorInt64.map(path, offset, shape);
+            case "i1" -> TensorByte.map(path, offset, shape, DType.INT8);
+            case "u1" -> TensorByte.map(path, offset, shape, DType.UINT8);
+            case "b1" -> TensorByte.map(path, offset, shape, DType.BOOL);
+            default -> throw new IOException(STR."Unsupported .npy data type \{descr}: \{path}");
+        };
+    }
+}
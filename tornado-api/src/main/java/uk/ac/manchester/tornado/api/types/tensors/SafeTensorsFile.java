@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.tensors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader and writer of tensors in the safetensors format.
+ *
+ * <p>
+ * A safetensors file starts with the size of its header as a little-endian 64-bit integer, followed by a JSON
+ * header that gives the data type, the shape and the byte range of each tensor within the data that follows the
+ * header. The loader maps the data of each tensor into a tensor of the corresponding type, without copying it (see
+ * {@link TensorFP32#map(Path, long, Shape)}). The data of the format is little-endian, so files are only supported
+ * on little-endian platforms.
+ * </p>
+ */
+public final class SafeTensorsFile {
+
+    private static final String METADATA = "__metadata__";
+
+    /**
+     * The header is padded with spaces to a multiple of this alignment, so the
+     * data of the tensors is aligned.
+     */
+    private static final int ALIGNMENT = 8;
+
+    private SafeTensorsFile() {
+    }
+
+    /**
+     * Loads the tensors of a safetensors file. Each tensor is backed by the
+     * file. The tensors are returned in the order of the header.
+     *
+     * @param path
+     *     The path of the file.
+     * @return A map from the name of each tensor to the tensor.
+     * @throws IOException
+     *     if the file cannot be read, or it contains tensors of an
+     *     unsupported data type.
+     */
+    public static Map<String, Tensor> load(Path path) throws IOException {
+        checkByteOrder();
+        Map<String, Object> header;
+        long dataStart;
+        long dataSize;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer size = readFully(channel, 0, Long.BYTES);
+            long headerLength = size.getLong(0);
+            if (headerLength <= 0 || headerLength > channel.size() - Long.BYTES) {
+                throw new IOException(STR."Invalid safetensors header size \{headerLength}: \{path}");
+            }
+            ByteBuffer headerBytes = readFully(channel, Long.BYTES, (int) headerLength);
+            header = new JsonParser(new String(headerBytes.array(), StandardCharsets.UTF_8)).parseObject();
+            dataStart = Long.BYTES + headerLength;
+            dataSize = channel.size() - dataStart;
+        }
+
+        Map<String, Tensor> tensors = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : header.entrySet()) {
+            if (entry.getKey().equals(METADATA)) {
+                continue;
+            }
+            if (!(entry.getValue() instanceof Map<?, ?> info)) {
+                throw new IOException(STR."Invalid safetensors entry \{entry.getKey()}: \{path}");
+            }
+            String dtype = (String) info.get("dtype");
+            Shape shape = new Shape(toLongs(info.get("shape")));
+            long[] dataOffsets = toLongs(info.get("data_offsets"));
+            if (dtype == null || dataOffsets.length != 2) {
+                throw new IOException(STR."Invalid safetensors entry \{entry.getKey()}: \{path}");
+            }
+            long numBytes = shape.getSizeAsLong() * elementSize(dtype, path);
+            if (dataOffsets[1] - dataOffsets[0] != numBytes || dataOffsets[0] < 0 || dataOffsets[1] > dataSize) {
+                throw new IOException(STR."Invalid data offsets of tensor \{entry.getKey()}: \{path}");
+            }
+            tensors.put(entry.getKey(), map(path, dataStart + dataOffsets[0], shape, dtype));
+        }
+        return tensors;
+    }
+
+    /**
+     * Writes tensors to a safetensors file. The data of the tensors is
+     * streamed to the file from native memory. The tensors are stored in
+     * decreasing order of element size, so that every tensor is aligned to the
+     * size of its elements.
+     *
+     * @param path
+     *     The path of the file. An existing file is overwritten.
+     * @param tensors
+     *     A map from the name of each tensor to the tensor.
+     * @throws IOException
+     *     if the file cannot be written.
+     */
+    public static void save(Path path, Map<String, ? extends Tensor> tensors) throws IOException {
+        checkByteOrder();
+        List<Map.Entry<String, ? extends Tensor>> entries = new ArrayList<>(tensors.entrySet());
+        entries.sort(Comparator.comparingInt(entry -> -entry.getValue().getDType().getByteSize()));
+
+        StringBuilder json = new StringBuilder("{");
+        long offset = 0;
+        for (Map.Entry<String, ? extends Tensor> entry : entries) {
+            Tensor tensor = entry.getValue();
+            long end = offset + tensor.getNumBytesOfSegment();
+            json.append(json.length() == 1 ? "" : ",");
+            json.append(STR."\{quote(entry.getKey())}:{\"dtype\":\"\{dtype(tensor.getDType())}\",\"shape\":\{shapeToString(tensor.getShape())},\"data_offsets\":[\{offset},\{end}]}");
+            offset = end;
+        }
+        json.append("}");
+
+        byte[] headerBytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        int padding = (ALIGNMENT - headerBytes.length % ALIGNMENT) % ALIGNMENT;
+        ByteBuffer header = ByteBuffer.allocate(Long.BYTES + headerBytes.length + padding).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(headerBytes.length + padding);
+        header.put(headerBytes);
+        while (header.hasRemaining()) {
+            header.put((byte) ' ');
+        }
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            for (Map.Entry<String, ? extends Tensor> entry : entries) {
+                TensorFiles.writeSegment(channel, entry.getValue().getSegment());
+            }
+        }
+    }
+
+    private static void checkByteOrder() throws IOException {
+        if (ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN) {
+            throw new IOException("Safetensors files are only supported on little-endian platforms");
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of safetensors file");
+            }
+        }
+        return buffer;
+    }
+
+    private static long[] toLongs(Object value) throws IOException {
+        if (!(value instanceof List<?> list)) {
+            throw new IOException(STR."Expected a list of integers: \{value}");
+        }
+        long[] values = new long[list.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (!(list.get(i) instanceof Long number)) {
+                throw new IOException(STR."Expected a list of integers: \{value}");
+            }
+            values[i] = number;
+        }
+        return values;
+    }
+
+    private static String quote(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static String shapeToString(Shape shape) {
+        StringBuilder builder = new StringBuilder("[");
+        for (long dimension : shape.getDimensions()) {
+            builder.append(builder.length() == 1 ? "" : ",").append(dimension);
+        }
+        return builder.append("]").toString();
+    }
+
+    private static String dtype(DType dType) {
+        return switch (dType) {
+            case HALF_FLOAT -> "F16";
+            case BFLOAT16 -> "BF16";
+            case FLOAT -> "F32";
+            case DOUBLE -> "F64";
+            case INT8, QINT8 -> "I8";
+            case UINT8, QUINT8 -> "U8";
+            case BOOL -> "BOOL";
+            case INT16 -> "I16";
+            case INT32 -> "I32";
+            case INT64 -> "I64";
+        };
+    }
+
+    private static int elementSize(String dtype, Path path) throws IOException {
+        return switch (dtype) {
+            case "I8", "U8", "BOOL" -> 1;
+            case "F16", "BF16", "I16" -> 2;
+            case "F32", "I32" -> 4;
+            case "F64", "I64" -> 8;
+            default -> throw new IOException(STR."Unsupported safetensors data type \{dtype}: \{path}");
+        };
+    }
+
+    private static Tensor map(Path path, long offset, Shape shape, String dtype) throws IOException {
+        return switch (dtype) {
+            case "F16" -> TensorFP16.map(path, offset, shape);
+            case "BF16" -> TensorBF16.map(path, offset, shape);
+            case "F32" -> TensorFP32.map(path, offset, shape);
+            case "F64" -> TensorFP64.map(path, offset, shape);
+            case "I16" -> TensorInt16.map(path, offset, shape);
+            case "I32" -> TensorInt32.map(path, offset, shape);
+            case "I64" -> TensorInt64.map(path, offset, shape);
+            case "I8" -> TensorByte.map(path, offset, shape, DType.INT8);
+            case "U8" -> TensorByte.map(path, offset, shape, DType.UINT8);
+            case "BOOL" -> TensorByte.map(path, offset, shape, DType.BOOL);
+            default -> throw new IOException(STR."Unsupported safetensors data type \{dtype}: \{path}");
+        };
+    }
+
+    /**
+     * Minimal JSON parser for the header of a file. Objects are parsed into
+     * maps that keep the order of the keys, arrays into lists, and integer
+     * numbers into {@link Long} values.
+     */
+    private static final class JsonParser {
+
+        private final String json;
+        private int position;
+
+        JsonParser(String json) {
+            this.json = json;
+        }
+
+        Map<String, Object> parseObject() throws IOException {
+            expect('{');
+            Map<String, Object> object = new LinkedHashMap<>();
+            if (peek() == '}') {
+                position++;
+                return object;
+            }
+            do {
+                String key = parseString();
+                expect(':');
+                object.put(key, parseValue());
+            } while (consume(','));
+            expect('}');
+            return object;
+        }
+
+        private List<Object> parseArray() throws IOException {
+            expect('[');
+            List<Object> array = new ArrayList<>();
+            if (peek() == ']') {
+                position++;
+                return array;
+            }
+            do {
+                array.add(parseValue());
+            } while (consume(','));
+            expect(']');
+            return array;
+        }
+
+        private Object parseValue() throws IOException {
+            char c = peek();
+            return switch (c) {
+                case '{' -> parseObject();
+                case '[' -> parseArray();
+                case '"' -> parseString();
+                case 't' -> parseLiteral("true", Boolean.TRUE);
+                case 'f' -> parseLiteral("false", Boolean.FALSE);
+                case 'n' -> parseLiteral("null", null);
+                default -> parseNumber();
+            };
+        }
+
+        private Object parseLiteral(String literal, Object value) throws IOException {
+            if (!json.startsWith(literal, position)) {
+                throw error();
+            }
+            position += literal.length();
+            return value;
+        }
+
+        private Object parseNumber() throws IOException {
+            int start = position;
+            while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+            String number = json.substring(start, position);
+            try {
+                if (number.contains(".") || number.contains("e") || number.contains("E")) {
+                    return Double.parseDouble(number);
+                }
+                return Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                throw error();
+            }
+        }
+
+        private String parseString() throws IOException {
+            expect('"');
+            StringBuilder builder = new StringBuilder();
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c == '\\') {
+                    if (position >= json.length()) {
+                        break;
+                    }
+                    char escaped = json.charAt(position++);
+                    switch (escaped) {
+                        case 'b' -> builder.append('\b');
+                        case 'f' -> builder.append('\f');
+                        case 'n' -> builder.append('\n');
+                        case 'r' -> builder.append('\r');
+                        case 't' -> builder.append('\t');
+                        case 'u' -> {
+                            if (position + 4 > json.length()) {
+                                throw error();
+                            }
+                            builder.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                            position += 4;
+                        }
+                        default -> builder.append(escaped);
+                    }
+                } else {
+                    builder.append(c);
+                }
+            }
+            throw error();
+        }
+
+        private char peek() throws IOException {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+            if (position >= json.length()) {
+                throw error();
+            }
+            return json.charAt(position);
+        }
+
+        private boolean consume(char c) throws IOException {
+            if (peek() == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) throws IOException {
+            if (!consume(c)) {
+                throw error();
+            }
+        }
+
+        private IOException error() {
+            return new IOException(STR."Invalid safetensors header at position \{position}");
+        }
+    }
+}
@@ -40,12 +40,24 @@ public record Shape(long... dimensions) {
     }
 
     /**
-     * Calculates and returns the size of the shape, which is the product of all its dimensions.
+     * Calculates and returns the size of the shape, which is the product of all its dimensions. Sizes larger than
+     * {@link Integer#MAX_VALUE} are saturated; use {@link #getSizeAsLong()} for them.
      *
      * @return the total size of the shape as an int
      */
     public int getSize() {
-        return (int) Arrays.stream(dimensions).reduce(1, (a, b) -> a * b);
+        return (int) Math.min(getSizeAsLong(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Calculates and returns the size of the shape, which is the product of all its dimensions.
+     *
+     * @return the total size of the shape as a long
+     * @throws ArithmeticException
+     *     if the size overflows a long.
+     */
+    public long getSizeAsLong() {
+        return Arrays.stream(dimensions).reduce(1, Math::multiplyExact);
     }
 
     @Override
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.tensors;
+
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
+import uk.ac.manchester.tornado.api.types.arrays.BFloat16Array;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.lang.foreign.ValueLayout.JAVA_SHORT;
+
+/**
+ * A tensor of bfloat16 values. The elements are read and written as floats, with the conversions of
+ * {@link BFloat16Array}.
+ */
+@SegmentElementSize(size = 2)
+public final class TensorBF16 extends Tensor {
+    private static final int BFLOAT16_BYTES = 2;
+    /**
+     * The data type of the elements contained within the tensor.
+     */
+    private final DType dType;
+    private final Shape shape;
+
+    private final BFloat16Array tensorStorage;
+
+    /**
+     * The total number of elements in the tensor.
+     */
+    private int numberOfElements;
+
+    public TensorBF16(Shape shape) {
+        super(DType.BFLOAT16, shape);
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = DType.BFLOAT16;
+        this.tensorStorage = new BFloat16Array(shape.getSizeAsLong());
+    }
+
+    private TensorBF16(Shape shape, BFloat16Array tensorStorage) {
+        super(DType.BFLOAT16, shape);
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = DType.BFLOAT16;
+        this.tensorStorage = tensorStorage;
+    }
+
+    /**
+     * Creates a tensor over a region of a file, without copying the data. The elements are stored in the native
+     * byte order, and the region is memory-mapped as described in {@link BFloat16Array#fromFile(Path, long, long)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorBF16} backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static TensorBF16 map(Path path, long offset, Shape shape) throws IOException {
+        return new TensorBF16(shape, BFloat16Array.fromFile(path, offset, shape.getSizeAsLong()));
+    }
+
+    /**
+     * Creates a tensor with memory from the given allocator, as described in
+     * {@link BFloat16Array#allocate(SegmentAllocator, long)}.
+     *
+     * @param allocator
+     *     The allocator of the memory of the tensor.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorBF16} that uses memory of the allocator.
+     */
+    public static TensorBF16 allocate(SegmentAllocator allocator, Shape shape) {
+        return new TensorBF16(shape, BFloat16Array.allocate(allocator, shape.getSizeAsLong()));
+    }
+
+    public void init(float value) {
+        short bits = BFloat16Array.fromFloat(value);
+        for (long i = 0; i < getSizeAsLong(); i++) {
+            tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + i, bits);
+        }
+    }
+
+    public void set(int index, float value) {
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + index, BFloat16Array.fromFloat(value));
+    }
+
+    private long getBaseIndex() {
+        return (int) TornadoNativeArray.ARRAY_HEADER / BFLOAT16_BYTES;
+    }
+
+    /**
+     * Gets the value stored at the specified index of the tensor, as a float.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public float get(int index) {
+        return BFloat16Array.toFloat(tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_SHORT, getBaseIndex() + index));
+    }
+
+    /**
+     * Sets the value at a specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, float value) {
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + index, BFloat16Array.fromFloat(value));
+    }
+
+    /**
+     * Gets the value stored at the specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE}
+     * elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public float get(long index) {
+        return BFloat16Array.toFloat(tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_SHORT, getBaseIndex() + index));
+    }
+
+    @Override
+    public int getSize() {
+        return numberOfElements;
+    }
+
+    @Override
+    public MemorySegment getSegment() {
+        syncFromDevice();
+        return tensorStorage.getSegment();
+    }
+
+    @Override
+    public MemorySegment getSegmentWithHeader() {
+        return tensorStorage.getSegmentWithHeader();
+    }
+
+    @Override
+    public long getNumBytesOfSegmentWithHeader() {
+        return tensorStorage.getNumBytesOfSegmentWithHeader();
+    }
+
+    @Override
+    public long getNumBytesOfSegment() {
+        return tensorStorage.getNumBytesOfSegment();
+    }
+
+    @Override
+    protected void clear() {
+        init(0.0f);
+    }
+
+    @Override
+    public int getElementSize() {
+        return BFLOAT16_BYTES;
+    }
+
+    @Override
+    public Shape getShape() {
+        return this.shape;
+    }
+
+    @Override
+    public String getDTypeAsString() {
+        return dType.toString();
+    }
+
+    @Override
+    public DType getDType() {
+        return dType;
+    }
+
+    public static void initialize(TensorBF16 tensor, float value) {
+        for (@Parallel int i = 0; i < tensor.getSize(); i++) {
+            tensor.set(i, value);
+        }
+    }
+
+    /**
+     * Concatenates multiple {@link TensorBF16} instances into a single {@link TensorBF16}.
+     *
+     * @param arrays
+     *     Variable number of {@link TensorBF16} objects to be concatenated.
+     * @return A new {@link TensorBF16} instance containing all the elements of the input arrays,
+     *     concatenated in the order they were provided.
+     */
+    public static TensorBF16 concat(TensorBF16... arrays) {
+        int newSize = Arrays.stream(arrays).mapToInt(TensorBF16::getSize).sum();
+        TensorBF16 concatArray = new TensorBF16(new Shape(newSize));
+        long currentPositionBytes = 0;
+        for (TensorBF16 array : arrays) {
+            MemorySegment.copy(array.getSegment(), 0, concatArray.getSegment(), currentPositionBytes, array.getNumBytesOfSegment());
+            currentPositionBytes += array.getNumBytesOfSegment();
+        }
+        return concatArray;
+    }
+}
@@ -21,7 +21,10 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_BYTE;
@@ -52,11 +55,59 @@ public final class TensorByte extends Tensor {
         this.shape = shape;
         this.numberOfElements = shape.getSize();
         this.dType = DType.BOOL;
-        this.tensorStorage = new ByteArray(numberOfElements);
+        this.tensorStorage = new ByteArray(shape.getSizeAsLong());
+    }
+
+    private TensorByte(Shape shape, ByteArray tensorStorage, DType dType) {
+        super(dType, shape);
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = dType;
+        this.tensorStorage = tensorStorage;
+    }
+
+    /**
+     * Creates a tensor over a region of a file, without copying the data. The elements are stored in the native
+     * byte order, and the region is memory-mapped as described in {@link ByteArray#fromFile(Path, long, long)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorByte} backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static TensorByte map(Path path, long offset, Shape shape) throws IOException {
+        return map(path, offset, shape, DType.BOOL);
+    }
+
+    /**
+     * Creates a tensor with memory from the given allocator, as described in
+     * {@link ByteArray#allocate(SegmentAllocator, long)}.
+     *
+     * @param allocator
+     *     The allocator of the memory of the tensor.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorByte} that uses memory of the allocator.
+     */
+    public static TensorByte allocate(SegmentAllocator allocator, Shape shape) {
+        return new TensorByte(shape, ByteArray.allocate(allocator, shape.getSizeAsLong()), DType.BOOL);
+    }
+
+    /**
+     * Creates a tensor of one-byte elements of the given data type over a region of a file. This is used by the file
+     * loaders to keep the data type of the elements of the file.
+     */
+    static TensorByte map(Path path, long offset, Shape shape, DType dType) throws IOException {
+        return new TensorByte(shape, ByteArray.fromFile(path, offset, shape.getSizeAsLong()), dType);
     }
 
     public void init(byte value) {
-        for (int i = 0; i < getSize(); i++) {
+        for (long i = 0; i < getSizeAsLong(); i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_BYTE, getBaseIndex() + i, value);
         }
     }
@@ -80,6 +131,30 @@ public final class TensorByte extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_BYTE, getBaseIndex() + index);
     }
 
+    /**
+     * Sets the value at a specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, byte value) {
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_BYTE, getBaseIndex() + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE}
+     * elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public byte get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_BYTE, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
         return numberOfElements;
@@ -87,6 +162,7 @@ public final class TensorByte extends Tensor {
 
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return tensorStorage.getSegment();
     }
 
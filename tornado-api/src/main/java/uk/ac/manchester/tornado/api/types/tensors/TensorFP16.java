@@ -23,7 +23,10 @@ import uk.ac.manchester.tornado.api.types.HalfFloat;
 import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_SHORT;
@@ -53,11 +56,51 @@ public final class TensorFP16 extends Tensor {
         this.shape = shape;
         this.numberOfElements = shape.getSize();
         this.dType = DType.HALF_FLOAT;
-        this.tensorStorage = new HalfFloatArray(numberOfElements);
+        this.tensorStorage = new HalfFloatArray(shape.getSizeAsLong());
+    }
+
+    private TensorFP16(Shape shape, HalfFloatArray tensorStorage) {
+        super(DType.HALF_FLOAT, shape);
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = DType.HALF_FLOAT;
+        this.tensorStorage = tensorStorage;
+    }
+
+    /**
+     * Creates a tensor over a region of a file, without copying the data. The elements are stored in the native
+     * byte order, and the region is memory-mapped as described in {@link HalfFloatArray#fromFile(Path, long, long)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorFP16} backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static TensorFP16 map(Path path, long offset, Shape shape) throws IOException {
+        return new TensorFP16(shape, HalfFloatArray.fromFile(path, offset, shape.getSizeAsLong()));
+    }
+
+    /**
+     * Creates a tensor with memory from the given allocator, as described in
+     * {@link HalfFloatArray#allocate(SegmentAllocator, long)}.
+     *
+     * @param allocator
+     *     The allocator of the memory of the tensor.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorFP16} that uses memory of the allocator.
+     */
+    public static TensorFP16 allocate(SegmentAllocator allocator, Shape shape) {
+        return new TensorFP16(shape, HalfFloatArray.allocate(allocator, shape.getSizeAsLong()));
     }
 
     public void init(HalfFloat value) {
-        for (int i = 0; i < getSize(); i++) {
+        for (long i = 0; i < getSizeAsLong(); i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + i, value.getHalfFloatValue());
         }
     }
@@ -82,6 +125,56 @@ public final class TensorFP16 extends Tensor {
         return new HalfFloat(halfFloatValue);
     }
 
+    /**
+     * Sets the value at a specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, HalfFloat value) {
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + index, value.getHalfFloatValue());
+    }
+
+    /**
+     * Gets the value stored at the specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE}
+     * elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public HalfFloat get(long index) {
+        short halfFloatValue = tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_SHORT, getBaseIndex() + index);
+        return new HalfFloat(halfFloatValue);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the tensor, converted to a float, without allocating a
+     * {@link HalfFloat} object.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index, as a float.
+     */
+    public float getFloat(int index) {
+        return Float.float16ToFloat(tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_SHORT, getBaseIndex() + index));
+    }
+
+    /**
+     * Sets the value at a specified index of the tensor from a float, which is rounded to float-16, without
+     * allocating a {@link HalfFloat} object.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The float value to store at the specified index.
+     */
+    public void setFloat(int index, float value) {
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + index, Float.floatToFloat16(value));
+    }
+
     @Override
     public int getSize() {
         return numberOfElements;
@@ -89,6 +182,7 @@ public final class TensorFP16 extends Tensor {
 
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return tensorStorage.getSegment();
     }
 
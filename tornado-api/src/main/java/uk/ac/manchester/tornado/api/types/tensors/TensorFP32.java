@@ -22,8 +22,11 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.FloatBuffer;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
@@ -54,11 +57,51 @@ public final class TensorFP32 extends Tensor {
         this.shape = shape;
         this.numberOfElements = shape.getSize();
         this.dType = DType.FLOAT;
-        this.tensorStorage = new FloatArray(numberOfElements);
+        this.tensorStorage = new FloatArray(shape.getSizeAsLong());
+    }
+
+    private TensorFP32(Shape shape, FloatArray tensorStorage) {
+        super(DType.FLOAT, shape);
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = DType.FLOAT;
+        this.tensorStorage = tensorStorage;
+    }
+
+    /**
+     * Creates a tensor over a region of a file, without copying the data. The elements are stored in the native
+     * byte order, and the region is memory-mapped as described in {@link FloatArray#fromFile(Path, long, long)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorFP32} backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static TensorFP32 map(Path path, long offset, Shape shape) throws IOException {
+        return new TensorFP32(shape, FloatArray.fromFile(path, offset, shape.getSizeAsLong()));
+    }
+
+    /**
+     * Creates a tensor with memory from the given allocator, as described in
+     * {@link FloatArray#allocate(SegmentAllocator, long)}.
+     *
+     * @param allocator
+     *     The allocator of the memory of the tensor.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorFP32} that uses memory of the allocator.
+     */
+    public static TensorFP32 allocate(SegmentAllocator allocator, Shape shape) {
+        return new TensorFP32(shape, FloatArray.allocate(allocator, shape.getSizeAsLong()));
     }
 
     public void init(float value) {
-        for (int i = 0; i < getSize(); i++) {
+        for (long i = 0; i < getSizeAsLong(); i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_FLOAT, getBaseIndex() + i, value);
         }
     }
@@ -82,6 +125,30 @@ public final class TensorFP32 extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_FLOAT, getBaseIndex() + index);
     }
 
+    /**
+     * Sets the value at a specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, float value) {
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_FLOAT, getBaseIndex() + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE}
+     * elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public float get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_FLOAT, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
         return numberOfElements;
@@ -89,6 +156,7 @@ public final class TensorFP32 extends Tensor {
 
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return tensorStorage.getSegment();
     }
 
@@ -133,6 +201,7 @@ public final class TensorFP32 extends Tensor {
     }
 
     public float[] toHeapArray() {
+        syncFromDevice();
         float[] outputArray = new float[getSize()];
         for (int i = 0; i < getSize(); i++) {
             outputArray[i] = get(i);
@@ -22,8 +22,11 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.DoubleBuffer;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
@@ -54,11 +57,51 @@ public final class TensorFP64 extends Tensor {
         this.shape = shape;
         this.numberOfElements = shape.getSize();
         this.dType = DType.DOUBLE;
-        this.tensorStorage = new DoubleArray(numberOfElements);
+        this.tensorStorage = new DoubleArray(shape.getSizeAsLong());
+    }
+
+    private TensorFP64(Shape shape, DoubleArray tensorStorage) {
+        super(DType.DOUBLE, shape);
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = DType.DOUBLE;
+        this.tensorStorage = tensorStorage;
+    }
+
+    /**
+     * Creates a tensor over a region of a file, without copying the data. The elements are stored in the native
+     * byte order, and the region is memory-mapped as described in {@link DoubleArray#fromFile(Path, long, long)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorFP64} backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static TensorFP64 map(Path path, long offset, Shape shape) throws IOException {
+        return new TensorFP64(shape, DoubleArray.fromFile(path, offset, shape.getSizeAsLong()));
+    }
+
+    /**
+     * Creates a tensor with memory from the given allocator, as described in
+     * {@link DoubleArray#allocate(SegmentAllocator, long)}.
+     *
+     * @param allocator
+     *     The allocator of the memory of the tensor.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorFP64} that uses memory of the allocator.
+     */
+    public static TensorFP64 allocate(SegmentAllocator allocator, Shape shape) {
+        return new TensorFP64(shape, DoubleArray.allocate(allocator, shape.getSizeAsLong()));
     }
 
     public void init(double value) {
-        for (int i = 0; i < getSize(); i++) {
+        for (long i = 0; i < getSizeAsLong(); i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_DOUBLE, getBaseIndex() + i, value);
         }
     }
@@ -82,6 +125,30 @@ public final class TensorFP64 extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_DOUBLE, getBaseIndex() + index);
     }
 
+    /**
+     * Sets the value at a specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, double value) {
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_DOUBLE, getBaseIndex() + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE}
+     * elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public double get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_DOUBLE, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
         return numberOfElements;
@@ -89,6 +156,7 @@ public final class TensorFP64 extends Tensor {
 
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return tensorStorage.getSegment();
     }
 
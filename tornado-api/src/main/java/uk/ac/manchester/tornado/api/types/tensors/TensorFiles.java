@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.tensors;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Utilities shared by the readers and writers of tensor files.
+ */
+final class TensorFiles {
+
+    /**
+     * Maximum number of bytes passed to a single write of a channel, since a
+     * {@link ByteBuffer} cannot be larger than 2GB.
+     */
+    private static final long MAX_CHUNK = 1L << 30;
+
+    private TensorFiles() {
+    }
+
+    /**
+     * Writes the contents of a segment at the current position of the channel.
+     * The segment is written in chunks that are wrapped as buffers, so the data
+     * is not copied to the Java heap.
+     */
+    static void writeSegment(FileChannel channel, MemorySegment segment) throws IOException {
+        for (long offset = 0; offset < segment.byteSize(); offset += MAX_CHUNK) {
+            ByteBuffer chunk = segment.asSlice(offset, Math.min(MAX_CHUNK, segment.byteSize() - offset)).asByteBuffer();
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+        }
+    }
+}
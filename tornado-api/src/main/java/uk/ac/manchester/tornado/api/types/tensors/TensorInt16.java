@@ -23,8 +23,11 @@ import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.ShortBuffer;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_SHORT;
@@ -51,15 +54,55 @@ public final class TensorInt16 extends Tensor {
      */
 
     public TensorInt16(Shape shape) {
-        super(DType.HALF_FLOAT, shape);
+        super(DType.INT16, shape);
         this.shape = shape;
         this.numberOfElements = shape.getSize();
-        this.dType = DType.HALF_FLOAT;
-        this.tensorStorage = new ShortArray(numberOfElements);
+        this.dType = DType.INT16;
+        this.tensorStorage = new ShortArray(shape.getSizeAsLong());
+    }
+
+    private TensorInt16(Shape shape, ShortArray tensorStorage) {
+        super(DType.INT16, shape);
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = DType.INT16;
+        this.tensorStorage = tensorStorage;
+    }
+
+    /**
+     * Creates a tensor over a region of a file, without copying the data. The elements are stored in the native
+     * byte order, and the region is memory-mapped as described in {@link ShortArray#fromFile(Path, long, long)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorInt16} backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static TensorInt16 map(Path path, long offset, Shape shape) throws IOException {
+        return new TensorInt16(shape, ShortArray.fromFile(path, offset, shape.getSizeAsLong()));
+    }
+
+    /**
+     * Creates a tensor with memory from the given allocator, as described in
+     * {@link ShortArray#allocate(SegmentAllocator, long)}.
+     *
+     * @param allocator
+     *     The allocator of the memory of the tensor.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorInt16} that uses memory of the allocator.
+     */
+    public static TensorInt16 allocate(SegmentAllocator allocator, Shape shape) {
+        return new TensorInt16(shape, ShortArray.allocate(allocator, shape.getSizeAsLong()));
     }
 
     public void init(short value) {
-        for (int i = 0; i < getSize(); i++) {
+        for (long i = 0; i < getSizeAsLong(); i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + i, value);
         }
     }
@@ -83,6 +126,30 @@ public final class TensorInt16 extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_SHORT, getBaseIndex() + index);
     }
 
+    /**
+     * Sets the value at a specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, short value) {
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE}
+     * elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public short get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_SHORT, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
         return numberOfElements;
@@ -90,6 +157,7 @@ public final class TensorInt16 extends Tensor {
 
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return tensorStorage.getSegment();
     }
 
@@ -23,8 +23,11 @@ import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.LongBuffer;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_LONG;
@@ -54,11 +57,51 @@ public final class TensorInt64 extends Tensor {
         this.shape = shape;
         this.numberOfElements = shape.getSize();
         this.dType = DType.INT64;
-        this.tensorStorage = new LongArray(numberOfElements);
+        this.tensorStorage = new LongArray(shape.getSizeAsLong());
+    }
+
+    private TensorInt64(Shape shape, LongArray tensorStorage) {
+        super(DType.INT64, shape);
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = DType.INT64;
+        this.tensorStorage = tensorStorage;
+    }
+
+    /**
+     * Creates a tensor over a region of a file, without copying the data. The elements are stored in the native
+     * byte order, and the region is memory-mapped as described in {@link LongArray#fromFile(Path, long, long)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The offset in bytes of the first element in the file.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorInt64} backed by the file.
+     * @throws IOException
+     *     if the file cannot be read.
+     */
+    public static TensorInt64 map(Path path, long offset, Shape shape) throws IOException {
+        return new TensorInt64(shape, LongArray.fromFile(path, offset, shape.getSizeAsLong()));
+    }
+
+    /**
+     * Creates a tensor with memory from the given allocator, as described in
+     * {@link LongArray#allocate(SegmentAllocator, long)}.
+     *
+     * @param allocator
+     *     The allocator of the memory of the tensor.
+     * @param shape
+     *     The shape of the tensor.
+     * @return A new {@link TensorInt64} that uses memory of the allocator.
+     */
+    public static TensorInt64 allocate(SegmentAllocator allocator, Shape shape) {
+        return new TensorInt64(shape, LongArray.allocate(allocator, shape.getSizeAsLong()));
     }
 
     public void init(long value) {
-        for (int i = 0; i < getSize(); i++) {
+        for (long i = 0; i < getSizeAsLong(); i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_LONG, getBaseIndex() + i, value);
         }
     }
@@ -82,6 +125,30 @@ public final class TensorInt64 extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_LONG, getBaseIndex() + index);
     }
 
+    /**
+     * Sets the value at a specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The value to store at the specified index.
+     */
+    public void set(long index, long value) {
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_LONG, getBaseIndex() + index, value);
+    }
+
+    /**
+     * Gets the value stored at the specified index of the tensor, for tensors of more than {@link Integer#MAX_VALUE}
+     * elements.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value at the specified index.
+     */
+    public long get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_LONG, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
         return numberOfElements;
@@ -89,6 +156,7 @@ public final class TensorInt64 extends Tensor {
 
     @Override
     public MemorySegment getSegment() {
+        syncFromDevice();
         return tensorStorage.getSegment();
     }
 
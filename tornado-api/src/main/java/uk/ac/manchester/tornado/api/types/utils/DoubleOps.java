@@ -18,6 +18,7 @@
 package uk.ac.manchester.tornado.api.types.utils;
 
 import uk.ac.manchester.tornado.api.math.TornadoMath;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
 import uk.ac.manchester.tornado.api.types.vectors.Double2;
 import uk.ac.manchester.tornado.api.types.vectors.Double3;
 import uk.ac.manchester.tornado.api.types.vectors.Double4;
@@ -97,4 +98,39 @@ public class DoubleOps {
     public static void atomicAdd(double[] array, int index, double value) {
         array[index] += value;
     }
+
+    /**
+     * Returns the sum of the elements of an array, computed with {@link SegmentOps#sumDoubles}.
+     */
+    public static double sum(DoubleArray array) {
+        return SegmentOps.sumDoubles(array.getSegment());
+    }
+
+    /**
+     * Returns the minimum of the elements of an array, computed with {@link SegmentOps#minDoubles}.
+     */
+    public static double min(DoubleArray array) {
+        return SegmentOps.minDoubles(array.getSegment());
+    }
+
+    /**
+     * Returns the maximum of the elements of an array, computed with {@link SegmentOps#maxDoubles}.
+     */
+    public static double max(DoubleArray array) {
+        return SegmentOps.maxDoubles(array.getSegment());
+    }
+
+    /**
+     * Computes {@code y = alpha * x + y} with {@link SegmentOps#axpyDoubles}.
+     */
+    public static void axpy(double alpha, DoubleArray x, DoubleArray y) {
+        SegmentOps.axpyDoubles(alpha, x.getSegment(), y.getSegment());
+    }
+
+    /**
+     * Compares two arrays element by element with {@link SegmentOps#compareDoubles}.
+     */
+    public static boolean compare(DoubleArray a, DoubleArray b, double tol) {
+        return SegmentOps.compareDoubles(a.getSegment(), b.getSegment(), tol);
+    }
 }
@@ -102,4 +102,39 @@ public class FloatOps {
     public static void atomicAdd(float[] array, int index, float value) {
         array[index] += value;
     }
+
+    /**
+     * Returns the sum of the elements of an array, computed with {@link SegmentOps#sumFloats}.
+     */
+    public static float sum(FloatArray array) {
+        return SegmentOps.sumFloats(array.getSegment());
+    }
+
+    /**
+     * Returns the minimum of the elements of an array, computed with {@link SegmentOps#minFloats}.
+     */
+    public static float min(FloatArray array) {
+        return SegmentOps.minFloats(array.getSegment());
+    }
+
+    /**
+     * Returns the maximum of the elements of an array, computed with {@link SegmentOps#maxFloats}.
+     */
+    public static float max(FloatArray array) {
+        return SegmentOps.maxFloats(array.getSegment());
+    }
+
+    /**
+     * Computes {@code y = alpha * x + y} with {@link SegmentOps#axpyFloats}.
+     */
+    public static void axpy(float alpha, FloatArray x, FloatArray y) {
+        SegmentOps.axpyFloats(alpha, x.getSegment(), y.getSegment());
+    }
+
+    /**
+     * Compares two arrays element by element with {@link SegmentOps#compareFloats}.
+     */
+    public static boolean compare(FloatArray a, FloatArray b, float tol) {
+        return SegmentOps.compareFloats(a.getSegment(), b.getSegment(), tol);
+    }
 }
@@ -17,6 +17,8 @@
  */
 package uk.ac.manchester.tornado.api.types.utils;
 
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
 public class IntOps {
 
     public static final float EPSILON = 1e-7f;
@@ -31,4 +33,25 @@ public class IntOps {
     public static boolean compare(float a, float b) {
         return (a == b);
     }
+
+    /**
+     * Returns the sum of the elements of an array, computed with {@link SegmentOps#sumInts}.
+     */
+    public static int sum(IntArray array) {
+        return SegmentOps.sumInts(array.getSegment());
+    }
+
+    /**
+     * Returns the minimum of the elements of an array, computed with {@link SegmentOps#minInts}.
+     */
+    public static int min(IntArray array) {
+        return SegmentOps.minInts(array.getSegment());
+    }
+
+    /**
+     * Returns the maximum of the elements of an array, computed with {@link SegmentOps#maxInts}.
+     */
+    public static int max(IntArray array) {
+        return SegmentOps.maxInts(array.getSegment());
+    }
 }
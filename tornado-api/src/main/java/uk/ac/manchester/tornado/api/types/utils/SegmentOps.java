@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.utils;
+
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Optional;
+
+/**
+ * Bulk operations over the data of native arrays, such as the segments returned by
+ * {@link uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray#getSegment()}. The segments hold the elements in
+ * the native byte order, without the header of the arrays, and the number of elements is given by the size of the
+ * segment.
+ *
+ * <p>
+ * The operations are vectorized with the Vector API ({@code jdk.incubator.vector}) when the module is available,
+ * which is the case when running with the {@code tornado} launcher. Otherwise, or when the property
+ * {@code -Dtornado.bulk.vectorize=False} is set, they fall back to scalar loops. The floating-point reductions
+ * ({@code sum}) of the vectorized path add the elements in a different order than the scalar loop, so their results
+ * can differ in the last bits.
+ * </p>
+ */
+public final class SegmentOps {
+
+    private static final boolean VECTORIZE = Boolean.parseBoolean(System.getProperty("tornado.bulk.vectorize", "True")) && isVectorAPIAvailable();
+
+    private SegmentOps() {
+    }
+
+    private static boolean isVectorAPIAvailable() {
+        Optional<Module> vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector");
+        return vectorModule.isPresent() && SegmentOps.class.getModule().canRead(vectorModule.get());
+    }
+
+    /**
+     * Returns true if the operations are vectorized with the Vector API.
+     *
+     * @return boolean
+     */
+    public static boolean isVectorized() {
+        return VECTORIZE;
+    }
+
+    private static void checkSameLength(long a, long b) {
+        if (a != b) {
+            throw new IllegalArgumentException(STR."Segments of different number of elements: \{a} and \{b}");
+        }
+    }
+
+    /**
+     * Sets all the float elements of a segment to a value.
+     *
+     * @param segment
+     *     The segment of floats.
+     * @param value
+     *     The value to set.
+     */
+    public static void fillFloats(MemorySegment segment, float value) {
+        if (VECTORIZE) {
+            VectorSegmentOps.fillFloats(segment, value);
+            return;
+        }
+        long length = segment.byteSize() / Float.BYTES;
+        for (long i = 0; i < length; i++) {
+            segment.setAtIndex(JAVA_FLOAT, i, value);
+        }
+    }
+
+    /**
+     * Sets all the int elements of a segment to a value.
+     *
+     * @param segment
+     *     The segment of ints.
+     * @param value
+     *     The value to set.
+     */
+    public static void fillInts(MemorySegment segment, int value) {
+        if (VECTORIZE) {
+            VectorSegmentOps.fillInts(segment, value);
+            return;
+        }
+        long length = segment.byteSize() / Integer.BYTES;
+        for (long i = 0; i < length; i++) {
+            segment.setAtIndex(JAVA_INT, i, value);
+        }
+    }
+
+    /**
+     * Sets all the double elements of a segment to a value.
+     *
+     * @param segment
+     *     The segment of doubles.
+     * @param value
+     *     The value to set.
+     */
+    public static void fillDoubles(MemorySegment segment, double value) {
+        if (VECTORIZE) {
+            VectorSegmentOps.fillDoubles(segment, value);
+            return;
+        }
+        long length = segment.byteSize() / Double.BYTES;
+        for (long i = 0; i < length; i++) {
+            segment.setAtIndex(JAVA_DOUBLE, i, value);
+        }
+    }
+
+    /**
+     * Copies the contents of a segment into another segment of the same size. The copy is a bulk copy of the
+     * JVM, which is already vectorized.
+     *
+     * @param source
+     *     The segment to copy from.
+     * @param destination
+     *     The segment to copy to.
+     */
+    public static void copy(MemorySegment source, MemorySegment destination) {
+        checkSameLength(source.byteSize(), destination.byteSize());
+        MemorySegment.copy(source, 0, destination, 0, source.byteSize());
+    }
+
+    /**
+     * Computes {@code y = alpha * x + y} over segments of floats.
+     *
+     * @param alpha
+     *     The scalar.
+     * @param x
+     *     The segment of floats that is scaled.
+     * @param y
+     *     The segment of floats that is updated.
+     */
+    public static void axpyFloats(float alpha, MemorySegment x, MemorySegment y) {
+        checkSameLength(x.byteSize(), y.byteSize());
+        if (VECTORIZE) {
+            VectorSegmentOps.axpyFloats(alpha, x, y);
+            return;
+        }
+        long length = x.byteSize() / Float.BYTES;
+        for (long i = 0; i < length; i++) {
+            y.setAtIndex(JAVA_FLOAT, i, alpha * x.getAtIndex(JAVA_FLOAT, i) + y.getAtIndex(JAVA_FLOAT, i));
+        }
+    }
+
+    /**
+     * Computes {@code y = alpha * x + y} over segments of doubles.
+     *
+     * @param alpha
+     *     The scalar.
+     * @param x
+     *     The segment of doubles that is scaled.
+     * @param y
+     *     The segment of doubles that is updated.
+     */
+    public static void axpyDoubles(double alpha, MemorySegment x, MemorySegment y) {
+        checkSameLength(x.byteSize(), y.byteSize());
+        if (VECTORIZE) {
+            VectorSegmentOps.axpyDoubles(alpha, x, y);
+            return;
+        }
+        long length = x.byteSize() / Double.BYTES;
+        for (long i = 0; i < length; i++) {
+            y.setAtIndex(JAVA_DOUBLE, i, alpha * x.getAtIndex(JAVA_DOUBLE, i) + y.getAtIndex(JAVA_DOUBLE, i));
+        }
+    }
+
+    /**
+     * Returns the sum of the floats of a segment.
+     *
+     * @param segment
+     *     The segment of floats.
+     * @return The sum, or 0 for an empty segment.
+     */
+    public static float sumFloats(MemorySegment segment) {
+        if (VECTORIZE) {
+            return VectorSegmentOps.sumFloats(segment);
+        }
+        long length = segment.byteSize() / Float.BYTES;
+        float sum = 0;
+        for (long i = 0; i < length; i++) {
+            sum += segment.getAtIndex(JAVA_FLOAT, i);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of the ints of a segment. The sum overflows as the addition of Java ints.
+     *
+     * @param segment
+     *     The segment of ints.
+     * @return The sum, or 0 for an empty segment.
+     */
+    public static int sumInts(MemorySegment segment) {
+        if (VECTORIZE) {
+            return VectorSegmentOps.sumInts(segment);
+        }
+        long length = segment.byteSize() / Integer.BYTES;
+        int sum = 0;
+        for (long i = 0; i < length; i++) {
+            sum += segment.getAtIndex(JAVA_INT, i);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of the doubles of a segment.
+     *
+     * @param segment
+     *     The segment of doubles.
+     * @return The sum, or 0 for an empty segment.
+     */
+    public static double sumDoubles(MemorySegment segment) {
+        if (VECTORIZE) {
+            return VectorSegmentOps.sumDoubles(segment);
+        }
+        long length = segment.byteSize() / Double.BYTES;
+        double sum = 0;
+        for (long i = 0; i < length; i++) {
+            sum += segment.getAtIndex(JAVA_DOUBLE, i);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the minimum of the floats of a segment, as computed by {@link Math#min(float, float)}.
+     *
+     * @param segment
+     *     The segment of floats.
+     * @return The minimum, or {@link Float#POSITIVE_INFINITY} for an empty segment.
+     */
+    public static float minFloats(MemorySegment segment) {
+        if (VECTORIZE) {
+            return VectorSegmentOps.minFloats(segment);
+        }
+        long length = segment.byteSize() / Float.BYTES;
+        float min = Float.POSITIVE_INFINITY;
+        for (long i = 0; i < length; i++) {
+            min = Math.min(min, segment.getAtIndex(JAVA_FLOAT, i));
+        }
+        return min;
+    }
+
+    /**
+     * Returns the maximum of the floats of a segment, as computed by {@link Math#max(float, float)}.
+     *
+     * @param segment
+     *     The segment of floats.
+     * @return The maximum, or {@link Float#NEGATIVE_INFINITY} for an empty segment.
+     */
+    public static float maxFloats(MemorySegment segment) {
+        if (VECTORIZE) {
+            return VectorSegmentOps.maxFloats(segment);
+        }
+        long length = segment.byteSize() / Float.BYTES;
+        float max = Float.NEGATIVE_INFINITY;
+        for (long i = 0; i < length; i++) {
+            max = Math.max(max, segment.getAtIndex(JAVA_FLOAT, i));
+        }
+        return max;
+    }
+
+    /**
+     * Returns the minimum of the ints of a segment.
+     *
+     * @param segment
+     *     The segment of ints.
+     * @return The minimum, or {@link Integer#MAX_VALUE} for an empty segment.
+     */
+    public static int minInts(MemorySegment segment) {
+        if (VECTORIZE) {
+            return VectorSegmentOps.minInts(segment);
+        }
+        long length = segment.byteSize() / Integer.BYTES;
+        int min = Integer.MAX_VALUE;
+        for (long i = 0; i < length; i++) {
+            min = Math.min(min, segment.getAtIndex(JAVA_INT, i));
+        }
+        return min;
+    }
+
+    /**
+     * Returns the maximum of the ints of a segment.
+     *
+     * @param segment
+     *     The segment of ints.
+     * @return The maximum, or {@link Integer#MIN_VALUE} for an empty segment.
+     */
+    public static int maxInts(MemorySegment segment) {
+        if (VECTORIZE) {
+            return VectorSegmentOps.maxInts(segment);
+        }
+        long length = segment.byteSize() / Integer.BYTES;
+        int max = Integer.MIN_VALUE;
+        for (long i = 0; i < length; i++) {
+            max = Math.max(max, segment.getAtIndex(JAVA_INT, i));
+        }
+        return max;
+    }
+
+    /**
+     * Returns the minimum of the doubles of a segment, as computed by {@link Math#min(double, double)}.
+     *
+     * @param segment
+     *     The segment of doubles.
+     * @return The minimum, or {@link Double#POSITIVE_INFINITY} for an empty segment.
+     */
+    public static double minDoubles(MemorySegment segment) {
+        if (VECTORIZE) {
+            return VectorSegmentOps.minDoubles(segment);
+        }
+        long length = segment.byteSize() / Double.BYTES;
+        double min = Double.POSITIVE_INFINITY;
+        for (long i = 0; i < length; i++) {
+            min = Math.min(min, segment.getAtIndex(JAVA_DOUBLE, i));
+        }
+        return min;
+    }
+
+    /**
+     * Returns the maximum of the doubles of a segment, as computed by {@link Math#max(double, double)}.
+     *
+     * @param segment
+     *     The segment of doubles.
+     * @return The maximum, or {@link Double#NEGATIVE_INFINITY} for an empty segment.
+     */
+    public static double maxDoubles(MemorySegment segment) {
+        if (VECTORIZE) {
+            return VectorSegmentOps.maxDoubles(segment);
+        }
+        long length = segment.byteSize() / Double.BYTES;
+        double max = Double.NEGATIVE_INFINITY;
+        for (long i = 0; i < length; i++) {
+            max = Math.max(max, segment.getAtIndex(JAVA_DOUBLE, i));
+        }
+        return max;
+    }
+
+    /**
+     * Compares two segments of floats element by element.
+     *
+     * @param a
+     *     The first segment of floats.
+     * @param b
+     *     The second segment of floats.
+     * @param tolerance
+     *     The maximum absolute difference between two elements.
+     * @return True if the segments have the same number of elements, and the absolute difference of every pair of
+     *     elements is, at most, the tolerance. Elements that are NaN are never equal.
+     */
+    public static boolean compareFloats(MemorySegment a, MemorySegment b, float tolerance) {
+        if (a.byteSize() != b.byteSize()) {
+            return false;
+        }
+        if (VECTORIZE) {
+            return VectorSegmentOps.compareFloats(a, b, tolerance);
+        }
+        long length = a.byteSize() / Float.BYTES;
+        for (long i = 0; i < length; i++) {
+            if (!(Math.abs(a.getAtIndex(JAVA_FLOAT, i) - b.getAtIndex(JAVA_FLOAT, i)) <= tolerance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares two segments of doubles element by element.
+     *
+     * @param a
+     *     The first segment of doubles.
+     * @param b
+     *     The second segment of doubles.
+     * @param tolerance
+     *     The maximum absolute difference between two elements.
+     * @return True if the segments have the same number of elements, and the absolute difference of every pair of
+     *     elements is, at most, the tolerance. Elements that are NaN are never equal.
+     */
+    public static boolean compareDoubles(MemorySegment a, MemorySegment b, double tolerance) {
+        if (a.byteSize() != b.byteSize()) {
+            return false;
+        }
+        if (VECTORIZE) {
+            return VectorSegmentOps.compareDoubles(a, b, tolerance);
+        }
+        long length = a.byteSize() / Double.BYTES;
+        for (long i = 0; i < length; i++) {
+            if (!(Math.abs(a.getAtIndex(JAVA_DOUBLE, i) - b.getAtIndex(JAVA_DOUBLE, i)) <= tolerance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts a segment of ints into a segment of floats with the same number of elements.
+     *
+     * @param source
+     *     The segment of ints.
+     * @param destination
+     *     The segment of floats.
+     */
+    public static void convertIntsToFloats(MemorySegment source, MemorySegment destination) {
+        checkSameLength(source.byteSize() / Integer.BYTES, destination.byteSize() / Float.BYTES);
+        if (VECTORIZE) {
+            VectorSegmentOps.convertIntsToFloats(source, destination);
+            return;
+        }
+        long length = source.byteSize() / Integer.BYTES;
+        for (long i = 0; i < length; i++) {
+            destination.setAtIndex(JAVA_FLOAT, i, source.getAtIndex(JAVA_INT, i));
+        }
+    }
+
+    /**
+     * Converts a segment of floats into a segment of ints with the same number of elements. The values are
+     * converted as the Java cast from float to int, which rounds towards zero.
+     *
+     * @param source
+     *     The segment of floats.
+     * @param destination
+     *     The segment of ints.
+     */
+    public static void convertFloatsToInts(MemorySegment source, MemorySegment destination) {
+        checkSameLength(source.byteSize() / Float.BYTES, destination.byteSize() / Integer.BYTES);
+        if (VECTORIZE) {
+            VectorSegmentOps.convertFloatsToInts(source, destination);
+            return;
+        }
+        long length = source.byteSize() / Float.BYTES;
+        for (long i = 0; i < length; i++) {
+            destination.setAtIndex(JAVA_INT, i, (int) source.getAtIndex(JAVA_FLOAT, i));
+        }
+    }
+
+    /**
+     * Converts a segment of floats into a segment of doubles with the same number of elements.
+     *
+     * @param source
+     *     The segment of floats.
+     * @param destination
+     *     The segment of doubles.
+     */
+    public static void convertFloatsToDoubles(MemorySegment source, MemorySegment destination) {
+        checkSameLength(source.byteSize() / Float.BYTES, destination.byteSize() / Double.BYTES);
+        if (VECTORIZE) {
+            VectorSegmentOps.convertFloatsToDoubles(source, destination);
+            return;
+        }
+        long length = source.byteSize() / Float.BYTES;
+        for (long i = 0; i < length; i++) {
+            destination.setAtIndex(JAVA_DOUBLE, i, source.getAtIndex(JAVA_FLOAT, i));
+        }
+    }
+
+    /**
+     * Converts a segment of doubles into a segment of floats with the same number of elements.
+     *
+     * @param source
+     *     The segment of doubles.
+     * @param destination
+     *     The segment of floats.
+     */
+    public static void convertDoublesToFloats(MemorySegment source, MemorySegment destination) {
+        checkSameLength(source.byteSize() / Double.BYTES, destination.byteSize() / Float.BYTES);
+        if (VECTORIZE) {
+            VectorSegmentOps.convertDoublesToFloats(source, destination);
+            return;
+        }
+        long length = source.byteSize() / Double.BYTES;
+        for (long i = 0; i < length; i++) {
+            destination.setAtIndex(JAVA_FLOAT, i, (float) source.getAtIndex(JAVA_DOUBLE, i));
+        }
+    }
+}
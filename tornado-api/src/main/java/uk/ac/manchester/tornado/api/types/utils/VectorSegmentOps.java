@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.utils;
+
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of {@link SegmentOps} with the Vector API. This class is only loaded when the
+ * {@code jdk.incubator.vector} module is readable. Each operation processes whole vectors of the preferred species,
+ * followed by a scalar loop over the remaining elements.
+ */
+final class VectorSegmentOps {
+
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Species of floats with as many lanes as {@link #DOUBLE_SPECIES}, for the conversions between floats and doubles.
+     */
+    private static final VectorSpecies<Float> HALF_FLOAT_SPECIES = VectorSpecies.of(float.class, VectorShape.forBitSize(DOUBLE_SPECIES.vectorBitSize() / 2));
+
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+    private VectorSegmentOps() {
+    }
+
+    private static long loopBound(long length, VectorSpecies<?> species) {
+        return length - length % species.length();
+    }
+
+    static void fillFloats(MemorySegment segment, float value) {
+        long length = segment.byteSize() / Float.BYTES;
+        long bound = loopBound(length, FLOAT_SPECIES);
+        FloatVector vector = FloatVector.broadcast(FLOAT_SPECIES, value);
+        long i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            vector.intoMemorySegment(segment, i * Float.BYTES, ORDER);
+        }
+        for (; i < length; i++) {
+            segment.setAtIndex(JAVA_FLOAT, i, value);
+        }
+    }
+
+    static void fillInts(MemorySegment segment, int value) {
+        long length = segment.byteSize() / Integer.BYTES;
+        long bound = loopBound(length, INT_SPECIES);
+        IntVector vector = IntVector.broadcast(INT_SPECIES, value);
+        long i = 0;
+        for (; i < bound; i += INT_SPECIES.length()) {
+            vector.intoMemorySegment(segment, i * Integer.BYTES, ORDER);
+        }
+        for (; i < length; i++) {
+            segment.setAtIndex(JAVA_INT, i, value);
+        }
+    }
+
+    static void fillDoubles(MemorySegment segment, double value) {
+        long length = segment.byteSize() / Double.BYTES;
+        long bound = loopBound(length, DOUBLE_SPECIES);
+        DoubleVector vector = DoubleVector.broadcast(DOUBLE_SPECIES, value);
+        long i = 0;
+        for (; i < bound; i += DOUBLE_SPECIES.length()) {
+            vector.intoMemorySegment(segment, i * Double.BYTES, ORDER);
+        }
+        for (; i < length; i++) {
+            segment.setAtIndex(JAVA_DOUBLE, i, value);
+        }
+    }
+
+    static void axpyFloats(float alpha, MemorySegment x, MemorySegment y) {
+        long length = x.byteSize() / Float.BYTES;
+        long bound = loopBound(length, FLOAT_SPECIES);
+        long i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            long offset = i * Float.BYTES;
+            FloatVector vx = FloatVector.fromMemorySegment(FLOAT_SPECIES, x, offset, ORDER);
+            FloatVector vy = FloatVector.fromMemorySegment(FLOAT_SPECIES, y, offset, ORDER);
+            vx.mul(alpha).add(vy).intoMemorySegment(y, offset, ORDER);
+        }
+        for (; i < length; i++) {
+            y.setAtIndex(JAVA_FLOAT, i, alpha * x.getAtIndex(JAVA_FLOAT, i) + y.getAtIndex(JAVA_FLOAT, i));
+        }
+    }
+
+    static void axpyDoubles(double alpha, MemorySegment x, MemorySegment y) {
+        long length = x.byteSize() / Double.BYTES;
+        long bound = loopBound(length, DOUBLE_SPECIES);
+        long i = 0;
+        for (; i < bound; i += DOUBLE_SPECIES.length()) {
+            long offset = i * Double.BYTES;
+            DoubleVector vx = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, x, offset, ORDER);
+            DoubleVector vy = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, y, offset, ORDER);
+            vx.mul(alpha).add(vy).intoMemorySegment(y, offset, ORDER);
+        }
+        for (; i < length; i++) {
+            y.setAtIndex(JAVA_DOUBLE, i, alpha * x.getAtIndex(JAVA_DOUBLE, i) + y.getAtIndex(JAVA_DOUBLE, i));
+        }
+    }
+
+    static float sumFloats(MemorySegment segment) {
+        long length = segment.byteSize() / Float.BYTES;
+        long bound = loopBound(length, FLOAT_SPECIES);
+        FloatVector accumulator = FloatVector.zero(FLOAT_SPECIES);
+        long i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            accumulator = accumulator.add(FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, i * Float.BYTES, ORDER));
+        }
+        float sum = accumulator.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += segment.getAtIndex(JAVA_FLOAT, i);
+        }
+        return sum;
+    }
+
+    static int sumInts(MemorySegment segment) {
+        long length = segment.byteSize() / Integer.BYTES;
+        long bound = loopBound(length, INT_SPECIES);
+        IntVector accumulator = IntVector.zero(INT_SPECIES);
+        long i = 0;
+        for (; i < bound; i += INT_SPECIES.length()) {
+            accumulator = accumulator.add(IntVector.fromMemorySegment(INT_SPECIES, segment, i * Integer.BYTES, ORDER));
+        }
+        int sum = accumulator.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += segment.getAtIndex(JAVA_INT, i);
+        }
+        return sum;
+    }
+
+    static double sumDoubles(MemorySegment segment) {
+        long length = segment.byteSize() / Double.BYTES;
+        long bound = loopBound(length, DOUBLE_SPECIES);
+        DoubleVector accumulator = DoubleVector.zero(DOUBLE_SPECIES);
+        long i = 0;
+        for (; i < bound; i += DOUBLE_SPECIES.length()) {
+            accumulator = accumulator.add(DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segment, i * Double.BYTES, ORDER));
+        }
+        double sum = accumulator.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += segment.getAtIndex(JAVA_DOUBLE, i);
+        }
+        return sum;
+    }
+
+    static float minFloats(MemorySegment segment) {
+        long length = segment.byteSize() / Float.BYTES;
+        long bound = loopBound(length, FLOAT_SPECIES);
+        FloatVector accumulator = FloatVector.broadcast(FLOAT_SPECIES, Float.POSITIVE_INFINITY);
+        long i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            accumulator = accumulator.min(FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, i * Float.BYTES, ORDER));
+        }
+        float min = accumulator.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++) {
+            min = Math.min(min, segment.getAtIndex(JAVA_FLOAT, i));
+        }
+        return min;
+    }
+
+    static float maxFloats(MemorySegment segment) {
+        long length = segment.byteSize() / Float.BYTES;
+        long bound = loopBound(length, FLOAT_SPECIES);
+        FloatVector accumulator = FloatVector.broadcast(FLOAT_SPECIES, Float.NEGATIVE_INFINITY);
+        long i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            accumulator = accumulator.max(FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, i * Float.BYTES, ORDER));
+        }
+        float max = accumulator.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            max = Math.max(max, segment.getAtIndex(JAVA_FLOAT, i));
+        }
+        return max;
+    }
+
+    static int minInts(MemorySegment segment) {
+        long length = segment.byteSize() / Integer.BYTES;
+        long bound = loopBound(length, INT_SPECIES);
+        IntVector accumulator = IntVector.broadcast(INT_SPECIES, Integer.MAX_VALUE);
+        long i = 0;
+        for (; i < bound; i += INT_SPECIES.length()) {
+            accumulator = accumulator.min(IntVector.fromMemorySegment(INT_SPECIES, segment, i * Integer.BYTES, ORDER));
+        }
+        int min = accumulator.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++) {
+            min = Math.min(min, segment.getAtIndex(JAVA_INT, i));
+        }
+        return min;
+    }
+
+    static int maxInts(MemorySegment segment) {
+        long length = segment.byteSize() / Integer.BYTES;
+        long bound = loopBound(length, INT_SPECIES);
+        IntVector accumulator = IntVector.broadcast(INT_SPECIES, Integer.MIN_VALUE);
+        long i = 0;
+        for (; i < bound; i += INT_SPECIES.length()) {
+            accumulator = accumulator.max(IntVector.fromMemorySegment(INT_SPECIES, segment, i * Integer.BYTES, ORDER));
+        }
+        int max = accumulator.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            max = Math.max(max, segment.getAtIndex(JAVA_INT, i));
+        }
+        return max;
+    }
+
+    static double minDoubles(MemorySegment segment) {
+        long length = segment.byteSize() / Double.BYTES;
+        long bound = loopBound(length, DOUBLE_SPECIES);
+        DoubleVector accumulator = DoubleVector.broadcast(DOUBLE_SPECIES, Double.POSITIVE_INFINITY);
+        long i = 0;
+        for (; i < bound; i += DOUBLE_SPECIES.length()) {
+            accumulator = accumulator.min(DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segment, i * Double.BYTES, ORDER));
+        }
+        double min = accumulator.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++) {
+            min = Math.min(min, segment.getAtIndex(JAVA_DOUBLE, i));
+        }
+        return min;
+    }
+
+    static double maxDoubles(MemorySegment segment) {
+        long length = segment.byteSize() / Double.BYTES;
+        long bound = loopBound(length, DOUBLE_SPECIES);
+        DoubleVector accumulator = DoubleVector.broadcast(DOUBLE_SPECIES, Double.NEGATIVE_INFINITY);
+        long i = 0;
+        for (; i < bound; i += DOUBLE_SPECIES.length()) {
+            accumulator = accumulator.max(DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segment, i * Double.BYTES, ORDER));
+        }
+        double max = accumulator.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            max = Math.max(max, segment.getAtIndex(JAVA_DOUBLE, i));
+        }
+        return max;
+    }
+
+    static boolean compareFloats(MemorySegment a, MemorySegment b, float tolerance) {
+        long length = a.byteSize() / Float.BYTES;
+        long bound = loopBound(length, FLOAT_SPECIES);
+        long i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            long offset = i * Float.BYTES;
+            FloatVector va = FloatVector.fromMemorySegment(FLOAT_SPECIES, a, offset, ORDER);
+            FloatVector vb = FloatVector.fromMemorySegment(FLOAT_SPECIES, b, offset, ORDER);
+            // LE is false for NaN, as the scalar comparison
+            if (!va.sub(vb).abs().compare(VectorOperators.LE, tolerance).allTrue()) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (!(Math.abs(a.getAtIndex(JAVA_FLOAT, i) - b.getAtIndex(JAVA_FLOAT, i)) <= tolerance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean compareDoubles(MemorySegment a, MemorySegment b, double tolerance) {
+        long length = a.byteSize() / Double.BYTES;
+        long bound = loopBound(length, DOUBLE_SPECIES);
+        long i = 0;
+        for (; i < bound; i += DOUBLE_SPECIES.length()) {
+            long offset = i * Double.BYTES;
+            DoubleVector va = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, a, offset, ORDER);
+            DoubleVector vb = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, b, offset, ORDER);
+            if (!va.sub(vb).abs().compare(VectorOperators.LE, tolerance).allTrue()) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (!(Math.abs(a.getAtIndex(JAVA_DOUBLE, i) - b.getAtIndex(JAVA_DOUBLE, i)) <= tolerance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void convertIntsToFloats(MemorySegment source, MemorySegment destination) {
+        long length = source.byteSize() / Integer.BYTES;
+        long bound = loopBound(length, INT_SPECIES);
+        long i = 0;
+        for (; i < bound; i += INT_SPECIES.length()) {
+            long offset = i * Integer.BYTES;
+            IntVector vector = IntVector.fromMemorySegment(INT_SPECIES, source, offset, ORDER);
+            ((FloatVector) vector.convert(VectorOperators.I2F, 0)).intoMemorySegment(destination, offset, ORDER);
+        }
+        for (; i < length; i++) {
+            destination.setAtIndex(JAVA_FLOAT, i, source.getAtIndex(JAVA_INT, i));
+        }
+    }
+
+    static void convertFloatsToInts(MemorySegment source, MemorySegment destination) {
+        long length = source.byteSize() / Float.BYTES;
+        long bound = loopBound(length, FLOAT_SPECIES);
+        long i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            long offset = i * Float.BYTES;
+            FloatVector vector = FloatVector.fromMemorySegment(FLOAT_SPECIES, source, offset, ORDER);
+            ((IntVector) vector.convert(VectorOperators.F2I, 0)).intoMemorySegment(destination, offset, ORDER);
+        }
+        for (; i < length; i++) {
+            destination.setAtIndex(JAVA_INT, i, (int) source.getAtIndex(JAVA_FLOAT, i));
+        }
+    }
+
+    static void convertFloatsToDoubles(MemorySegment source, MemorySegment destination) {
+        long length = source.byteSize() / Float.BYTES;
+        long bound = loopBound(length, DOUBLE_SPECIES);
+        long i = 0;
+        for (; i < bound; i += DOUBLE_SPECIES.length()) {
+            FloatVector vector = FloatVector.fromMemorySegment(HALF_FLOAT_SPECIES, source, i * Float.BYTES, ORDER);
+            ((DoubleVector) vector.convertShape(VectorOperators.F2D, DOUBLE_SPECIES, 0)).intoMemorySegment(destination, i * Double.BYTES, ORDER);
+        }
+        for (; i < length; i++) {
+            destination.setAtIndex(JAVA_DOUBLE, i, source.getAtIndex(JAVA_FLOAT, i));
+        }
+    }
+
+    static void convertDoublesToFloats(MemorySegment source, MemorySegment destination) {
+        long length = source.byteSize() / Double.BYTES;
+        long bound = loopBound(length, DOUBLE_SPECIES);
+        long i = 0;
+        for (; i < bound; i += DOUBLE_SPECIES.length()) {
+            DoubleVector vector = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, source, i * Double.BYTES, ORDER);
+            ((FloatVector) vector.convertShape(VectorOperators.D2F, HALF_FLOAT_SPECIES, 0)).intoMemorySegment(destination, i * Float.BYTES, ORDER);
+        }
+        for (; i < length; i++) {
+            destination.setAtIndex(JAVA_FLOAT, i, (float) source.getAtIndex(JAVA_DOUBLE, i));
+        }
+    }
+}
@@ -27,6 +27,7 @@ module tornado.benchmarks {
     exports uk.ac.manchester.tornado.benchmarks.addImage;
     exports uk.ac.manchester.tornado.benchmarks.blackscholes;
     exports uk.ac.manchester.tornado.benchmarks.blurFilter;
+    exports uk.ac.manchester.tornado.benchmarks.bulkops;
     exports uk.ac.manchester.tornado.benchmarks.convolvearray;
     exports uk.ac.manchester.tornado.benchmarks.convolveimage;
     exports uk.ac.manchester.tornado.benchmarks.dft;
@@ -35,9 +36,11 @@ module tornado.benchmarks {
     exports uk.ac.manchester.tornado.benchmarks.dotvector;
     exports uk.ac.manchester.tornado.benchmarks.euler;
     exports uk.ac.manchester.tornado.benchmarks.hilbert;
+    exports uk.ac.manchester.tornado.benchmarks.hugepages;
     exports uk.ac.manchester.tornado.benchmarks.mandelbrot;
     exports uk.ac.manchester.tornado.benchmarks.montecarlo;
     exports uk.ac.manchester.tornado.benchmarks.nbody;
+    exports uk.ac.manchester.tornado.benchmarks.quantized;
     exports uk.ac.manchester.tornado.benchmarks.rotateimage;
     exports uk.ac.manchester.tornado.benchmarks.rotatevector;
     exports uk.ac.manchester.tornado.benchmarks.saxpy;
@@ -45,4 +48,5 @@ module tornado.benchmarks {
     exports uk.ac.manchester.tornado.benchmarks.sgemv;
     exports uk.ac.manchester.tornado.benchmarks.spmv;
     exports uk.ac.manchester.tornado.benchmarks.stencil;
+    exports uk.ac.manchester.tornado.benchmarks.tensorio;
 }
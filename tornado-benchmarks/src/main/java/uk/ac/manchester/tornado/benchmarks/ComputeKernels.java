@@ -19,6 +19,8 @@ package uk.ac.manchester.tornado.benchmarks;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.math.TornadoMath;
+import uk.ac.manchester.tornado.api.random.Philox;
+import uk.ac.manchester.tornado.api.random.RandomBits;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
@@ -27,6 +29,7 @@ import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
 import uk.ac.manchester.tornado.api.types.images.ImageByte3;
 import uk.ac.manchester.tornado.api.types.images.ImageFloat3;
 import uk.ac.manchester.tornado.api.types.vectors.Byte3;
+import uk.ac.manchester.tornado.api.types.vectors.Int4;
 
 public class ComputeKernels {
     // CHECKSTYLE:OFF
@@ -61,21 +64,18 @@ public class ComputeKernels {
         final int total = size;
         final int iter = 25000;
         for (@Parallel int idx = 0; idx < total; idx++) {
-            long seed = idx;
             float sum = 0.0f;
-            for (int j = 0; j < iter; ++j) {
-                // generate a pseudo random number (you do need it twice)
-                seed = (seed * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
-                seed = (seed * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
-                // this generates a number between 0 and 1 (with an awful
-                // entropy)
-                float x = (seed & 0x0FFFFFFF) / 268435455f;
-                // repeat for y
-                seed = (seed * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
-                seed = (seed * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
-                float y = (seed & 0x0FFFFFFF) / 268435455f;
-                float dist = TornadoMath.sqrt(x * x + y * y);
-                if (dist <= 1.0f) {
+            // Each call of the counter-based generator gives two points
+            for (int j = 0; j < iter; j += 2) {
+                Int4 bits = Philox.philox4x32(RandomBits.counter(idx, j), 0, 0);
+                float x = RandomBits.uniformFloat(bits.getX());
+                float y = RandomBits.uniformFloat(bits.getY());
+                if (TornadoMath.sqrt(x * x + y * y) <= 1.0f) {
+                    sum += 1.0f;
+                }
+                x = RandomBits.uniformFloat(bits.getZ());
+                y = RandomBits.uniformFloat(bits.getW());
+                if (TornadoMath.sqrt(x * x + y * y) <= 1.0f) {
                     sum += 1.0f;
                 }
             }
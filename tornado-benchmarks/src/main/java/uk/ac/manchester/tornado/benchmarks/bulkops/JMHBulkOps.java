@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.bulkops;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
+
+/**
+ * Host-side bulk operations on native arrays: the element-by-element loops over {@code get} and {@code set}, as a
+ * baseline, against the operations of {@link SegmentOps}. The number of elements is set with {@code -Dsize} (16M by
+ * default). Running with {@code -Dtornado.bulk.vectorize=False} measures the scalar fallback of {@link SegmentOps}.
+ * The float-16 benchmarks compare the conversions through {@link HalfFloat} objects against the allocation-free
+ * conversions of {@link HalfFloatArray}.
+ *
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.bulkops.JMHBulkOps
+ * </code>
+ */
+public class JMHBulkOps {
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        private int size = Integer.parseInt(System.getProperty("size", "16777216"));
+        private FloatArray x;
+        private FloatArray y;
+        private FloatArray copy;
+        private DoubleArray doubles;
+        private HalfFloatArray halfFloats;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            Random random = new Random(42);
+            x = new FloatArray(size);
+            y = new FloatArray(size);
+            doubles = new DoubleArray(size);
+            for (int i = 0; i < size; i++) {
+                x.set(i, random.nextFloat());
+                y.set(i, random.nextFloat());
+            }
+            copy = FloatArray.fromArray(x.toHeapArray());
+            halfFloats = new HalfFloatArray(size);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void fillLoop(BenchmarkSetup state, Blackhole blackhole) {
+        FloatArray array = state.y;
+        for (int i = 0; i < array.getSize(); i++) {
+            array.set(i, 2.0f);
+        }
+        blackhole.consume(array);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void fill(BenchmarkSetup state, Blackhole blackhole) {
+        SegmentOps.fillFloats(state.y.getSegment(), 2.0f);
+        blackhole.consume(state.y);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void axpyLoop(BenchmarkSetup state, Blackhole blackhole) {
+        FloatArray x = state.x;
+        FloatArray y = state.y;
+        for (int i = 0; i < x.getSize(); i++) {
+            y.set(i, 0.5f * x.get(i) + y.get(i));
+        }
+        blackhole.consume(y);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void axpy(BenchmarkSetup state, Blackhole blackhole) {
+        SegmentOps.axpyFloats(0.5f, state.x.getSegment(), state.y.getSegment());
+        blackhole.consume(state.y);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public float sumLoop(BenchmarkSetup state) {
+        FloatArray x = state.x;
+        float sum = 0;
+        for (int i = 0; i < x.getSize(); i++) {
+            sum += x.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public float sum(BenchmarkSetup state) {
+        return SegmentOps.sumFloats(state.x.getSegment());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public float maxLoop(BenchmarkSetup state) {
+        FloatArray x = state.x;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < x.getSize(); i++) {
+            max = Math.max(max, x.get(i));
+        }
+        return max;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public float max(BenchmarkSetup state) {
+        return SegmentOps.maxFloats(state.x.getSegment());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public boolean compareLoop(BenchmarkSetup state) {
+        FloatArray a = state.x;
+        FloatArray b = state.copy;
+        for (int i = 0; i < a.getSize(); i++) {
+            if (!(Math.abs(a.get(i) - b.get(i)) <= 0.01f)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public boolean compare(BenchmarkSetup state) {
+        return SegmentOps.compareFloats(state.x.getSegment(), state.copy.getSegment(), 0.01f);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void convertLoop(BenchmarkSetup state, Blackhole blackhole) {
+        FloatArray x = state.x;
+        DoubleArray doubles = state.doubles;
+        for (int i = 0; i < x.getSize(); i++) {
+            doubles.set(i, x.get(i));
+        }
+        blackhole.consume(doubles);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void convert(BenchmarkSetup state, Blackhole blackhole) {
+        SegmentOps.convertFloatsToDoubles(state.x.getSegment(), state.doubles.getSegment());
+        blackhole.consume(state.doubles);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void toHeapArray(BenchmarkSetup state, Blackhole blackhole) {
+        blackhole.consume(state.x.toHeapArray());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void halfFloatBoxed(BenchmarkSetup state, Blackhole blackhole) {
+        FloatArray x = state.x;
+        HalfFloatArray halfFloats = state.halfFloats;
+        for (int i = 0; i < x.getSize(); i++) {
+            halfFloats.set(i, new HalfFloat(x.get(i)));
+        }
+        float sum = 0;
+        for (int i = 0; i < halfFloats.getSize(); i++) {
+            sum += halfFloats.get(i).getFloat32();
+        }
+        blackhole.consume(sum);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void halfFloatPrimitive(BenchmarkSetup state, Blackhole blackhole) {
+        FloatArray x = state.x;
+        HalfFloatArray halfFloats = state.halfFloats;
+        for (int i = 0; i < x.getSize(); i++) {
+            halfFloats.setFloat(i, x.get(i));
+        }
+        float sum = 0;
+        for (int i = 0; i < halfFloats.getSize(); i++) {
+            sum += halfFloats.getFloat(i);
+        }
+        blackhole.consume(sum);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    public void halfFloatBulk(BenchmarkSetup state, Blackhole blackhole) {
+        blackhole.consume(HalfFloatArray.fromFloatArray(state.x).toFloatArray());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHBulkOps.class.getName() + ".*") //
+                .mode(Mode.AverageTime) //
+                .timeUnit(TimeUnit.MICROSECONDS) //
+                .warmupTime(TimeValue.seconds(5)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(5)) //
+                .measurementIterations(5) //
+                .forks(1) //
+                .build();
+        new Runner(opt).run();
+    }
+}
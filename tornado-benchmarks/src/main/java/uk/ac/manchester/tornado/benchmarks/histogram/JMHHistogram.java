@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.histogram;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoBackend;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoVMIntrinsics;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Throughput of the privatised histogram of {@link TaskGraph#histogram(String,
+ * IntArray, IntArray)}, compared with a histogram in which every element is
+ * added to the shared bins with {@link TornadoVMIntrinsics#atomic_add}, for
+ * several sizes and numbers of bins. The bins of the input are uniformly
+ * distributed. Each operation transfers the input to the device, computes the
+ * histogram and copies the bins back.
+ *
+ * <p>
+ * Both versions run on the JVM backend, which must be enabled with
+ * {@code -Dtornado.jvm.backend=True}: it is the only backend in which
+ * {@code atomic_add} on a native array is atomic.
+ * </p>
+ *
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado --jvm="-Dtornado.jvm.backend=True" -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.histogram.JMHHistogram
+ * </code>
+ */
+public class JMHHistogram {
+
+    public static void atomicHistogram(IntArray input, IntArray bins) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            TornadoVMIntrinsics.atomic_add(bins, input.get(i), 1);
+        }
+    }
+
+    private static TornadoDevice findJVMDevice() {
+        for (int i = 0; i < TornadoRuntime.getTornadoRuntime().getNumBackends(); i++) {
+            TornadoBackend backend = TornadoRuntime.getTornadoRuntime().getBackend(i);
+            if (backend.getBackendType() == TornadoVMBackendType.JAVA) {
+                return backend.getDevice(0);
+            }
+        }
+        throw new IllegalStateException("The JVM backend is not enabled: run with -Dtornado.jvm.backend=True");
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        @Param({ "1048576", "16777216" })
+        private int size;
+
+        @Param({ "16", "256", "4096" })
+        private int numBins;
+
+        private IntArray input;
+        private IntArray bins;
+        private TornadoExecutionPlan privateExecutor;
+        private TornadoExecutionPlan atomicExecutor;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            Random random = new Random();
+            input = new IntArray(size);
+            for (int i = 0; i < size; i++) {
+                input.set(i, random.nextInt(numBins));
+            }
+            bins = new IntArray(numBins);
+            TornadoDevice device = findJVMDevice();
+
+            TaskGraph privateGraph = new TaskGraph("private") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                    .histogram("histogram", input, bins) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, bins);
+            privateExecutor = new TornadoExecutionPlan(privateGraph.snapshot()).withDevice(device);
+            privateExecutor.withWarmUp();
+
+            TaskGraph atomicGraph = new TaskGraph("atomic") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, input, bins) //
+                    .task("histogram", JMHHistogram::atomicHistogram, input, bins) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, bins);
+            atomicExecutor = new TornadoExecutionPlan(atomicGraph.snapshot()).withDevice(device);
+            atomicExecutor.withWarmUp();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws Exception {
+            privateExecutor.close();
+            atomicExecutor.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void histogramPrivate(BenchmarkSetup state, Blackhole blackhole) {
+        state.privateExecutor.execute();
+        blackhole.consume(state.bins);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void histogramAtomic(BenchmarkSetup state, Blackhole blackhole) {
+        state.bins.init(0);
+        state.atomicExecutor.execute();
+        blackhole.consume(state.bins);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHHistogram.class.getName() + ".*") //
+                .mode(Mode.Throughput) //
+                .timeUnit(TimeUnit.SECONDS) //
+                .warmupTime(TimeValue.seconds(30)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(30)) //
+                .measurementIterations(5) //
+                .forks(1) //
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.hugepages;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.PageAlignedAllocator;
+
+/**
+ * Host-side throughput of large native arrays allocated with the default
+ * allocation, with page-aligned memory, and with transparent huge pages. It
+ * measures {@code init}, {@code concat}, and the transfers of a task-graph
+ * that copies the array on the device. The size of the arrays in bytes is set
+ * with {@code -Dsize} (1GB by default). On Linux, the setup reports the
+ * {@code AnonHugePages} of the process after the arrays are initialized, to
+ * check that the {@code hugePages} allocation is backed by huge pages.
+ *
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.hugepages.JMHHugePages
+ * </code>
+ */
+public class JMHHugePages {
+
+    public static void copy(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        @Param({ "default", "pageAligned", "hugePages" })
+        private String allocation;
+
+        private long size = Long.parseLong(System.getProperty("size", "1073741824"));
+        private FloatArray input;
+        private FloatArray output;
+        private FloatArray[] halves;
+        private TornadoExecutionPlan executor;
+
+        private FloatArray allocate(int numElements) {
+            return switch (allocation) {
+                case "pageAligned" -> FloatArray.allocate(PageAlignedAllocator.ofAuto(false), numElements);
+                case "hugePages" -> FloatArray.allocate(PageAlignedAllocator.ofAuto(true), numElements);
+                default -> new FloatArray(numElements);
+            };
+        }
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            int numElements = (int) (size / Float.BYTES);
+            input = allocate(numElements);
+            output = allocate(numElements);
+            input.init(1.0f);
+            output.init(0.0f);
+            reportHugePages();
+            halves = new FloatArray[] { allocate(numElements / 2), allocate(numElements - numElements / 2) };
+
+            TaskGraph taskGraph = new TaskGraph("benchmark") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                    .task("copy", JMHHugePages::copy, input, output) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+            executor = new TornadoExecutionPlan(taskGraph.snapshot());
+            executor.withWarmUp();
+        }
+
+        private void reportHugePages() {
+            long anonHugePages = anonHugePagesKB();
+            if (anonHugePages < 0) {
+                return;
+            }
+            System.out.printf("%n[%s] AnonHugePages: %d kB%n", allocation, anonHugePages);
+            if (allocation.equals("hugePages") && anonHugePages * 1024 < 2 * size) {
+                System.out.println("[WARNING] The arrays are not fully backed by huge pages: check /sys/kernel/mm/transparent_hugepage/enabled");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws Exception {
+            executor.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(1)
+    public void init(BenchmarkSetup state, Blackhole blackhole) {
+        state.output.init(2.0f);
+        blackhole.consume(state.output);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(1)
+    public void concat(BenchmarkSetup state, Blackhole blackhole) {
+        // Same copies as FloatArray::concat, into an array of the benchmarked allocation
+        long position = 0;
+        for (FloatArray half : state.halves) {
+            MemorySegment.copy(half.getSegment(), 0, state.output.getSegment(), position, half.getNumBytesOfSegment());
+            position += half.getNumBytesOfSegment();
+        }
+        blackhole.consume(state.output);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 10, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(1)
+    public void transfer(BenchmarkSetup state, Blackhole blackhole) {
+        state.executor.execute();
+        blackhole.consume(state.executor);
+    }
+
+    /**
+     * Returns the anonymous memory of the process backed by transparent huge
+     * pages, or -1 if it is not reported by the kernel.
+     */
+    private static long anonHugePagesKB() {
+        try {
+            return Files.readAllLines(Path.of("/proc/self/smaps_rollup")).stream() //
+                    .filter(line -> line.startsWith("AnonHugePages:")) //
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", ""))) //
+                    .findFirst() //
+                    .orElse(-1);
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHHugePages.class.getName() + ".*") //
+                .mode(Mode.AverageTime) //
+                .timeUnit(TimeUnit.MILLISECONDS) //
+                .warmupTime(TimeValue.seconds(10)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(10)) //
+                .measurementIterations(5) //
+                .forks(1) //
+                .build();
+        new Runner(opt).run();
+    }
+}
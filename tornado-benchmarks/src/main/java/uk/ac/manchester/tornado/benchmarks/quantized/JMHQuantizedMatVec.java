@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.quantized;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.QuantizedInt4Array;
+import uk.ac.manchester.tornado.api.types.arrays.QuantizedInt8Array;
+
+/**
+ * Matrix-vector multiplication with FP32, Q8_0 and Q4_0 weights. The weights stay on the device, so the kernels are
+ * bound by the bandwidth of reading them.
+ *
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.quantized.JMHQuantizedMatVec
+ * </code>
+ */
+public class JMHQuantizedMatVec {
+
+    public static void matVecFloat(FloatArray weights, FloatArray x, FloatArray y, int columns) {
+        for (@Parallel int row = 0; row < y.getSize(); row++) {
+            float sum = 0;
+            for (int column = 0; column < columns; column++) {
+                sum += weights.get(row * columns + column) * x.get(column);
+            }
+            y.set(row, sum);
+        }
+    }
+
+    public static void matVecInt8(IntArray quants, FloatArray scales, FloatArray x, FloatArray y, int columns) {
+        for (@Parallel int row = 0; row < y.getSize(); row++) {
+            y.set(row, QuantizedInt8Array.dotRow(quants, scales, x, row, columns));
+        }
+    }
+
+    public static void matVecInt4(IntArray quants, FloatArray scales, FloatArray x, FloatArray y, int columns) {
+        for (@Parallel int row = 0; row < y.getSize(); row++) {
+            y.set(row, QuantizedInt4Array.dotRow(quants, scales, x, row, columns));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        private final int rows = Integer.parseInt(System.getProperty("x", "4096"));
+        private final int columns = Integer.parseInt(System.getProperty("y", "4096"));
+        private TornadoExecutionPlan executorFloat;
+        private TornadoExecutionPlan executorInt8;
+        private TornadoExecutionPlan executorInt4;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            FloatArray weights = new FloatArray(rows * columns);
+            FloatArray x = new FloatArray(columns);
+            Random random = new Random();
+            for (int i = 0; i < weights.getSize(); i++) {
+                weights.set(i, random.nextFloat() * 2 - 1);
+            }
+            for (int i = 0; i < columns; i++) {
+                x.set(i, random.nextFloat());
+            }
+            QuantizedInt8Array int8 = QuantizedInt8Array.quantize(weights);
+            QuantizedInt4Array int4 = QuantizedInt4Array.quantize(weights);
+
+            FloatArray yFloat = new FloatArray(rows);
+            TaskGraph taskGraphFloat = new TaskGraph("benchmarkFloat") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, weights) //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, x) //
+                    .task("matVec", JMHQuantizedMatVec::matVecFloat, weights, x, yFloat, columns) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, yFloat);
+            executorFloat = new TornadoExecutionPlan(taskGraphFloat.snapshot());
+            executorFloat.withWarmUp();
+
+            FloatArray yInt8 = new FloatArray(rows);
+            TaskGraph taskGraphInt8 = new TaskGraph("benchmarkInt8") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, int8.getQuants(), int8.getScales()) //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, x) //
+                    .task("matVec", JMHQuantizedMatVec::matVecInt8, int8.getQuants(), int8.getScales(), x, yInt8, columns) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, yInt8);
+            executorInt8 = new TornadoExecutionPlan(taskGraphInt8.snapshot());
+            executorInt8.withWarmUp();
+
+            FloatArray yInt4 = new FloatArray(rows);
+            TaskGraph taskGraphInt4 = new TaskGraph("benchmarkInt4") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, int4.getQuants(), int4.getScales()) //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, x) //
+                    .task("matVec", JMHQuantizedMatVec::matVecInt4, int4.getQuants(), int4.getScales(), x, yInt4, columns) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, yInt4);
+            executorInt4 = new TornadoExecutionPlan(taskGraphInt4.snapshot());
+            executorInt4.withWarmUp();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(1)
+    public void matVecFloat(BenchmarkSetup state, Blackhole blackhole) {
+        TornadoExecutionPlan executor = state.executorFloat;
+        executor.execute();
+        blackhole.consume(executor);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(1)
+    public void matVecInt8(BenchmarkSetup state, Blackhole blackhole) {
+        TornadoExecutionPlan executor = state.executorInt8;
+        executor.execute();
+        blackhole.consume(executor);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(1)
+    public void matVecInt4(BenchmarkSetup state, Blackhole blackhole) {
+        TornadoExecutionPlan executor = state.executorInt4;
+        executor.execute();
+        blackhole.consume(executor);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHQuantizedMatVec.class.getName() + ".*") //
+                .mode(Mode.AverageTime) //
+                .timeUnit(TimeUnit.NANOSECONDS) //
+                .warmupTime(TimeValue.seconds(30)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(30)) //
+                .measurementIterations(5) //
+                .forks(1) //
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.scan;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.TornadoProfilerResult;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.primitives.Scan;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Inclusive prefix sum of integers with TornadoVM, compared with
+ * {@link Arrays#parallelPrefix(int[], java.util.function.IntBinaryOperator)}
+ * and with a sequential scan. The input stays on the device, and the result is
+ * copied back to the host in every execution.
+ *
+ * <p>
+ * The {@code melements} counter reports the millions of elements scanned per
+ * second by each benchmark, including the copy of the result for TornadoVM. The
+ * counters of {@code scanTornado} also report the time measured by the profiler
+ * on the device: {@code kernelNanos} for the three kernels of the scan and
+ * {@code copyOutNanos} for the copy of the result. They are totals, so the
+ * times of an execution are obtained by dividing them by {@code executions}.
+ * The device timers come from the events of the OpenCL, PTX and SPIR-V
+ * backends, and are zero on the JVM backend.
+ * </p>
+ *
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.scan.JMHPrefixScan
+ * </code>
+ */
+public class JMHPrefixScan {
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        private final int size = Integer.parseInt(System.getProperty("x", "16777216"));
+        private int[] javaInput;
+        private int[] javaOutput;
+        private IntArray input;
+        private IntArray output;
+        private TornadoExecutionPlan executor;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            Random random = new Random();
+            input = new IntArray(size);
+            output = new IntArray(size);
+            for (int i = 0; i < size; i++) {
+                input.set(i, random.nextInt(100));
+            }
+            javaInput = input.toHeapArray();
+            javaOutput = new int[size];
+
+            TaskGraph taskGraph = new TaskGraph("benchmark") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                    .inclusiveScan("scan", input, output) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+            executor = new TornadoExecutionPlan(taskGraph.snapshot());
+            executor.withProfiler(ProfilerMode.SILENT).withWarmUp();
+        }
+    }
+
+    /**
+     * Elements scanned by the benchmarks, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ElementCounter {
+        public double melements;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            melements = 0;
+        }
+
+        void count(BenchmarkSetup state) {
+            melements += state.size * 1e-6;
+        }
+    }
+
+    /**
+     * Times measured on the device by the profiler of TornadoVM.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DeviceCounter {
+        public long executions;
+        public long kernelNanos;
+        public long copyOutNanos;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            executions = 0;
+            kernelNanos = 0;
+            copyOutNanos = 0;
+        }
+
+        void count(TornadoProfilerResult profilerResult) {
+            executions++;
+            kernelNanos += profilerResult.getDeviceKernelTime();
+            copyOutNanos += profilerResult.getDeviceReadTime();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void scanJavaParallelPrefix(BenchmarkSetup state, ElementCounter counter, Blackhole blackhole) {
+        System.arraycopy(state.javaInput, 0, state.javaOutput, 0, state.size);
+        Arrays.parallelPrefix(state.javaOutput, Integer::sum);
+        blackhole.consume(state.javaOutput);
+        counter.count(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void scanJavaSequential(BenchmarkSetup state, ElementCounter counter, Blackhole blackhole) {
+        Scan.inclusiveScan(state.input, state.output);
+        blackhole.consume(state.output);
+        counter.count(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void scanTornado(BenchmarkSetup state, ElementCounter counter, DeviceCounter deviceCounter, Blackhole blackhole) {
+        TornadoExecutionPlan executor = state.executor;
+        TornadoExecutionResult executionResult = executor.execute();
+        blackhole.consume(executor);
+        counter.count(state);
+        deviceCounter.count(executionResult.getProfilerResult());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHPrefixScan.class.getName() + ".*") //
+                .mode(Mode.Throughput) //
+                .timeUnit(TimeUnit.SECONDS) //
+                .warmupTime(TimeValue.seconds(30)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(30)) //
+                .measurementIterations(5) //
+                .forks(1) //
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -22,6 +22,7 @@ import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.sgemm;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -43,9 +44,12 @@ import org.openjdk.jmh.runner.options.TimeValue;
 import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
 import uk.ac.manchester.tornado.api.TaskGraph;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays;
+import uk.ac.manchester.tornado.matrix.GemmTasks;
 
 /**
  * <p>
@@ -54,6 +58,12 @@ import uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays;
  * <code>
  * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.sgemm.JMHSgemm
  * </code>
+ *
+ * <p>
+ * The naive {@link LinearAlgebraArrays#sgemm} task is compared with the tuned
+ * kernels of {@link GemmTasks}, and the {@code gflop} counter reports the
+ * GFLOP/s of each benchmark.
+ * </p>
  */
 public class JMHSgemm {
 
@@ -65,6 +75,7 @@ public class JMHSgemm {
         private FloatArray b;
         private FloatArray c;
         TornadoExecutionPlan executor;
+        TornadoExecutionPlan executorTuned;
 
         @Setup(Level.Trial)
         public void doSetup() {
@@ -92,36 +103,77 @@ public class JMHSgemm {
             executor = new TornadoExecutionPlan(immutableTaskGraph);
             executor.withWarmUp();
 
+            TornadoDevice device = TornadoRuntime.getTornadoRuntime().getDefaultDevice();
+            GemmTasks gemm = new GemmTasks(device);
+            TaskGraph tunedTaskGraph = new TaskGraph("tuned") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b);
+            gemm.sgemm(tunedTaskGraph, "sgemm", a, b, c, m, n, n) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+            executorTuned = new TornadoExecutionPlan(tunedTaskGraph.snapshot());
+            executorTuned.withDevice(device).withGridScheduler(gemm.getGridScheduler()).withWarmUp();
+        }
+    }
+
+    /**
+     * Floating-point operations of the benchmarks, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class FlopCounter {
+        public double gflop;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            gflop = 0;
+        }
+
+        void count(BenchmarkSetup state) {
+            gflop += 2.0 * state.m * state.n * state.n * 1e-9;
         }
     }
 
     @Benchmark
-    @BenchmarkMode(Mode.AverageTime)
+    @BenchmarkMode(Mode.Throughput)
     @Warmup(iterations = 2, time = 60, timeUnit = TimeUnit.SECONDS)
     @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
-    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
     @Fork(1)
-    public void sgemmJava(BenchmarkSetup state) {
+    public void sgemmJava(BenchmarkSetup state, FlopCounter counter) {
         sgemm(state.m, state.n, state.m, state.a, state.b, state.c);
+        counter.count(state);
     }
 
     @Benchmark
-    @BenchmarkMode(Mode.AverageTime)
+    @BenchmarkMode(Mode.Throughput)
     @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
     @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
-    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
     @Fork(1)
-    public void sgemmTornado(BenchmarkSetup state, Blackhole blackhole) {
+    public void sgemmTornado(BenchmarkSetup state, FlopCounter counter, Blackhole blackhole) {
         TornadoExecutionPlan executor = state.executor;
         executor.execute();
         blackhole.consume(executor);
+        counter.count(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void sgemmTornadoTuned(BenchmarkSetup state, FlopCounter counter, Blackhole blackhole) {
+        TornadoExecutionPlan executor = state.executorTuned;
+        executor.execute();
+        blackhole.consume(executor);
+        counter.count(state);
     }
 
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder() //
                 .include(JMHSgemm.class.getName() + ".*") //
-                .mode(Mode.AverageTime) //
-                .timeUnit(TimeUnit.NANOSECONDS) //
+                .mode(Mode.Throughput) //
+                .timeUnit(TimeUnit.SECONDS) //
                 .warmupTime(TimeValue.seconds(60)) //
                 .warmupIterations(2) //
                 .measurementTime(TimeValue.seconds(30)) //
@@ -22,6 +22,7 @@ import static uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays.sgemv;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -43,9 +44,12 @@ import org.openjdk.jmh.runner.options.TimeValue;
 import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
 import uk.ac.manchester.tornado.api.TaskGraph;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays;
+import uk.ac.manchester.tornado.matrix.GemmTasks;
 
 /**
  * <p>
@@ -54,6 +58,12 @@ import uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays;
  * <code>
  * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.sgemv.JMHSgemV
  * </code>
+ *
+ * <p>
+ * The naive {@link LinearAlgebraArrays#sgemv} task is compared with the tuned
+ * kernel of {@link GemmTasks}, and the {@code gflop} counter reports the
+ * GFLOP/s of each benchmark.
+ * </p>
  */
 public class JMHSgemV {
     @State(Scope.Thread)
@@ -65,6 +75,7 @@ public class JMHSgemV {
         private FloatArray x;
         private FloatArray y;
         private TornadoExecutionPlan executor;
+        private TornadoExecutionPlan executorTuned;
 
         @Setup(Level.Trial)
         public void doSetup() {
@@ -90,36 +101,78 @@ public class JMHSgemV {
             ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
             executor = new TornadoExecutionPlan(immutableTaskGraph);
             executor.withWarmUp();
+
+            TornadoDevice device = TornadoRuntime.getTornadoRuntime().getDefaultDevice();
+            GemmTasks gemv = new GemmTasks(device);
+            TaskGraph tunedTaskGraph = new TaskGraph("tuned") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, x);
+            gemv.sgemv(tunedTaskGraph, "sgemv", a, x, y, m, n) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+            executorTuned = new TornadoExecutionPlan(tunedTaskGraph.snapshot());
+            executorTuned.withDevice(device).withGridScheduler(gemv.getGridScheduler()).withWarmUp();
+        }
+    }
+
+    /**
+     * Floating-point operations of the benchmarks, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class FlopCounter {
+        public double gflop;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            gflop = 0;
+        }
+
+        void count(BenchmarkSetup state) {
+            gflop += 2.0 * state.m * state.n * 1e-9;
         }
     }
 
     @Benchmark
-    @BenchmarkMode(Mode.AverageTime)
+    @BenchmarkMode(Mode.Throughput)
     @Warmup(iterations = 2, time = 60, timeUnit = TimeUnit.SECONDS)
     @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
-    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
     @Fork(1)
-    public void sgemVJava(BenchmarkSetup state) {
+    public void sgemVJava(BenchmarkSetup state, FlopCounter counter) {
         sgemv(state.m, state.n, state.a, state.x, state.y);
+        counter.count(state);
     }
 
     @Benchmark
-    @BenchmarkMode(Mode.AverageTime)
+    @BenchmarkMode(Mode.Throughput)
     @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
     @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
-    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
     @Fork(1)
-    public void sgemVTornado(BenchmarkSetup state, Blackhole blackhole) {
+    public void sgemVTornado(BenchmarkSetup state, FlopCounter counter, Blackhole blackhole) {
         TornadoExecutionPlan executor = state.executor;
         executor.execute();
         blackhole.consume(executor);
+        counter.count(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void sgemVTornadoTuned(BenchmarkSetup state, FlopCounter counter, Blackhole blackhole) {
+        TornadoExecutionPlan executor = state.executorTuned;
+        executor.execute();
+        blackhole.consume(executor);
+        counter.count(state);
     }
 
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder() //
                 .include(JMHSgemV.class.getName() + ".*") //
-                .mode(Mode.AverageTime) //
-                .timeUnit(TimeUnit.NANOSECONDS) //
+                .mode(Mode.Throughput) //
+                .timeUnit(TimeUnit.SECONDS) //
                 .warmupTime(TimeValue.seconds(60)) //
                 .warmupIterations(2) //
                 .measurementTime(TimeValue.seconds(30)) //
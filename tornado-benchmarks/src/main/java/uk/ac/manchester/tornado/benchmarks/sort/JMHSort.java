@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.sort;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Throughput of sorting integers with the radix sort of TornadoVM, compared with
+ * {@link Arrays#sort(int[])} and {@link Arrays#parallelSort(int[])}, for
+ * several sizes. Each operation restores the unsorted keys and sorts them; the
+ * TornadoVM version also transfers the keys to the device and back. The number
+ * of keys sorted per second is the throughput multiplied by the size.
+ *
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.sort.JMHSort
+ * </code>
+ */
+public class JMHSort {
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        @Param({ "65536", "1048576", "16777216" })
+        private int size;
+
+        private IntArray unsorted;
+        private IntArray keys;
+        private int[] javaUnsorted;
+        private int[] javaKeys;
+        private TornadoExecutionPlan executor;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            Random random = new Random();
+            unsorted = new IntArray(size);
+            for (int i = 0; i < size; i++) {
+                unsorted.set(i, random.nextInt());
+            }
+            keys = new IntArray(size);
+            javaUnsorted = unsorted.toHeapArray();
+            javaKeys = new int[size];
+
+            TaskGraph taskGraph = new TaskGraph("benchmark") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys) //
+                    .sort("sort", keys) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, keys);
+            executor = new TornadoExecutionPlan(taskGraph.snapshot());
+            executor.withWarmUp();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws Exception {
+            executor.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void sortJava(BenchmarkSetup state, Blackhole blackhole) {
+        System.arraycopy(state.javaUnsorted, 0, state.javaKeys, 0, state.size);
+        Arrays.sort(state.javaKeys);
+        blackhole.consume(state.javaKeys);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void sortJavaParallel(BenchmarkSetup state, Blackhole blackhole) {
+        System.arraycopy(state.javaUnsorted, 0, state.javaKeys, 0, state.size);
+        Arrays.parallelSort(state.javaKeys);
+        blackhole.consume(state.javaKeys);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Fork(1)
+    public void sortTornado(BenchmarkSetup state, Blackhole blackhole) {
+        MemorySegment.copy(state.unsorted.getSegment(), 0, state.keys.getSegment(), 0, state.unsorted.getNumBytesOfSegment());
+        state.executor.execute();
+        blackhole.consume(state.executor);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHSort.class.getName() + ".*") //
+                .mode(Mode.Throughput) //
+                .timeUnit(TimeUnit.SECONDS) //
+                .warmupTime(TimeValue.seconds(30)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(30)) //
+                .measurementIterations(5) //
+                .forks(1) //
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.tensorio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.tensors.NpyFile;
+import uk.ac.manchester.tornado.api.types.tensors.SafeTensorsFile;
+import uk.ac.manchester.tornado.api.types.tensors.Shape;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP32;
+
+/**
+ * Load throughput of tensor files. It compares the loaders of the
+ * {@code .npy} and safetensors formats, which map the data of the file, with
+ * reading the same data into a new array. Each benchmark reads one element of
+ * every page of the loaded tensor, so the cost of the page faults of the mapped
+ * files is included. The size of the file in bytes is set with {@code -Dsize}
+ * (1GB by default).
+ *
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.tensorio.JMHTensorLoad
+ * </code>
+ */
+public class JMHTensorLoad {
+
+    private static final int FLOATS_PER_PAGE = 4096 / Float.BYTES;
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        private long size = Long.parseLong(System.getProperty("size", "1073741824"));
+        private Path npyFile;
+        private Path safeTensorsFile;
+        private int numElements;
+
+        @Setup(Level.Trial)
+        public void doSetup() throws IOException {
+            numElements = (int) (size / Float.BYTES);
+            TensorFP32 tensor = new TensorFP32(new Shape(numElements));
+            for (int i = 0; i < numElements; i++) {
+                tensor.set(i, i);
+            }
+            npyFile = Files.createTempFile("tornado-benchmark", ".npy");
+            safeTensorsFile = Files.createTempFile("tornado-benchmark", ".safetensors");
+            NpyFile.save(npyFile, tensor);
+            SafeTensorsFile.save(safeTensorsFile, Map.of("tensor", tensor));
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws IOException {
+            Files.deleteIfExists(npyFile);
+            Files.deleteIfExists(safeTensorsFile);
+        }
+    }
+
+    private static float touchPages(TensorFP32 tensor) {
+        float sum = 0;
+        for (int i = 0; i < tensor.getSize(); i += FLOATS_PER_PAGE) {
+            sum += tensor.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(1)
+    public float loadNpy(BenchmarkSetup state) throws IOException {
+        return touchPages((TensorFP32) NpyFile.load(state.npyFile));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(1)
+    public float loadSafeTensors(BenchmarkSetup state) throws IOException {
+        return touchPages((TensorFP32) SafeTensorsFile.load(state.safeTensorsFile).get("tensor"));
+    }
+
+    /**
+     * Baseline that copies the data of the {@code .npy} file into a new array.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(1)
+    public float readNpy(BenchmarkSetup state) throws IOException {
+        FloatArray array = new FloatArray(state.numElements);
+        try (FileChannel channel = FileChannel.open(state.npyFile, StandardOpenOption.READ)) {
+            long position = channel.size() - array.getNumBytesOfSegment();
+            for (long offset = 0; offset < array.getNumBytesOfSegment(); offset += Integer.MAX_VALUE) {
+                ByteBuffer chunk = array.getSegment().asSlice(offset, Math.min(Integer.MAX_VALUE, array.getNumBytesOfSegment() - offset)).asByteBuffer();
+                while (chunk.hasRemaining()) {
+                    channel.read(chunk, position + offset + chunk.position());
+                }
+            }
+        }
+        float sum = 0;
+        for (int i = 0; i < array.getSize(); i += FLOATS_PER_PAGE) {
+            sum += array.get(i);
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHTensorLoad.class.getName() + ".*") //
+                .mode(Mode.AverageTime) //
+                .timeUnit(TimeUnit.MILLISECONDS) //
+                .warmupTime(TimeValue.seconds(30)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(30)) //
+                .measurementIterations(5) //
+                .forks(1) //
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -1,3 +1,5 @@
+import uk.ac.manchester.tornado.runtime.TornadoBackendProvider;
+
 open module tornado.drivers.common {
     requires transitive jdk.internal.vm.ci;
     requires transitive jdk.internal.vm.compiler;
@@ -14,6 +16,11 @@ open module tornado.drivers.common {
     exports uk.ac.manchester.tornado.drivers.common.compiler.phases.loops;
     exports uk.ac.manchester.tornado.drivers.common.compiler.phases.utils;
     exports uk.ac.manchester.tornado.drivers.common.compiler.phases.analysis;
+    exports uk.ac.manchester.tornado.drivers.common.compiler.plugins;
     exports uk.ac.manchester.tornado.drivers.common.utils;
     exports uk.ac.manchester.tornado.drivers.common.power;
+    exports uk.ac.manchester.tornado.drivers.jvm;
+
+    provides TornadoBackendProvider with
+            uk.ac.manchester.tornado.drivers.jvm.JVMTornadoDriverProvider;
 }
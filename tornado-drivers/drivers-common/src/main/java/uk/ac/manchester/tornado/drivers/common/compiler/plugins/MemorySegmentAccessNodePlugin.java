@@ -0,0 +1,91 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common.compiler.plugins;
+
+import java.lang.foreign.MemorySegment;
+
+import org.graalvm.compiler.core.common.memory.BarrierType;
+import org.graalvm.compiler.core.common.memory.MemoryOrderMode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.extended.JavaWriteNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.NodePlugin;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.Signature;
+
+/**
+ * Replaces the element accesses of {@link MemorySegment} with plain reads and
+ * writes, as the memory access invocation plugins of the backends do.
+ *
+ * <p>
+ * Invocation plugins are only applied to call sites that Graal can bind
+ * statically. Once a second implementation of {@link MemorySegment} is loaded
+ * (e.g., a heap segment or a segment mapped from a file), the interface calls
+ * in the element accessors of the native arrays cannot be devirtualized, and
+ * the sketcher would build the graphs of the Foreign Memory API
+ * implementation. Node plugins are applied to every call site.
+ * </p>
+ */
+public class MemorySegmentAccessNodePlugin implements NodePlugin {
+
+    @Override
+    public boolean handleInvoke(GraphBuilderContext b, ResolvedJavaMethod method, ValueNode[] args) {
+        if (method.isStatic() || !method.getDeclaringClass().equals(b.getMetaAccess().lookupJavaType(MemorySegment.class))) {
+            return false;
+        }
+        Signature signature = method.getSignature();
+        int parameterCount = signature.getParameterCount(false);
+        if (method.getName().equals("getAtIndex") && parameterCount == 2 && signature.getParameterKind(1) == JavaKind.Long) {
+            JavaKind kind = signature.getReturnKind();
+            if (!kind.isPrimitive() || kind == JavaKind.Void) {
+                return false;
+            }
+            AddressNode addressNode = computeAddress(b, kind, args[0], args[2]);
+            b.addPush(kind, new JavaReadNode(kind, addressNode, LocationIdentity.any(), BarrierType.NONE, MemoryOrderMode.PLAIN, false));
+            return true;
+        } else if (method.getName().equals("setAtIndex") && parameterCount == 3 && signature.getParameterKind(1) == JavaKind.Long) {
+            JavaKind kind = signature.getParameterKind(2);
+            if (!kind.isPrimitive()) {
+                return false;
+            }
+            AddressNode addressNode = computeAddress(b, kind, args[0], args[2]);
+            b.add(new JavaWriteNode(kind, addressNode, LocationIdentity.any(), args[3], BarrierType.NONE, false));
+            return true;
+        }
+        return false;
+    }
+
+    private static AddressNode computeAddress(GraphBuilderContext b, JavaKind kind, ValueNode segment, ValueNode index) {
+        MulNode mulNode = b.append(new MulNode(index, ConstantNode.forInt(kind.getByteCount())));
+        return b.append(new OffsetAddressNode(b.nullCheckedValue(segment), mulNode));
+    }
+}
@@ -40,6 +40,7 @@ public enum EventDescriptor {
     DESC_READ_FLOAT("readFromDevice - float[]"),
     DESC_READ_DOUBLE("readFromDevice - double[]"),
     DESC_READ_SEGMENT("readFromDevice - long"),
+    DESC_COPY_BUFFER("copyBuffer - device"),
     DESC_SYNC_MARKER("sync - marker"),
     DESC_SYNC_BARRIER("sync - barrier"),
     EVENT_NONE("none");
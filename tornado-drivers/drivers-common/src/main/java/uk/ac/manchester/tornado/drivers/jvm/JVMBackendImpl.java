@@ -0,0 +1,134 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import java.util.List;
+
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderConfiguration.Plugins;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.util.Providers;
+
+import jdk.vm.ci.hotspot.HotSpotJVMCIRuntime;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoDeviceNotFound;
+import uk.ac.manchester.tornado.runtime.TornadoAcceleratorBackend;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.graal.backend.XPUBackend;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSuitesProvider;
+
+/**
+ * Backend that runs the tasks of a task-graph with Java threads on the host.
+ * It exposes a single device. The Graal providers are only used to build the
+ * sketches of the tasks, which give the data-flow and reduction information
+ * used by the runtime.
+ */
+public final class JVMBackendImpl implements TornadoAcceleratorBackend {
+
+    private final Providers providers;
+    private final JVMSuitesProvider suites;
+    private final JVMTornadoDevice device;
+    private List<TornadoDevice> devices;
+
+    public JVMBackendImpl(final OptionValues options, final HotSpotJVMCIRuntime vmRuntime) {
+        TornadoLogger.info("JVM: creating backend with %d threads", JVMTornadoDevice.getNumThreads());
+        Plugins plugins = JVMGraphBuilderPlugins.createPlugins();
+        providers = JVMHotSpotBackendFactory.createProviders(vmRuntime, plugins);
+        suites = new JVMSuitesProvider(options, plugins);
+        device = new JVMTornadoDevice();
+    }
+
+    @Override
+    public TornadoXPUDevice getDefaultDevice() {
+        return device;
+    }
+
+    @Override
+    public void setDefaultDevice(int index) {
+        // There is only one device
+    }
+
+    @Override
+    public TornadoXPUDevice getDevice(int index) {
+        if (index == 0) {
+            return device;
+        } else {
+            throw new TornadoDeviceNotFound(STR."[ERROR] device required not found: \{index} - Max: 1");
+        }
+    }
+
+    @Override
+    public List<TornadoDevice> getAllDevices() {
+        if (devices == null) {
+            devices = List.of(device);
+        }
+        return devices;
+    }
+
+    @Override
+    public int getDeviceCount() {
+        return 1;
+    }
+
+    @Override
+    public TornadoDeviceType getTypeDefaultDevice() {
+        return device.getDeviceType();
+    }
+
+    @Override
+    public String getName() {
+        return "JVM";
+    }
+
+    @Override
+    public int getNumPlatforms() {
+        return 1;
+    }
+
+    @Override
+    public TornadoVMBackendType getBackendType() {
+        return TornadoVMBackendType.JAVA;
+    }
+
+    /**
+     * The JVM backend does not generate code with Graal, so there is no
+     * {@link XPUBackend}.
+     */
+    @Override
+    public XPUBackend getDefaultBackend() {
+        return null;
+    }
+
+    @Override
+    public Providers getProviders() {
+        return providers;
+    }
+
+    @Override
+    public TornadoSuitesProvider getSuitesProvider() {
+        return suites;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import java.lang.reflect.Array;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+
+/**
+ * Buffer of the JVM backend. The tasks access the host object directly, so the
+ * buffer only records the object and the transfers do nothing.
+ */
+public class JVMBuffer implements XPUBuffer {
+
+    private final Object object;
+    private long subRegionSize;
+
+    public JVMBuffer(Object object) {
+        this.object = object;
+    }
+
+    @Override
+    public long toBuffer() {
+        return 0;
+    }
+
+    @Override
+    public void setBuffer(XPUBufferWrapper bufferWrapper) {
+    }
+
+    @Override
+    public long getBufferOffset() {
+        return 0;
+    }
+
+    @Override
+    public void read(long executionPlanId, Object reference) {
+    }
+
+    @Override
+    public int read(long executionPlanId, Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
+        return -1;
+    }
+
+    @Override
+    public void write(long executionPlanId, Object reference) {
+    }
+
+    @Override
+    public int enqueueRead(long executionPlanId, Object reference, long hostOffset, int[] events, boolean useDeps) {
+        return -1;
+    }
+
+    @Override
+    public List<Integer> enqueueWrite(long executionPlanId, Object reference, long batchSize, long hostOffset, int[] events, boolean useDeps) {
+        return null;
+    }
+
+    @Override
+    public void allocate(Object reference, long batchSize) {
+    }
+
+    @Override
+    public void deallocate() {
+    }
+
+    @Override
+    public long size() {
+        if (object instanceof TornadoNativeArray nativeArray) {
+            return nativeArray.getNumBytesOfSegmentWithHeader();
+        } else if (object != null && object.getClass().isArray() && object.getClass().getComponentType().isPrimitive()) {
+            return (long) Array.getLength(object) * elementSize(object.getClass().getComponentType());
+        }
+        return 0;
+    }
+
+    private static int elementSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    @Override
+    public void setSizeSubRegion(long batchSize) {
+        this.subRegionSize = batchSize;
+    }
+
+    @Override
+    public long getSizeSubRegionSize() {
+        return subRegionSize;
+    }
+}
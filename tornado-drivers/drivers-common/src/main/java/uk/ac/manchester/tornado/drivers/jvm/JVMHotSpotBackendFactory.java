@@ -0,0 +1,90 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import static jdk.vm.ci.common.InitTimer.timer;
+
+import org.graalvm.compiler.core.common.spi.MetaAccessExtensionProvider;
+import org.graalvm.compiler.hotspot.meta.HotSpotStampProvider;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderConfiguration.Plugins;
+import org.graalvm.compiler.nodes.loop.LoopsDataProviderImpl;
+import org.graalvm.compiler.phases.util.Providers;
+import org.graalvm.compiler.printer.GraalDebugHandlersFactory;
+import org.graalvm.compiler.replacements.StandardGraphBuilderPlugins;
+import org.graalvm.compiler.replacements.classfile.ClassfileBytecodeProvider;
+import org.graalvm.compiler.word.WordTypes;
+
+import jdk.vm.ci.common.InitTimer;
+import jdk.vm.ci.hotspot.HotSpotJVMCIRuntime;
+import jdk.vm.ci.meta.ConstantReflectionProvider;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.MetaAccessProvider;
+import jdk.vm.ci.runtime.JVMCIBackend;
+import uk.ac.manchester.tornado.drivers.providers.TornadoMetaAccessExtensionProvider;
+import uk.ac.manchester.tornado.drivers.providers.TornadoPlatformConfigurationProvider;
+import uk.ac.manchester.tornado.drivers.providers.TornadoWordTypes;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoConstantFieldProvider;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoForeignCallsProvider;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoReplacements;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSnippetReflectionProvider;
+
+/**
+ * Creates the Graal providers of the JVM backend. They target the host, and
+ * they only support the phases used to sketch the tasks.
+ */
+public class JVMHotSpotBackendFactory {
+
+    private static final HotSpotStampProvider stampProvider = new HotSpotStampProvider();
+    private static final TornadoSnippetReflectionProvider snippetReflection = new TornadoSnippetReflectionProvider();
+    private static final TornadoForeignCallsProvider foreignCalls = new TornadoForeignCallsProvider();
+    private static final TornadoConstantFieldProvider constantFieldProvider = new TornadoConstantFieldProvider();
+
+    public static Providers createProviders(HotSpotJVMCIRuntime jvmciRuntime, Plugins plugins) {
+        JVMCIBackend jvmciBackend = jvmciRuntime.getHostJVMCIBackend();
+        MetaAccessProvider metaAccess = jvmciBackend.getMetaAccess();
+        ConstantReflectionProvider constantReflection = jvmciBackend.getConstantReflection();
+
+        try (InitTimer t = timer("create providers")) {
+            TornadoPlatformConfigurationProvider platformConfigurationProvider = new TornadoPlatformConfigurationProvider();
+            MetaAccessExtensionProvider metaAccessExtensionProvider = new TornadoMetaAccessExtensionProvider();
+            WordTypes wordTypes = new TornadoWordTypes(metaAccess, JavaKind.Long);
+
+            JVMLoweringProvider lowerer = new JVMLoweringProvider(jvmciBackend.getTarget());
+            Providers p = new Providers(metaAccess, jvmciBackend.getCodeCache(), constantReflection, constantFieldProvider, foreignCalls, lowerer, null, stampProvider, platformConfigurationProvider,
+                    metaAccessExtensionProvider, snippetReflection, wordTypes, new LoopsDataProviderImpl());
+            ClassfileBytecodeProvider bytecodeProvider = new ClassfileBytecodeProvider(metaAccess, snippetReflection);
+            GraalDebugHandlersFactory graalDebugHandlersFactory = new GraalDebugHandlersFactory(snippetReflection);
+            TornadoReplacements replacements = new TornadoReplacements(graalDebugHandlersFactory, p, snippetReflection, bytecodeProvider, jvmciBackend.getTarget());
+            // The standard plugins intrinsify boxing, which the sketcher expects in the accesses to the KernelContext
+            StandardGraphBuilderPlugins.registerInvocationPlugins(snippetReflection, plugins.getInvocationPlugins(), replacements, false, false, false, lowerer);
+            replacements.setGraphBuilderPlugins(plugins);
+            return p.copyWith(replacements);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JVM";
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.KernelEmulator;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.runtime.ASMLoopSplitterProvider;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.analyzer.ReduceCodeAnalysis;
+import uk.ac.manchester.tornado.runtime.analyzer.ReduceCodeAnalysis.REDUCE_OPERATION;
+import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.Tornado;
+import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Code of a task in the JVM backend. The outermost parallel loop of the task is
+ * rewritten by an {@link ASMLoopSplitterProvider}, so that the threads of the
+ * device take blocks of iterations from a shared counter until the iteration
+ * space is exhausted. The size of the blocks is adapted after each launch to the
+ * number of iterations of the previous launch, so each thread takes around
+ * {@link #BLOCKS_PER_THREAD} blocks.
+ *
+ * <p>
+ * Reductions are computed with a private copy of each reduction variable per
+ * thread. Tasks that cannot be split run sequentially in the calling thread.
+ * Tasks with a {@link KernelContext} run in a {@link KernelEmulator}, across the
+ * grid of the task.
+ * </p>
+ *
+ * <p>
+ * Tasks always access the whole arrays on the host, so batches are not
+ * supported: the task graph compiler rejects batched execution on the JVM
+ * backend.
+ * </p>
+ */
+public class JVMInstalledCode implements TornadoInstalledCode {
+
+    private static final int MIN_BLOCK_SIZE = 16;
+    private static final int BLOCKS_PER_THREAD = 8;
+    private static final String SPLIT_CLASS_SUFFIX = "$TornadoJVM";
+
+    /*
+     * The implementation is loaded with reflection, because the ASM library is
+     * only required by the annotation module.
+     */
+    private static final ASMLoopSplitterProvider loopSplitter = loadLoopSplitter();
+    private static final AtomicInteger splitClassCounter = new AtomicInteger();
+
+    private final CompilableTask task;
+    private final JVMTornadoDevice device;
+    private final Method method;
+    private final MethodHandle splitMethod;
+    private final int kernelContextIndex;
+    private final int[] reduceIndices;
+    private final REDUCE_OPERATION[] reduceOperations;
+    private int blockSize;
+    private boolean valid;
+
+    JVMInstalledCode(CompilableTask task, JVMTornadoDevice device) {
+        this.task = task;
+        this.device = device;
+        this.method = task.getMethod();
+        if (!Modifier.isStatic(method.getModifiers())) {
+            throw new TornadoBailoutRuntimeException("[JVM] Only static methods are supported by the JVM backend: " + task.getFullName());
+        }
+        this.kernelContextIndex = Arrays.asList(method.getParameterTypes()).indexOf(KernelContext.class);
+        this.reduceIndices = findReduceParameters(method);
+        if (kernelContextIndex >= 0) {
+            this.reduceOperations = null;
+            this.splitMethod = null;
+        } else {
+            this.reduceOperations = findReduceOperations();
+            this.splitMethod = (reduceOperations != null) ? splitParallelLoop() : null;
+        }
+        this.blockSize = MIN_BLOCK_SIZE;
+        this.valid = true;
+    }
+
+    private static ASMLoopSplitterProvider loadLoopSplitter() {
+        String className = Tornado.getProperty("tornado.load.annotation.splitter", "uk.ac.manchester.tornado.annotation.ASMLoopSplitter");
+        try {
+            Class<?> klass = Class.forName(className);
+            return (ASMLoopSplitterProvider) klass.getConstructor().newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+            TornadoLogger.warn("[JVM] Loop splitter " + className + " not found. Tasks run sequentially.");
+            return null;
+        }
+    }
+
+    private static int[] findReduceParameters(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        return IntStream.range(0, annotations.length) //
+                .filter(i -> Arrays.stream(annotations[i]).anyMatch(a -> a instanceof Reduce)) //
+                .toArray();
+    }
+
+    /**
+     * Obtains the operation of each reduction from the sketch of the task.
+     *
+     * @return The operations, or {@code null} if the reductions of the task
+     *     cannot be computed with private copies.
+     */
+    private REDUCE_OPERATION[] findReduceOperations() {
+        if (reduceIndices.length == 0) {
+            return new REDUCE_OPERATION[0];
+        }
+        Object[] arguments = task.getArguments();
+        for (int index : reduceIndices) {
+            if (!JVMReductions.isSupported(arguments[index])) {
+                return null;
+            }
+        }
+        try {
+            ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(method);
+            Sketch sketch = TornadoSketcher.lookup(resolvedMethod, task.meta().getDriverIndex(), task.meta().getDeviceIndex());
+            List<REDUCE_OPERATION> operations = ReduceCodeAnalysis.getReduceOperatorFromSketch(sketch.getGraph(), Arrays.stream(reduceIndices).boxed().toList());
+            if (operations.size() != reduceIndices.length) {
+                return null;
+            }
+            return operations.toArray(new REDUCE_OPERATION[0]);
+        } catch (TornadoInternalError | RuntimeException e) {
+            TornadoLogger.debug("[JVM] Reduce operations of %s not found: %s", task.getFullName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private MethodHandle splitParallelLoop() {
+        if (loopSplitter == null) {
+            return null;
+        }
+        Class<?> owner = method.getDeclaringClass();
+        // A task can be installed several times, so each class needs a new name
+        String className = owner.getName().replace('.', '/') + SPLIT_CLASS_SUFFIX + splitClassCounter.getAndIncrement();
+        byte[] classFile = loopSplitter.splitParallelLoop(method, className);
+        if (classFile == null) {
+            TornadoLogger.info("[JVM] The parallel loop of %s cannot be split. The task runs sequentially.", task.getFullName());
+            return null;
+        }
+        try {
+            // The new class is defined in the package of the declaring class, so it can access its package-private members
+            JVMInstalledCode.class.getModule().addReads(owner.getModule());
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            Class<?> splitClass = lookup.defineClass(classFile);
+            MethodType type = MethodType.methodType(method.getReturnType(), method.getParameterTypes()).appendParameterTypes(AtomicInteger.class, int.class);
+            MethodHandle handle = lookup.findStatic(splitClass, method.getName(), type);
+            TornadoLogger.info("[JVM] The parallel loop of %s is split between %d threads", task.getFullName(), device.getThreadPool().getParallelism());
+            return handle;
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            TornadoLogger.info("[JVM] The parallel loop of %s cannot be loaded: %s. The task runs sequentially.", task.getFullName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void runSequential(Object[] arguments) {
+        try {
+            method.setAccessible(true);
+            method.invoke(null, arguments);
+        } catch (IllegalAccessException e) {
+            throw new TornadoRuntimeException(e);
+        } catch (InvocationTargetException e) {
+            throw new TornadoRuntimeException("[JVM] Task " + task.getFullName() + " failed", e.getCause());
+        }
+    }
+
+    private void runKernel(Object[] arguments, TaskMetaData meta) {
+        if (!meta.isWorkerGridAvailable()) {
+            throw new TornadoRuntimeException("[JVM] Task " + task.getFullName() + " uses a KernelContext and requires a GridScheduler");
+        }
+        method.setAccessible(true);
+        KernelEmulator emulator = new KernelEmulator(device.getThreadPool().getParallelism());
+        emulator.execute(meta.getWorkerGrid(meta.getId()), context -> {
+            Object[] workItemArguments = arguments.clone();
+            workItemArguments[kernelContextIndex] = context;
+            try {
+                method.invoke(null, workItemArguments);
+            } catch (IllegalAccessException e) {
+                throw new TornadoRuntimeException(e);
+            } catch (InvocationTargetException e) {
+                throw new TornadoRuntimeException("[JVM] Task " + task.getFullName() + " failed", e.getCause());
+            }
+        });
+    }
+
+    private Object invokeSplitMethod(Object[] arguments) throws Exception {
+        try {
+            return splitMethod.invokeWithArguments(arguments);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new TornadoRuntimeException("[JVM] Task " + task.getFullName() + " failed", t);
+        }
+    }
+
+    private void runParallel(Object[] arguments) {
+        final int numThreads = device.getThreadPool().getParallelism();
+        final int currentBlockSize = blockSize;
+        final AtomicInteger blocks = new AtomicInteger();
+        final Object[][] privateCopies = new Object[numThreads][];
+
+        List<Callable<Object>> threads = new ArrayList<>(numThreads);
+        for (int thread = 0; thread < numThreads; thread++) {
+            Object[] threadArguments = Arrays.copyOf(arguments, arguments.length + 2);
+            privateCopies[thread] = new Object[reduceIndices.length];
+            for (int i = 0; i < reduceIndices.length; i++) {
+                privateCopies[thread][i] = JVMReductions.createPrivateCopy(arguments[reduceIndices[i]], reduceOperations[i]);
+                threadArguments[reduceIndices[i]] = privateCopies[thread][i];
+            }
+            threadArguments[arguments.length] = blocks;
+            threadArguments[arguments.length + 1] = currentBlockSize;
+            threads.add(() -> invokeSplitMethod(threadArguments));
+        }
+
+        for (Future<Object> future : device.getThreadPool().invokeAll(threads)) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TornadoRuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new TornadoRuntimeException("[JVM] Task " + task.getFullName() + " failed", e.getCause());
+            }
+        }
+
+        for (int i = 0; i < reduceIndices.length; i++) {
+            JVMReductions.reset(arguments[reduceIndices[i]], reduceOperations[i]);
+        }
+        for (int thread = 0; thread < numThreads; thread++) {
+            for (int i = 0; i < reduceIndices.length; i++) {
+                JVMReductions.combine(arguments[reduceIndices[i]], privateCopies[thread][i], reduceOperations[i]);
+            }
+        }
+
+        // Each thread takes one last block, which is out of the iteration space
+        long iterations = (long) Math.max(0, blocks.get() - numThreads) * currentBlockSize;
+        blockSize = (int) Math.max(MIN_BLOCK_SIZE, Math.min(Integer.MAX_VALUE, iterations / ((long) numThreads * BLOCKS_PER_THREAD)));
+    }
+
+    private int launch(TaskMetaData meta) {
+        Object[] arguments = task.getArguments();
+        if (kernelContextIndex >= 0) {
+            runKernel(arguments, meta);
+        } else if (splitMethod == null) {
+            runSequential(arguments);
+        } else {
+            runParallel(arguments);
+        }
+        return -1;
+    }
+
+    @Override
+    public int launchWithDependencies(long executionPlanId, KernelStackFrame callWrapper, XPUBuffer atomicSpace, TaskMetaData meta, long batchThreads, int[] waitEvents) {
+        return launch(meta);
+    }
+
+    @Override
+    public int launchWithoutDependencies(long executionPlanId, KernelStackFrame callWrapper, XPUBuffer atomicSpace, TaskMetaData meta, long batchThreads) {
+        return launch(meta);
+    }
+
+    @Override
+    public boolean isValid() {
+        return valid;
+    }
+
+    @Override
+    public void invalidate() {
+        valid = false;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import static uk.ac.manchester.tornado.api.exceptions.TornadoInternalError.unimplemented;
+
+import org.graalvm.compiler.core.common.memory.MemoryExtendKind;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.gc.BarrierSet;
+import org.graalvm.compiler.nodes.memory.ExtendableMemoryAccess;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.spi.LoweringProvider;
+import org.graalvm.compiler.nodes.spi.LoweringTool;
+import org.graalvm.compiler.options.OptionValues;
+
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Lowering provider of the JVM backend. The graphs of the JVM backend are only
+ * sketched, so nodes are never lowered. The provider only answers the queries
+ * of the canonicalizer.
+ */
+public class JVMLoweringProvider implements LoweringProvider {
+
+    private final TargetDescription target;
+
+    public JVMLoweringProvider(TargetDescription target) {
+        this.target = target;
+    }
+
+    @Override
+    public void lower(Node n, LoweringTool tool) {
+        unimplemented("JVMLoweringProvider::lower unimplemented");
+    }
+
+    @Override
+    public ValueNode reconstructArrayIndex(JavaKind elementKind, AddressNode address) {
+        unimplemented("JVMLoweringProvider::reconstructArrayIndex unimplemented");
+        return null;
+    }
+
+    @Override
+    public Integer smallestCompareWidth() {
+        return null;
+    }
+
+    @Override
+    public boolean supportsBulkZeroing() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsOptimizedFilling(OptionValues options) {
+        return false;
+    }
+
+    @Override
+    public boolean supportsRounding() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsImplicitNullChecks() {
+        return false;
+    }
+
+    @Override
+    public boolean writesStronglyOrdered() {
+        return false;
+    }
+
+    @Override
+    public TargetDescription getTarget() {
+        return target;
+    }
+
+    @Override
+    public BarrierSet getBarrierSet() {
+        return null;
+    }
+
+    @Override
+    public boolean divisionOverflowIsJVMSCompliant() {
+        return true;
+    }
+
+    @Override
+    public boolean narrowsUseCastValue() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsFoldingExtendIntoAccess(ExtendableMemoryAccess access, MemoryExtendKind extendKind) {
+        return false;
+    }
+}
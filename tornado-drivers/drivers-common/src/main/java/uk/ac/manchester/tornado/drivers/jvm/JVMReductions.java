@@ -0,0 +1,168 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.runtime.analyzer.ReduceCodeAnalysis.REDUCE_OPERATION;
+
+/**
+ * Private copies of the reduction variables of a task. Each thread of the JVM
+ * backend accumulates into its own copy, which starts with the neutral element
+ * of the operation. At the end of the launch, the original variable is reset
+ * to the neutral element and the copies are combined into it, so its previous
+ * content does not leak into the result of a new execution.
+ */
+final class JVMReductions {
+
+    private JVMReductions() {
+    }
+
+    static boolean isSupported(Object array) {
+        return array instanceof int[] || array instanceof long[] || array instanceof float[] || array instanceof double[] //
+                || array instanceof IntArray || array instanceof LongArray || array instanceof FloatArray || array instanceof DoubleArray;
+    }
+
+    static Object createPrivateCopy(Object array, REDUCE_OPERATION operation) {
+        Object copy = switch (array) {
+            case int[] a -> new int[a.length];
+            case long[] a -> new long[a.length];
+            case float[] a -> new float[a.length];
+            case double[] a -> new double[a.length];
+            case IntArray a -> new IntArray(a.getSize());
+            case LongArray a -> new LongArray(a.getSize());
+            case FloatArray a -> new FloatArray(a.getSize());
+            case DoubleArray a -> new DoubleArray(a.getSize());
+            default -> throw new IllegalArgumentException("Reduction type not supported: " + array.getClass());
+        };
+        reset(copy, operation);
+        return copy;
+    }
+
+    /**
+     * Fills the array with the neutral element of the operation.
+     */
+    static void reset(Object array, REDUCE_OPERATION operation) {
+        switch (array) {
+            case int[] a -> Arrays.fill(a, (int) neutral(operation, Integer.MIN_VALUE, Integer.MAX_VALUE));
+            case long[] a -> Arrays.fill(a, (long) neutral(operation, Long.MIN_VALUE, Long.MAX_VALUE));
+            case float[] a -> Arrays.fill(a, (float) neutral(operation, -Float.MAX_VALUE, Float.MAX_VALUE));
+            case double[] a -> Arrays.fill(a, neutral(operation, -Double.MAX_VALUE, Double.MAX_VALUE));
+            case IntArray a -> a.init((int) neutral(operation, Integer.MIN_VALUE, Integer.MAX_VALUE));
+            case LongArray a -> a.init((long) neutral(operation, Long.MIN_VALUE, Long.MAX_VALUE));
+            case FloatArray a -> a.init((float) neutral(operation, -Float.MAX_VALUE, Float.MAX_VALUE));
+            case DoubleArray a -> a.init(neutral(operation, -Double.MAX_VALUE, Double.MAX_VALUE));
+            default -> throw new IllegalArgumentException("Reduction type not supported: " + array.getClass());
+        }
+    }
+
+    /**
+     * Neutral element of the operation, for a type with the given bounds. The
+     * casts of the bounds of long saturate to the same bounds.
+     */
+    private static double neutral(REDUCE_OPERATION operation, double lowest, double highest) {
+        return switch (operation) {
+            case SUM -> 0;
+            case MUL -> 1;
+            case MIN -> highest;
+            case MAX -> lowest;
+        };
+    }
+
+    static void combine(Object target, Object partial, REDUCE_OPERATION operation) {
+        switch (target) {
+            case int[] t -> {
+                int[] p = (int[]) partial;
+                for (int i = 0; i < t.length; i++) {
+                    t[i] = (int) apply(operation, t[i], p[i]);
+                }
+            }
+            case long[] t -> {
+                long[] p = (long[]) partial;
+                for (int i = 0; i < t.length; i++) {
+                    t[i] = apply(operation, t[i], p[i]);
+                }
+            }
+            case float[] t -> {
+                float[] p = (float[]) partial;
+                for (int i = 0; i < t.length; i++) {
+                    t[i] = (float) apply(operation, t[i], p[i]);
+                }
+            }
+            case double[] t -> {
+                double[] p = (double[]) partial;
+                for (int i = 0; i < t.length; i++) {
+                    t[i] = apply(operation, t[i], p[i]);
+                }
+            }
+            case IntArray t -> {
+                IntArray p = (IntArray) partial;
+                for (int i = 0; i < t.getSize(); i++) {
+                    t.set(i, (int) apply(operation, t.get(i), p.get(i)));
+                }
+            }
+            case LongArray t -> {
+                LongArray p = (LongArray) partial;
+                for (int i = 0; i < t.getSize(); i++) {
+                    t.set(i, apply(operation, t.get(i), p.get(i)));
+                }
+            }
+            case FloatArray t -> {
+                FloatArray p = (FloatArray) partial;
+                for (int i = 0; i < t.getSize(); i++) {
+                    t.set(i, (float) apply(operation, t.get(i), p.get(i)));
+                }
+            }
+            case DoubleArray t -> {
+                DoubleArray p = (DoubleArray) partial;
+                for (int i = 0; i < t.getSize(); i++) {
+                    t.set(i, apply(operation, t.get(i), p.get(i)));
+                }
+            }
+            default -> throw new IllegalArgumentException("Reduction type not supported: " + target.getClass());
+        }
+    }
+
+    private static long apply(REDUCE_OPERATION operation, long a, long b) {
+        return switch (operation) {
+            case SUM -> a + b;
+            case MUL -> a * b;
+            case MIN -> Math.min(a, b);
+            case MAX -> Math.max(a, b);
+        };
+    }
+
+    private static double apply(REDUCE_OPERATION operation, double a, double b) {
+        return switch (operation) {
+            case SUM -> a + b;
+            case MUL -> a * b;
+            case MIN -> Math.min(a, b);
+            case MAX -> Math.max(a, b);
+        };
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.jvm;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import uk.ac.manchester.tornado.api.TornadoTargetDevice;
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
+import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.runtime.EmptyEvent;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
+import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.PrebuiltTask;
+
+/**
+ * Device of the JVM backend. The tasks run with a pool of Java threads on the
+ * host and access the host objects directly, so the device does not allocate
+ * buffers nor copy data.
+ */
+public class JVMTornadoDevice implements TornadoXPUDevice {
+
+    private static final String DEVICE_NAME = "Java Threads";
+
+    private final JVMDeviceContext deviceContext;
+    private ForkJoinPool threadPool;
+
+    public JVMTornadoDevice() {
+        deviceContext = new JVMDeviceContext(new JVMTargetDevice(DEVICE_NAME, getNumThreads()));
+    }
+
+    static int getNumThreads() {
+        return Math.max(1, TornadoOptions.JVM_BACKEND_THREADS);
+    }
+
+    synchronized ForkJoinPool getThreadPool() {
+        if (threadPool == null) {
+            threadPool = new ForkJoinPool(getNumThreads());
+        }
+        return threadPool;
+    }
+
+    @Override
+    public void dumpEvents(long executionPlanId) {
+    }
+
+    @Override
+    public int enqueueBarrier(long executionPlanId, int[] events) {
+        return -1;
+    }
+
+    @Override
+    public int enqueueMarker(long executionPlanId) {
+        return -1;
+    }
+
+    @Override
+    public int enqueueMarker(long executionPlanId, int[] events) {
+        return -1;
+    }
+
+    @Override
+    public List<Integer> ensurePresent(long executionPlanId, Object object, DeviceBufferState objectState, int[] events, long size, long offset) {
+        objectState.setContents(true);
+        return null;
+    }
+
+    @Override
+    public void flush(long executionPlanId) {
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("%s %d threads", DEVICE_NAME, getNumThreads());
+    }
+
+    @Override
+    public TornadoMemoryProvider getMemoryProvider() {
+        return deviceContext.getMemoryManager();
+    }
+
+    @Override
+    public TornadoSchedulingStrategy getPreferredSchedule() {
+        return TornadoSchedulingStrategy.PER_BLOCK;
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public List<Integer> streamIn(long executionPlanId, Object object, long batchSize, long hostOffset, DeviceBufferState objectState, int[] events) {
+        objectState.setContents(true);
+        return null;
+    }
+
+    @Override
+    public int streamOutBlocking(long executionPlanId, Object object, long hostOffset, DeviceBufferState objectState, int[] list) {
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "JVM -- " + getDescription();
+    }
+
+    @Override
+    public void ensureLoaded(long executionPlanId) {
+    }
+
+    @Override
+    public KernelStackFrame createKernelStackFrame(int numArgs) {
+        return new JVMKernelStackFrame(numArgs);
+    }
+
+    @Override
+    public XPUBuffer createOrReuseAtomicsBuffer(int[] arr) {
+        return null;
+    }
+
+    @Override
+    public TornadoInstalledCode installCode(SchedulableTask task) {
+        if (task instanceof PrebuiltTask) {
+            throw new TornadoBailoutRuntimeException("[JVM] Prebuilt tasks are not supported by the JVM backend: " + task.getFullName());
+        }
+        return new JVMInstalledCode((CompilableTask) task, this);
+    }
+
+    @Override
+    public int allocate(Object object, long batchSize, DeviceBufferState state) {
+        if (!state.hasObjectBuffer()) {
+            state.setObjectBuffer(new JVMBuffer(object));
+        }
+        return -1;
+    }
+
+    @Override
+    public synchronized int allocateObjects(Object[] objects, long batchSize, DeviceBufferState[] states) {
+        for (int i = 0; i < objects.length; i++) {
+            allocate(objects[i], batchSize, states[i]);
+        }
+        return -1;
+    }
+
+    @Override
+    public synchronized int deallocate(DeviceBufferState state) {
+        if (state.isLockedBuffer()) {
+            return -1;
+        }
+        state.setContents(false);
+        state.setObjectBuffer(null);
+        return -1;
+    }
+
+    @Override
+    public boolean allocateSubBuffer(Object view, DeviceBufferState parentState, long offset, DeviceBufferState viewState) {
+        // Views share the memory of the host object, as any other object
+        viewState.setObjectBuffer(new JVMBuffer(view));
+        return true;
+    }
+
+    @Override
+    public int streamOut(long executionPlanId, Object object, long hostOffset, DeviceBufferState objectState, int[] list) {
+        return -1;
+    }
+
+    @Override
+    public int enqueueBarrier(long executionPlanId) {
+        return -1;
+    }
+
+    @Override
+    public void sync(long executionPlanId) {
+    }
+
+    @Override
+    public Event resolveEvent(long executionPlanId, int event) {
+        return new EmptyEvent();
+    }
+
+    @Override
+    public void flushEvents(long executionPlanId) {
+    }
+
+    @Override
+    public String getDeviceName() {
+        return "jvm";
+    }
+
+    @Override
+    public String getPlatformName() {
+        return "JVM";
+    }
+
+    @Override
+    public JVMDeviceContext getDeviceContext() {
+        return deviceContext;
+    }
+
+    @Override
+    public TornadoTargetDevice getPhysicalDevice() {
+        return deviceContext.getDevice();
+    }
+
+    @Override
+    public TornadoDeviceType getDeviceType() {
+        return TornadoDeviceType.CPU;
+    }
+
+    @Override
+    public int getAvailableProcessors() {
+        return getNumThreads();
+    }
+
+    @Override
+    public boolean isFullJITMode(SchedulableTask task) {
+        return false;
+    }
+
+    @Override
+    public TornadoInstalledCode getCodeFromCache(SchedulableTask task) {
+        return null;
+    }
+
+    @Override
+    public int[] checkAtomicsForTask(SchedulableTask task) {
+        return null;
+    }
+
+    @Override
+    public int[] checkAtomicsForTask(SchedulableTask task, int[] array, int paramIndex, Object value) {
+        return null;
+    }
+
+    @Override
+    public int[] updateAtomicRegionAndObjectState(SchedulableTask task, int[] array, int paramIndex, Object value, XPUDeviceBufferState objectState) {
+        return null;
+    }
+
+    @Override
+    public int getAtomicsGlobalIndexForTask(SchedulableTask task, int paramIndex) {
+        return -1;
+    }
+
+    @Override
+    public boolean checkAtomicsParametersForTask(SchedulableTask task) {
+        return false;
+    }
+
+    @Override
+    public void enableThreadSharing() {
+    }
+
+    @Override
+    public void setAtomicRegion(XPUBuffer bufferAtomics) {
+    }
+
+    @Override
+    public long getMaxAllocMemory() {
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    @Override
+    public long getMaxGlobalMemory() {
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    @Override
+    public long getDeviceLocalMemorySize() {
+        return 0;
+    }
+
+    @Override
+    public long[] getDeviceMaxWorkgroupDimensions() {
+        return deviceContext.getDevice().getDeviceMaxWorkItemSizes();
+    }
+
+    @Override
+    public String getDeviceOpenCLCVersion() {
+        return "";
+    }
+
+    @Override
+    public Object getDeviceInfo() {
+        return deviceContext.getDevice().getDeviceInfo();
+    }
+
+    @Override
+    public int getDriverIndex() {
+        return TornadoCoreRuntime.getTornadoRuntime().getBackendIndex(JVMBackendImpl.class);
+    }
+
+    @Override
+    public Object getAtomic() {
+        return null;
+    }
+
+    @Override
+    public void setAtomicsMapping(ConcurrentHashMap<Object, Integer> mappingAtomics) {
+    }
+
+    @Override
+    public TornadoVMBackendType getTornadoVMBackend() {
+        return TornadoVMBackendType.JAVA;
+    }
+
+    @Override
+    public boolean isSPIRVSupported() {
+        return false;
+    }
+}
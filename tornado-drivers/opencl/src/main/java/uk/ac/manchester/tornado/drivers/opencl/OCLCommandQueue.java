@@ -49,6 +49,7 @@ public class OCLCommandQueue {
     private final ByteBuffer buffer;
     private final long properties;
     private final int openclVersion;
+    private boolean sharingDependencies;
 
     public OCLCommandQueue(long commandQueuePtr, long properties, int version) {
         this.commandQueuePtr = commandQueuePtr;
@@ -126,6 +127,8 @@ public class OCLCommandQueue {
 
     static native long clEnqueueBarrierWithWaitList(long queueId, long[] events) throws OCLException;
 
+    static native long clEnqueueCopyBuffer(long queueId, long srcBuffer, long dstBuffer, long srcOffset, long dstOffset, long bytes, long[] events) throws OCLException;
+
     static native void clFlush(long queueId) throws OCLException;
 
     static native void clFinish(long queueId) throws OCLException;
@@ -181,6 +184,23 @@ public class OCLCommandQueue {
         return enqueueMarker(null);
     }
 
+    /**
+     * Marks the command queue as one of several queues of the same device whose
+     * commands depend on each other. Event wait-lists are then passed to the
+     * OpenCL driver, even if the queue executes commands in-order.
+     *
+     * @param sharingDependencies
+     *     True if commands of this queue can depend on commands of other
+     *     queues.
+     */
+    public void setSharingDependencies(boolean sharingDependencies) {
+        this.sharingDependencies = sharingDependencies;
+    }
+
+    public boolean isSharingDependencies() {
+        return sharingDependencies;
+    }
+
     public void cleanup() {
         try {
             clReleaseCommandQueue(commandQueuePtr);
@@ -364,6 +384,32 @@ public class OCLCommandQueue {
         }
     }
 
+    /**
+     * It enqueues a copy between two buffers of the same OpenCL context.
+     *
+     * @param srcBuffer
+     *     Source OpenCL buffer.
+     * @param srcOffset
+     *     Offset within the source buffer.
+     * @param dstBuffer
+     *     Destination OpenCL buffer.
+     * @param dstOffset
+     *     Offset within the destination buffer.
+     * @param bytes
+     *     Number of bytes to copy.
+     * @param waitEvents
+     *     List of events to wait for.
+     * @return OpenCL event of the copy.
+     */
+    public long enqueueCopyBuffer(long srcBuffer, long srcOffset, long dstBuffer, long dstOffset, long bytes, long[] waitEvents) {
+        try {
+            return clEnqueueCopyBuffer(commandQueuePtr, srcBuffer, dstBuffer, srcOffset, dstOffset, bytes, waitEvents);
+        } catch (OCLException e) {
+            TornadoLogger.error(e.getMessage());
+            throw new TornadoBailoutRuntimeException(e.getMessage());
+        }
+    }
+
     public void finish() {
         try {
             clFinish(commandQueuePtr);
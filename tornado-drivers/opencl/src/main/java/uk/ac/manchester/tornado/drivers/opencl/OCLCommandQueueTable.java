@@ -24,8 +24,12 @@
 package uk.ac.manchester.tornado.drivers.opencl;
 
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueProperties;
 import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -33,31 +37,100 @@ import java.util.concurrent.ConcurrentHashMap;
 public class OCLCommandQueueTable {
 
     private final Map<OCLTargetDevice, ThreadCommandQueueTable> deviceCommandMap;
+    private final boolean outOfOrder;
 
     public OCLCommandQueueTable() {
+        this(false);
+    }
+
+    /**
+     * Creates a table of command queues.
+     *
+     * @param outOfOrder
+     *     If true, the command queues are created with
+     *     {@code CL_QUEUE_OUT_OF_ORDER_EXEC_MODE_ENABLE} when the device
+     *     supports it. Commands submitted to these queues are only ordered by
+     *     the event wait-lists emitted by the TornadoVM graph compiler.
+     */
+    public OCLCommandQueueTable(boolean outOfOrder) {
         deviceCommandMap = new ConcurrentHashMap<>();
+        this.outOfOrder = outOfOrder;
+    }
+
+    public boolean isOutOfOrder() {
+        return outOfOrder;
     }
 
     public OCLCommandQueue get(OCLTargetDevice device, OCLContext context) {
+        return get(device, context, 0);
+    }
+
+    /**
+     * It returns the command queue with the given index for the current thread.
+     * Several queues per device are used to run independent tasks of a
+     * task-graph concurrently.
+     *
+     * @param device
+     *     OpenCL device.
+     * @param context
+     *     OpenCL context.
+     * @param queueIndex
+     *     Index of the command queue.
+     * @return {@link OCLCommandQueue}
+     */
+    public OCLCommandQueue get(OCLTargetDevice device, OCLContext context, int queueIndex) {
         if (!deviceCommandMap.containsKey(device)) {
             ThreadCommandQueueTable table = new ThreadCommandQueueTable();
-            table.get(Thread.currentThread().threadId(), device, context);
+            table.get(Thread.currentThread().threadId(), device, context, outOfOrder, queueIndex);
             deviceCommandMap.put(device, table);
         }
-        return deviceCommandMap.get(device).get(Thread.currentThread().threadId(), device, context);
+        return deviceCommandMap.get(device).get(Thread.currentThread().threadId(), device, context, outOfOrder, queueIndex);
+    }
+
+    /**
+     * It returns all command queues created by the current thread for the given
+     * device.
+     *
+     * @param device
+     *     OpenCL device.
+     * @return {@link Collection} of {@link OCLCommandQueue}
+     */
+    public Collection<OCLCommandQueue> getCommandQueues(OCLTargetDevice device) {
+        ThreadCommandQueueTable table = deviceCommandMap.get(device);
+        if (table == null) {
+            return Collections.emptyList();
+        }
+        return table.getCommandQueues(Thread.currentThread().threadId());
+    }
+
+    /**
+     * Waits for all commands in the queues of this table to finish and
+     * releases the queues.
+     */
+    public void cleanup() {
+        deviceCommandMap.values().forEach(ThreadCommandQueueTable::cleanup);
+        deviceCommandMap.clear();
     }
 
     private static class ThreadCommandQueueTable {
-        private final Map<Long, OCLCommandQueue> commandQueueMap;
+        private final Map<Long, Map<Integer, OCLCommandQueue>> commandQueueMap;
 
         ThreadCommandQueueTable() {
             commandQueueMap = new ConcurrentHashMap<>();
         }
 
-        public OCLCommandQueue get(long threadId, OCLTargetDevice device, OCLContext context) {
-            if (!commandQueueMap.containsKey(threadId)) {
+        public OCLCommandQueue get(long threadId, OCLTargetDevice device, OCLContext context, boolean outOfOrder, int queueIndex) {
+            Map<Integer, OCLCommandQueue> queues = commandQueueMap.computeIfAbsent(threadId, k -> new ConcurrentHashMap<>());
+            if (!queues.containsKey(queueIndex)) {
                 final int deviceVersion = device.deviceVersion();
                 long commandProperties = context.getProperties(device.getIndex());
+                if (outOfOrder) {
+                    if (device.isOutOfOrderQueueSupported()) {
+                        commandProperties |= OCLCommandQueueProperties.CL_QUEUE_OUT_OF_ORDER_EXEC_MODE_ENABLE;
+                    } else {
+                        TornadoLogger.warn(String.format("Out-of-order command queues are not supported by %s. Using in-order queues.", device.getDeviceName()));
+                    }
+                }
                 long commandQueuePtr;
                 try {
                     commandQueuePtr = context.clCreateCommandQueue(context.getContextId(), device.getId(), commandProperties);
@@ -65,9 +138,25 @@ public class OCLCommandQueueTable {
                     throw new TornadoRuntimeException(e);
                 }
                 OCLCommandQueue commandQueue = new OCLCommandQueue(commandQueuePtr, commandProperties, deviceVersion);
-                commandQueueMap.put(threadId, commandQueue);
+                queues.put(queueIndex, commandQueue);
+                if (queues.size() > 1) {
+                    queues.values().forEach(queue -> queue.setSharingDependencies(true));
+                }
             }
-            return commandQueueMap.get(threadId);
+            return queues.get(queueIndex);
+        }
+
+        Collection<OCLCommandQueue> getCommandQueues(long threadId) {
+            Map<Integer, OCLCommandQueue> queues = commandQueueMap.get(threadId);
+            return queues == null ? Collections.emptyList() : queues.values();
+        }
+
+        void cleanup() {
+            commandQueueMap.values().forEach(queues -> queues.values().forEach(commandQueue -> {
+                commandQueue.finish();
+                commandQueue.cleanup();
+            }));
+            commandQueueMap.clear();
         }
     }
 
@@ -26,12 +26,14 @@
 package uk.ac.manchester.tornado.drivers.opencl;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoNoOpenCLPlatformException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLBufferCreateType;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueProperties;
 import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
@@ -244,6 +246,36 @@ public class OCLContext implements OCLExecutionEnvironment {
         return null;
     }
 
+    /**
+     * Creates a sub-buffer that aliases a region of an allocated buffer.
+     *
+     * @param bufferId
+     *     Buffer that contains the region.
+     * @param flags
+     *     Memory flags of the sub-buffer.
+     * @param origin
+     *     Offset of the region in bytes. It must be aligned to the base address
+     *     alignment of the devices of the context.
+     * @param bytes
+     *     Size of the region in bytes.
+     *
+     * @return sub-buffer identifier, or 0 if the sub-buffer cannot be created.
+     */
+    public long createSubBuffer(long bufferId, long flags, long origin, long bytes) {
+        // cl_buffer_region: {size_t origin; size_t size;}
+        ByteBuffer region = ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.nativeOrder());
+        region.putLong(origin);
+        region.putLong(bytes);
+        try {
+            final long subBufferId = createSubBuffer(bufferId, flags, OCLBufferCreateType.CL_BUFFER_CREATE_TYPE_REGION.getValue(), region.array());
+            TornadoLogger.info("sub-buffer allocated %s @ 0x%x (buffer 0x%x, origin %d)", RuntimeUtilities.humanReadableByteCount(bytes, false), subBufferId, bufferId, origin);
+            return subBufferId;
+        } catch (OCLException e) {
+            TornadoLogger.error(e.getMessage());
+        }
+        return 0;
+    }
+
     public void releaseBuffer(long bufferId) {
         try {
             clReleaseMemObject(bufferId);
@@ -34,6 +34,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
 
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueProperties;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceInfo;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLLocalMemType;
@@ -73,6 +74,7 @@ public class OCLDevice implements OCLTargetDevice {
     private int deviceAddressBits;
     private OCLLocalMemType localMemoryType;
     private int deviceVendorID;
+    private long deviceQueueProperties;
     private OCLDeviceContextInterface deviceContext;
 
     public OCLDevice(int index, long id) {
@@ -109,6 +111,7 @@ public class OCLDevice implements OCLTargetDevice {
         this.deviceAddressBits = INIT_VALUE;
         this.localMemoryType = null;
         this.deviceVendorID = INIT_VALUE;
+        this.deviceQueueProperties = INIT_VALUE;
     }
 
     private void obtainDeviceProperties() {
@@ -176,6 +179,20 @@ public class OCLDevice implements OCLTargetDevice {
         return deviceMemoryBaseAlignment;
     }
 
+    public long getDeviceQueueProperties() {
+        if (deviceQueueProperties != INIT_VALUE) {
+            return deviceQueueProperties;
+        }
+        queryOpenCLAPI(OCLDeviceInfo.CL_DEVICE_QUEUE_PROPERTIES.getValue());
+        deviceQueueProperties = buffer.getLong();
+        return deviceQueueProperties;
+    }
+
+    @Override
+    public boolean isOutOfOrderQueueSupported() {
+        return (getDeviceQueueProperties() & OCLCommandQueueProperties.CL_QUEUE_OUT_OF_ORDER_EXEC_MODE_ENABLE) != 0;
+    }
+
     public boolean isDeviceAvailable() {
         queryOpenCLAPI(OCLDeviceInfo.CL_DEVICE_AVAILABLE.getValue());
         return (buffer.get() == 1);
@@ -28,9 +28,11 @@ import static uk.ac.manchester.tornado.runtime.common.Tornado.EVENT_WINDOW;
 import static uk.ac.manchester.tornado.runtime.common.Tornado.USE_SYNC_FLUSH;
 
 import java.nio.ByteOrder;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import uk.ac.manchester.tornado.api.common.Event;
@@ -58,6 +60,8 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
      * Table to represent {@link uk.ac.manchester.tornado.api.TornadoExecutionPlan} -> {@link OCLCommandQueueTable}
      */
     private Map<Long, OCLCommandQueueTable> commandQueueTable;
+    private final Set<Long> outOfOrderExecutionPlans;
+    private final Map<Long, Integer> selectedCommandQueues;
     private final OCLContext context;
     private final PowerMetric powerMetric;
     private final OCLMemoryManager memoryManager;
@@ -81,6 +85,8 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
         this.oclEventPool = new OCLEventPool(EVENT_WINDOW);
         bufferProvider = new OCLBufferProvider(this);
         commandQueueTable = new ConcurrentHashMap<>();
+        outOfOrderExecutionPlans = ConcurrentHashMap.newKeySet();
+        selectedCommandQueues = new ConcurrentHashMap<>();
         this.device.setDeviceContext(this);
     }
 
@@ -132,11 +138,12 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
 
     @Override
     public void sync(long executionPlanId) {
-        OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
-        if (USE_SYNC_FLUSH) {
-            commandQueue.flush();
+        for (OCLCommandQueue commandQueue : getAllCommandQueues(executionPlanId)) {
+            if (USE_SYNC_FLUSH) {
+                commandQueue.flush();
+            }
+            commandQueue.finish();
         }
-        commandQueue.finish();
     }
 
     @Override
@@ -247,11 +254,57 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
     private OCLCommandQueue getCommandQueue(long executionPlanId) {
         if (!commandQueueTable.containsKey(executionPlanId)) {
             OCLTargetDevice device = context.devices().get(getDeviceIndex());
-            OCLCommandQueueTable oclCommandQueueTable = new OCLCommandQueueTable();
+            OCLCommandQueueTable oclCommandQueueTable = new OCLCommandQueueTable(outOfOrderExecutionPlans.contains(executionPlanId));
             oclCommandQueueTable.get(device, context);
             commandQueueTable.put(executionPlanId, oclCommandQueueTable);
         }
-        return commandQueueTable.get(executionPlanId).get(device, context);
+        return commandQueueTable.get(executionPlanId).get(device, context, selectedCommandQueues.getOrDefault(executionPlanId, 0));
+    }
+
+    private Collection<OCLCommandQueue> getAllCommandQueues(long executionPlanId) {
+        getCommandQueue(executionPlanId);
+        return commandQueueTable.get(executionPlanId).getCommandQueues(device);
+    }
+
+    /**
+     * Selects the command queue used by the following commands of an execution
+     * plan. Commands in different queues can run concurrently. Dependencies
+     * across queues must be expressed with event wait-lists.
+     *
+     * @param executionPlanId
+     *     Execution plan identifier.
+     * @param queueIndex
+     *     Index of the command queue.
+     */
+    @Override
+    public void selectCommandQueue(long executionPlanId, int queueIndex) {
+        selectedCommandQueues.put(executionPlanId, queueIndex);
+    }
+
+    /**
+     * Selects between in-order and out-of-order command queues for an
+     * execution plan. If the plan already owns command queues of the other
+     * kind, they are drained and released, and new queues are created lazily
+     * on the next command.
+     *
+     * @param executionPlanId
+     *     Execution plan identifier.
+     * @param enable
+     *     True to use out-of-order command queues.
+     */
+    @Override
+    public void setOutOfOrderExecution(long executionPlanId, boolean enable) {
+        boolean changed = enable ? outOfOrderExecutionPlans.add(executionPlanId) : outOfOrderExecutionPlans.remove(executionPlanId);
+        if (changed) {
+            OCLCommandQueueTable table = commandQueueTable.remove(executionPlanId);
+            if (table != null) {
+                table.cleanup();
+            }
+        }
+    }
+
+    public boolean isOutOfOrderExecution(long executionPlanId) {
+        return outOfOrderExecutionPlans.contains(executionPlanId);
     }
 
     public int enqueueWriteBuffer(long executionPlanId, long bufferId, long deviceOffset, long bytes, long hostPointer, long hostOffset, int[] waitEvents) {
@@ -262,6 +315,17 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
                 : null), EventDescriptor.DESC_WRITE_SEGMENT, commandQueue);
     }
 
+    /**
+     * It enqueues a copy between two buffers of the same OpenCL context. The
+     * buffers can belong to different devices of the context.
+     */
+    public int enqueueCopyBuffer(long executionPlanId, long srcBufferId, long srcOffset, long dstBufferId, long dstOffset, long bytes, int[] waitEvents) {
+        OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
+        return oclEventPool.registerEvent(commandQueue.enqueueCopyBuffer(srcBufferId, srcOffset, dstBufferId, dstOffset, bytes, oclEventPool.serialiseEvents(waitEvents, commandQueue)
+                ? oclEventPool.waitEventsBuffer
+                : null), EventDescriptor.DESC_COPY_BUFFER, commandQueue);
+    }
+
     /*
      * ASync reads from device
      *
@@ -537,8 +601,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
 
     @Override
     public void flush(long executionPlanId) {
-        OCLCommandQueue commandQueue = getCommandQueue(executionPlanId);
-        commandQueue.flush();
+        getAllCommandQueues(executionPlanId).forEach(OCLCommandQueue::flush);
     }
 
     public void finish(long executionPlanId) {
@@ -64,6 +64,10 @@ public interface OCLDeviceContextInterface extends TornadoDeviceContext {
 
     void sync(long executionPlanId);
 
+    void setOutOfOrderExecution(long executionPlanId, boolean enable);
+
+    void selectCommandQueue(long executionPlanId, int queueIndex);
+
     int enqueueBarrier(long executionPlanId);
 
     int enqueueBarrier(long executionPlanId, int[] events);
@@ -109,8 +109,9 @@ class OCLEventPool {
     }
 
     protected boolean serialiseEvents(int[] dependencies, OCLCommandQueue queue) {
+        // Wait-lists are also needed for in-order queues when dependencies span several queues of the device
         boolean outOfOrderQueue = (queue.getProperties() & CL_QUEUE_OUT_OF_ORDER_EXEC_MODE_ENABLE) == 1;
-        if (dependencies == null || dependencies.length == 0 || !outOfOrderQueue) {
+        if (dependencies == null || dependencies.length == 0 || !(outOfOrderQueue || queue.isSharingDependencies())) {
             return false;
         }
 
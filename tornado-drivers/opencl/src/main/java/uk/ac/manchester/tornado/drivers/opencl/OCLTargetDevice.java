@@ -59,4 +59,12 @@ public interface OCLTargetDevice extends TornadoTargetDevice {
     void setDeviceContext(OCLDeviceContextInterface deviceContext);
 
     int deviceVersion();
+
+    /**
+     * It checks whether the device can create command queues with
+     * {@code CL_QUEUE_OUT_OF_ORDER_EXEC_MODE_ENABLE}.
+     *
+     * @return true if out-of-order command queues are supported.
+     */
+    boolean isOutOfOrderQueueSupported();
 }
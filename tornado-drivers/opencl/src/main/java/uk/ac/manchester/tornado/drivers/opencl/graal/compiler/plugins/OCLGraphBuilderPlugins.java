@@ -39,6 +39,7 @@ import static uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLFPUnaryIntr
 import static uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLFPUnaryIntrinsicNode.Operation.TANH;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntBinaryIntrinsicNode.Operation.MAX;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntBinaryIntrinsicNode.Operation.MIN;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntBinaryIntrinsicNode.Operation.MUL_HI;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntUnaryIntrinsicNode.Operation.POPCOUNT;
 
 import java.lang.foreign.MemorySegment;
@@ -78,6 +79,8 @@ import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.TornadoVMIntrinsics;
 import uk.ac.manchester.tornado.api.exceptions.Debug;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.random.Philox;
+import uk.ac.manchester.tornado.drivers.common.compiler.plugins.MemorySegmentAccessNodePlugin;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLArchitecture;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.AtomicAddNodeTemplate;
@@ -119,6 +122,7 @@ public class OCLGraphBuilderPlugins {
         OCLHalfFloatPlugins.registerPlugins(ps, plugins);
 
         registerMemoryAccessPlugins(plugins);
+        ps.appendNodePlugin(new MemorySegmentAccessNodePlugin());
 
     }
 
@@ -548,6 +552,16 @@ public class OCLGraphBuilderPlugins {
                 return true;
             }
         });
+
+        // The counter-based generators compute the high word of products with mul_hi
+        Registration philoxReg = new Registration(plugins, Philox.class);
+        philoxReg.register(new InvocationPlugin("multiplyHigh", Integer.TYPE, Integer.TYPE) {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode x, ValueNode y) {
+                b.push(JavaKind.Int, b.append(OCLIntBinaryIntrinsicNode.create(x, y, MUL_HI, JavaKind.Int)));
+                return true;
+            }
+        });
     }
 
     private static void registerFPIntrinsics(Registration r) {
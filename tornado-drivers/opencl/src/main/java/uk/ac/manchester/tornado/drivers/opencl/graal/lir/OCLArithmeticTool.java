@@ -183,8 +183,15 @@ public class OCLArithmeticTool extends ArithmeticLIRGenerator {
 
     @Override
     public Value emitReinterpret(LIRKind lirKind, Value x) {
-        unimplemented();
-        return null;
+        Logger.traceBuildLIR(Logger.BACKEND.OpenCL, "emitReinterpret: (%s) %s", lirKind, x);
+        OCLUnaryIntrinsic op = switch ((OCLKind) lirKind.getPlatformKind()) {
+            case FLOAT -> OCLUnaryIntrinsic.AS_FLOAT;
+            case INT -> OCLUnaryIntrinsic.AS_INT;
+            case DOUBLE -> OCLUnaryIntrinsic.AS_DOUBLE;
+            case LONG -> OCLUnaryIntrinsic.AS_LONG;
+            default -> throw shouldNotReachHere("reinterpret to %s", lirKind);
+        };
+        return emitUnaryAssign(op, lirKind, x);
     }
 
     @Override
@@ -32,6 +32,7 @@ import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCL
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryIntrinsic.FLOAT_POW;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryIntrinsic.INT_MAX;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryIntrinsic.INT_MIN;
+import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLBinaryIntrinsic.INT_MUL_HI;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLTernaryIntrinsic.CLAMP;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.ABS;
 import static uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssembler.OCLUnaryIntrinsic.ACOS;
@@ -445,6 +446,11 @@ public class OCLBuiltinTool {
         return new OCLBinary.Intrinsic(INT_MAX, LIRKind.combine(x, y), x, y);
     }
 
+    public Value genIntMulHi(Value x, Value y) {
+        Logger.traceBuildLIR(Logger.BACKEND.OpenCL, "genMulHi: mul_hi(%s,%s)", x, y);
+        return new OCLBinary.Intrinsic(INT_MUL_HI, LIRKind.combine(x, y), x, y);
+    }
+
     public Value genIntMin(Value x, Value y) {
         Logger.traceBuildLIR(Logger.BACKEND.OpenCL, "genMin: min(%s,%s)", x, y);
         return new OCLBinary.Intrinsic(INT_MIN, LIRKind.combine(x, y), x, y);
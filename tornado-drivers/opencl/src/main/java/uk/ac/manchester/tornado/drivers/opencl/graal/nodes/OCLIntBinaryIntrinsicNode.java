@@ -87,6 +87,8 @@ public class OCLIntBinaryIntrinsicNode extends BinaryNode implements ArithmeticL
                 return Math.min(x, y);
             case MAX:
                 return Math.max(x, y);
+            case MUL_HI:
+                return Math.multiplyHigh(x, y);
             default:
                 throw new TornadoInternalError("unknown op %s", op);
         }
@@ -98,6 +100,8 @@ public class OCLIntBinaryIntrinsicNode extends BinaryNode implements ArithmeticL
                 return Math.min(x, y);
             case MAX:
                 return Math.max(x, y);
+            case MUL_HI:
+                return (int) (((long) x * y) >> 32);
             default:
                 throw new TornadoInternalError("unknown op %s", op);
         }
@@ -140,6 +144,9 @@ public class OCLIntBinaryIntrinsicNode extends BinaryNode implements ArithmeticL
             case MAX:
                 result = gen.genIntMax(x, y);
                 break;
+            case MUL_HI:
+                result = gen.genIntMulHi(x, y);
+                break;
             default:
                 throw shouldNotReachHere();
         }
@@ -105,6 +105,14 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * The header of a view of a native array overlaps the elements of its parent
+     * on the host, so it is not copied back.
+     */
+    private static long getViewHeaderSize(Object reference) {
+        return reference instanceof TornadoNativeArray nativeArray && nativeArray.isView() ? TornadoNativeArray.ARRAY_HEADER : 0;
+    }
+
     @Override
     public int read(long executionPlanId, final Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
         MemorySegment segment;
@@ -113,10 +121,13 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
         if (partialReadSize != 0) {
             // Partial Copy Out due to an under demand copy by the user
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
         } else if (batchSize <= 0) {
             // Partial Copy Out due to batch processing
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long viewHeaderSize = getViewHeaderSize(reference);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset + viewHeaderSize, numBytes - viewHeaderSize, segment.address(), hostOffset + viewHeaderSize, (useDeps)
+                    ? events
+                    : null);
         } else {
             // Full copy out (default)
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, numBytes, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps)
@@ -147,7 +158,9 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
 
         final int returnEvent;
         if (batchSize <= 0) {
-            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long viewHeaderSize = getViewHeaderSize(reference);
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset + viewHeaderSize, bufferSize - viewHeaderSize, segment.address(), hostOffset + viewHeaderSize,
+                    (useDeps) ? events : null);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for enqueueReadBuffer operation");
         }
@@ -24,6 +24,7 @@
 package uk.ac.manchester.tornado.drivers.opencl.runtime;
 
 import java.io.IOException;
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -51,6 +52,7 @@ import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.api.types.arrays.BFloat16Array;
 import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
 import uk.ac.manchester.tornado.api.types.arrays.CharArray;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
@@ -59,13 +61,16 @@ import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
 import uk.ac.manchester.tornado.drivers.opencl.OCLBackendImpl;
 import uk.ac.manchester.tornado.drivers.opencl.OCLCodeCache;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
+import uk.ac.manchester.tornado.drivers.opencl.OCLDevice;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContextInterface;
 import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDevice;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLMemFlags;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLInstalledCode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLProviders;
 import uk.ac.manchester.tornado.drivers.opencl.graal.backend.OCLBackend;
@@ -82,6 +87,7 @@ import uk.ac.manchester.tornado.drivers.opencl.mm.OCLLongArrayWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLMemorySegmentWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLMultiDimArrayWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLShortArrayWrapper;
+import uk.ac.manchester.tornado.drivers.opencl.mm.OCLSubBufferWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLVectorWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLXPUBuffer;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
@@ -105,6 +111,7 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
     private static OCLBackendImpl driver = null;
     private static boolean BENCHMARKING_MODE = Boolean.parseBoolean(System.getProperties().getProperty("tornado.benchmarking", "False"));
     private static final Pattern NAME_PATTERN = Pattern.compile("^OpenCL (\\d)\\.(\\d).*");
+    private static final long STAGING_BUFFER_ALIGNMENT = 4096;
     private final OCLTargetDevice device;
     private final int deviceIndex;
     private final int platformIndex;
@@ -545,6 +552,8 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
                 result = new OCLMemorySegmentWrapper(deviceContext, batchSize);
             } else if (object instanceof HalfFloatArray) {
                 result = new OCLMemorySegmentWrapper(deviceContext, batchSize);
+            } else if (object instanceof BFloat16Array) {
+                result = new OCLMemorySegmentWrapper(deviceContext, batchSize);
             } else {
                 result = new OCLXPUBuffer(deviceContext, object);
             }
@@ -649,6 +658,81 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    @Override
+    public int streamOutNonBlocking(long executionPlanId, Object object, long hostOffset, DeviceBufferState state, int[] events) {
+        if (state.isAtomicRegionPresent() || state.getPartialCopySize() > 0) {
+            return streamOutBlocking(executionPlanId, object, hostOffset, state, events);
+        }
+        TornadoInternalError.guarantee(state.hasObjectBuffer(), "invalid variable");
+        return state.getObjectBuffer().enqueueRead(executionPlanId, object, hostOffset, events, true);
+    }
+
+    /**
+     * Buffers of devices that share the OpenCL context are copied with
+     * clEnqueueCopyBuffer. Otherwise, the data is staged through off-heap host
+     * memory, without touching the host object.
+     */
+    @Override
+    public boolean copyBufferFromDevice(long executionPlanId, TornadoXPUDevice sourceDevice, DeviceBufferState sourceState, DeviceBufferState destinationState) {
+        if (!(sourceDevice instanceof OCLTornadoDevice oclSourceDevice) || !(oclSourceDevice.getDeviceContext() instanceof OCLDeviceContext sourceContext)
+                || !(getDeviceContext() instanceof OCLDeviceContext destinationContext)) {
+            return false;
+        }
+        if (sourceState.isAtomicRegionPresent() || !sourceState.hasObjectBuffer() || !destinationState.hasObjectBuffer()) {
+            return false;
+        }
+
+        final XPUBuffer source = sourceState.getObjectBuffer();
+        final XPUBuffer destination = destinationState.getObjectBuffer();
+        final long bytes = Math.min(source.size(), destination.size());
+
+        // All commands that write the source buffer must be finished
+        sourceContext.sync(executionPlanId);
+
+        final int event;
+        if (sourceContext.getPlatformContext() == destinationContext.getPlatformContext()) {
+            event = destinationContext.enqueueCopyBuffer(executionPlanId, source.toBuffer(), source.getBufferOffset(), destination.toBuffer(), destination.getBufferOffset(), bytes, null);
+            destinationContext.resolveEvent(executionPlanId, event).waitOn();
+        } else {
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment staging = arena.allocate(bytes, STAGING_BUFFER_ALIGNMENT);
+                sourceContext.readBuffer(executionPlanId, source.toBuffer(), source.getBufferOffset(), bytes, staging.address(), 0, null);
+                event = destinationContext.enqueueWriteBuffer(executionPlanId, destination.toBuffer(), destination.getBufferOffset(), bytes, staging.address(), 0, null);
+                destinationContext.resolveEvent(executionPlanId, event).waitOn();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Views of native arrays are backed by OpenCL sub-buffers. The origin of a
+     * sub-buffer must be aligned to {@code CL_DEVICE_MEM_BASE_ADDR_ALIGN}.
+     */
+    @Override
+    public boolean allocateSubBuffer(Object view, DeviceBufferState parentState, long offset, DeviceBufferState viewState) {
+        if (!(view instanceof TornadoNativeArray nativeArray) || !(getDeviceContext() instanceof OCLDeviceContext deviceContext)
+                || !(deviceContext.getDevice() instanceof OCLDevice oclDevice)) {
+            return false;
+        }
+        if (!parentState.hasObjectBuffer() || !(parentState.getObjectBuffer() instanceof OCLMemorySegmentWrapper parentBuffer) || parentBuffer.getBatchSize() > 0) {
+            return false;
+        }
+
+        final long origin = parentBuffer.getBufferOffset() + offset;
+        final long alignment = oclDevice.getDeviceMemoryBaseAlignment() / 8;
+        final long bytes = nativeArray.getNumBytesOfSegmentWithHeader();
+        if (alignment <= 0 || origin % alignment != 0 || origin + bytes > parentBuffer.getBufferOffset() + parentBuffer.size()) {
+            return false;
+        }
+
+        final long subBufferId = deviceContext.getPlatformContext().createSubBuffer(parentBuffer.toBuffer(), OCLMemFlags.CL_MEM_READ_WRITE, origin, bytes);
+        if (subBufferId == 0) {
+            return false;
+        }
+        viewState.setObjectBuffer(new OCLSubBufferWrapper(deviceContext, subBufferId, bytes));
+        return true;
+    }
+
     @Override
     public void flush(long executionPlanId) {
         this.getDeviceContext().flush(executionPlanId);
@@ -779,6 +863,21 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         reuseBuffer = bufferAtomics;
     }
 
+    @Override
+    public void setOutOfOrderExecution(long executionPlanId, boolean enable) {
+        getDeviceContext().setOutOfOrderExecution(executionPlanId, enable);
+    }
+
+    @Override
+    public boolean isMultipleCommandQueuesSupported() {
+        return true;
+    }
+
+    @Override
+    public void selectCommandQueue(long executionPlanId, int queueIndex) {
+        getDeviceContext().selectCommandQueue(executionPlanId, queueIndex);
+    }
+
     @Override
     public TornadoVMBackendType getTornadoVMBackend() {
         return TornadoVMBackendType.OPENCL;
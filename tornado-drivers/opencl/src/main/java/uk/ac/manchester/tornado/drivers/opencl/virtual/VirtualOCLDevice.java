@@ -203,6 +203,11 @@ public class VirtualOCLDevice implements OCLTargetDevice {
         return 0;
     }
 
+    @Override
+    public boolean isOutOfOrderQueueSupported() {
+        return false;
+    }
+
     public int getWordSize() {
         return getDeviceAddressBits() >> 3;
     }
@@ -123,6 +123,14 @@ public class VirtualOCLDeviceContext implements OCLDeviceContextInterface {
     public void sync(long executionPlanId) {
     }
 
+    @Override
+    public void setOutOfOrderExecution(long executionPlanId, boolean enable) {
+    }
+
+    @Override
+    public void selectCommandQueue(long executionPlanId, int queueIndex) {
+    }
+
     @Override
     public int enqueueBarrier(long executionPlanId) {
         return 0;
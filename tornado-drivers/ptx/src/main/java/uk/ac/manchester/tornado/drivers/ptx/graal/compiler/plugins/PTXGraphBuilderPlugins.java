@@ -72,6 +72,7 @@ import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.exceptions.Debug;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.drivers.common.compiler.plugins.MemorySegmentAccessNodePlugin;
 import uk.ac.manchester.tornado.drivers.ptx.graal.PTXArchitecture;
 import uk.ac.manchester.tornado.drivers.ptx.graal.lir.PTXKind;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.LocalArrayNode;
@@ -96,6 +97,7 @@ public class PTXGraphBuilderPlugins {
         PTXVectorPlugins.registerPlugins(ps, plugins);
         PTXHalfFloatPlugin.registerPlugins(ps, plugins);
         registerMemoryAccessPlugins(plugins);
+        ps.appendNodePlugin(new MemorySegmentAccessNodePlugin());
         registerKernelContextPlugins(plugins);
     }
 
@@ -171,8 +171,9 @@ public class PTXArithmeticTool extends ArithmeticLIRGenerator {
 
     @Override
     public Value emitReinterpret(LIRKind to, Value inputVal) {
-        unimplemented();
-        return null;
+        Logger.traceBuildLIR(Logger.BACKEND.PTX, "emitReinterpret to=%s inputVal=%s", to, inputVal);
+        // mov with an untyped destination copies the bits between registers of the same size
+        return emitUnaryAssign(PTXAssembler.PTXUnaryOp.MOV_BITS, to, inputVal);
     }
 
     @Override
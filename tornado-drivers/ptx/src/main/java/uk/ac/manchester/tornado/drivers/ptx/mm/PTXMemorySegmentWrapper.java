@@ -102,6 +102,14 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * The header of a view of a native array overlaps the elements of its parent
+     * on the host, so it is not copied back.
+     */
+    private static long getViewHeaderSize(Object reference) {
+        return reference instanceof TornadoNativeArray nativeArray && nativeArray.isView() ? TornadoNativeArray.ARRAY_HEADER : 0;
+    }
+
     @Override
 
     public int read(long executionPlanId, final Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
@@ -111,9 +119,10 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
         if (partialReadSize != 0) {
             // Partial Copy Out due to a copy under demand copy by the user
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + hostOffset, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
         } else if (batchSize <= 0) {
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), numBytes, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long viewHeaderSize = getViewHeaderSize(reference);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + viewHeaderSize, numBytes - viewHeaderSize, segment.address(), hostOffset + viewHeaderSize, (useDeps) ? events : null);
         } else {
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, numBytes, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps)
                     ? events
@@ -140,7 +149,10 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
 
         final int returnEvent;
         if (batchSize <= 0) {
-            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long viewHeaderSize = getViewHeaderSize(reference);
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + viewHeaderSize, bufferSize - viewHeaderSize, segment.address(), hostOffset + viewHeaderSize, (useDeps)
+                    ? events
+                    : null);
         } else {
             returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, bufferSize - TornadoNativeArray.ARRAY_HEADER, segment.address(), hostOffset,
                     (useDeps) ? events : null);
@@ -215,6 +227,10 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         this.setSubRegionSize = batchSize;
     }
 
+    public long getBatchSize() {
+        return batchSize;
+    }
+
     @Override
     public int[] getIntBuffer() {
         return XPUBuffer.super.getIntBuffer();
@@ -0,0 +1,153 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * School of Engineering, The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.ptx.mm;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
+import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.drivers.ptx.PTXDeviceContext;
+import uk.ac.manchester.tornado.runtime.common.exceptions.TornadoUnsupportedError;
+
+/**
+ * Device buffer of a view of a native array. It is the device pointer of the
+ * array that owns the memory plus the offset of the view, so it starts with the
+ * header of the view, followed by the elements. The memory is owned by the
+ * parent buffer, and it is not released with the view.
+ *
+ * <p>
+ * The header of the view overlaps the elements that precede the view in the
+ * parent buffer. Therefore, the transfers only copy the elements of the view,
+ * and the header is never written.
+ * </p>
+ */
+public class PTXSubBufferWrapper implements XPUBuffer {
+
+    private final PTXDeviceContext deviceContext;
+    private final long bufferId;
+    private final long bufferSize;
+    private long subRegionSize;
+
+    public PTXSubBufferWrapper(PTXDeviceContext deviceContext, long bufferId, long bufferSize) {
+        this.deviceContext = deviceContext;
+        this.bufferId = bufferId;
+        this.bufferSize = bufferSize;
+    }
+
+    private long getNumBytesOfElements() {
+        return bufferSize - TornadoNativeArray.ARRAY_HEADER;
+    }
+
+    private MemorySegment getSegmentWithHeader(Object reference) {
+        if (reference instanceof TornadoNativeArray nativeArray) {
+            return nativeArray.getSegmentWithHeader();
+        }
+        throw new TornadoMemoryException(STR."Sub-buffers are only supported for native arrays: \{reference.getClass()}");
+    }
+
+    @Override
+    public long toBuffer() {
+        return bufferId;
+    }
+
+    @Override
+    public void setBuffer(XPUBufferWrapper bufferWrapper) {
+        throw new TornadoUnsupportedError("[UNSUPPORTED] sub-buffers cannot be placed in another buffer");
+    }
+
+    @Override
+    public long getBufferOffset() {
+        return 0;
+    }
+
+    @Override
+    public void read(long executionPlanId, Object reference) {
+        read(executionPlanId, reference, 0, 0, null, false);
+    }
+
+    @Override
+    public int read(long executionPlanId, Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
+        MemorySegment segment = getSegmentWithHeader(reference);
+        if (partialReadSize != 0) {
+            // Partial Copy Out due to a copy under demand copy by the user
+            return deviceContext.readBuffer(executionPlanId, toBuffer() + hostOffset, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
+        }
+        return deviceContext.readBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, getNumBytesOfElements(), segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER,
+                (useDeps) ? events : null);
+    }
+
+    @Override
+    public void write(long executionPlanId, Object reference) {
+        MemorySegment segment = getSegmentWithHeader(reference);
+        deviceContext.writeBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, getNumBytesOfElements(), segment.address(), TornadoNativeArray.ARRAY_HEADER, null);
+    }
+
+    @Override
+    public int enqueueRead(long executionPlanId, Object reference, long hostOffset, int[] events, boolean useDeps) {
+        MemorySegment segment = getSegmentWithHeader(reference);
+        final int returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, getNumBytesOfElements(), segment.address(), hostOffset
+                + TornadoNativeArray.ARRAY_HEADER, (useDeps) ? events : null);
+        return useDeps ? returnEvent : -1;
+    }
+
+    @Override
+    public List<Integer> enqueueWrite(long executionPlanId, Object reference, long batchSize, long hostOffset, int[] events, boolean useDeps) {
+        if (batchSize > 0) {
+            throw new TornadoUnsupportedError("[UNSUPPORTED] Batch processing for sub-buffers");
+        }
+        MemorySegment segment = getSegmentWithHeader(reference);
+        List<Integer> returnEvents = new ArrayList<>();
+        returnEvents.add(deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, getNumBytesOfElements(), segment.address(), hostOffset
+                + TornadoNativeArray.ARRAY_HEADER, (useDeps) ? events : null));
+        return useDeps ? returnEvents : null;
+    }
+
+    @Override
+    public void allocate(Object reference, long batchSize) {
+        // The memory belongs to the parent buffer
+    }
+
+    @Override
+    public void deallocate() {
+        // The memory is released with the parent buffer
+    }
+
+    @Override
+    public long size() {
+        return bufferSize;
+    }
+
+    @Override
+    public void setSizeSubRegion(long batchSize) {
+        this.subRegionSize = batchSize;
+    }
+
+    @Override
+    public long getSizeSubRegionSize() {
+        return subRegionSize;
+    }
+}
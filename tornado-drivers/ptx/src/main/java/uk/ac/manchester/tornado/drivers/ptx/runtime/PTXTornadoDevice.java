@@ -50,6 +50,7 @@ import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.api.types.arrays.BFloat16Array;
 import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
 import uk.ac.manchester.tornado.api.types.arrays.CharArray;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
@@ -58,6 +59,7 @@ import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
 import uk.ac.manchester.tornado.drivers.ptx.PTX;
 import uk.ac.manchester.tornado.drivers.ptx.PTXBackendImpl;
@@ -78,6 +80,7 @@ import uk.ac.manchester.tornado.drivers.ptx.mm.PTXMemorySegmentWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXMultiDimArrayWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXObjectWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXShortArrayWrapper;
+import uk.ac.manchester.tornado.drivers.ptx.mm.PTXSubBufferWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
@@ -277,6 +280,8 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
                 result = new PTXMemorySegmentWrapper(getDeviceContext(), batchSize);
             } else if (object instanceof HalfFloatArray) {
                 result = new PTXMemorySegmentWrapper(getDeviceContext(), batchSize);
+            } else if (object instanceof BFloat16Array) {
+                result = new PTXMemorySegmentWrapper(getDeviceContext(), batchSize);
             } else {
                 result = new PTXObjectWrapper(getDeviceContext(), object);
             }
@@ -537,6 +542,26 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
         return hash;
     }
 
+    /**
+     * Views of native arrays are backed by the device pointer of the parent
+     * buffer plus the offset of the view.
+     */
+    @Override
+    public boolean allocateSubBuffer(Object view, DeviceBufferState parentState, long offset, DeviceBufferState viewState) {
+        if (!(view instanceof TornadoNativeArray nativeArray)) {
+            return false;
+        }
+        if (!parentState.hasObjectBuffer() || !(parentState.getObjectBuffer() instanceof PTXMemorySegmentWrapper parentBuffer) || parentBuffer.getBatchSize() > 0) {
+            return false;
+        }
+        final long bytes = nativeArray.getNumBytesOfSegmentWithHeader();
+        if (offset + bytes > parentBuffer.size()) {
+            return false;
+        }
+        viewState.setObjectBuffer(new PTXSubBufferWrapper(getDeviceContext(), parentBuffer.toBuffer() + parentBuffer.getBufferOffset() + offset, bytes));
+        return true;
+    }
+
     @Override
     public void flush(long executionPlanId) {
         getDeviceContext().flush(executionPlanId);
@@ -357,7 +357,11 @@ public class SPIRVArithmeticTool extends ArithmeticLIRGenerator {
 
     @Override
     public Value emitReinterpret(LIRKind to, Value inputVal) {
-        return null;
+        Logger.traceBuildLIR(Logger.BACKEND.SPIRV, "emitReinterpret: %s -> %s", inputVal, to);
+        final Variable result = getGen().newVariable(to);
+        SPIRVUnary.CastBits castBits = new SPIRVUnary.CastBits(to, result, inputVal, (SPIRVKind) to.getPlatformKind());
+        getGen().append(new SPIRVLIRStmt.AssignStmt(result, castBits));
+        return result;
     }
 
     @Override
@@ -68,6 +68,7 @@ import jdk.vm.ci.meta.JavaKind;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.drivers.common.compiler.plugins.MemorySegmentAccessNodePlugin;
 import uk.ac.manchester.tornado.drivers.common.logging.Logger;
 import uk.ac.manchester.tornado.drivers.spirv.graal.SPIRVArchitecture;
 import uk.ac.manchester.tornado.drivers.spirv.graal.lir.SPIRVKind;
@@ -112,6 +113,7 @@ public class SPIRVGraphBuilderPlugins {
         SPIRVHalfFloatPlugins.registerPlugins(plugins, invocationPlugins);
         // Register plugins for Off-Heap Arrays with Panama
         registerMemoryAccessPlugins(invocationPlugins);
+        plugins.appendNodePlugin(new MemorySegmentAccessNodePlugin());
     }
 
     private static void registerOpenCLBuiltinPlugins(InvocationPlugins plugins) {
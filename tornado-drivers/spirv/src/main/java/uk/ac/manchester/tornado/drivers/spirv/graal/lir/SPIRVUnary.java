@@ -35,6 +35,7 @@ import jdk.vm.ci.meta.AllocatableValue;
 import jdk.vm.ci.meta.Local;
 import jdk.vm.ci.meta.Value;
 import uk.ac.manchester.beehivespirvtoolkit.lib.SPIRVInstScope;
+import uk.ac.manchester.beehivespirvtoolkit.lib.instructions.SPIRVOpBitcast;
 import uk.ac.manchester.beehivespirvtoolkit.lib.instructions.SPIRVOpCompositeExtract;
 import uk.ac.manchester.beehivespirvtoolkit.lib.instructions.SPIRVOpControlBarrier;
 import uk.ac.manchester.beehivespirvtoolkit.lib.instructions.SPIRVOpConvertFToS;
@@ -871,6 +872,33 @@ public class SPIRVUnary {
         }
     }
 
+    public static class CastBits extends CastOperations {
+
+        private SPIRVKind toType;
+
+        public CastBits(LIRKind lirKind, Variable result, Value inputVal, SPIRVKind toType) {
+            super(null, result, lirKind, inputVal);
+            this.toType = toType;
+        }
+
+        @Override
+        public void emit(SPIRVCompilationResultBuilder crb, SPIRVAssembler asm) {
+
+            Logger.traceCodeGen(Logger.BACKEND.SPIRV, "emit SPIRVOpBitcast from " + value.getPlatformKind() + " -> " + toType);
+
+            SPIRVId fromTypeID = asm.primitives.getTypePrimitive((SPIRVKind) value.getPlatformKind());
+            SPIRVId toTypeId = asm.primitives.getTypePrimitive(toType);
+
+            SPIRVId loadConvert = loadConvertIfNeeded(crb, asm, fromTypeID, (SPIRVKind) value.getPlatformKind());
+
+            // OpBitcast
+            SPIRVId result = obtainPhiValueIdIfNeeded(asm);
+            asm.currentBlockScope().add(new SPIRVOpBitcast(toTypeId, result, loadConvert));
+
+            asm.registerLIRInstructionValue(this, result);
+        }
+    }
+
     public static class CastFloatToLong extends CastOperations {
 
         private SPIRVKind toType;
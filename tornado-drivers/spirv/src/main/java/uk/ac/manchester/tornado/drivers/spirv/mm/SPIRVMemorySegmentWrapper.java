@@ -107,6 +107,14 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * The header of a view of a native array overlaps the elements of its parent
+     * on the host, so it is not copied back.
+     */
+    private static long getViewHeaderSize(Object reference) {
+        return reference instanceof TornadoNativeArray nativeArray && nativeArray.isView() ? TornadoNativeArray.ARRAY_HEADER : 0;
+    }
+
     @Override
     public int read(long executionPlanId, Object reference, long hostOffset, long partialReadSize, int[] waitEvents, boolean useDeps) {
         MemorySegment segment = getSegmentWithHeader(reference);
@@ -115,10 +123,11 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
 
         if (partialReadSize != 0) {
             // Partial Copy Out due to a copy under demand copy by the user
-            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, partialReadSize, segment.address(), hostOffset, waitEvents);
+            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset, partialReadSize, segment.address(), hostOffset, waitEvents);
         } else if (batchSize <= 0) {
             // Partial Copy Out due to batch processing
-            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, waitEvents);
+            final long viewHeaderSize = getViewHeaderSize(reference);
+            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset + viewHeaderSize, numBytes - viewHeaderSize, segment.address(), hostOffset + viewHeaderSize, waitEvents);
         } else {
             // Full copy out (default)
             returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, numBytes, segment.address(),
@@ -143,7 +152,9 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         final int returnEvent;
         final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
         if (batchSize <= 0) {
-            returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, waitEvents);
+            final long viewHeaderSize = getViewHeaderSize(reference);
+            returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset + viewHeaderSize, numBytes - viewHeaderSize, segment.address(), hostOffset + viewHeaderSize,
+                    waitEvents);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for enqueueReadBuffer operation");
         }
@@ -44,6 +44,7 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.api.internal.annotations.Vector;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
+import uk.ac.manchester.tornado.api.types.arrays.BFloat16Array;
 import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
 import uk.ac.manchester.tornado.api.types.arrays.CharArray;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
@@ -147,6 +148,10 @@ public class SPIRVObjectWrapper implements XPUBuffer {
                 Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
                 long sizeInBytes = ((HalfFloatArray) objectFromField).getSegmentWithHeader().byteSize();
                 wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0);
+            } else if (type == BFloat16Array.class) {
+                Object objectFromField = TornadoUtils.getObjectFromField(reflectedField, object);
+                long sizeInBytes = ((BFloat16Array) objectFromField).getSegmentWithHeader().byteSize();
+                wrappedField = new SPIRVMemorySegmentWrapper(sizeInBytes, deviceContext, 0);
             } else if (object.getClass().getAnnotation(Vector.class) != null) {
                 wrappedField = new SPIRVVectorWrapper(deviceContext, object, 0);
             } else if (field.getJavaKind().isObject()) {
@@ -0,0 +1,618 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.matrix;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.QuantizedInt8Array;
+
+/**
+ * Tuned {@link KernelContext} kernels of matrix-matrix (GEMM) and matrix-vector
+ * (GEMV) multiplications, for FP32, FP16 and int8 quantized matrices. The
+ * matrices are stored by rows, and {@code C} and {@code y} are always FP32.
+ *
+ * <p>
+ * The GEMM kernels load tiles of {@code A} and {@code B} into local memory, and
+ * each thread computes several rows of a column of {@code C} in registers, so
+ * each value of {@code B} read from local memory is used several times. The
+ * size of the local arrays must be a constant, so there is one kernel per tile
+ * size. The work-groups have {@code TILE x (TILE / WORK_PER_THREAD)} threads,
+ * and the matrices can have any size.
+ * </p>
+ *
+ * <p>
+ * {@link GemmTasks} selects the kernel and the grid for a device, and adds the
+ * tasks to a task graph.
+ * </p>
+ */
+public final class GemmKernels {
+
+    /**
+     * Tile size of the GEMM kernels for small devices or matrices.
+     */
+    public static final int SMALL_TILE = 16;
+
+    /**
+     * Rows of {@code C} computed by each thread with {@link #SMALL_TILE}.
+     */
+    public static final int SMALL_WORK_PER_THREAD = 4;
+
+    /**
+     * Tile size of the GEMM kernels for large matrices.
+     */
+    public static final int LARGE_TILE = 32;
+
+    /**
+     * Rows of {@code C} computed by each thread with {@link #LARGE_TILE}.
+     */
+    public static final int LARGE_WORK_PER_THREAD = 8;
+
+    /**
+     * Maximum local size of the GEMV kernels.
+     */
+    public static final int GEMV_MAX_LOCAL_SIZE = 256;
+
+    private static final int SMALL_ROWS = SMALL_TILE / SMALL_WORK_PER_THREAD;
+
+    private static final int LARGE_ROWS = LARGE_TILE / LARGE_WORK_PER_THREAD;
+
+    private GemmKernels() {
+    }
+
+    /**
+     * Computes {@code C = A * B} with FP32 matrices,
+     * using {@value #SMALL_TILE} x {@value #SMALL_TILE} tiles in local memory and
+     * {@value #SMALL_WORK_PER_THREAD} rows of {@code C} per thread.
+     *
+     * @param context
+     *     Context of the kernel.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param b
+     *     Matrix {@code B}, with {@code k x n} elements by rows.
+     * @param c
+     *     Matrix {@code C}, with {@code m x n} elements by rows.
+     * @param m
+     *     Number of rows of {@code A} and {@code C}.
+     * @param n
+     *     Number of columns of {@code B} and {@code C}.
+     * @param k
+     *     Number of columns of {@code A} and rows of {@code B}.
+     */
+    public static void sgemmTile16(KernelContext context, FloatArray a, FloatArray b, FloatArray c, int m, int n, int k) {
+        int col = context.localIdx;
+        int row = context.localIdy;
+        int globalCol = context.groupIdx * SMALL_TILE + col;
+        int firstRow = context.groupIdy * SMALL_TILE + row;
+
+        float[] aTile = context.allocateFloatLocalArray(SMALL_TILE * SMALL_TILE);
+        float[] bTile = context.allocateFloatLocalArray(SMALL_TILE * SMALL_TILE);
+        float[] sums = new float[SMALL_WORK_PER_THREAD];
+        for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+            sums[w] = 0.0f;
+        }
+
+        int numTiles = (k + SMALL_TILE - 1) / SMALL_TILE;
+        for (int tile = 0; tile < numTiles; tile++) {
+            // Each thread loads the elements of its rows, which are zero outside the matrices
+            int tiledCol = tile * SMALL_TILE + col;
+            for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+                int tileRow = row + w * SMALL_ROWS;
+                int globalRow = firstRow + w * SMALL_ROWS;
+                int tiledRow = tile * SMALL_TILE + tileRow;
+                aTile[tileRow * SMALL_TILE + col] = (globalRow < m && tiledCol < k) ? a.get(globalRow * k + tiledCol) : 0.0f;
+                bTile[tileRow * SMALL_TILE + col] = (tiledRow < k && globalCol < n) ? b.get(tiledRow * n + globalCol) : 0.0f;
+            }
+            context.localBarrier();
+
+            // Each value of B read from local memory is reused for all the rows of the thread
+            for (int i = 0; i < SMALL_TILE; i++) {
+                float bValue = bTile[i * SMALL_TILE + col];
+                for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+                    sums[w] += aTile[(row + w * SMALL_ROWS) * SMALL_TILE + i] * bValue;
+                }
+            }
+            context.localBarrier();
+        }
+
+        for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+            int globalRow = firstRow + w * SMALL_ROWS;
+            if (globalRow < m && globalCol < n) {
+                c.set(globalRow * n + globalCol, sums[w]);
+            }
+        }
+    }
+
+    /**
+     * Computes {@code C = A * B} with FP32 matrices,
+     * using {@value #LARGE_TILE} x {@value #LARGE_TILE} tiles in local memory and
+     * {@value #LARGE_WORK_PER_THREAD} rows of {@code C} per thread.
+     *
+     * @param context
+     *     Context of the kernel.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param b
+     *     Matrix {@code B}, with {@code k x n} elements by rows.
+     * @param c
+     *     Matrix {@code C}, with {@code m x n} elements by rows.
+     * @param m
+     *     Number of rows of {@code A} and {@code C}.
+     * @param n
+     *     Number of columns of {@code B} and {@code C}.
+     * @param k
+     *     Number of columns of {@code A} and rows of {@code B}.
+     */
+    public static void sgemmTile32(KernelContext context, FloatArray a, FloatArray b, FloatArray c, int m, int n, int k) {
+        int col = context.localIdx;
+        int row = context.localIdy;
+        int globalCol = context.groupIdx * LARGE_TILE + col;
+        int firstRow = context.groupIdy * LARGE_TILE + row;
+
+        float[] aTile = context.allocateFloatLocalArray(LARGE_TILE * LARGE_TILE);
+        float[] bTile = context.allocateFloatLocalArray(LARGE_TILE * LARGE_TILE);
+        float[] sums = new float[LARGE_WORK_PER_THREAD];
+        for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+            sums[w] = 0.0f;
+        }
+
+        int numTiles = (k + LARGE_TILE - 1) / LARGE_TILE;
+        for (int tile = 0; tile < numTiles; tile++) {
+            // Each thread loads the elements of its rows, which are zero outside the matrices
+            int tiledCol = tile * LARGE_TILE + col;
+            for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+                int tileRow = row + w * LARGE_ROWS;
+                int globalRow = firstRow + w * LARGE_ROWS;
+                int tiledRow = tile * LARGE_TILE + tileRow;
+                aTile[tileRow * LARGE_TILE + col] = (globalRow < m && tiledCol < k) ? a.get(globalRow * k + tiledCol) : 0.0f;
+                bTile[tileRow * LARGE_TILE + col] = (tiledRow < k && globalCol < n) ? b.get(tiledRow * n + globalCol) : 0.0f;
+            }
+            context.localBarrier();
+
+            // Each value of B read from local memory is reused for all the rows of the thread
+            for (int i = 0; i < LARGE_TILE; i++) {
+                float bValue = bTile[i * LARGE_TILE + col];
+                for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+                    sums[w] += aTile[(row + w * LARGE_ROWS) * LARGE_TILE + i] * bValue;
+                }
+            }
+            context.localBarrier();
+        }
+
+        for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+            int globalRow = firstRow + w * LARGE_ROWS;
+            if (globalRow < m && globalCol < n) {
+                c.set(globalRow * n + globalCol, sums[w]);
+            }
+        }
+    }
+
+    /**
+     * Computes {@code C = A * B} with FP16 matrices and FP32 accumulation,
+     * using {@value #SMALL_TILE} x {@value #SMALL_TILE} tiles in local memory and
+     * {@value #SMALL_WORK_PER_THREAD} rows of {@code C} per thread.
+     *
+     * @param context
+     *     Context of the kernel.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param b
+     *     Matrix {@code B}, with {@code k x n} elements by rows.
+     * @param c
+     *     Matrix {@code C}, with {@code m x n} elements by rows.
+     * @param m
+     *     Number of rows of {@code A} and {@code C}.
+     * @param n
+     *     Number of columns of {@code B} and {@code C}.
+     * @param k
+     *     Number of columns of {@code A} and rows of {@code B}.
+     */
+    public static void hgemmTile16(KernelContext context, HalfFloatArray a, HalfFloatArray b, FloatArray c, int m, int n, int k) {
+        int col = context.localIdx;
+        int row = context.localIdy;
+        int globalCol = context.groupIdx * SMALL_TILE + col;
+        int firstRow = context.groupIdy * SMALL_TILE + row;
+
+        float[] aTile = context.allocateFloatLocalArray(SMALL_TILE * SMALL_TILE);
+        float[] bTile = context.allocateFloatLocalArray(SMALL_TILE * SMALL_TILE);
+        float[] sums = new float[SMALL_WORK_PER_THREAD];
+        for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+            sums[w] = 0.0f;
+        }
+
+        int numTiles = (k + SMALL_TILE - 1) / SMALL_TILE;
+        for (int tile = 0; tile < numTiles; tile++) {
+            // Each thread loads the elements of its rows, which are zero outside the matrices
+            int tiledCol = tile * SMALL_TILE + col;
+            for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+                int tileRow = row + w * SMALL_ROWS;
+                int globalRow = firstRow + w * SMALL_ROWS;
+                int tiledRow = tile * SMALL_TILE + tileRow;
+                aTile[tileRow * SMALL_TILE + col] = (globalRow < m && tiledCol < k) ? a.getFloat(globalRow * k + tiledCol) : 0.0f;
+                bTile[tileRow * SMALL_TILE + col] = (tiledRow < k && globalCol < n) ? b.getFloat(tiledRow * n + globalCol) : 0.0f;
+            }
+            context.localBarrier();
+
+            // Each value of B read from local memory is reused for all the rows of the thread
+            for (int i = 0; i < SMALL_TILE; i++) {
+                float bValue = bTile[i * SMALL_TILE + col];
+                for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+                    sums[w] += aTile[(row + w * SMALL_ROWS) * SMALL_TILE + i] * bValue;
+                }
+            }
+            context.localBarrier();
+        }
+
+        for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+            int globalRow = firstRow + w * SMALL_ROWS;
+            if (globalRow < m && globalCol < n) {
+                c.set(globalRow * n + globalCol, sums[w]);
+            }
+        }
+    }
+
+    /**
+     * Computes {@code C = A * B} with FP16 matrices and FP32 accumulation,
+     * using {@value #LARGE_TILE} x {@value #LARGE_TILE} tiles in local memory and
+     * {@value #LARGE_WORK_PER_THREAD} rows of {@code C} per thread.
+     *
+     * @param context
+     *     Context of the kernel.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param b
+     *     Matrix {@code B}, with {@code k x n} elements by rows.
+     * @param c
+     *     Matrix {@code C}, with {@code m x n} elements by rows.
+     * @param m
+     *     Number of rows of {@code A} and {@code C}.
+     * @param n
+     *     Number of columns of {@code B} and {@code C}.
+     * @param k
+     *     Number of columns of {@code A} and rows of {@code B}.
+     */
+    public static void hgemmTile32(KernelContext context, HalfFloatArray a, HalfFloatArray b, FloatArray c, int m, int n, int k) {
+        int col = context.localIdx;
+        int row = context.localIdy;
+        int globalCol = context.groupIdx * LARGE_TILE + col;
+        int firstRow = context.groupIdy * LARGE_TILE + row;
+
+        float[] aTile = context.allocateFloatLocalArray(LARGE_TILE * LARGE_TILE);
+        float[] bTile = context.allocateFloatLocalArray(LARGE_TILE * LARGE_TILE);
+        float[] sums = new float[LARGE_WORK_PER_THREAD];
+        for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+            sums[w] = 0.0f;
+        }
+
+        int numTiles = (k + LARGE_TILE - 1) / LARGE_TILE;
+        for (int tile = 0; tile < numTiles; tile++) {
+            // Each thread loads the elements of its rows, which are zero outside the matrices
+            int tiledCol = tile * LARGE_TILE + col;
+            for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+                int tileRow = row + w * LARGE_ROWS;
+                int globalRow = firstRow + w * LARGE_ROWS;
+                int tiledRow = tile * LARGE_TILE + tileRow;
+                aTile[tileRow * LARGE_TILE + col] = (globalRow < m && tiledCol < k) ? a.getFloat(globalRow * k + tiledCol) : 0.0f;
+                bTile[tileRow * LARGE_TILE + col] = (tiledRow < k && globalCol < n) ? b.getFloat(tiledRow * n + globalCol) : 0.0f;
+            }
+            context.localBarrier();
+
+            // Each value of B read from local memory is reused for all the rows of the thread
+            for (int i = 0; i < LARGE_TILE; i++) {
+                float bValue = bTile[i * LARGE_TILE + col];
+                for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+                    sums[w] += aTile[(row + w * LARGE_ROWS) * LARGE_TILE + i] * bValue;
+                }
+            }
+            context.localBarrier();
+        }
+
+        for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+            int globalRow = firstRow + w * LARGE_ROWS;
+            if (globalRow < m && globalCol < n) {
+                c.set(globalRow * n + globalCol, sums[w]);
+            }
+        }
+    }
+
+    /**
+     * Computes {@code C = A * B} with an int8 quantized matrix {@code A},
+     * using {@value #SMALL_TILE} x {@value #SMALL_TILE} tiles in local memory and
+     * {@value #SMALL_WORK_PER_THREAD} rows of {@code C} per thread.
+     *
+     * @param context
+     *     Context of the kernel.
+     * @param quants
+     *     Packed values of matrix {@code A}, quantized by rows as a
+     *     {@link QuantizedInt8Array} with {@code m x k} elements.
+     * @param scales
+     *     Scales of the blocks of matrix {@code A}.
+     * @param b
+     *     Matrix {@code B}, with {@code k x n} elements by rows.
+     * @param c
+     *     Matrix {@code C}, with {@code m x n} elements by rows.
+     * @param m
+     *     Number of rows of {@code A} and {@code C}.
+     * @param n
+     *     Number of columns of {@code B} and {@code C}.
+     * @param k
+     *     Number of columns of {@code A} and rows of {@code B}.
+     */
+    public static void qgemmTile16(KernelContext context, IntArray quants, FloatArray scales, FloatArray b, FloatArray c, int m, int n, int k) {
+        int col = context.localIdx;
+        int row = context.localIdy;
+        int globalCol = context.groupIdx * SMALL_TILE + col;
+        int firstRow = context.groupIdy * SMALL_TILE + row;
+
+        float[] aTile = context.allocateFloatLocalArray(SMALL_TILE * SMALL_TILE);
+        float[] bTile = context.allocateFloatLocalArray(SMALL_TILE * SMALL_TILE);
+        float[] sums = new float[SMALL_WORK_PER_THREAD];
+        for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+            sums[w] = 0.0f;
+        }
+
+        int numTiles = (k + SMALL_TILE - 1) / SMALL_TILE;
+        for (int tile = 0; tile < numTiles; tile++) {
+            // Each thread loads the elements of its rows, which are zero outside the matrices
+            int tiledCol = tile * SMALL_TILE + col;
+            for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+                int tileRow = row + w * SMALL_ROWS;
+                int globalRow = firstRow + w * SMALL_ROWS;
+                int tiledRow = tile * SMALL_TILE + tileRow;
+                aTile[tileRow * SMALL_TILE + col] = (globalRow < m && tiledCol < k) ? QuantizedInt8Array.dequantize(quants, scales, globalRow * k + tiledCol) : 0.0f;
+                bTile[tileRow * SMALL_TILE + col] = (tiledRow < k && globalCol < n) ? b.get(tiledRow * n + globalCol) : 0.0f;
+            }
+            context.localBarrier();
+
+            // Each value of B read from local memory is reused for all the rows of the thread
+            for (int i = 0; i < SMALL_TILE; i++) {
+                float bValue = bTile[i * SMALL_TILE + col];
+                for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+                    sums[w] += aTile[(row + w * SMALL_ROWS) * SMALL_TILE + i] * bValue;
+                }
+            }
+            context.localBarrier();
+        }
+
+        for (int w = 0; w < SMALL_WORK_PER_THREAD; w++) {
+            int globalRow = firstRow + w * SMALL_ROWS;
+            if (globalRow < m && globalCol < n) {
+                c.set(globalRow * n + globalCol, sums[w]);
+            }
+        }
+    }
+
+    /**
+     * Computes {@code C = A * B} with an int8 quantized matrix {@code A},
+     * using {@value #LARGE_TILE} x {@value #LARGE_TILE} tiles in local memory and
+     * {@value #LARGE_WORK_PER_THREAD} rows of {@code C} per thread.
+     *
+     * @param context
+     *     Context of the kernel.
+     * @param quants
+     *     Packed values of matrix {@code A}, quantized by rows as a
+     *     {@link QuantizedInt8Array} with {@code m x k} elements.
+     * @param scales
+     *     Scales of the blocks of matrix {@code A}.
+     * @param b
+     *     Matrix {@code B}, with {@code k x n} elements by rows.
+     * @param c
+     *     Matrix {@code C}, with {@code m x n} elements by rows.
+     * @param m
+     *     Number of rows of {@code A} and {@code C}.
+     * @param n
+     *     Number of columns of {@code B} and {@code C}.
+     * @param k
+     *     Number of columns of {@code A} and rows of {@code B}.
+     */
+    public static void qgemmTile32(KernelContext context, IntArray quants, FloatArray scales, FloatArray b, FloatArray c, int m, int n, int k) {
+        int col = context.localIdx;
+        int row = context.localIdy;
+        int globalCol = context.groupIdx * LARGE_TILE + col;
+        int firstRow = context.groupIdy * LARGE_TILE + row;
+
+        float[] aTile = context.allocateFloatLocalArray(LARGE_TILE * LARGE_TILE);
+        float[] bTile = context.allocateFloatLocalArray(LARGE_TILE * LARGE_TILE);
+        float[] sums = new float[LARGE_WORK_PER_THREAD];
+        for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+            sums[w] = 0.0f;
+        }
+
+        int numTiles = (k + LARGE_TILE - 1) / LARGE_TILE;
+        for (int tile = 0; tile < numTiles; tile++) {
+            // Each thread loads the elements of its rows, which are zero outside the matrices
+            int tiledCol = tile * LARGE_TILE + col;
+            for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+                int tileRow = row + w * LARGE_ROWS;
+                int globalRow = firstRow + w * LARGE_ROWS;
+                int tiledRow = tile * LARGE_TILE + tileRow;
+                aTile[tileRow * LARGE_TILE + col] = (globalRow < m && tiledCol < k) ? QuantizedInt8Array.dequantize(quants, scales, globalRow * k + tiledCol) : 0.0f;
+                bTile[tileRow * LARGE_TILE + col] = (tiledRow < k && globalCol < n) ? b.get(tiledRow * n + globalCol) : 0.0f;
+            }
+            context.localBarrier();
+
+            // Each value of B read from local memory is reused for all the rows of the thread
+            for (int i = 0; i < LARGE_TILE; i++) {
+                float bValue = bTile[i * LARGE_TILE + col];
+                for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+                    sums[w] += aTile[(row + w * LARGE_ROWS) * LARGE_TILE + i] * bValue;
+                }
+            }
+            context.localBarrier();
+        }
+
+        for (int w = 0; w < LARGE_WORK_PER_THREAD; w++) {
+            int globalRow = firstRow + w * LARGE_ROWS;
+            if (globalRow < m && globalCol < n) {
+                c.set(globalRow * n + globalCol, sums[w]);
+            }
+        }
+    }
+
+    /**
+     * Computes {@code y = A * x} with an FP32 matrix.
+     *
+     * <p>
+     * There is one work-group per row of {@code A}. The threads of the work-group
+     * read consecutive elements of the row, and their partial sums are reduced in
+     * local memory. The local size must be a power of two up to
+     * {@link #GEMV_MAX_LOCAL_SIZE}.
+     * </p>
+     *
+     * @param context
+     *     Context of the kernel.
+     * @param a
+     *     Matrix {@code A}, with {@code k} columns, by rows.
+     * @param x
+     *     Vector {@code x}, with {@code k} elements.
+     * @param y
+     *     Vector {@code y}, with one element per row of {@code A}.
+     * @param k
+     *     Number of columns of {@code A}.
+     */
+    public static void sgemv(KernelContext context, FloatArray a, FloatArray x, FloatArray y, int k) {
+        int row = context.groupIdx;
+        int localId = context.localIdx;
+        int localSize = context.localGroupSizeX;
+
+        float[] partialSums = context.allocateFloatLocalArray(GEMV_MAX_LOCAL_SIZE);
+
+        int base = row * k;
+        float sum = 0.0f;
+        for (int j = localId; j < k; j += localSize) {
+            sum += a.get(base + j) * x.get(j);
+        }
+        partialSums[localId] = sum;
+
+        for (int stride = localSize / 2; stride > 0; stride >>= 1) {
+            context.localBarrier();
+            if (localId < stride) {
+                partialSums[localId] += partialSums[localId + stride];
+            }
+        }
+        if (localId == 0) {
+            y.set(row, partialSums[0]);
+        }
+    }
+
+    /**
+     * Computes {@code y = A * x} with an FP16 matrix and FP32 accumulation.
+     *
+     * <p>
+     * There is one work-group per row of {@code A}. The threads of the work-group
+     * read consecutive elements of the row, and their partial sums are reduced in
+     * local memory. The local size must be a power of two up to
+     * {@link #GEMV_MAX_LOCAL_SIZE}.
+     * </p>
+     *
+     * @param context
+     *     Context of the kernel.
+     * @param a
+     *     Matrix {@code A}, with {@code k} columns, by rows.
+     * @param x
+     *     Vector {@code x}, with {@code k} elements.
+     * @param y
+     *     Vector {@code y}, with one element per row of {@code A}.
+     * @param k
+     *     Number of columns of {@code A}.
+     */
+    public static void hgemv(KernelContext context, HalfFloatArray a, FloatArray x, FloatArray y, int k) {
+        int row = context.groupIdx;
+        int localId = context.localIdx;
+        int localSize = context.localGroupSizeX;
+
+        float[] partialSums = context.allocateFloatLocalArray(GEMV_MAX_LOCAL_SIZE);
+
+        int base = row * k;
+        float sum = 0.0f;
+        for (int j = localId; j < k; j += localSize) {
+            sum += a.getFloat(base + j) * x.get(j);
+        }
+        partialSums[localId] = sum;
+
+        for (int stride = localSize / 2; stride > 0; stride >>= 1) {
+            context.localBarrier();
+            if (localId < stride) {
+                partialSums[localId] += partialSums[localId + stride];
+            }
+        }
+        if (localId == 0) {
+            y.set(row, partialSums[0]);
+        }
+    }
+
+    /**
+     * Computes {@code y = A * x} with an int8 quantized matrix, whose number of
+     * columns is a multiple of 4.
+     *
+     * <p>
+     * There is one work-group per row of {@code A}. The threads of the work-group
+     * read consecutive elements of the row, and their partial sums are reduced in
+     * local memory. The local size must be a power of two up to
+     * {@link #GEMV_MAX_LOCAL_SIZE}.
+     * </p>
+     *
+     * @param context
+     *     Context of the kernel.
+     * @param quants
+     *     Packed values of matrix {@code A}, quantized by rows as a
+     *     {@link QuantizedInt8Array} with {@code m x k} elements.
+     * @param scales
+     *     Scales of the blocks of matrix {@code A}.
+     * @param x
+     *     Vector {@code x}, with {@code k} elements.
+     * @param y
+     *     Vector {@code y}, with one element per row of {@code A}.
+     * @param k
+     *     Number of columns of {@code A}.
+     */
+    public static void qgemv(KernelContext context, IntArray quants, FloatArray scales, FloatArray x, FloatArray y, int k) {
+        int row = context.groupIdx;
+        int localId = context.localIdx;
+        int localSize = context.localGroupSizeX;
+
+        float[] partialSums = context.allocateFloatLocalArray(GEMV_MAX_LOCAL_SIZE);
+
+        // Each thread reads one int of four packed values at a time
+        int words = k / 4;
+        int base = row * words;
+        float sum = 0.0f;
+        for (int j = localId; j < words; j += localSize) {
+            int word = quants.get(base + j);
+            int column = j * 4;
+            float wordSum = ((word << 24) >> 24) * x.get(column) //
+                    + ((word << 16) >> 24) * x.get(column + 1) //
+                    + ((word << 8) >> 24) * x.get(column + 2) //
+                    + (word >> 24) * x.get(column + 3);
+            sum += wordSum * scales.get((base + j) / QuantizedInt8Array.WORDS_PER_BLOCK);
+        }
+        partialSums[localId] = sum;
+
+        for (int stride = localSize / 2; stride > 0; stride >>= 1) {
+            context.localBarrier();
+            if (localId < stride) {
+                partialSums[localId] += partialSums[localId + stride];
+            }
+        }
+        if (localId == 0) {
+            y.set(row, partialSums[0]);
+        }
+    }
+}
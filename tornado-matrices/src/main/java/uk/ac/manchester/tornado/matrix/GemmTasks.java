@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.matrix;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.QuantizedInt8Array;
+
+/**
+ * Adds the tuned GEMM and GEMV kernels of {@link GemmKernels} to task graphs, as
+ * ready-made tasks. The kernel and the grid of each task are selected for the
+ * device, and the grids are registered in a {@link GridScheduler} that must be
+ * passed to the execution plan:
+ *
+ * <pre>
+ * {@code
+ * GemmTasks gemm = new GemmTasks(device);
+ * TaskGraph taskGraph = new TaskGraph("s0") //
+ *         .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b);
+ * gemm.sgemm(taskGraph, "sgemm", a, b, c, m, n, k) //
+ *         .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+ * TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot());
+ * executionPlan.withDevice(device).withGridScheduler(gemm.getGridScheduler()).execute();
+ * }
+ * </pre>
+ */
+public final class GemmTasks {
+
+    private final TornadoDevice device;
+    private final GridScheduler gridScheduler;
+
+    /**
+     * Creates the tasks for a device, with a new {@link GridScheduler}.
+     *
+     * @param device
+     *     Device that runs the tasks.
+     */
+    public GemmTasks(TornadoDevice device) {
+        this(device, new GridScheduler());
+    }
+
+    /**
+     * Creates the tasks for a device, and registers their grids in an existing
+     * {@link GridScheduler}.
+     *
+     * @param device
+     *     Device that runs the tasks.
+     * @param gridScheduler
+     *     Grid scheduler of the execution plan.
+     */
+    public GemmTasks(TornadoDevice device, GridScheduler gridScheduler) {
+        this.device = device;
+        this.gridScheduler = gridScheduler;
+    }
+
+    public GridScheduler getGridScheduler() {
+        return gridScheduler;
+    }
+
+    /**
+     * Local size of the GEMV kernels for the device: a power of two up to
+     * {@link GemmKernels#GEMV_MAX_LOCAL_SIZE}, with no more threads than columns.
+     *
+     * @param k
+     *     Number of columns of the matrix.
+     * @return int
+     */
+    public int getGemvLocalSize(int k) {
+        long localSize = Math.min(GemmKernels.GEMV_MAX_LOCAL_SIZE, k <= 1 ? 1 : Integer.highestOneBit(k - 1) * 2L);
+        long[] maxWorkItems = device.getDeviceMaxWorkgroupDimensions();
+        if (maxWorkItems.length > 0 && maxWorkItems[0] > 0) {
+            localSize = Math.min(localSize, maxWorkItems[0]);
+        }
+        return Integer.highestOneBit((int) localSize);
+    }
+
+    /**
+     * Adds the task that computes {@code C = A * B} with FP32 matrices.
+     *
+     * @param taskGraph
+     *     Task graph of the task.
+     * @param id
+     *     Task-id.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param b
+     *     Matrix {@code B}, with {@code k x n} elements by rows.
+     * @param c
+     *     Matrix {@code C}, with {@code m x n} elements by rows.
+     * @param m
+     *     Number of rows of {@code A} and {@code C}.
+     * @param n
+     *     Number of columns of {@code B} and {@code C}.
+     * @param k
+     *     Number of columns of {@code A} and rows of {@code B}.
+     * @return The task graph.
+     */
+    public TaskGraph sgemm(TaskGraph taskGraph, String id, FloatArray a, FloatArray b, FloatArray c, int m, int n, int k) {
+        checkGemm(a.getSize(), b.getSize(), c.getSize(), m, n, k);
+        GemmTile tile = GemmTile.forDevice(device, m, n);
+        if (tile == GemmTile.LARGE) {
+            taskGraph.task(id, GemmKernels::sgemmTile32, new KernelContext(), a, b, c, m, n, k);
+        } else {
+            taskGraph.task(id, GemmKernels::sgemmTile16, new KernelContext(), a, b, c, m, n, k);
+        }
+        setWorkerGrid(taskGraph, id, tile.createWorkerGrid(m, n));
+        return taskGraph;
+    }
+
+    /**
+     * Adds the task that computes {@code C = A * B} with FP16 matrices and FP32
+     * accumulation.
+     *
+     * @param taskGraph
+     *     Task graph of the task.
+     * @param id
+     *     Task-id.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param b
+     *     Matrix {@code B}, with {@code k x n} elements by rows.
+     * @param c
+     *     Matrix {@code C}, with {@code m x n} elements by rows.
+     * @param m
+     *     Number of rows of {@code A} and {@code C}.
+     * @param n
+     *     Number of columns of {@code B} and {@code C}.
+     * @param k
+     *     Number of columns of {@code A} and rows of {@code B}.
+     * @return The task graph.
+     */
+    public TaskGraph hgemm(TaskGraph taskGraph, String id, HalfFloatArray a, HalfFloatArray b, FloatArray c, int m, int n, int k) {
+        checkGemm(a.getSize(), b.getSize(), c.getSize(), m, n, k);
+        GemmTile tile = GemmTile.forDevice(device, m, n);
+        if (tile == GemmTile.LARGE) {
+            taskGraph.task(id, GemmKernels::hgemmTile32, new KernelContext(), a, b, c, m, n, k);
+        } else {
+            taskGraph.task(id, GemmKernels::hgemmTile16, new KernelContext(), a, b, c, m, n, k);
+        }
+        setWorkerGrid(taskGraph, id, tile.createWorkerGrid(m, n));
+        return taskGraph;
+    }
+
+    /**
+     * Adds the task that computes {@code C = A * B} with an int8 quantized matrix
+     * {@code A}, such as the weights of a model.
+     *
+     * @param taskGraph
+     *     Task graph of the task.
+     * @param id
+     *     Task-id.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param b
+     *     Matrix {@code B}, with {@code k x n} elements by rows.
+     * @param c
+     *     Matrix {@code C}, with {@code m x n} elements by rows.
+     * @param m
+     *     Number of rows of {@code A} and {@code C}.
+     * @param n
+     *     Number of columns of {@code B} and {@code C}.
+     * @param k
+     *     Number of columns of {@code A} and rows of {@code B}.
+     * @return The task graph.
+     */
+    public TaskGraph qgemm(TaskGraph taskGraph, String id, QuantizedInt8Array a, FloatArray b, FloatArray c, int m, int n, int k) {
+        checkGemm(a.getSize(), b.getSize(), c.getSize(), m, n, k);
+        GemmTile tile = GemmTile.forDevice(device, m, n);
+        if (tile == GemmTile.LARGE) {
+            taskGraph.task(id, GemmKernels::qgemmTile32, new KernelContext(), a.getQuants(), a.getScales(), b, c, m, n, k);
+        } else {
+            taskGraph.task(id, GemmKernels::qgemmTile16, new KernelContext(), a.getQuants(), a.getScales(), b, c, m, n, k);
+        }
+        setWorkerGrid(taskGraph, id, tile.createWorkerGrid(m, n));
+        return taskGraph;
+    }
+
+    /**
+     * Adds the task that computes {@code y = A * x} with an FP32 matrix.
+     *
+     * @param taskGraph
+     *     Task graph of the task.
+     * @param id
+     *     Task-id.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param x
+     *     Vector {@code x}, with {@code k} elements.
+     * @param y
+     *     Vector {@code y}, with {@code m} elements.
+     * @param m
+     *     Number of rows of {@code A}.
+     * @param k
+     *     Number of columns of {@code A}.
+     * @return The task graph.
+     */
+    public TaskGraph sgemv(TaskGraph taskGraph, String id, FloatArray a, FloatArray x, FloatArray y, int m, int k) {
+        checkGemv(a.getSize(), x.getSize(), y.getSize(), m, k);
+        taskGraph.task(id, GemmKernels::sgemv, new KernelContext(), a, x, y, k);
+        setWorkerGrid(taskGraph, id, createGemvWorkerGrid(m, k));
+        return taskGraph;
+    }
+
+    /**
+     * Adds the task that computes {@code y = A * x} with an FP16 matrix and FP32
+     * accumulation.
+     *
+     * @param taskGraph
+     *     Task graph of the task.
+     * @param id
+     *     Task-id.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param x
+     *     Vector {@code x}, with {@code k} elements.
+     * @param y
+     *     Vector {@code y}, with {@code m} elements.
+     * @param m
+     *     Number of rows of {@code A}.
+     * @param k
+     *     Number of columns of {@code A}.
+     * @return The task graph.
+     */
+    public TaskGraph hgemv(TaskGraph taskGraph, String id, HalfFloatArray a, FloatArray x, FloatArray y, int m, int k) {
+        checkGemv(a.getSize(), x.getSize(), y.getSize(), m, k);
+        taskGraph.task(id, GemmKernels::hgemv, new KernelContext(), a, x, y, k);
+        setWorkerGrid(taskGraph, id, createGemvWorkerGrid(m, k));
+        return taskGraph;
+    }
+
+    /**
+     * Adds the task that computes {@code y = A * x} with an int8 quantized matrix,
+     * such as the weights of a model.
+     *
+     * @param taskGraph
+     *     Task graph of the task.
+     * @param id
+     *     Task-id.
+     * @param a
+     *     Matrix {@code A}, with {@code m x k} elements by rows.
+     * @param x
+     *     Vector {@code x}, with {@code k} elements.
+     * @param y
+     *     Vector {@code y}, with {@code m} elements.
+     * @param m
+     *     Number of rows of {@code A}.
+     * @param k
+     *     Number of columns of {@code A}, which must be a multiple of 4.
+     * @return The task graph.
+     */
+    public TaskGraph qgemv(TaskGraph taskGraph, String id, QuantizedInt8Array a, FloatArray x, FloatArray y, int m, int k) {
+        checkGemv(a.getSize(), x.getSize(), y.getSize(), m, k);
+        if (k % 4 != 0) {
+            throw new IllegalArgumentException(STR."The number of columns of a quantized matrix must be a multiple of 4: \{k}");
+        }
+        taskGraph.task(id, GemmKernels::qgemv, new KernelContext(), a.getQuants(), a.getScales(), x, y, k);
+        setWorkerGrid(taskGraph, id, createGemvWorkerGrid(m, (k + 3) / 4));
+        return taskGraph;
+    }
+
+    private WorkerGrid createGemvWorkerGrid(int m, int columns) {
+        int localSize = getGemvLocalSize(columns);
+        WorkerGrid grid = new WorkerGrid1D(m * localSize);
+        grid.setLocalWork(localSize, 1, 1);
+        return grid;
+    }
+
+    private void setWorkerGrid(TaskGraph taskGraph, String id, WorkerGrid grid) {
+        gridScheduler.setWorkerGrid(taskGraph.getTaskGraphName() + "." + id, grid);
+    }
+
+    private static void checkGemm(long sizeA, long sizeB, long sizeC, int m, int n, int k) {
+        if (m <= 0 || n <= 0 || k <= 0) {
+            throw new IllegalArgumentException(STR."The dimensions of a matrix multiplication must be positive: m=\{m}, n=\{n}, k=\{k}");
+        }
+        if (sizeA != (long) m * k || sizeB != (long) k * n || sizeC != (long) m * n) {
+            throw new IllegalArgumentException(STR."The sizes of the matrices do not match m=\{m}, n=\{n}, k=\{k}: \{sizeA}, \{sizeB}, \{sizeC}");
+        }
+    }
+
+    private static void checkGemv(long sizeA, long sizeX, long sizeY, int m, int k) {
+        if (m <= 0 || k <= 0) {
+            throw new IllegalArgumentException(STR."The dimensions of a matrix-vector multiplication must be positive: m=\{m}, k=\{k}");
+        }
+        if (sizeA != (long) m * k || sizeX != k || sizeY != m) {
+            throw new IllegalArgumentException(STR."The sizes of the matrix and the vectors do not match m=\{m}, k=\{k}: \{sizeA}, \{sizeX}, \{sizeY}");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.matrix;
+
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid2D;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+
+/**
+ * Tile configurations of the GEMM kernels of {@link GemmKernels}.
+ */
+public enum GemmTile {
+
+    /**
+     * {@value GemmKernels#SMALL_TILE} x {@value GemmKernels#SMALL_TILE} tiles,
+     * with 64 threads per work-group.
+     */
+    SMALL(GemmKernels.SMALL_TILE, GemmKernels.SMALL_WORK_PER_THREAD),
+
+    /**
+     * {@value GemmKernels#LARGE_TILE} x {@value GemmKernels#LARGE_TILE} tiles,
+     * with 128 threads per work-group.
+     */
+    LARGE(GemmKernels.LARGE_TILE, GemmKernels.LARGE_WORK_PER_THREAD);
+
+    /**
+     * Minimum number of work-groups of the large tiles. With fewer work-groups,
+     * the small tiles use more compute units.
+     */
+    private static final long MIN_LARGE_TILE_GROUPS = 64;
+
+    private final int tileSize;
+    private final int workPerThread;
+
+    GemmTile(int tileSize, int workPerThread) {
+        this.tileSize = tileSize;
+        this.workPerThread = workPerThread;
+    }
+
+    /**
+     * Selects the tiles of a matrix multiplication for a device. The large tiles
+     * are used on accelerators with enough local memory and threads per
+     * work-group, if the output matrix has enough tiles to occupy the device.
+     *
+     * @param device
+     *     Device that runs the kernel.
+     * @param m
+     *     Number of rows of the output matrix.
+     * @param n
+     *     Number of columns of the output matrix.
+     * @return {@link GemmTile}
+     */
+    public static GemmTile forDevice(TornadoDevice device, int m, int n) {
+        if (device.getDeviceType() == TornadoDeviceType.CPU) {
+            return SMALL;
+        }
+        long[] maxWorkItems = device.getDeviceMaxWorkgroupDimensions();
+        boolean fits = device.getDeviceLocalMemorySize() >= LARGE.getLocalMemorySize() //
+                && maxWorkItems.length >= 2 //
+                && maxWorkItems[0] >= LARGE.getLocalSizeX() //
+                && maxWorkItems[1] >= LARGE.getLocalSizeY();
+        return (fits && LARGE.getNumberOfGroups(m, n) >= MIN_LARGE_TILE_GROUPS) ? LARGE : SMALL;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getWorkPerThread() {
+        return workPerThread;
+    }
+
+    public int getLocalSizeX() {
+        return tileSize;
+    }
+
+    public int getLocalSizeY() {
+        return tileSize / workPerThread;
+    }
+
+    /**
+     * Local memory of a work-group, in bytes.
+     *
+     * @return long
+     */
+    public long getLocalMemorySize() {
+        return 2L * tileSize * tileSize * Float.BYTES;
+    }
+
+    /**
+     * Number of work-groups of a matrix multiplication.
+     *
+     * @param m
+     *     Number of rows of the output matrix.
+     * @param n
+     *     Number of columns of the output matrix.
+     * @return long
+     */
+    public long getNumberOfGroups(int m, int n) {
+        return (long) roundUp(m) / tileSize * (roundUp(n) / tileSize);
+    }
+
+    /**
+     * Creates the grid of a matrix multiplication, with one thread per column and
+     * {@link #getWorkPerThread()} rows of the output matrix.
+     *
+     * @param m
+     *     Number of rows of the output matrix.
+     * @param n
+     *     Number of columns of the output matrix.
+     * @return {@link WorkerGrid}
+     */
+    public WorkerGrid createWorkerGrid(int m, int n) {
+        WorkerGrid grid = new WorkerGrid2D(roundUp(n), roundUp(m) / workPerThread);
+        grid.setLocalWork(getLocalSizeX(), getLocalSizeY(), 1);
+        return grid;
+    }
+
+    private int roundUp(int size) {
+        return (size + tileSize - 1) / tileSize * tileSize;
+    }
+}
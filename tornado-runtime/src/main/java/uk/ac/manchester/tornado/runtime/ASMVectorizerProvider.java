@@ -0,0 +1,58 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime;
+
+import java.lang.reflect.Method;
+
+/**
+ * Rewrites the bytecode of a task so that its parallel loop runs with the
+ * Vector API ({@code jdk.incubator.vector}) when the task falls back to Java.
+ */
+public interface ASMVectorizerProvider {
+
+    /**
+     * Builds a class with a copy of a static method, in which the loop annotated
+     * with {@link uk.ac.manchester.tornado.api.annotations.Parallel} is preceded
+     * by a vector loop that processes whole vectors of iterations. The original
+     * loop runs the remaining iterations. The copy has the same name and
+     * descriptor as the original method.
+     *
+     * <p>
+     * Only simple loops are vectorised: element-wise operations at the index of
+     * the loop over native arrays and Java arrays of one primitive type, and
+     * reductions into a parameter annotated with
+     * {@link uk.ac.manchester.tornado.api.annotations.Reduce}.
+     * </p>
+     *
+     * @param method
+     *     The static method of the task.
+     * @param className
+     *     The internal name of the class to build. It must be in the same
+     *     package as the declaring class of the method.
+     * @return The class file of the new class, or {@code null} if the loop of the
+     *     method cannot be vectorised, or if the method accesses private members
+     *     of its class.
+     */
+    byte[] vectorizeParallelLoop(Method method, String className);
+}
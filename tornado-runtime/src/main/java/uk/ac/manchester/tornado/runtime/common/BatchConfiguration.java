@@ -28,13 +28,6 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
-import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
-import uk.ac.manchester.tornado.api.types.arrays.CharArray;
-import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
-import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
-import uk.ac.manchester.tornado.api.types.arrays.IntArray;
-import uk.ac.manchester.tornado.api.types.arrays.LongArray;
-import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.runtime.common.enums.DataTypeSize;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
@@ -55,8 +48,8 @@ import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
  */
 public class BatchConfiguration {
 
-    private final int totalChunks;
-    private final int remainingChunkSize;
+    private final long totalChunks;
+    private final long remainingChunkSize;
     private final short numBytesType;
 
     /**
@@ -69,7 +62,7 @@ public class BatchConfiguration {
      * @param numBytesType
      *     The number of bytes for the data type.
      */
-    public BatchConfiguration(int totalChunks, int remainingChunkSize, short numBytesType) {
+    public BatchConfiguration(long totalChunks, long remainingChunkSize, short numBytesType) {
         this.totalChunks = totalChunks;
         this.remainingChunkSize = remainingChunkSize;
         this.numBytesType = numBytesType;
@@ -97,16 +90,8 @@ public class BatchConfiguration {
             } else if (o instanceof TornadoNativeArray tornadoNativeArray) {
                 totalSize = tornadoNativeArray.getNumBytesOfSegment();
                 inputSizes.add(totalSize);
-                byte elementSize = switch (tornadoNativeArray) {
-                    case IntArray _ -> DataTypeSize.INT.getSize();
-                    case FloatArray _ -> DataTypeSize.FLOAT.getSize();
-                    case DoubleArray _ -> DataTypeSize.DOUBLE.getSize();
-                    case LongArray _ -> DataTypeSize.LONG.getSize();
-                    case ShortArray _ -> DataTypeSize.SHORT.getSize();
-                    case ByteArray _ -> DataTypeSize.BYTE.getSize();
-                    case CharArray _ -> DataTypeSize.CHAR.getSize();
-                    default -> throw new TornadoRuntimeException(STR."Unsupported array type: \{o.getClass()}");
-                };
+                // Covers all the native arrays, including half-floats, and the tensors
+                byte elementSize = (byte) tornadoNativeArray.getElementSize();
                 elementSizes.add(elementSize);
             } else {
                 throw new TornadoRuntimeException(STR."Unsupported type: \{o.getClass()}");
@@ -121,8 +106,14 @@ public class BatchConfiguration {
             throw new TornadoRuntimeException("[UNSUPPORTED] Input objects with different element sizes not currently supported");
         }
 
-        int totalChunks = (int) (totalSize / batchSize);
-        int remainingChunkSize = (int) (totalSize % batchSize);
+        // Kernels are indexed with 32-bit integers, so each batch is limited to Integer.MAX_VALUE elements.
+        // Arrays of more elements are processed with as many batches as needed.
+        if (batchSize / elementSizes.getFirst() > Integer.MAX_VALUE) {
+            throw new TornadoRuntimeException(STR."[UNSUPPORTED] Batches of more than \{Integer.MAX_VALUE} elements are not supported: \{batchSize} bytes");
+        }
+
+        long totalChunks = totalSize / batchSize;
+        long remainingChunkSize = totalSize % batchSize;
 
         if (Tornado.DEBUG) {
             System.out.println(STR."Batch Size: \{batchSize}");
@@ -132,11 +123,11 @@ public class BatchConfiguration {
         return new BatchConfiguration(totalChunks, remainingChunkSize, elementSizes.getFirst());
     }
 
-    public int getTotalChunks() {
+    public long getTotalChunks() {
         return totalChunks;
     }
 
-    public int getRemainingChunkSize() {
+    public long getRemainingChunkSize() {
         return remainingChunkSize;
     }
 
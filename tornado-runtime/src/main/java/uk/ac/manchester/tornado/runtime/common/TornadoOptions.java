@@ -60,6 +60,21 @@ public class TornadoOptions {
      * the rest of the backends.
      */
     public static final int SPIRV_BACKEND_PRIORITY = Integer.parseInt(Tornado.getProperty("tornado.spirv.priority", "11"));
+    /**
+     * Priority of the JVM Backend. The higher the number, the more priority over
+     * the rest of the backends. By default, it is the last backend.
+     */
+    public static final int JVM_BACKEND_PRIORITY = Integer.parseInt(Tornado.getProperty("tornado.jvm.priority", "-1"));
+    /**
+     * Option to load the JVM Backend, which runs the tasks with Java threads on
+     * the host. It is disabled by default.
+     */
+    public static final boolean JVM_BACKEND = getBooleanValue("tornado.jvm.backend", FALSE);
+    /**
+     * Number of Java threads used by the JVM Backend. It is set to the number of
+     * available processors by default.
+     */
+    public static final int JVM_BACKEND_THREADS = Integer.parseInt(Tornado.getProperty("tornado.jvm.threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
     /**
      * Check if the FPGA emulation mode has been set.
      */
@@ -150,6 +165,14 @@ public class TornadoOptions {
      * code. This option is True by default.
      */
     public static final boolean RECOVER_BAILOUT = getBooleanValue("tornado.recover.bailout", TRUE);
+    /**
+     * When a task graph falls back to Java after a bailout, the parallel loops of
+     * the tasks run with the Vector API if their bytecode can be vectorised. The
+     * partial results of floating-point reductions are combined in a different
+     * order than in the sequential loop, so they can differ in the last bits.
+     * This option is False by default.
+     */
+    public static final boolean BAILOUT_VECTORIZATION = getBooleanValue("tornado.bailout.vectorize", FALSE);
     /**
      * Option to log the IP of the current machine on the profiler logs.
      */
@@ -262,6 +285,20 @@ public class TornadoOptions {
      */
     public static final int MAX_EVENTS = getIntValue("tornado.max.events", "32768");
 
+    /**
+     * Maximum number of command queues per device that the TornadoVM graph
+     * compiler uses to run independent tasks of a task-graph concurrently. It is
+     * only used when the execution plan enables concurrent tasks.
+     */
+    public static final int MAX_COMMAND_QUEUES_PER_DEVICE = getIntValue("tornado.concurrent.tasks.queues", "4");
+
+    /**
+     * When a task-graph changes its device, the data that is resident on the old
+     * device is copied directly to the new device instead of being transferred
+     * again from the host.
+     */
+    public static final boolean DEVICE_BUFFER_MIGRATION = getBooleanValue("tornado.device.buffer.migration", TRUE);
+
     public static boolean TORNADO_PROFILER_LOG = false;
 
     public static boolean TORNADO_PROFILER = false;
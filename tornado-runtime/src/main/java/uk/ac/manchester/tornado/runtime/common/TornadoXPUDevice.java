@@ -24,6 +24,7 @@ package uk.ac.manchester.tornado.runtime.common;
 
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.memory.DeviceBufferState;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
 
 /**
@@ -171,4 +172,105 @@ public interface TornadoXPUDevice extends TornadoDevice {
      */
     void setAtomicRegion(XPUBuffer bufferAtomics);
 
+    /**
+     * It selects the type of command queues used by the device for the given
+     * execution plan. With out-of-order queues, commands are only ordered by
+     * the event wait-lists emitted by the TornadoVM bytecode, so that
+     * independent data transfers and kernels can overlap. Backends that do not
+     * support out-of-order queues ignore this request.
+     *
+     * @param executionPlanId
+     *     Execution plan identifier.
+     * @param enable
+     *     True to use out-of-order command queues.
+     */
+    default void setOutOfOrderExecution(long executionPlanId, boolean enable) {
+    }
+
+    /**
+     * It checks whether the device can submit commands of the same execution
+     * plan to several command queues.
+     *
+     * @return True if {@link #selectCommandQueue(long, int)} is supported.
+     */
+    default boolean isMultipleCommandQueuesSupported() {
+        return false;
+    }
+
+    /**
+     * It selects the command queue used for the following commands of the
+     * execution plan. Independent tasks of a task-graph are placed in
+     * different queues to run concurrently on the same device.
+     *
+     * @param executionPlanId
+     *     Execution plan identifier.
+     * @param queueIndex
+     *     Index of the command queue.
+     */
+    default void selectCommandQueue(long executionPlanId, int queueIndex) {
+    }
+
+    /**
+     * It enqueues a non-blocking copy of a buffer from the device to the host.
+     * The host data is only valid once the returned event has finished. Devices
+     * that cannot perform the copy without blocking fall back to
+     * {@link #streamOutBlocking}.
+     *
+     * @param executionPlanId
+     *     Execution plan identifier.
+     * @param object
+     *     Host object.
+     * @param hostOffset
+     *     Offset within the host object.
+     * @param objectState
+     *     State of the object in the device.
+     * @param events
+     *     List of events to wait for.
+     * @return Event of the copy, or -1.
+     */
+    default int streamOutNonBlocking(long executionPlanId, Object object, long hostOffset, DeviceBufferState objectState, int[] events) {
+        return streamOutBlocking(executionPlanId, object, hostOffset, objectState, events);
+    }
+
+    /**
+     * It copies the content of a buffer allocated in another device into a
+     * buffer of this device, without going through the host object. This is
+     * used to migrate the device-resident data of a task-graph when the
+     * execution plan changes its device.
+     *
+     * @param executionPlanId
+     *     Execution plan identifier.
+     * @param sourceDevice
+     *     Device that holds the current copy of the data.
+     * @param sourceState
+     *     State of the buffer in the source device.
+     * @param destinationState
+     *     State of the buffer in this device. The buffer must be allocated.
+     * @return True if the data was copied. Otherwise, the caller must transfer
+     *     the data from the host.
+     */
+    default boolean copyBufferFromDevice(long executionPlanId, TornadoXPUDevice sourceDevice, DeviceBufferState sourceState, DeviceBufferState destinationState) {
+        return false;
+    }
+
+    /**
+     * It creates a buffer that aliases a region of a buffer already allocated in
+     * this device. This is used for views of native arrays, so tasks can access
+     * a range of a device-resident array without new allocations or copies.
+     *
+     * @param view
+     *     Object that is backed by the region.
+     * @param parentState
+     *     State of the allocated buffer that contains the region.
+     * @param offset
+     *     Offset in bytes of the region in the parent buffer.
+     * @param viewState
+     *     State that receives the new buffer.
+     * @return True if the buffer was created. Otherwise, the caller must
+     *     allocate a new buffer for the view.
+     */
+    default boolean allocateSubBuffer(Object view, DeviceBufferState parentState, long offset, DeviceBufferState viewState) {
+        return false;
+    }
+
 }
@@ -262,7 +262,7 @@ public class TornadoDataflowAnalysis extends BasePhase<TornadoSketchTierContext>
         return field.contains("uk.ac.manchester.tornado.api.types.arrays.IntArray") || field.contains("uk.ac.manchester.tornado.api.types.arrays.DoubleArray") || field.contains(
                 "uk.ac.manchester.tornado.api.types.arrays.FloatArray") || field.contains("uk.ac.manchester.tornado.api.types.arrays.LongArray") || field.contains(
                         "uk.ac.manchester.tornado.api.types.arrays.CharArray") || field.contains("uk.ac.manchester.tornado.api.types.arrays.ShortArray") || field.contains(
-                                "uk.ac.manchester.tornado.api.types.arrays.ByteArray");
+                                "uk.ac.manchester.tornado.api.types.arrays.ByteArray") || field.contains("uk.ac.manchester.tornado.api.types.arrays.BFloat16Array");
     }
 
     /**
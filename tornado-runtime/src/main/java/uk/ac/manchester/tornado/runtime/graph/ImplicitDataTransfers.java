@@ -0,0 +1,242 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graph;
+
+import java.lang.reflect.Array;
+import java.util.BitSet;
+import java.util.List;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.api.types.collections.TornadoCollectionInterface;
+import uk.ac.manchester.tornado.api.types.images.TornadoImagesInterface;
+import uk.ac.manchester.tornado.api.types.matrix.TornadoMatrixInterface;
+import uk.ac.manchester.tornado.api.types.vectors.TornadoVectorsInterface;
+import uk.ac.manchester.tornado.api.types.volumes.TornadoVolumesInterface;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
+import uk.ac.manchester.tornado.runtime.common.enums.DataTypeSize;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.StreamingObject;
+
+/**
+ * Data transfers of a task-graph inferred from the accesses that the sketcher
+ * computes for each task parameter (see
+ * {@link uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoDataflowAnalysis}).
+ *
+ * <p>
+ * The tasks are visited in order, and for each object of the task-graph:
+ * <ul>
+ * <li>It is copied to the device in every execution if the first task that
+ * accesses it reads it. Objects declared with
+ * {@link DataTransferMode#FIRST_EXECUTION} are still copied only once.</li>
+ * <li>It is copied to the host if it is written and the last write is not
+ * read by a later task. Objects written by a task and read by a later task are
+ * device-only intermediates and they are never transferred.</li>
+ * <li>Objects declared with {@link DataTransferMode#UNDER_DEMAND} or
+ * {@link DataTransferMode#LAZY} are still copied to the host by the user.</li>
+ * </ul>
+ * Read-only native arrays (e.g., mapped from files) cannot be copied to the
+ * host, so they cannot be written by a task unless the result is only read by
+ * later tasks.
+ * </p>
+ */
+public class ImplicitDataTransfers {
+
+    private final BitSet streamIn;
+    private final BitSet streamOut;
+    private final long savedBytesPerExecution;
+
+    private ImplicitDataTransfers(BitSet streamIn, BitSet streamOut, long savedBytesPerExecution) {
+        this.streamIn = streamIn;
+        this.streamOut = streamOut;
+        this.savedBytesPerExecution = savedBytesPerExecution;
+    }
+
+    /**
+     * Infers the data transfers of the task-graph. The sketches of all tasks must
+     * be available.
+     *
+     * @param executionContext
+     *     Execution context of the task-graph.
+     * @param inputModes
+     *     Objects declared with {@code transferToDevice}.
+     * @param outputModes
+     *     Objects declared with {@code transferToHost}.
+     * @return {@link ImplicitDataTransfers}
+     */
+    public static ImplicitDataTransfers analyse(TornadoExecutionContext executionContext, List<StreamingObject> inputModes, List<StreamingObject> outputModes) {
+        final List<Object> objects = executionContext.getObjects();
+        final int numObjects = objects.size();
+        final BitSet accessed = new BitSet(numObjects);
+        final BitSet readFirst = new BitSet(numObjects);
+        final BitSet written = new BitSet(numObjects);
+        final BitSet readAfterLastWrite = new BitSet(numObjects);
+
+        final List<SchedulableTask> tasks = executionContext.getTasks();
+        for (int taskIndex = 0; taskIndex < executionContext.getTaskCount(); taskIndex++) {
+            final SchedulableTask task = tasks.get(taskIndex);
+            final Object[] arguments = task.getArguments();
+            final Access[] accesses = getAccesses(task);
+            // Reads of this task are checked before its writes. A task that reads and writes an
+            // object does not consume its own result.
+            final BitSet writtenByTask = new BitSet(numObjects);
+            for (int i = 0; i < arguments.length; i++) {
+                final Object argument = arguments[i];
+                if (argument == null || RuntimeUtilities.isBoxedPrimitiveClass(argument.getClass())) {
+                    continue;
+                }
+                final int index = executionContext.insertVariable(argument);
+                final Access access = accesses[i];
+                if (access == Access.NONE) {
+                    continue;
+                }
+                final boolean reads = access == Access.READ_ONLY || access == Access.READ_WRITE;
+                final boolean writes = access == Access.WRITE_ONLY || access == Access.READ_WRITE;
+                if (!accessed.get(index)) {
+                    accessed.set(index);
+                    readFirst.set(index, reads);
+                }
+                if (reads && written.get(index)) {
+                    readAfterLastWrite.set(index);
+                }
+                if (writes) {
+                    writtenByTask.set(index);
+                }
+            }
+            written.or(writtenByTask);
+            readAfterLastWrite.andNot(writtenByTask);
+        }
+
+        final BitSet firstExecution = new BitSet(numObjects);
+        final BitSet everyExecutionIn = new BitSet(numObjects);
+        for (StreamingObject streamingObject : inputModes) {
+            if (RuntimeUtilities.isBoxedPrimitiveClass(streamingObject.getObject().getClass())) {
+                continue;
+            }
+            final int index = executionContext.insertVariable(streamingObject.getObject());
+            if (streamingObject.getMode() == DataTransferMode.FIRST_EXECUTION) {
+                firstExecution.set(index);
+            } else if (streamingObject.getMode() == DataTransferMode.EVERY_EXECUTION) {
+                everyExecutionIn.set(index);
+            }
+        }
+
+        final BitSet userManagedOut = new BitSet(numObjects);
+        final BitSet declaredOut = new BitSet(numObjects);
+        for (StreamingObject streamingObject : outputModes) {
+            if (RuntimeUtilities.isBoxedPrimitiveClass(streamingObject.getObject().getClass())) {
+                continue;
+            }
+            final int index = executionContext.insertVariable(streamingObject.getObject());
+            if (streamingObject.getMode() == DataTransferMode.UNDER_DEMAND || streamingObject.getMode() == DataTransferMode.LAZY) {
+                userManagedOut.set(index);
+            } else {
+                declaredOut.set(index);
+            }
+        }
+
+        final BitSet streamIn = (BitSet) readFirst.clone();
+        streamIn.andNot(firstExecution);
+
+        final BitSet streamOut = (BitSet) written.clone();
+        streamOut.andNot(readAfterLastWrite);
+        streamOut.andNot(userManagedOut);
+
+        // The same check as for the objects declared with transferToHost
+        for (int i = streamOut.nextSetBit(0); i >= 0; i = streamOut.nextSetBit(i + 1)) {
+            if (objects.get(i) instanceof TornadoNativeArray nativeArray && nativeArray.getSegmentWithHeader().isReadOnly()) {
+                // e.g., arrays mapped from files
+                throw new TornadoTaskRuntimeException(STR."[ERROR] Read-only native array written by a task in schedule \{executionContext.getId()}");
+            }
+        }
+
+        // Declared transfers that the default data movement would perform, and that are not needed
+        long savedBytes = 0;
+        for (int i = everyExecutionIn.nextSetBit(0); i >= 0; i = everyExecutionIn.nextSetBit(i + 1)) {
+            if (!accessed.get(i)) {
+                savedBytes += sizeInBytes(objects.get(i));
+            }
+        }
+        for (int i = declaredOut.nextSetBit(0); i >= 0; i = declaredOut.nextSetBit(i + 1)) {
+            if (written.get(i) && !streamOut.get(i)) {
+                savedBytes += sizeInBytes(objects.get(i));
+            }
+        }
+        return new ImplicitDataTransfers(streamIn, streamOut, savedBytes);
+    }
+
+    private static Access[] getAccesses(SchedulableTask task) {
+        if (task instanceof CompilableTask compilableTask) {
+            final ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(compilableTask.getMethod());
+            Sketch sketch = TornadoSketcher.lookup(resolvedMethod, task.meta().getDriverIndex(), task.meta().getDeviceIndex());
+            return sketch.getArgumentsAccess();
+        }
+        return task.getArgumentsAccess();
+    }
+
+    private static long sizeInBytes(Object object) {
+        if (object.getClass().isArray()) {
+            DataTypeSize dataTypeSize = DataTypeSize.findDataTypeSize(object.getClass().getComponentType());
+            return dataTypeSize == null ? 0 : Array.getLength(object) * dataTypeSize.getSize();
+        } else if (object instanceof TornadoNativeArray tornadoNativeArray) {
+            return tornadoNativeArray.getNumBytesOfSegmentWithHeader();
+        } else if (object instanceof TornadoVectorsInterface<?> tornadoVector) {
+            return tornadoVector.getNumBytes();
+        } else if (object instanceof TornadoCollectionInterface<?> collection) {
+            return collection.getNumBytesWithHeader();
+        } else if (object instanceof TornadoVolumesInterface<?> tornadoVolume) {
+            return tornadoVolume.getNumBytesWithHeader();
+        } else if (object instanceof TornadoMatrixInterface<?> tornadoMatrix) {
+            return tornadoMatrix.getNumBytesWithHeader();
+        } else if (object instanceof TornadoImagesInterface<?> tornadoImage) {
+            return tornadoImage.getNumBytesWithHeader();
+        }
+        return 0;
+    }
+
+    public boolean isStreamIn(int objectIndex) {
+        return streamIn.get(objectIndex);
+    }
+
+    public boolean isStreamOut(int objectIndex) {
+        return streamOut.get(objectIndex);
+    }
+
+    /**
+     * Returns the number of bytes per execution of declared transfers that are
+     * not performed.
+     *
+     * @return long
+     */
+    public long getSavedBytesPerExecution() {
+        return savedBytesPerExecution;
+    }
+}
@@ -24,11 +24,18 @@ package uk.ac.manchester.tornado.runtime.graph;
 
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import uk.ac.manchester.tornado.runtime.graph.nodes.AbstractNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.AllocateNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.ContextNode;
 import uk.ac.manchester.tornado.runtime.graph.nodes.ContextOpNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.CopyInNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.CopyOutNode;
 import uk.ac.manchester.tornado.runtime.graph.nodes.DependentReadNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.StreamInNode;
 import uk.ac.manchester.tornado.runtime.graph.nodes.TaskNode;
 
 /**
@@ -44,6 +51,8 @@ public class IntermediateTornadoGraph {
     private int[] nodeIds;
     private int index;
     private int numberOfDependencies;
+    private int[] commandQueues;
+    private int numberOfCommandQueues;
 
     /**
      * Constructs an IntermediateTornadoGraph with the specified asyncNodes BitSet.
@@ -63,6 +72,8 @@ public class IntermediateTornadoGraph {
         this.nodeIds = new int[asyncNodes.cardinality()];
         this.index = 0;
         this.numberOfDependencies = 0;
+        this.commandQueues = new int[asyncNodes.cardinality()];
+        this.numberOfCommandQueues = 1;
     }
 
     public BitSet[] getDependencies() {
@@ -81,12 +92,118 @@ public class IntermediateTornadoGraph {
         return numberOfDependencies;
     }
 
+    /**
+     * It returns the command queue assigned to each node, in the same order as
+     * {@link #getNodeIds()}.
+     *
+     * @return Array with the index of the command queue per node.
+     */
+    public int[] getCommandQueues() {
+        return commandQueues;
+    }
+
+    public int getNumberOfCommandQueues() {
+        return numberOfCommandQueues;
+    }
+
+    /**
+     * It distributes the tasks of each device across up to
+     * {@code maxCommandQueues} command queues. A task is placed in the queue of
+     * one of its producer tasks if that producer is the last task of the queue,
+     * so chains of dependent tasks stay in the same queue. Otherwise, the task
+     * starts a new queue. Data transfers are placed in the queue of the task
+     * that uses them. The dependencies across queues are resolved with the
+     * event lists computed by {@link #analyzeDependencies()}.
+     *
+     * @param maxCommandQueues
+     *     Maximum number of command queues per device.
+     */
+    public void assignCommandQueues(int maxCommandQueues) {
+        Arrays.fill(commandQueues, 0);
+        numberOfCommandQueues = 1;
+        if (maxCommandQueues <= 1) {
+            return;
+        }
+
+        final Map<Integer, Integer> queuePerTask = new HashMap<>();
+        final Map<ContextNode, int[]> lastTaskPerQueue = new HashMap<>();
+        final Map<ContextNode, Integer> usedQueues = new HashMap<>();
+
+        for (int i = 0; i < nodeIds.length; i++) {
+            if (!(graph.getNode(nodeIds[i]) instanceof TaskNode taskNode)) {
+                continue;
+            }
+            final ContextNode context = taskNode.getContext();
+            final int[] lastTask = lastTaskPerQueue.computeIfAbsent(context, k -> {
+                int[] tasksInQueue = new int[maxCommandQueues];
+                Arrays.fill(tasksInQueue, -1);
+                return tasksInQueue;
+            });
+            final int used = usedQueues.getOrDefault(context, 0);
+
+            int queue = -1;
+            int firstProducerQueue = -1;
+            for (int producer = dependencies[i].nextSetBit(0); producer != -1; producer = dependencies[i].nextSetBit(producer + 1)) {
+                Integer producerQueue = queuePerTask.get(producer);
+                if (producerQueue == null) {
+                    continue;
+                }
+                if (firstProducerQueue == -1) {
+                    firstProducerQueue = producerQueue;
+                }
+                if (lastTask[producerQueue] == producer) {
+                    queue = producerQueue;
+                    break;
+                }
+            }
+
+            if (queue == -1) {
+                if (used < maxCommandQueues) {
+                    queue = used;
+                    usedQueues.put(context, used + 1);
+                } else if (firstProducerQueue != -1) {
+                    queue = firstProducerQueue;
+                } else {
+                    queue = queuePerTask.size() % maxCommandQueues;
+                }
+            }
+
+            commandQueues[i] = queue;
+            queuePerTask.put(nodeIds[i], queue);
+            lastTask[queue] = nodeIds[i];
+            numberOfCommandQueues = Math.max(numberOfCommandQueues, queue + 1);
+        }
+
+        // Data transfers follow the task that consumes (copy-in) or produces (copy-out) the data
+        for (int i = 0; i < nodeIds.length; i++) {
+            final AbstractNode node = graph.getNode(nodeIds[i]);
+            if (node instanceof CopyInNode || node instanceof StreamInNode || node instanceof AllocateNode) {
+                commandQueues[i] = findQueueOfFirstConsumer(i, queuePerTask);
+            } else if (node instanceof CopyOutNode || node instanceof DependentReadNode) {
+                final int producer = dependencies[i].nextSetBit(0);
+                commandQueues[i] = (producer != -1) ? queuePerTask.getOrDefault(producer, 0) : 0;
+            }
+        }
+    }
+
+    private int findQueueOfFirstConsumer(int dataNodeIndex, Map<Integer, Integer> queuePerTask) {
+        for (int j = dataNodeIndex + 1; j < nodeIds.length; j++) {
+            if (tasks.get(j) && dependencies[j].get(nodeIds[dataNodeIndex])) {
+                return queuePerTask.getOrDefault(nodeIds[j], 0);
+            }
+        }
+        return 0;
+    }
+
     public void analyzeDependencies() {
+        final Map<Integer, BitSet> writesPerTask = calculateWritesPerTask(graph);
+        final Map<Integer, BitSet> readersPerObject = new HashMap<>();
         for (int i = asyncNodes.nextSetBit(0); i != -1 && i < asyncNodes.length(); i = asyncNodes.nextSetBit(i + 1)) {
             dependencies[index] = calculateDependencies(graph, i);
             nodeIds[index] = i;
-            if (graph.getNode(i) instanceof TaskNode) {
+            if (graph.getNode(i) instanceof TaskNode taskNode) {
                 tasks.set(index);
+                addWriteAfterReadDependencies(taskNode, writesPerTask, readersPerObject, dependencies[index]);
             }
             if (!dependencies[index].isEmpty()) {
                 numberOfDependencies++;
@@ -110,6 +227,56 @@ public class IntermediateTornadoGraph {
         return dependencies;
     }
 
+    private static Map<Integer, BitSet> calculateWritesPerTask(TornadoGraph graph) {
+        final Map<Integer, BitSet> writesPerTask = new HashMap<>();
+        final BitSet dependentReads = graph.filter(DependentReadNode.class::isInstance);
+        for (int i = dependentReads.nextSetBit(0); i != -1; i = dependentReads.nextSetBit(i + 1)) {
+            DependentReadNode dependentReadNode = (DependentReadNode) graph.getNode(i);
+            writesPerTask.computeIfAbsent(dependentReadNode.getDependent().getId(), k -> new BitSet()).set(dependentReadNode.getValue().getIndex());
+        }
+        return writesPerTask;
+    }
+
+    /**
+     * The data dependencies of the graph only capture read-after-write
+     * dependencies. A task that writes an object must also wait for the
+     * previous tasks on the same device that read it, otherwise both tasks can
+     * overlap when commands are submitted to out-of-order command queues.
+     */
+    private void addWriteAfterReadDependencies(TaskNode taskNode, Map<Integer, BitSet> writesPerTask, Map<Integer, BitSet> readersPerObject, BitSet dependencies) {
+        final BitSet writes = writesPerTask.getOrDefault(taskNode.getId(), new BitSet());
+        for (AbstractNode input : taskNode.getInputs()) {
+            final int objectIndex = getObjectIndex(input);
+            if (objectIndex == -1) {
+                continue;
+            }
+            final BitSet readers = readersPerObject.computeIfAbsent(objectIndex, k -> new BitSet());
+            if (writes.get(objectIndex)) {
+                for (int reader = readers.nextSetBit(0); reader != -1; reader = readers.nextSetBit(reader + 1)) {
+                    if (reader != taskNode.getId() && ((ContextOpNode) graph.getNode(reader)).getContext() == taskNode.getContext()) {
+                        dependencies.set(reader);
+                    }
+                }
+                readers.clear();
+            } else {
+                readers.set(taskNode.getId());
+            }
+        }
+    }
+
+    private static int getObjectIndex(AbstractNode node) {
+        if (node instanceof CopyInNode copyInNode) {
+            return copyInNode.getValue().getIndex();
+        } else if (node instanceof AllocateNode allocateNode) {
+            return allocateNode.getValue().getIndex();
+        } else if (node instanceof StreamInNode streamInNode) {
+            return streamInNode.getValue().getIndex();
+        } else if (node instanceof DependentReadNode dependentReadNode) {
+            return dependentReadNode.getValue().getIndex();
+        }
+        return -1;
+    }
+
     public void printDependencyMatrix() {
         StringBuilder output = new StringBuilder();
         output.append("TornadoGraph dependency matrix...\n");
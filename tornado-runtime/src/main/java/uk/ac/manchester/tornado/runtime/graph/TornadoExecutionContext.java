@@ -63,6 +63,7 @@ import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
 import uk.ac.manchester.tornado.runtime.common.enums.DataTypeSize;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
 import uk.ac.manchester.tornado.runtime.tasks.LocalObjectState;
+import uk.ac.manchester.tornado.runtime.tasks.PipelineEventTable;
 import uk.ac.manchester.tornado.runtime.tasks.meta.ScheduleMetaData;
 
 public class TornadoExecutionContext {
@@ -91,6 +92,9 @@ public class TornadoExecutionContext {
     private boolean isPrintKernel;
 
     private long executionPlanId;  // This is set at runtime. Thus, no need to clone this value.
+    private int pipelineStage = -1;
+    private PipelineEventTable pipelineEventTable;
+    private ImplicitDataTransfers implicitDataTransfers;
 
     public TornadoExecutionContext(String id) {
         name = id;
@@ -677,4 +681,46 @@ public class TornadoExecutionContext {
     public void setExecutionPlanId(long executionPlanId) {
         this.executionPlanId = executionPlanId;
     }
+
+    /**
+     * It sets the stage of the task-graph when the execution plan runs in
+     * pipelined mode.
+     *
+     * @param pipelineStage
+     *     Index of the task-graph in the execution plan, or -1 if the plan is
+     *     not pipelined.
+     * @param pipelineEventTable
+     *     The {@link PipelineEventTable} shared by all task-graphs of the plan.
+     */
+    public void setPipelineStage(int pipelineStage, PipelineEventTable pipelineEventTable) {
+        this.pipelineStage = pipelineStage;
+        this.pipelineEventTable = pipelineEventTable;
+    }
+
+    public int getPipelineStage() {
+        return pipelineStage;
+    }
+
+    public boolean isPipelined() {
+        return pipelineStage >= 0 && pipelineEventTable != null;
+    }
+
+    public PipelineEventTable getPipelineEventTable() {
+        return pipelineEventTable;
+    }
+
+    /**
+     * Sets the data transfers inferred for the task-graph. A null value means
+     * that the transfers declared by the user are used.
+     *
+     * @param implicitDataTransfers
+     *     {@link ImplicitDataTransfers}
+     */
+    public void setImplicitDataTransfers(ImplicitDataTransfers implicitDataTransfers) {
+        this.implicitDataTransfers = implicitDataTransfers;
+    }
+
+    public ImplicitDataTransfers getImplicitDataTransfers() {
+        return implicitDataTransfers;
+    }
 }
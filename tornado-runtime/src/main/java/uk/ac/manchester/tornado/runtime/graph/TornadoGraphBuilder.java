@@ -82,6 +82,14 @@ public class TornadoGraphBuilder {
         persistNode.addValue((ObjectNode) arg);
     }
 
+    private static boolean isStreamIn(ImplicitDataTransfers implicitDataTransfers, List<LocalObjectState> states, int objectIndex) {
+        return implicitDataTransfers != null ? implicitDataTransfers.isStreamIn(objectIndex) : states.get(objectIndex).isStreamIn();
+    }
+
+    private static boolean isStreamOut(ImplicitDataTransfers implicitDataTransfers, List<LocalObjectState> states, int objectIndex) {
+        return implicitDataTransfers != null ? implicitDataTransfers.isStreamOut(objectIndex) : states.get(objectIndex).isStreamOut();
+    }
+
     private static boolean shouldPerformSharedObjectCopy(AbstractNode arg, ContextNode contextNode) {
         return ((ContextOpNode) arg).getContext().getUses().size() != 1 && contextNode.getDeviceIndex() != ((ContextOpNode) arg).getContext().getDeviceIndex();
     }
@@ -125,6 +133,7 @@ public class TornadoGraphBuilder {
         }
 
         final List<LocalObjectState> states = executionContext.getObjectStates();
+        final ImplicitDataTransfers implicitDataTransfers = executionContext.getImplicitDataTransfers();
 
         boolean shouldExit = false;
         while (!shouldExit && buffer.hasRemaining()) {
@@ -144,8 +153,7 @@ public class TornadoGraphBuilder {
                         createAllocateNode(context, graph, arg, args, argIndex, persist);
                     } else {
                         final ObjectNode objectNode = (ObjectNode) arg;
-                        final LocalObjectState state = states.get(objectNode.getIndex());
-                        if (state.isStreamIn()) {
+                        if (isStreamIn(implicitDataTransfers, states, objectNode.getIndex())) {
                             createStreamInNode(context, graph, objectNode, args, argIndex, persist);
                         } else {
                             createCopyInNode(context, graph, arg, args, argIndex, persist);
@@ -237,7 +245,7 @@ public class TornadoGraphBuilder {
         }
 
         for (int i = 0; i < states.size(); i++) {
-            if (states.get(i).isStreamOut()) {
+            if (isStreamOut(implicitDataTransfers, states, i)) {
                 if (objectNodes[i] instanceof DependentReadNode) {
                     final DependentReadNode readNode = (DependentReadNode) objectNodes[i];
                     context = readNode.getContext();
@@ -246,7 +254,7 @@ public class TornadoGraphBuilder {
                     graph.add(copyOutNode);
                     context.addUse(copyOutNode);
                 }
-            } else if (states.get(i).isStreamIn() && objectNodes[i] instanceof ObjectNode) {
+            } else if (isStreamIn(implicitDataTransfers, states, i) && objectNodes[i] instanceof ObjectNode) {
                 final StreamInNode streamInNode = new StreamInNode(context);
                 streamInNode.setValue((ObjectNode) objectNodes[i]);
                 graph.add(streamInNode);
@@ -53,6 +53,8 @@ public class TornadoVMBytecodeBuilder {
 
     private boolean isSingleContext;
 
+    private int currentQueue;
+
     /**
      * It constructs a new TornadoVMBytecodeBuilder instance. Initializes the byte
      * array to hold the bytecode with the maximum bytecode size. Initializes the
@@ -76,7 +78,29 @@ public class TornadoVMBytecodeBuilder {
         bitcodeASM.begin();
     }
 
+    /**
+     * It selects the command queue for the following bytecodes. The bytecode is
+     * only emitted if the queue changes.
+     *
+     * @param queueIndex
+     *     Index of the command queue of the device.
+     */
+    public void selectQueue(int queueIndex) {
+        if (queueIndex != currentQueue) {
+            bitcodeASM.selectQueue(queueIndex);
+            currentQueue = queueIndex;
+        }
+    }
+
+    /**
+     * It emits a barrier in the first command queue of the device. The
+     * interpreter joins the rest of the queues in the barrier.
+     *
+     * @param dep
+     *     Index of the dependency list.
+     */
     public void barrier(int dep) {
+        selectQueue(0);
         bitcodeASM.barrier(dep);
     }
 
@@ -243,6 +267,11 @@ public class TornadoVMBytecodeBuilder {
             buffer.putInt(dep);
         }
 
+        void selectQueue(int queueIndex) {
+            buffer.put(TornadoVMBytecodes.SELECT_QUEUE.value);
+            buffer.putInt(queueIndex);
+        }
+
         void constantArg(int index) {
             buffer.put(TornadoVMBytecodes.PUSH_CONSTANT_ARGUMENT.value);
             buffer.putInt(index);
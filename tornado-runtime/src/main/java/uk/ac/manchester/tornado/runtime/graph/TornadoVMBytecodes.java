@@ -191,7 +191,21 @@ public enum TornadoVMBytecodes {
      * DEALLOC(obj,dest)
      * </code>
      */
-    DEALLOC((byte) 24);
+    DEALLOC((byte) 24),
+
+    /**
+     * Select the command queue of the device used by the following bytecodes.
+     * Independent tasks of a task-graph are placed in different queues to run
+     * concurrently, and the dependencies across queues are resolved with event
+     * wait-lists.
+     * <p>
+     * Format:
+     *
+     * <code>
+     * SELECT_QUEUE(queue index)
+     * </code>
+     */
+    SELECT_QUEUE((byte) 25);
 
     final byte value;
 
@@ -26,6 +26,7 @@ import java.nio.BufferOverflowException;
 import java.util.Arrays;
 import java.util.BitSet;
 
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.runtime.common.BatchConfiguration;
 import uk.ac.manchester.tornado.runtime.common.Tornado;
@@ -60,6 +61,7 @@ public class TornadoVMGraphCompiler {
         TornadoVMBytecodeResult[] tornadoVMBytecodeResults = new TornadoVMBytecodeResult[numContexts];
 
         intermediateTornadoGraph.analyzeDependencies();
+        intermediateTornadoGraph.assignCommandQueues(TornadoOptions.MAX_COMMAND_QUEUES_PER_DEVICE);
 
         Tornado.debug("Compiling bytecodes...");
 
@@ -108,6 +110,11 @@ public class TornadoVMGraphCompiler {
             throw new TornadoRuntimeException("[UNSUPPORTED] Batches can only be enabled for single device execution");
         }
 
+        // Tasks on the JVM backend access the whole arrays on the host, so they cannot run on a batch of the data
+        if (isBatchEnabled && executionContext.getDevices().stream().anyMatch(device -> device != null && device.getTornadoVMBackend() == TornadoVMBackendType.JAVA)) {
+            throw new TornadoRuntimeException("[UNSUPPORTED] Batches are not supported by the JVM backend");
+        }
+
         return isSingleDeviceExecution;
     }
 
@@ -119,12 +126,20 @@ public class TornadoVMGraphCompiler {
 
         long offset = 0;
         long numberOfThreads = batchSize / batchConfiguration.getNumBytesType();
-        for (int i = 0; i < batchConfiguration.getTotalChunks(); i++) {
+        for (long i = 0; i < batchConfiguration.getTotalChunks(); i++) {
             offset = (batchSize * i);
+            if (i > 0) {
+                // Batches reuse the same device buffers. The barrier prevents the copies of the next
+                // batch from overtaking the kernels of the current one in out-of-order command queues.
+                tornadoVMBytecodeBuilder.barrier(intermediateTornadoGraph.getNumberOfDependencies());
+            }
             scheduleAndEmitTornadoVMBytecodes(tornadoVMBytecodeBuilder, graph, intermediateTornadoGraph, offset, batchSize, numberOfThreads, 1, executionContext);
         }
         // Last chunk
         if (batchConfiguration.getRemainingChunkSize() != 0) {
+            if (batchConfiguration.getTotalChunks() > 0) {
+                tornadoVMBytecodeBuilder.barrier(intermediateTornadoGraph.getNumberOfDependencies());
+            }
             offset += (batchSize);
             numberOfThreads = batchConfiguration.getRemainingChunkSize() / batchConfiguration.getNumBytesType();
             long realBatchSize = batchConfiguration.getTotalChunks() == 0 ? 0 : batchConfiguration.getRemainingChunkSize();
@@ -147,6 +162,7 @@ public class TornadoVMGraphCompiler {
             long bufferBatchSize, long nThreads, int id, TornadoExecutionContext executionContext) {
         final int[] nodeIds = intermediateTornadoGraph.getNodeIds();
         final BitSet[] dependencies = intermediateTornadoGraph.getDependencies();
+        final int[] commandQueues = intermediateTornadoGraph.getCommandQueues();
 
         final BitSet scheduled = new BitSet(dependencies.length);
         scheduled.clear();
@@ -177,6 +193,9 @@ public class TornadoVMGraphCompiler {
 
                         if (shouldEmitAsyncNodeForTheCurrentContext(id, asyncNode, tornadoVMBytecodeBuilder.isSingleContext(), executionContext)) {
                             try {
+                                if (!(asyncNode instanceof DependentReadNode)) {
+                                    tornadoVMBytecodeBuilder.selectQueue(commandQueues[i]);
+                                }
                                 tornadoVMBytecodeBuilder.emitAsyncNode(asyncNode, (dependencies[i].isEmpty()) ? -1 : depLists[i], offset, bufferBatchSize, nThreads);
                             } catch (BufferOverflowException e) {
                                 throw new TornadoRuntimeException(
@@ -64,6 +64,7 @@ import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
 import uk.ac.manchester.tornado.runtime.tasks.DataObjectState;
+import uk.ac.manchester.tornado.runtime.tasks.PipelineEventTable;
 import uk.ac.manchester.tornado.runtime.tasks.PrebuiltTask;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
@@ -78,7 +79,12 @@ public class TornadoVMInterpreter {
     private static final Event EMPTY_EVENT = new EmptyEvent();
 
     private static final int MAX_EVENTS = TornadoOptions.MAX_EVENTS;
-    private final boolean useDependencies;
+    private boolean useDependencies;
+    private boolean useMultipleQueues;
+    private int currentQueue;
+    private final int[] lastEventPerQueue;
+    private boolean pipelined;
+    private int pipelineQueueBase;
 
     private final List<Object> objects;
 
@@ -123,6 +129,7 @@ public class TornadoVMInterpreter {
         this.deviceForInterpreter = device;
 
         useDependencies = executionContext.meta().enableOooExecution() || VM_USE_DEPS;
+        lastEventPerQueue = new int[Math.max(1, TornadoOptions.MAX_COMMAND_QUEUES_PER_DEVICE)];
         totalTime = 0;
         invocations = 0;
 
@@ -249,6 +256,20 @@ public class TornadoVMInterpreter {
         isWarmup = isWarmup || VIRTUAL_DEVICE_ENABLED;
         deviceForInterpreter.enableThreadSharing();
 
+        // The out-of-order mode can be changed between executions of the same plan
+        final boolean outOfOrder = executionContext.meta().enableOooExecution();
+        useMultipleQueues = executionContext.meta().isConcurrentTasksEnabled() && deviceForInterpreter.isMultipleCommandQueuesSupported();
+        // In pipelined mode, each task-graph of the plan submits to its own set of command queues
+        pipelined = executionContext.isPipelined();
+        pipelineQueueBase = (pipelined && deviceForInterpreter.isMultipleCommandQueuesSupported()) ? executionContext.getPipelineStage() * lastEventPerQueue.length : 0;
+        useDependencies = outOfOrder || useMultipleQueues || pipelined || VM_USE_DEPS;
+        deviceForInterpreter.setOutOfOrderExecution(executionContext.getExecutionPlanId(), outOfOrder);
+        currentQueue = 0;
+        Arrays.fill(lastEventPerQueue, -1);
+        if (!isWarmup && pipelineQueueBase != 0) {
+            deviceForInterpreter.selectCommandQueue(executionContext.getExecutionPlanId(), pipelineQueueBase);
+        }
+
         if (isMemoryLimitEnabled() && executionContext.doesExceedExecutionPlanLimit()) {
             throw new TornadoMemoryException(STR."OutofMemoryException due to executionPlan.withMemoryLimit of \{executionContext.getExecutionPlanMemoryLimit()}");
         }
@@ -292,7 +313,7 @@ public class TornadoVMInterpreter {
                 if (isWarmup) {
                     continue;
                 }
-                transferHostToDeviceOnce(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
+                lastEvent = transferHostToDeviceOnce(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
             } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value()) {
                 final int objectIndex = bytecodeResult.getInt();
                 final int eventList = bytecodeResult.getInt();
@@ -302,7 +323,7 @@ public class TornadoVMInterpreter {
                 if (isWarmup) {
                     continue;
                 }
-                transferHostToDeviceAlways(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
+                lastEvent = transferHostToDeviceAlways(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
             } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()) {
                 final int objectIndex = bytecodeResult.getInt();
                 final int eventList = bytecodeResult.getInt();
@@ -349,6 +370,14 @@ public class TornadoVMInterpreter {
                     continue;
                 }
                 lastEvent = executeBarrier(tornadoVMBytecodeList, eventList, waitList);
+            } else if (op == TornadoVMBytecodes.SELECT_QUEUE.value()) {
+                final int queueIndex = bytecodeResult.getInt();
+                if (isWarmup || !useMultipleQueues) {
+                    continue;
+                }
+                executeSelectQueue(tornadoVMBytecodeList, queueIndex);
+                // The last event belongs to the previous queue
+                lastEvent = -1;
             } else if (op == TornadoVMBytecodes.END.value()) {
                 if (!isWarmup && TornadoOptions.PRINT_BYTECODES) {
                     tornadoVMBytecodeList.append("bc: ").append(InterpreterUtilities.debugHighLightBC("END\n")).append("\n");
@@ -357,15 +386,28 @@ public class TornadoVMInterpreter {
             } else {
                 throwErrorInterpreter(op);
             }
+
+            if (useMultipleQueues && lastEvent != -1) {
+                lastEventPerQueue[currentQueue] = lastEvent;
+            }
         }
 
         Event barrier = EMPTY_EVENT;
         if (!isWarmup) {
             if (useDependencies) {
-                final int event = deviceForInterpreter.enqueueMarker(executionContext.getExecutionPlanId());
+                final int event = useMultipleQueues
+                        ? deviceForInterpreter.enqueueMarker(executionContext.getExecutionPlanId(), joinCommandQueues(null))
+                        : deviceForInterpreter.enqueueMarker(executionContext.getExecutionPlanId());
                 barrier = deviceForInterpreter.resolveEvent(executionContext.getExecutionPlanId(), event);
             }
 
+            if (pipelineQueueBase != 0) {
+                deviceForInterpreter.selectCommandQueue(executionContext.getExecutionPlanId(), 0);
+                currentQueue = 0;
+            } else if (useMultipleQueues && currentQueue != 0) {
+                executeSelectQueue(tornadoVMBytecodeList, 0);
+            }
+
             if (USE_VM_FLUSH) {
                 deviceForInterpreter.flush(executionContext.getExecutionPlanId());
             }
@@ -428,19 +470,20 @@ public class TornadoVMInterpreter {
         return deviceForInterpreter.deallocate(objectState);
     }
 
-    private void transferHostToDeviceOnce(StringBuilder tornadoVMBytecodeList, final int objectIndex, final long offset, final int eventList, final long sizeBatch, final int[] waitList) {
+    private int transferHostToDeviceOnce(StringBuilder tornadoVMBytecodeList, final int objectIndex, final long offset, final int eventList, final long sizeBatch, final int[] waitList) {
         Object object = objects.get(objectIndex);
 
         if (isObjectKernelContext(object)) {
-            return;
+            return -1;
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+        final int[] transferWaitList = waitForPipelineTransfers(object, waitList);
 
         // We need to stream-in when using batches, because the whole data is not copied
         List<Integer> allEvents = (sizeBatch > 0)
-                ? deviceForInterpreter.streamIn(executionContext.getExecutionPlanId(), object, sizeBatch, offset, objectState, waitList)
-                : deviceForInterpreter.ensurePresent(executionContext.getExecutionPlanId(), object, objectState, waitList, sizeBatch, offset);
+                ? deviceForInterpreter.streamIn(executionContext.getExecutionPlanId(), object, sizeBatch, offset, objectState, transferWaitList)
+                : deviceForInterpreter.ensurePresent(executionContext.getExecutionPlanId(), object, objectState, transferWaitList, sizeBatch, offset);
 
         resetEventIndexes(eventList);
 
@@ -463,13 +506,16 @@ public class TornadoVMInterpreter {
                 timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
             }
         }
+        final int transferEvent = joinTransferEvents(allEvents);
+        recordPipelineTransfer(object, transferEvent);
+        return transferEvent;
     }
 
-    private void transferHostToDeviceAlways(StringBuilder tornadoVMBytecodeList, final int objectIndex, final long offset, final int eventList, final long sizeBatch, final int[] waitList) {
+    private int transferHostToDeviceAlways(StringBuilder tornadoVMBytecodeList, final int objectIndex, final long offset, final int eventList, final long sizeBatch, final int[] waitList) {
         Object object = objects.get(objectIndex);
 
         if (isObjectKernelContext(object)) {
-            return;
+            return -1;
         }
 
         if (TornadoOptions.PRINT_BYTECODES && isObjectAtomic(object)) {
@@ -477,7 +523,8 @@ public class TornadoVMInterpreter {
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
-        List<Integer> allEvents = deviceForInterpreter.streamIn(executionContext.getExecutionPlanId(), object, sizeBatch, offset, objectState, waitList);
+        final int[] transferWaitList = waitForPipelineTransfers(object, waitList);
+        List<Integer> allEvents = deviceForInterpreter.streamIn(executionContext.getExecutionPlanId(), object, sizeBatch, offset, objectState, transferWaitList);
 
         resetEventIndexes(eventList);
 
@@ -496,6 +543,28 @@ public class TornadoVMInterpreter {
                 timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
             }
         }
+        final int transferEvent = joinTransferEvents(allEvents);
+        recordPipelineTransfer(object, transferEvent);
+        return transferEvent;
+    }
+
+    /**
+     * It returns a single event that represents all the commands enqueued for a
+     * host-to-device transfer, so that subsequent commands can depend on it.
+     * When several commands are enqueued (e.g., header and data), a marker
+     * that waits for all of them is enqueued.
+     */
+    private int joinTransferEvents(List<Integer> allEvents) {
+        if (!useDependencies || allEvents == null) {
+            return -1;
+        }
+        final int[] transferEvents = allEvents.stream().filter(e -> e != -1).mapToInt(Integer::intValue).toArray();
+        if (transferEvents.length == 0) {
+            return -1;
+        } else if (transferEvents.length == 1) {
+            return transferEvents[0];
+        }
+        return deviceForInterpreter.enqueueMarker(executionContext.getExecutionPlanId(), transferEvents);
     }
 
     private int transferDeviceToHost(StringBuilder tornadoVMBytecodeList, final int objectIndex, final long offset, final int eventList, final long sizeBatch, final int[] waitList) {
@@ -513,7 +582,8 @@ public class TornadoVMInterpreter {
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
-        int lastEvent = deviceForInterpreter.streamOutBlocking(executionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+        int lastEvent = streamOut(object, offset, sizeBatch, objectState, waitList);
+        recordPipelineTransfer(object, lastEvent);
 
         resetEventIndexes(eventList);
 
@@ -550,7 +620,8 @@ public class TornadoVMInterpreter {
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
 
-        final int tornadoEventID = deviceForInterpreter.streamOutBlocking(executionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+        final int tornadoEventID = streamOut(object, offset, sizeBatch, objectState, waitList);
+        recordPipelineTransfer(object, tornadoEventID);
 
         if (TornadoOptions.isProfilerEnabled() && tornadoEventID != -1) {
             Event event = deviceForInterpreter.resolveEvent(executionContext.getExecutionPlanId(), tornadoEventID);
@@ -568,6 +639,49 @@ public class TornadoVMInterpreter {
         resetEventIndexes(eventList);
     }
 
+    /**
+     * It copies an object back to the host. In pipelined mode the copy does not
+     * block the host, so that the next task-graphs of the plan can be submitted
+     * while this one runs. The execution plan waits for all the copies before
+     * returning.
+     */
+    private int streamOut(Object object, long offset, long sizeBatch, XPUDeviceBufferState objectState, int[] waitList) {
+        final int[] transferWaitList = waitForPipelineTransfers(object, waitList);
+        if (pipelined && sizeBatch <= 0) {
+            return deviceForInterpreter.streamOutNonBlocking(executionContext.getExecutionPlanId(), object, offset, objectState, transferWaitList);
+        }
+        return deviceForInterpreter.streamOutBlocking(executionContext.getExecutionPlanId(), object, offset, objectState, transferWaitList);
+    }
+
+    /**
+     * In pipelined mode, a transfer of an object must be ordered after the last
+     * transfer of the same object issued by another task-graph of the plan. If
+     * that transfer was issued on the same device, its event is added to the
+     * wait-list. Otherwise, the host waits for it.
+     */
+    private int[] waitForPipelineTransfers(Object object, int[] waitList) {
+        if (!pipelined) {
+            return waitList;
+        }
+        PipelineEventTable.HostTransfer transfer = executionContext.getPipelineEventTable().getLastTransfer(object);
+        if (transfer == null || transfer.stage() == executionContext.getPipelineStage()) {
+            return waitList;
+        }
+        if (!transfer.device().equals(deviceForInterpreter)) {
+            transfer.device().resolveEvent(executionContext.getExecutionPlanId(), transfer.event()).waitOn();
+            return waitList;
+        }
+        final int[] transferWaitList = (waitList == null) ? new int[1] : Arrays.copyOf(waitList, waitList.length + 1);
+        transferWaitList[transferWaitList.length - 1] = transfer.event();
+        return transferWaitList;
+    }
+
+    private void recordPipelineTransfer(Object object, int event) {
+        if (pipelined) {
+            executionContext.getPipelineEventTable().record(object, deviceForInterpreter, executionContext.getPipelineStage(), event);
+        }
+    }
+
     private XPUExecutionFrame compileTaskFromBytecodeToBinary(final int callWrapperIndex, final int numArgs, final int eventList, final int taskIndex, final long batchThreads) {
 
         if (deviceForInterpreter.getDeviceContext().wasReset() && finishedWarmup) {
@@ -769,12 +883,50 @@ public class TornadoVMInterpreter {
         }
     }
 
+    private void executeSelectQueue(StringBuilder tornadoVMBytecodeList, int queueIndex) {
+        if (TornadoOptions.PRINT_BYTECODES) {
+            tornadoVMBytecodeList.append(String.format("bc: " + InterpreterUtilities.debugHighLightBC("SELECT_QUEUE") + " %d on %s%n", queueIndex, InterpreterUtilities.debugDeviceBC(
+                    deviceForInterpreter)));
+        }
+        deviceForInterpreter.selectCommandQueue(executionContext.getExecutionPlanId(), pipelineQueueBase + queueIndex);
+        currentQueue = queueIndex;
+    }
+
+    /**
+     * It extends a wait-list with the last event of every other command queue in
+     * use, so that a command waits for all the work submitted to the device.
+     */
+    private int[] joinCommandQueues(int[] waitList) {
+        final int[] joined = new int[(waitList == null ? 0 : waitList.length) + lastEventPerQueue.length];
+        int size = 0;
+        if (waitList != null) {
+            for (int event : waitList) {
+                if (event != -1) {
+                    joined[size++] = event;
+                }
+            }
+        }
+        for (int queue = 0; queue < lastEventPerQueue.length; queue++) {
+            if (queue != currentQueue && lastEventPerQueue[queue] != -1) {
+                joined[size++] = lastEventPerQueue[queue];
+            }
+        }
+        return Arrays.copyOf(joined, size);
+    }
+
     private int executeBarrier(StringBuilder tornadoVMBytecodeList, int eventList, int[] waitList) {
         if (TornadoOptions.PRINT_BYTECODES) {
             tornadoVMBytecodeList.append(String.format("bc: " + InterpreterUtilities.debugHighLightBC("BARRIER") + " event-list %d%n", eventList));
         }
 
-        int lastEvent = deviceForInterpreter.enqueueMarker(executionContext.getExecutionPlanId(), waitList);
+        if (useMultipleQueues) {
+            waitList = joinCommandQueues(waitList);
+        }
+
+        // A marker does not prevent later commands from starting in an out-of-order queue
+        int lastEvent = executionContext.meta().enableOooExecution()
+                ? deviceForInterpreter.enqueueBarrier(executionContext.getExecutionPlanId(), waitList)
+                : deviceForInterpreter.enqueueMarker(executionContext.getExecutionPlanId(), waitList);
 
         resetEventIndexes(eventList);
         return lastEvent;
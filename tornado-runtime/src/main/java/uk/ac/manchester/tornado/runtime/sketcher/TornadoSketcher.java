@@ -141,6 +141,8 @@ public class TornadoSketcher {
         TornadoCompilerIdentifier id = new TornadoCompilerIdentifier("sketch-" + resolvedMethod.getName(), sketchId.getAndIncrement());
         Builder builder = new Builder(getOptions(), getDebugContext(), AllowAssumptions.YES);
         builder.method(resolvedMethod);
+        // Kernels must not depend on the profiles of runs on the host (e.g. with the KernelEmulator)
+        builder.profileProvider(null);
         builder.compilationId(id);
         builder.name(STR."sketch-\{resolvedMethod.getName()}");
         final StructuredGraph graph = builder.build();
@@ -50,6 +50,19 @@ public class DataObjectState implements ObjectState {
         return deviceStates.get(device);
     }
 
+    /**
+     * It binds an existing buffer state to a device. This is used to share a
+     * device buffer between task-graphs of different execution plans.
+     *
+     * @param device
+     *     Device in which the buffer is allocated.
+     * @param deviceBufferState
+     *     State of the buffer.
+     */
+    public void setDeviceBufferState(TornadoXPUDevice device, XPUDeviceBufferState deviceBufferState) {
+        deviceStates.put(device, deviceBufferState);
+    }
+
     @Override
     public DataObjectState clone() {
         DataObjectState dataObjectState = new DataObjectState();
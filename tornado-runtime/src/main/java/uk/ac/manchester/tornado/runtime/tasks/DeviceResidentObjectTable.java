@@ -0,0 +1,145 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+
+/**
+ * Table of objects that stay resident on a device across execution plans. A
+ * task-graph that persists an object publishes its device buffer here, and
+ * task-graphs of other execution plans that consume the object bind the same
+ * buffer instead of copying the data from the host again.
+ *
+ * <p>
+ * Each buffer keeps track of the task-graphs that use it. The buffer is
+ * released from the device when the last of them frees its device memory.
+ * </p>
+ */
+public final class DeviceResidentObjectTable {
+
+    private static final Map<Object, Map<TornadoXPUDevice, ResidentBuffer>> residentObjects = new IdentityHashMap<>();
+
+    private static final class ResidentBuffer {
+        private final XPUDeviceBufferState deviceBufferState;
+        private final Set<Object> owners;
+
+        private ResidentBuffer(XPUDeviceBufferState deviceBufferState) {
+            this.deviceBufferState = deviceBufferState;
+            this.owners = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+    }
+
+    private DeviceResidentObjectTable() {
+    }
+
+    /**
+     * It publishes the device buffer of an object.
+     *
+     * @param object
+     *     Host object.
+     * @param device
+     *     Device in which the buffer is allocated.
+     * @param deviceBufferState
+     *     State of the buffer in the device.
+     * @param owner
+     *     Task-graph that persists the object.
+     */
+    public static synchronized void persist(Object object, TornadoXPUDevice device, XPUDeviceBufferState deviceBufferState, Object owner) {
+        if (!deviceBufferState.hasObjectBuffer()) {
+            return;
+        }
+        Map<TornadoXPUDevice, ResidentBuffer> buffers = residentObjects.computeIfAbsent(object, k -> new HashMap<>());
+        ResidentBuffer residentBuffer = buffers.get(device);
+        if (residentBuffer == null || residentBuffer.deviceBufferState != deviceBufferState) {
+            residentBuffer = new ResidentBuffer(deviceBufferState);
+            buffers.put(device, residentBuffer);
+        }
+        residentBuffer.owners.add(owner);
+    }
+
+    /**
+     * It obtains the device buffer of a persisted object, and registers the
+     * owner as a user of the buffer.
+     *
+     * @param object
+     *     Host object.
+     * @param device
+     *     Device in which the buffer is expected.
+     * @param owner
+     *     Task-graph that consumes the object.
+     * @return The {@link XPUDeviceBufferState} of the object, or null if the
+     *     object is not resident in the device.
+     */
+    public static synchronized XPUDeviceBufferState bind(Object object, TornadoXPUDevice device, Object owner) {
+        Map<TornadoXPUDevice, ResidentBuffer> buffers = residentObjects.get(object);
+        if (buffers == null || !buffers.containsKey(device)) {
+            return null;
+        }
+        ResidentBuffer residentBuffer = buffers.get(device);
+        residentBuffer.owners.add(owner);
+        return residentBuffer.deviceBufferState;
+    }
+
+    /**
+     * It removes the owner from the users of a resident buffer. The buffer is
+     * deallocated when no other task-graph uses it.
+     *
+     * @param object
+     *     Host object.
+     * @param device
+     *     Device in which the buffer is allocated.
+     * @param owner
+     *     Task-graph that frees its device memory.
+     * @return True if the owner was using the resident buffer.
+     */
+    public static synchronized boolean release(Object object, TornadoXPUDevice device, Object owner) {
+        Map<TornadoXPUDevice, ResidentBuffer> buffers = residentObjects.get(object);
+        if (buffers == null || !buffers.containsKey(device)) {
+            return false;
+        }
+        ResidentBuffer residentBuffer = buffers.get(device);
+        if (!residentBuffer.owners.remove(owner)) {
+            return false;
+        }
+        if (residentBuffer.owners.isEmpty()) {
+            XPUDeviceBufferState deviceBufferState = residentBuffer.deviceBufferState;
+            deviceBufferState.setLockBuffer(false);
+            if (deviceBufferState.hasObjectBuffer()) {
+                device.deallocate(deviceBufferState);
+            }
+            buffers.remove(device);
+            if (buffers.isEmpty()) {
+                residentObjects.remove(object);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+
+/**
+ * It keeps, for an execution plan running in pipelined mode, the last data
+ * transfer between the host and a device for each object. The task-graphs of
+ * the plan are submitted without waiting for the previous ones, so a transfer
+ * of an object must wait for the transfers of the same object issued by other
+ * task-graphs of the plan.
+ */
+public class PipelineEventTable {
+
+    private static final Map<Long, PipelineEventTable> tables = new ConcurrentHashMap<>();
+
+    private final Map<Object, HostTransfer> lastTransfers;
+
+    /**
+     * A data transfer between the host and a device.
+     *
+     * @param device
+     *     Device that performed the transfer.
+     * @param stage
+     *     Index of the task-graph in the execution plan.
+     * @param event
+     *     Event identifier of the transfer in the device.
+     */
+    public record HostTransfer(TornadoXPUDevice device, int stage, int event) {
+    }
+
+    private PipelineEventTable() {
+        lastTransfers = Collections.synchronizedMap(new IdentityHashMap<>());
+    }
+
+    public static PipelineEventTable get(long executionPlanId) {
+        return tables.computeIfAbsent(executionPlanId, k -> new PipelineEventTable());
+    }
+
+    public static void remove(long executionPlanId) {
+        tables.remove(executionPlanId);
+    }
+
+    /**
+     * Clears all transfers. It is invoked by the first task-graph of each
+     * execution of the plan.
+     */
+    public void reset() {
+        lastTransfers.clear();
+    }
+
+    public void record(Object object, TornadoXPUDevice device, int stage, int event) {
+        if (event != -1) {
+            lastTransfers.put(object, new HostTransfer(device, stage, event));
+        }
+    }
+
+    public HostTransfer getLastTransfer(Object object) {
+        return lastTransfers.get(object);
+    }
+}
@@ -37,6 +37,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -56,11 +57,13 @@ import uk.ac.manchester.tornado.api.DRMode;
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
 import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.KernelEmulator;
 import uk.ac.manchester.tornado.api.Policy;
 import uk.ac.manchester.tornado.api.TaskGraph;
 import uk.ac.manchester.tornado.api.TornadoBackend;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 import uk.ac.manchester.tornado.api.TornadoTaskGraphInterface;
+import uk.ac.manchester.tornado.api.WorkerGrid;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.PrebuiltTaskPackage;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
@@ -85,6 +88,7 @@ import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task9;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoDynamicReconfigurationException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
@@ -98,6 +102,7 @@ import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.TornadoVM;
 import uk.ac.manchester.tornado.runtime.analyzer.MetaReduceCodeAnalysis;
@@ -111,6 +116,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoVMClient;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSuitesProvider;
+import uk.ac.manchester.tornado.runtime.graph.ImplicitDataTransfers;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraph;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraphBuilder;
@@ -175,6 +181,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private List<StreamingObject> inputModesObjects; // List of objects with its data transfer mode (IN)
 
     private List<StreamingObject> outputModeObjects; // List of objects with its data transfer mode (OUT)
+
+    private Set<Object> persistentObjects; // Objects whose device buffers are shared with other execution plans
+    private Set<Object> consumedObjects; // Objects whose device buffers are taken from other execution plans
+    private List<Object> lazyStreamOutObjects; // Objects copied to the host when the host accesses them
+    private Set<Object> subBufferViews; // Views of native arrays backed by a region of the device buffer of their parent
     private ConcurrentHashMap<Policy, Integer> policyTimeTable = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerOutputs = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerInputs = new ConcurrentHashMap<>();
@@ -191,12 +202,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private boolean updateData;
     private boolean isFinished;
     private GridScheduler gridScheduler;
+    private GridScheduler executionPlanGridScheduler;
+    private GridScheduler defaultGridScheduler;
 
     private ProfilerMode profilerMode;
 
     private boolean isConcurrentDevicesEnabled;
     private long executionPlanId;
     private boolean bailout;
+    private long implicitTransferSavedBytes;
+    private boolean dataTransfersUpdated;
 
     /**
      * Task Schedule implementation that uses GPU/FPGA and multicore backends. This constructor must be public. It is invoked using the reflection API.
@@ -219,6 +234,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         streamInObjects = new ArrayList<>();
         inputModesObjects = new ArrayList<>();
         outputModeObjects = new ArrayList<>();
+        persistentObjects = new HashSet<>();
+        consumedObjects = new HashSet<>();
+        lazyStreamOutObjects = new ArrayList<>();
+        subBufferViews = Collections.newSetFromMap(new IdentityHashMap<>());
     }
 
     static void performStreamInObject(TaskGraph task, Object inputObject, final int dataTransferMode) {
@@ -406,6 +425,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
         newTaskGraph.taskPackages = Collections.unmodifiableList(this.taskPackages);
         newTaskGraph.argumentsLookUp = Collections.unmodifiableSet(this.argumentsLookUp);
+        newTaskGraph.persistentObjects = Collections.unmodifiableSet(this.persistentObjects);
+        newTaskGraph.consumedObjects = Collections.unmodifiableSet(this.consumedObjects);
+        newTaskGraph.lazyStreamOutObjects = Collections.unmodifiableList(this.lazyStreamOutObjects);
 
         newTaskGraph.reduceTaskGraph = this.reduceTaskGraph;
         newTaskGraph.analysisTaskGraph = this.analysisTaskGraph;
@@ -413,6 +435,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
         newTaskGraph.timeProfiler = this.timeProfiler;
         newTaskGraph.gridScheduler = this.gridScheduler;
+        newTaskGraph.executionPlanGridScheduler = this.executionPlanGridScheduler;
+        newTaskGraph.defaultGridScheduler = this.defaultGridScheduler;
+
+        // A task that bailed out when it was added runs in Java when the snapshot executes
+        newTaskGraph.bailout = this.bailout;
 
         // Pass the profiler to the execution context
         newTaskGraph.executionContext.withProfiler(timeProfiler);
@@ -455,6 +482,49 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         this.isConcurrentDevicesEnabled = false;
     }
 
+    @Override
+    public void withOutOfOrderExecution() {
+        meta().setOooExecution(true);
+    }
+
+    @Override
+    public void withoutOutOfOrderExecution() {
+        meta().setOooExecution(false);
+    }
+
+    @Override
+    public void withConcurrentTasks() {
+        meta().setConcurrentTasks(true);
+    }
+
+    @Override
+    public void withoutConcurrentTasks() {
+        meta().setConcurrentTasks(false);
+    }
+
+    @Override
+    public void withImplicitDataTransfers() {
+        setImplicitDataTransfers(true);
+    }
+
+    @Override
+    public void withoutImplicitDataTransfers() {
+        setImplicitDataTransfers(false);
+    }
+
+    private void setImplicitDataTransfers(boolean enable) {
+        if (meta().isImplicitDataTransfersEnabled() != enable) {
+            meta().setImplicitDataTransfers(enable);
+            // The TornadoVM bytecodes must be generated again with the new data transfers
+            dataTransfersUpdated = true;
+        }
+    }
+
+    @Override
+    public long getImplicitTransferSavedBytes() {
+        return implicitTransferSavedBytes;
+    }
+
     @Override
     public void withThreadInfo() {
         meta().enableThreadInfo();
@@ -477,10 +547,41 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void withGridScheduler(GridScheduler gridScheduler) {
-        this.gridScheduler = gridScheduler;
+        this.executionPlanGridScheduler = gridScheduler;
+        updateGridScheduler();
         checkGridSchedulerNames();
     }
 
+    @Override
+    public void withDefaultWorkerGrid(String taskId, WorkerGrid workerGrid) {
+        if (defaultGridScheduler == null) {
+            defaultGridScheduler = new GridScheduler();
+        }
+        defaultGridScheduler.setWorkerGrid(STR."\{taskGraphName}.\{taskId}", workerGrid);
+        updateGridScheduler();
+    }
+
+    /**
+     * The grid scheduler of the execution plan is used as it is, unless the
+     * task-graph has default worker grids. In that case, the worker grids of the
+     * execution plan take precedence over the default ones.
+     */
+    private void updateGridScheduler() {
+        if (defaultGridScheduler == null) {
+            gridScheduler = executionPlanGridScheduler;
+            return;
+        }
+        gridScheduler = new GridScheduler();
+        for (String taskName : defaultGridScheduler.keySet()) {
+            gridScheduler.setWorkerGrid(taskName, defaultGridScheduler.get(taskName));
+        }
+        if (executionPlanGridScheduler != null) {
+            for (String taskName : executionPlanGridScheduler.keySet()) {
+                gridScheduler.setWorkerGrid(taskName, executionPlanGridScheduler.get(taskName));
+            }
+        }
+    }
+
     @Override
     public SchedulableTask getTask(String id) {
         return executionContext.getTask(id);
@@ -508,6 +609,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             return;
         }
 
+        if (!TornadoOptions.DEVICE_BUFFER_MIGRATION) {
+            // Results that are only on the old device would be lost
+            syncLazyStreamOutObjects();
+        }
+
         meta().setDevice(device);
 
         // Make sure that a sketch is available for the device.
@@ -523,21 +629,56 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
 
         //Release locked buffers from the old device and lock them on the new one.
+        migrateLockedBuffers(oldDevice, device);
+
+        // Set Thread-Schedulers to Default Value
+        for (int i = 0; i < executionContext.getTaskCount(); i++) {
+            SchedulableTask task = executionContext.getTask(i);
+            task.meta().resetThreadBlocks();
+        }
+
+    }
+
+    private void migrateLockedBuffers(TornadoDevice oldDevice, TornadoDevice device) {
         for (LocalObjectState localState : executionContext.getObjectStates()) {
             final DataObjectState dataObjectState = localState.getDataObjectState();
             final XPUDeviceBufferState deviceState = dataObjectState.getDeviceBufferState(oldDevice);
             if (deviceState.isLockedBuffer()) {
+                if (subBufferViews.remove(localState.getObject())) {
+                    // Views are bound to the buffer of their parent in the new device
+                    releaseObjectFromDeviceMemory(localState, oldDevice);
+                    continue;
+                }
+                if (TornadoOptions.DEVICE_BUFFER_MIGRATION) {
+                    migrateDeviceBuffer(localState, (TornadoXPUDevice) oldDevice, (TornadoXPUDevice) device);
+                }
                 releaseObjectFromDeviceMemory(localState, oldDevice);
                 reuseDeviceBufferObject(localState, device);
             }
         }
+    }
 
-        // Set Thread-Schedulers to Default Value
-        for (int i = 0; i < executionContext.getTaskCount(); i++) {
-            SchedulableTask task = executionContext.getTask(i);
-            task.meta().resetThreadBlocks();
+    /**
+     * It copies the content of a buffer from the old device to the new device.
+     * Only buffers with content are migrated. If the new device cannot copy from
+     * the old one, the data is transferred from the host in the next execution,
+     * as before.
+     */
+    private void migrateDeviceBuffer(LocalObjectState localState, TornadoXPUDevice oldDevice, TornadoXPUDevice device) {
+        final DataObjectState dataObjectState = localState.getDataObjectState();
+        final XPUDeviceBufferState oldState = dataObjectState.getDeviceBufferState(oldDevice);
+        if (!oldState.hasObjectBuffer() || !oldState.hasContent() || oldState.isAtomicRegionPresent()) {
+            return;
+        }
+        final XPUDeviceBufferState newState = dataObjectState.getDeviceBufferState(device);
+        if (!newState.hasObjectBuffer()) {
+            device.allocate(localState.getObject(), 0, newState);
+        }
+        if (device.copyBufferFromDevice(executionPlanId, oldDevice, oldState, newState)) {
+            newState.setContents(true);
+        } else {
+            newState.setContents(false);
         }
-
     }
 
     private void reuseDeviceBuffersForSameDevice(TornadoDevice device) {
@@ -551,6 +692,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
         TornadoDevice oldDevice = meta().getLogicDevice();
 
+        if (!TornadoOptions.DEVICE_BUFFER_MIGRATION) {
+            // Results that are only on the old device would be lost
+            syncLazyStreamOutObjects();
+        }
+
         // Make sure that a sketch is available for the device.
         for (int i = 0; i < executionContext.getTaskCount(); i++) {
             SchedulableTask task = executionContext.getTask(i);
@@ -567,14 +713,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
 
         // Release locked buffers from the old device and lock them on the new one.
-        for (LocalObjectState localState : executionContext.getObjectStates()) {
-            final DataObjectState dataObjectState = localState.getDataObjectState();
-            final XPUDeviceBufferState deviceState = dataObjectState.getDeviceBufferState(oldDevice);
-            if (deviceState.isLockedBuffer()) {
-                releaseObjectFromDeviceMemory(localState, oldDevice);
-                reuseDeviceBufferObject(localState, device);
-            }
-        }
+        migrateLockedBuffers(oldDevice, device);
 
         // Set Thread-Schedulers to Default Value
         for (int i = 0; i < executionContext.getTaskCount(); i++) {
@@ -673,6 +812,13 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.limit(hlBuffer.position());
 
+        dataTransfersUpdated = false;
+        if (meta().isImplicitDataTransfersEnabled()) {
+            executionContext.setImplicitDataTransfers(ImplicitDataTransfers.analyse(executionContext, inputModesObjects, outputModeObjects));
+        } else {
+            executionContext.setImplicitDataTransfers(null);
+        }
+
         final TornadoGraph tornadoGraph = TornadoGraphBuilder.buildGraph(executionContext, buffer);
 
         if (setNewDevice) {
@@ -724,6 +870,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             return COMPILE_ONLY;
         }
 
+        if (dataTransfersUpdated) {
+            return COMPILE_ONLY;
+        }
+
         if (!compareDevices(executionContext.getLastDevices(), meta().getLogicDevice())) {
             return COMPILE_AND_UPDATE;
         }
@@ -844,7 +994,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     private void deoptimiseToSequentialJava(TornadoBailoutRuntimeException e) {
         dumpDeoptimisationReason(e);
-        runAllTasksJavaSequential();
+        runAllTasksJavaFallback();
     }
 
     @Override
@@ -866,7 +1016,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 if (Tornado.DEBUG) {
                     e.printStackTrace();
                 }
-                throw new TornadoBailoutRuntimeException(STR."Bailout is disabled. \nReason: \{e.getMessage()}");
+                throw new TornadoBailoutRuntimeException(STR."Bailout is disabled. \nReason: \{e.getMessage()}", e);
             }
         }
 
@@ -970,9 +1120,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 throw new TornadoRuntimeException("[ERROR] Scalar value used as output. Use an array or a vector-type instead");
             }
 
+            if (functionParameter instanceof TornadoNativeArray nativeArray && nativeArray.getSegmentWithHeader().isReadOnly()) {
+                // e.g., arrays mapped from files
+                throw new TornadoRuntimeException(STR."[ERROR] Read-only native array used as output in schedule \{executionContext.getId()}");
+            }
+
             // If the object mode is set to LAST then we *only* insert it in the lookup
             // hash-set.
-            if (mode != DataTransferMode.UNDER_DEMAND) {
+            if (mode == DataTransferMode.LAZY) {
+                lazyStreamOutObjects.add(functionParameter);
+            } else if (mode != DataTransferMode.UNDER_DEMAND) {
                 streamOutObjects.add(functionParameter);
                 executionContext.getLocalStateObject(functionParameter).setStreamOut(true);
             }
@@ -980,7 +1137,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             // List of output objects for the dynamic reconfiguration
             outputModeObjects.add(new StreamingObject(mode, functionParameter));
 
-            if (TornadoOptions.isReusedBuffersEnabled() || mode == DataTransferMode.UNDER_DEMAND) {
+            if (TornadoOptions.isReusedBuffersEnabled() || mode == DataTransferMode.UNDER_DEMAND || mode == DataTransferMode.LAZY) {
                 if (!argumentsLookUp.contains(functionParameter)) {
                     // We already set function parameter in transferToDevice
                     lockObjectsInMemory(functionParameter);
@@ -991,6 +1148,133 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
+    @Override
+    public void persistOnDevice(Object... objects) {
+        for (Object object : objects) {
+            if (object == null) {
+                throw new TornadoRuntimeException(STR."[ERROR] null object passed into persistOnDevice() in schedule \{executionContext.getId()}");
+            }
+            persistentObjects.add(object);
+            lockObjectsInMemory(object);
+        }
+    }
+
+    @Override
+    public void consumeFromDevice(Object... objects) {
+        for (Object object : objects) {
+            if (object == null) {
+                throw new TornadoRuntimeException(STR."[ERROR] null object passed into consumeFromDevice() in schedule \{executionContext.getId()}");
+            }
+            consumedObjects.add(object);
+        }
+        // If the object is not resident on the device, it is copied from the host in the first execution
+        transferToDevice(DataTransferMode.FIRST_EXECUTION, objects);
+    }
+
+    /**
+     * It binds the device buffers published by other execution plans to the
+     * objects consumed by this task-graph.
+     */
+    private void bindDeviceResidentObjects() {
+        final TornadoXPUDevice device = meta().getLogicDevice();
+        for (Object object : consumedObjects) {
+            final DataObjectState dataObjectState = executionContext.getLocalStateObject(object).getDataObjectState();
+            if (dataObjectState.getDeviceBufferState(device).hasObjectBuffer()) {
+                continue;
+            }
+            XPUDeviceBufferState residentState = DeviceResidentObjectTable.bind(object, device, this);
+            if (residentState != null) {
+                dataObjectState.setDeviceBufferState(device, residentState);
+            }
+        }
+    }
+
+    /**
+     * Views of native arrays whose parent is also an object of this task-graph
+     * are backed by a region of the device buffer of the parent, if the device
+     * supports it. The parent is allocated if needed, and both buffers are kept
+     * on the device across executions. Views that cannot be bound are allocated
+     * and transferred as any other object.
+     */
+    private void bindSubBufferViews() {
+        final TornadoXPUDevice device = meta().getLogicDevice();
+        for (Object object : executionContext.getObjects()) {
+            if (!(object instanceof TornadoNativeArray view) || !view.isView() || subBufferViews.contains(view) || !isObjectOfTaskGraph(view.getViewParent())) {
+                continue;
+            }
+            final XPUDeviceBufferState viewState = executionContext.getLocalStateObject(view).getDataObjectState().getDeviceBufferState(device);
+            if (viewState.hasObjectBuffer()) {
+                continue;
+            }
+            final Object parent = view.getViewParent();
+            final XPUDeviceBufferState parentState = executionContext.getLocalStateObject(parent).getDataObjectState().getDeviceBufferState(device);
+            if (!parentState.hasObjectBuffer()) {
+                device.allocate(parent, 0, parentState);
+            }
+            lockObjectsInMemory(parent);
+            if (device.allocateSubBuffer(view, parentState, view.getViewOffset(), viewState)) {
+                viewState.setContents(parentState.hasContent());
+                lockObjectsInMemory(view);
+                subBufferViews.add(view);
+            }
+        }
+    }
+
+    private boolean isObjectOfTaskGraph(Object object) {
+        for (Object taskGraphObject : executionContext.getObjects()) {
+            if (taskGraphObject == object) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Native arrays that are newer on a device are copied to the host before they
+     * are transferred to the device again. Otherwise, the device would receive the
+     * stale host copy.
+     */
+    private void syncDeviceNewerInputs() {
+        for (Object object : streamInObjects) {
+            if (object instanceof TornadoNativeArray nativeArray && nativeArray.isDeviceNewer()) {
+                nativeArray.syncFromDevice();
+            }
+        }
+    }
+
+    /**
+     * Objects transferred with {@link DataTransferMode#LAZY} stay on the device.
+     * Native arrays are marked as device-newer, so the host copy is updated when
+     * the host accesses them.
+     */
+    private void markLazyStreamOutObjects() {
+        if (meta().getLogicDevice().getTornadoVMBackend() == TornadoVMBackendType.JAVA) {
+            // Tasks on the JVM backend access the host copy of the arrays
+            return;
+        }
+        for (Object object : lazyStreamOutObjects) {
+            if (object instanceof TornadoNativeArray nativeArray) {
+                nativeArray.markDeviceNewer((offset, size) -> syncRuntimeTransferToHost(nativeArray, offset, size));
+            }
+        }
+    }
+
+    private void syncLazyStreamOutObjects() {
+        for (Object object : lazyStreamOutObjects) {
+            if (object instanceof TornadoNativeArray nativeArray) {
+                nativeArray.syncFromDevice();
+            }
+        }
+    }
+
+    private void persistDeviceResidentObjects() {
+        final TornadoXPUDevice device = meta().getLogicDevice();
+        for (Object object : persistentObjects) {
+            final XPUDeviceBufferState deviceState = executionContext.getLocalStateObject(object).getDataObjectState().getDeviceBufferState(device);
+            DeviceResidentObjectTable.persist(object, device, deviceState, this);
+        }
+    }
+
     @Override
     public void dump() {
         final int width = 16;
@@ -1046,19 +1330,30 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     @Override
     public void freeDeviceMemory() {
         free();
+        PipelineEventTable.remove(executionPlanId);
     }
 
     private void free() {
         if (vm == null) {
             return;
         }
+        syncLazyStreamOutObjects();
+        // Views are released before the buffers of their parents
+        subBufferViews.forEach(view -> releaseObjectFromDeviceMemory(executionContext.getLocalStateObject(view), meta().getLogicDevice()));
+        subBufferViews.clear();
         inputModesObjects.forEach(inputStreamObject -> freeDeviceMemoryObject(inputStreamObject.getObject()));
         outputModeObjects.forEach(outputStreamObject -> freeDeviceMemoryObject(outputStreamObject.getObject()));
     }
 
     private void freeDeviceMemoryObject(Object object) {
         final LocalObjectState localState = executionContext.getLocalStateObject(object);
-        releaseObjectFromDeviceMemory(localState, meta().getLogicDevice());
+        final TornadoXPUDevice device = meta().getLogicDevice();
+        if ((persistentObjects.contains(object) || consumedObjects.contains(object)) && DeviceResidentObjectTable.release(object, device, this)) {
+            // The buffer is owned by the table from now on. Other execution plans might still use it.
+            localState.getDataObjectState().setDeviceBufferState(device, new XPUDeviceBufferState());
+            return;
+        }
+        releaseObjectFromDeviceMemory(localState, device);
     }
 
     private void releaseObjectFromDeviceMemory(final LocalObjectState localState, final TornadoDevice device) {
@@ -1086,6 +1381,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         final TornadoXPUDevice device = meta().getLogicDevice();
         final XPUDeviceBufferState deviceState = dataObjectState.getDeviceBufferState(device);
         if (deviceState.isLockedBuffer()) {
+            // Full copy, even if a partial copy of the same object was requested before
+            deviceState.setPartialCopySize(0);
             return device.resolveEvent(executionPlanId, device.streamOutBlocking(executionPlanId, object, 0, deviceState, null));
         }
         return null;
@@ -1120,7 +1417,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         if (batchSizeBytes != TornadoExecutionContext.INIT_VALUE) {
             BatchConfiguration batchConfiguration = BatchConfiguration.computeChunkSizes(executionContext, batchSizeBytes);
             long hostOffset = 0;
-            for (int i = 0; i < batchConfiguration.getTotalChunks(); i++) {
+            for (long i = 0; i < batchConfiguration.getTotalChunks(); i++) {
                 hostOffset = (batchSizeBytes * i);
                 eventParameter = syncObjectInnerLazy(object, hostOffset, batchSizeBytes);
             }
@@ -1161,6 +1458,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 Event eventParameter = syncParameter(object);
                 events.add(eventParameter);
             }
+            if (object instanceof TornadoNativeArray nativeArray) {
+                nativeArray.clearDeviceNewer();
+            }
         }
 
         if (TornadoOptions.isProfilerEnabled()) {
@@ -1324,15 +1624,24 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         if (!TornadoOptions.RECOVER_BAILOUT) {
             throw new TornadoBailoutRuntimeException("[TornadoVM] Error - Recover option disabled");
         } else {
-            runAllTasksJavaSequential();
+            runAllTasksJavaFallback();
+        }
+    }
+
+    private void bailout(TornadoRuntimeException e) {
+        if (!TornadoOptions.RECOVER_BAILOUT) {
+            throw new TornadoBailoutRuntimeException(STR."[TornadoVM] Error - Recover option disabled. \nReason: \{e.getMessage()}", e);
+        } else {
+            runAllTasksJavaFallback();
         }
     }
 
     private TornadoTaskGraphInterface execute() {
 
-        // check if bailout due to task-rewriting
+        // check if bailout due to task-rewriting. The tasks already ran in Java
         if (bailout) {
             bailout();
+            return this;
         }
 
         isFinished = false;
@@ -1363,10 +1672,18 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         analysisTaskGraph = null;
 
         try {
+            bindDeviceResidentObjects();
+            bindSubBufferViews();
+            syncDeviceNewerInputs();
             scheduleInner();
+            persistDeviceResidentObjects();
+            markLazyStreamOutObjects();
+            if (executionContext.getImplicitDataTransfers() != null) {
+                implicitTransferSavedBytes += executionContext.getImplicitDataTransfers().getSavedBytesPerExecution();
+            }
             cleanUp();
         } catch (TornadoRuntimeException e) {
-            bailout();
+            bailout(e);
         }
         return this;
     }
@@ -1374,6 +1691,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     @Override
     public TornadoTaskGraphInterface execute(ExecutorFrame executionPackage) {
         executionPlanId = executionPackage.getExecutionPlanId();
+        setupPipelineStage(executionPackage.getPipelineStage());
         if (executionPackage.getDynamicReconfigurationPolicy() == null) {
             return execute();
         } else {
@@ -1386,6 +1704,18 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
+    private void setupPipelineStage(int stage) {
+        if (stage < 0) {
+            executionContext.setPipelineStage(-1, null);
+            return;
+        }
+        PipelineEventTable pipelineEventTable = PipelineEventTable.get(executionPlanId);
+        if (stage == 0) {
+            pipelineEventTable.reset();
+        }
+        executionContext.setPipelineStage(stage, pipelineEventTable);
+    }
+
     private boolean isTaskNamePresent(String taskName) {
         for (TaskPackage taskPackage : taskPackages) {
             if (taskName.equals(STR."\{taskGraphName}.\{taskPackage.getId()}")) {
@@ -1405,92 +1735,103 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Runs a task in Java. A task that uses a {@link KernelContext} and has a
+     * worker grid runs in the {@link KernelEmulator}, once per work-item.
+     */
     private void runSequentialCodeInThread(TaskPackage taskPackage) {
-        int type = taskPackage.getTaskType();
+        Object[] parameters = taskPackage.getTaskParameters();
+        WorkerGrid workerGrid = (gridScheduler == null) ? null : gridScheduler.get(STR."\{taskGraphName}.\{taskPackage.getId()}");
+        int contextIndex = -1;
+        for (int i = 1; i < parameters.length; i++) {
+            if (parameters[i] instanceof KernelContext) {
+                contextIndex = i;
+            }
+        }
+        if (workerGrid == null || contextIndex < 0) {
+            runSequentialCode(taskPackage.getTaskType(), parameters);
+            return;
+        }
+        final int kernelContextIndex = contextIndex;
+        new KernelEmulator().execute(workerGrid, context -> {
+            Object[] workItemParameters = parameters.clone();
+            workItemParameters[kernelContextIndex] = context;
+            runSequentialCode(taskPackage.getTaskType(), workItemParameters);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runSequentialCode(int type, Object[] parameters) {
         switch (type) {
             case 0:
-                @SuppressWarnings("rawtypes") Task task = (Task) taskPackage.getTaskParameters()[0];
+                @SuppressWarnings("rawtypes") Task task = (Task) parameters[0];
                 task.apply();
                 break;
             case 1:
-                @SuppressWarnings("rawtypes") Task1 task1 = (Task1) taskPackage.getTaskParameters()[0];
-                task1.apply(taskPackage.getTaskParameters()[1]);
+                @SuppressWarnings("rawtypes") Task1 task1 = (Task1) parameters[0];
+                task1.apply(parameters[1]);
                 break;
             case 2:
-                @SuppressWarnings("rawtypes") Task2 task2 = (Task2) taskPackage.getTaskParameters()[0];
-                task2.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2]);
+                @SuppressWarnings("rawtypes") Task2 task2 = (Task2) parameters[0];
+                task2.apply(parameters[1], parameters[2]);
                 break;
             case 3:
-                @SuppressWarnings("rawtypes") Task3 task3 = (Task3) taskPackage.getTaskParameters()[0];
-                task3.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3]);
+                @SuppressWarnings("rawtypes") Task3 task3 = (Task3) parameters[0];
+                task3.apply(parameters[1], parameters[2], parameters[3]);
                 break;
             case 4:
-                @SuppressWarnings("rawtypes") Task4 task4 = (Task4) taskPackage.getTaskParameters()[0];
-                task4.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4]);
+                @SuppressWarnings("rawtypes") Task4 task4 = (Task4) parameters[0];
+                task4.apply(parameters[1], parameters[2], parameters[3], parameters[4]);
                 break;
             case 5:
-                @SuppressWarnings("rawtypes") Task5 task5 = (Task5) taskPackage.getTaskParameters()[0];
-                task5.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5]);
+                @SuppressWarnings("rawtypes") Task5 task5 = (Task5) parameters[0];
+                task5.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5]);
                 break;
             case 6:
-                @SuppressWarnings("rawtypes") Task6 task6 = (Task6) taskPackage.getTaskParameters()[0];
-                task6.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6]);
+                @SuppressWarnings("rawtypes") Task6 task6 = (Task6) parameters[0];
+                task6.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6]);
                 break;
             case 7:
-                @SuppressWarnings("rawtypes") Task7 task7 = (Task7) taskPackage.getTaskParameters()[0];
-                task7.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7]);
+                @SuppressWarnings("rawtypes") Task7 task7 = (Task7) parameters[0];
+                task7.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6], parameters[7]);
                 break;
             case 8:
-                @SuppressWarnings("rawtypes") Task8 task8 = (Task8) taskPackage.getTaskParameters()[0];
-                task8.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8]);
+                @SuppressWarnings("rawtypes") Task8 task8 = (Task8) parameters[0];
+                task8.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6], parameters[7], parameters[8]);
                 break;
             case 9:
-                @SuppressWarnings("rawtypes") Task9 task9 = (Task9) taskPackage.getTaskParameters()[0];
-                task9.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9]);
+                @SuppressWarnings("rawtypes") Task9 task9 = (Task9) parameters[0];
+                task9.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6], parameters[7], parameters[8], parameters[9]);
                 break;
             case 10:
-                @SuppressWarnings("rawtypes") Task10 task10 = (Task10) taskPackage.getTaskParameters()[0];
-                task10.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                                .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10]);
+                @SuppressWarnings("rawtypes") Task10 task10 = (Task10) parameters[0];
+                task10.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6], parameters[7], parameters[8], parameters[9],
+                        parameters[10]);
                 break;
             case 11:
-                @SuppressWarnings("rawtypes") Task11 task11 = (Task11) taskPackage.getTaskParameters()[0];
-                task11.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                                .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11]);
+                @SuppressWarnings("rawtypes") Task11 task11 = (Task11) parameters[0];
+                task11.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6], parameters[7], parameters[8], parameters[9],
+                        parameters[10], parameters[11]);
                 break;
             case 12:
-                @SuppressWarnings("rawtypes") Task12 task12 = (Task12) taskPackage.getTaskParameters()[0];
-                task12.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                                .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12]);
+                @SuppressWarnings("rawtypes") Task12 task12 = (Task12) parameters[0];
+                task12.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6], parameters[7], parameters[8], parameters[9],
+                        parameters[10], parameters[11], parameters[12]);
                 break;
             case 13:
-                @SuppressWarnings("rawtypes") Task13 task13 = (Task13) taskPackage.getTaskParameters()[0];
-                task13.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                                .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12], taskPackage.getTaskParameters()[13]);
+                @SuppressWarnings("rawtypes") Task13 task13 = (Task13) parameters[0];
+                task13.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6], parameters[7], parameters[8], parameters[9],
+                        parameters[10], parameters[11], parameters[12], parameters[13]);
                 break;
             case 14:
-                @SuppressWarnings("rawtypes") Task14 task14 = (Task14) taskPackage.getTaskParameters()[0];
-                task14.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                                .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12], taskPackage.getTaskParameters()[13], taskPackage
-                                .getTaskParameters()[14]);
+                @SuppressWarnings("rawtypes") Task14 task14 = (Task14) parameters[0];
+                task14.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6], parameters[7], parameters[8], parameters[9],
+                        parameters[10], parameters[11], parameters[12], parameters[13], parameters[14]);
                 break;
             case 15:
-                @SuppressWarnings("rawtypes") Task15 task15 = (Task15) taskPackage.getTaskParameters()[0];
-                task15.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                                .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12], taskPackage.getTaskParameters()[13], taskPackage
-                                .getTaskParameters()[14], taskPackage.getTaskParameters()[15]);
+                @SuppressWarnings("rawtypes") Task15 task15 = (Task15) parameters[0];
+                task15.apply(parameters[1], parameters[2], parameters[3], parameters[4], parameters[5], parameters[6], parameters[7], parameters[8], parameters[9],
+                        parameters[10], parameters[11], parameters[12], parameters[13], parameters[14], parameters[15]);
                 break;
             default:
                 throw new TornadoRuntimeException(STR."Sequential Runner not supported yet. Number of parameters: \{type}");
@@ -1564,6 +1905,18 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
+    /**
+     * Runs the tasks in Java after a bailout. The tasks whose parallel loop can be
+     * vectorised run with the Vector API, and the rest run sequentially.
+     */
+    private void runAllTasksJavaFallback() {
+        for (TaskPackage taskPackage : taskPackages) {
+            if (!TornadoOptions.BAILOUT_VECTORIZATION || !VectorizedJavaFallback.run(taskPackage)) {
+                runSequentialCodeInThread(taskPackage);
+            }
+        }
+    }
+
     private void runThreadSequentialVersion(Policy policy, Thread[] threads, int indexSequential, Timer timer, long[] totalTimers) {
         // Last Thread runs the sequential code
         threads[indexSequential] = new Thread(() -> {
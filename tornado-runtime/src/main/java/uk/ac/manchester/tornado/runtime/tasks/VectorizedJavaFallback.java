@@ -0,0 +1,150 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import uk.ac.manchester.tornado.api.common.PrebuiltTaskPackage;
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.ASMVectorizerProvider;
+import uk.ac.manchester.tornado.runtime.analyzer.TaskUtils;
+import uk.ac.manchester.tornado.runtime.common.Tornado;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+
+/**
+ * Runs the tasks of a task graph that fall back to Java with a version of their
+ * parallel loop vectorised with the Vector API. The vectorised version of each
+ * method is generated once by the {@link ASMVectorizerProvider}, and it is
+ * reused for the following executions.
+ *
+ * <p>
+ * The results of element-wise loops are identical to the sequential loop.
+ * Reductions are reassociated: each vector lane accumulates a partial result,
+ * and the lanes are combined at the end. Integer reductions are exact, but
+ * floating-point sums and products can differ from the sequential result in
+ * the last bits.
+ * </p>
+ */
+final class VectorizedJavaFallback {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_CLASS_SUFFIX = "$TornadoVector";
+
+    private static final ASMVectorizerProvider vectorizer = loadVectorizer();
+    private static final Map<Method, Optional<MethodHandle>> vectorizedMethods = new ConcurrentHashMap<>();
+    private static final AtomicInteger vectorClassCounter = new AtomicInteger();
+
+    private VectorizedJavaFallback() {
+    }
+
+    private static ASMVectorizerProvider loadVectorizer() {
+        String className = Tornado.getProperty("tornado.load.annotation.vectorizer", "uk.ac.manchester.tornado.annotation.ASMVectorizer");
+        try {
+            Class<?> klass = Class.forName(className);
+            return (ASMVectorizerProvider) klass.getConstructor().newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+            TornadoLogger.warn("Vectorizer " + className + " not found. Tasks fall back to sequential Java.");
+            return null;
+        }
+    }
+
+    /**
+     * Runs a task with its vectorised parallel loop.
+     *
+     * @param taskPackage
+     *     The task.
+     * @return {@code true} if the task has run, or {@code false} if it cannot be
+     *     vectorised and it must run sequentially.
+     */
+    static boolean run(TaskPackage taskPackage) {
+        if (vectorizer == null || taskPackage instanceof PrebuiltTaskPackage) {
+            return false;
+        }
+        Object[] parameters = taskPackage.getTaskParameters();
+        Method method;
+        try {
+            method = TaskUtils.resolveMethodHandle(parameters[0]);
+        } catch (RuntimeException | Error e) {
+            return false;
+        }
+        if (method == null || method.getParameterCount() != parameters.length - 1) {
+            return false;
+        }
+        Optional<MethodHandle> handle = vectorizedMethods.computeIfAbsent(method, VectorizedJavaFallback::vectorize);
+        if (handle.isEmpty()) {
+            return false;
+        }
+        try {
+            handle.get().invokeWithArguments(Arrays.copyOfRange(parameters, 1, parameters.length));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new TornadoRuntimeException("The vectorised loop of " + method + " failed", t);
+        }
+        return true;
+    }
+
+    private static Optional<MethodHandle> vectorize(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        // The new class is defined in the module of the declaring class, which must read the Vector API
+        Optional<Module> vectorModule = ModuleLayer.boot().findModule(VECTOR_MODULE);
+        if (vectorModule.isEmpty() || !owner.getModule().canRead(vectorModule.get())) {
+            TornadoLogger.debug("The module %s cannot read %s", owner.getModule(), VECTOR_MODULE);
+            return Optional.empty();
+        }
+        String className = owner.getName().replace('.', '/') + VECTOR_CLASS_SUFFIX + vectorClassCounter.getAndIncrement();
+        byte[] classFile;
+        try {
+            classFile = vectorizer.vectorizeParallelLoop(method, className);
+        } catch (RuntimeException e) {
+            TornadoLogger.debug("The parallel loop of %s cannot be vectorised: %s", method, e.getMessage());
+            return Optional.empty();
+        }
+        if (classFile == null) {
+            TornadoLogger.debug("The parallel loop of %s cannot be vectorised", method);
+            return Optional.empty();
+        }
+        try {
+            VectorizedJavaFallback.class.getModule().addReads(owner.getModule());
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            Class<?> vectorClass = lookup.defineClass(classFile);
+            MethodHandle handle = lookup.findStatic(vectorClass, method.getName(), MethodType.methodType(method.getReturnType(), method.getParameterTypes()));
+            TornadoLogger.info("The parallel loop of %s runs with the Vector API", method);
+            return Optional.of(handle);
+        } catch (IllegalAccessException | NoSuchMethodException | LinkageError e) {
+            TornadoLogger.debug("The vectorised loop of %s cannot be loaded: %s", method, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -83,7 +83,9 @@ public abstract class AbstractMetaData implements TaskMetaDataInterface {
     private final boolean vmWaitEvent;
     private final boolean enableExceptions;
     private final boolean enableProfiling;
-    private final boolean enableOooExecution;
+    private boolean enableOooExecution;
+    private boolean concurrentTasks;
+    private boolean implicitDataTransfers;
     private final boolean openclUseBlockingApiCalls;
     private final boolean enableParallelization;
     private final boolean enableVectors;
@@ -342,6 +344,26 @@ public abstract class AbstractMetaData implements TaskMetaDataInterface {
         return enableOooExecution;
     }
 
+    public void setOooExecution(boolean oooExecutionEnabled) {
+        this.enableOooExecution = oooExecutionEnabled;
+    }
+
+    public boolean isConcurrentTasksEnabled() {
+        return concurrentTasks;
+    }
+
+    public void setConcurrentTasks(boolean concurrentTasksEnabled) {
+        this.concurrentTasks = concurrentTasksEnabled;
+    }
+
+    public boolean isImplicitDataTransfersEnabled() {
+        return implicitDataTransfers;
+    }
+
+    public void setImplicitDataTransfers(boolean implicitDataTransfersEnabled) {
+        this.implicitDataTransfers = implicitDataTransfersEnabled;
+    }
+
     public boolean shouldUseOpenCLBlockingApiCalls() {
         return openclUseBlockingApiCalls;
     }
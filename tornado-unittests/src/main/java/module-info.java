@@ -1,6 +1,7 @@
 open module tornado.unittests {
     requires transitive junit;
     requires transitive tornado.api;
+    requires tornado.matrices;
     requires lucene.core;
     requires java.desktop;
     requires jdk.incubator.vector;
@@ -15,6 +16,7 @@ open module tornado.unittests {
     exports uk.ac.manchester.tornado.unittests.branching;
     exports uk.ac.manchester.tornado.unittests.common;
     exports uk.ac.manchester.tornado.unittests.dynamic;
+    exports uk.ac.manchester.tornado.unittests.fallback;
     exports uk.ac.manchester.tornado.unittests.fields;
     exports uk.ac.manchester.tornado.unittests.flatmap;
     exports uk.ac.manchester.tornado.unittests.functional;
@@ -23,6 +25,7 @@ open module tornado.unittests {
     exports uk.ac.manchester.tornado.unittests.kernelcontext.matrices;
     exports uk.ac.manchester.tornado.unittests.kernelcontext.reductions;
     exports uk.ac.manchester.tornado.unittests.instances;
+    exports uk.ac.manchester.tornado.unittests.jvm;
     exports uk.ac.manchester.tornado.unittests.lambdas;
     exports uk.ac.manchester.tornado.unittests.logic;
     exports uk.ac.manchester.tornado.unittests.loops;
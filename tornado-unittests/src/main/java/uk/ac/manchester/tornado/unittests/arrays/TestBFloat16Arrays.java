@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.BFloat16Array;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for {@link BFloat16Array}, on the host and in kernels.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.arrays.TestBFloat16Arrays
+ * </code>
+ */
+public class TestBFloat16Arrays extends TornadoTestBase {
+
+    private static final int SIZE = 1024;
+
+    public static void vectorAdd(BFloat16Array a, BFloat16Array b, BFloat16Array c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void dotRows(BFloat16Array matrix, FloatArray x, FloatArray y, int columns) {
+        for (@Parallel int row = 0; row < y.getSize(); row++) {
+            float sum = 0;
+            for (int column = 0; column < columns; column++) {
+                sum += matrix.get(row * columns + column) * x.get(column);
+            }
+            y.set(row, sum);
+        }
+    }
+
+    private static float[] randomFloats(int size) {
+        Random random = new Random(17);
+        float[] values = new float[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextFloat() * 8 - 4;
+        }
+        return values;
+    }
+
+    @Test
+    public void testConversions() {
+        // Exact values
+        assertEquals(1.5f, BFloat16Array.toFloat(BFloat16Array.fromFloat(1.5f)), 0.0f);
+        assertEquals(-2.0f, BFloat16Array.toFloat(BFloat16Array.fromFloat(-2.0f)), 0.0f);
+        assertEquals((short) 0x3F80, BFloat16Array.fromFloat(1.0f));
+
+        // Ties are rounded to even
+        assertEquals((short) 0x3F80, BFloat16Array.fromFloat(Float.intBitsToFloat(0x3F808000)));
+        assertEquals((short) 0x3F82, BFloat16Array.fromFloat(Float.intBitsToFloat(0x3F818000)));
+        assertEquals((short) 0x3F81, BFloat16Array.fromFloat(Float.intBitsToFloat(0x3F808001)));
+
+        // Special values
+        assertEquals(Float.POSITIVE_INFINITY, BFloat16Array.toFloat(BFloat16Array.fromFloat(Float.POSITIVE_INFINITY)), 0.0f);
+        assertEquals(Float.POSITIVE_INFINITY, BFloat16Array.toFloat(BFloat16Array.fromFloat(Float.MAX_VALUE)), 0.0f);
+        assertTrue(Float.isNaN(BFloat16Array.toFloat(BFloat16Array.fromFloat(Float.intBitsToFloat(0x7F800001)))));
+
+        float[] values = randomFloats(SIZE);
+        BFloat16Array array = BFloat16Array.fromArray(values);
+        FloatArray converted = array.toFloatArray();
+        for (int i = 0; i < SIZE; i++) {
+            // bfloat16 keeps 8 significant bits
+            assertEquals(values[i], array.get(i), Math.abs(values[i]) / 256);
+            assertEquals(array.get(i), converted.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testVectorAdd() throws TornadoExecutionPlanException {
+        BFloat16Array a = BFloat16Array.fromArray(randomFloats(SIZE));
+        BFloat16Array b = new BFloat16Array(SIZE);
+        BFloat16Array c = new BFloat16Array(SIZE);
+        b.init(0.5f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                .task("t0", TestBFloat16Arrays::vectorAdd, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(BFloat16Array.fromFloat(a.get(i) + b.get(i)), c.getShortBits(i));
+        }
+    }
+
+    @Test
+    public void testMixedPrecision() throws TornadoExecutionPlanException {
+        final int rows = 64;
+        final int columns = 128;
+        BFloat16Array matrix = BFloat16Array.fromArray(randomFloats(rows * columns));
+        FloatArray x = new FloatArray(columns);
+        FloatArray y = new FloatArray(rows);
+        x.init(0.25f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, matrix, x) //
+                .task("t0", TestBFloat16Arrays::dotRows, matrix, x, y, columns) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int row = 0; row < rows; row++) {
+            float sum = 0;
+            for (int column = 0; column < columns; column++) {
+                sum += matrix.get(row * columns + column) * 0.25f;
+            }
+            assertEquals(sum, y.get(row), 1e-3f);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.utils.DoubleOps;
+import uk.ac.manchester.tornado.api.types.utils.FloatOps;
+import uk.ac.manchester.tornado.api.types.utils.IntOps;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the bulk operations of {@link SegmentOps} and the float conversions of {@link HalfFloatArray}. The sizes
+ * are not multiples of the vector length, so both the vectorized loops and the scalar tails are tested.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.arrays.TestBulkOperations
+ * </code>
+ */
+public class TestBulkOperations extends TornadoTestBase {
+
+    private static final int SIZE = 4099;
+
+    private static float[] randomFloats() {
+        Random random = new Random(42);
+        float[] values = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextFloat() * 200 - 100;
+        }
+        return values;
+    }
+
+    @Test
+    public void testFillAndCopy() {
+        FloatArray floats = new FloatArray(SIZE);
+        floats.init(3.0f);
+        IntArray ints = new IntArray(SIZE);
+        ints.init(-2);
+        DoubleArray doubles = new DoubleArray(SIZE);
+        doubles.init(0.5);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(3.0f, floats.get(i), 0.0f);
+            assertEquals(-2, ints.get(i));
+            assertEquals(0.5, doubles.get(i), 0.0);
+        }
+
+        float[] values = randomFloats();
+        FloatArray array = FloatArray.fromArray(values);
+        assertArrayEquals(values, array.toHeapArray(), 0.0f);
+        SegmentOps.copy(array.getSegment(), floats.getSegment());
+        assertArrayEquals(values, floats.toHeapArray(), 0.0f);
+    }
+
+    @Test
+    public void testReductions() {
+        float[] values = randomFloats();
+        FloatArray array = FloatArray.fromArray(values);
+        IntArray ints = new IntArray(SIZE);
+        float sum = 0;
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        int intSum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += values[i];
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+            ints.set(i, (int) values[i]);
+            intSum += (int) values[i];
+        }
+        assertEquals(sum, FloatOps.sum(array), 0.01f);
+        assertEquals(min, FloatOps.min(array), 0.0f);
+        assertEquals(max, FloatOps.max(array), 0.0f);
+        assertEquals(intSum, IntOps.sum(ints));
+        assertEquals((int) min, IntOps.min(ints));
+        assertEquals((int) max, IntOps.max(ints));
+        assertEquals(Float.POSITIVE_INFINITY, SegmentOps.minFloats(array.getSegment().asSlice(0, 0)), 0.0f);
+    }
+
+    @Test
+    public void testAxpyAndCompare() {
+        float[] values = randomFloats();
+        FloatArray x = FloatArray.fromArray(values);
+        FloatArray y = new FloatArray(SIZE);
+        y.init(1.0f);
+        FloatOps.axpy(2.0f, x, y);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(2.0f * values[i] + 1.0f, y.get(i), 0.0f);
+        }
+
+        DoubleArray a = new DoubleArray(SIZE);
+        DoubleArray b = new DoubleArray(SIZE);
+        a.init(1.0);
+        b.init(1.0);
+        DoubleOps.axpy(0.5, a, b);
+        assertEquals(1.5 * SIZE, DoubleOps.sum(b), 0.0);
+
+        FloatArray copy = FloatArray.fromArray(values);
+        assertTrue(FloatOps.compare(x, copy, 0.0f));
+        copy.set(SIZE - 1, copy.get(SIZE - 1) + 1.0f);
+        assertFalse(FloatOps.compare(x, copy, 0.5f));
+        assertTrue(FloatOps.compare(x, copy, 1.5f));
+        copy.set(0, Float.NaN);
+        assertFalse(FloatOps.compare(x, copy, Float.MAX_VALUE));
+    }
+
+    @Test
+    public void testConversions() {
+        float[] values = randomFloats();
+        FloatArray floats = FloatArray.fromArray(values);
+        IntArray ints = new IntArray(SIZE);
+        DoubleArray doubles = new DoubleArray(SIZE);
+        FloatArray result = new FloatArray(SIZE);
+
+        SegmentOps.convertFloatsToInts(floats.getSegment(), ints.getSegment());
+        SegmentOps.convertFloatsToDoubles(floats.getSegment(), doubles.getSegment());
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals((int) values[i], ints.get(i));
+            assertEquals(values[i], doubles.get(i), 0.0);
+        }
+
+        SegmentOps.convertDoublesToFloats(doubles.getSegment(), result.getSegment());
+        assertArrayEquals(values, result.toHeapArray(), 0.0f);
+
+        SegmentOps.convertIntsToFloats(ints.getSegment(), result.getSegment());
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals((float) ints.get(i), result.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testHalfFloatConversions() {
+        float[] values = randomFloats();
+        HalfFloatArray fromHeap = HalfFloatArray.fromFloatArray(values);
+        HalfFloatArray fromNative = HalfFloatArray.fromFloatArray(FloatArray.fromArray(values));
+        for (int i = 0; i < SIZE; i++) {
+            short bits = Float.floatToFloat16(values[i]);
+            assertEquals(bits, fromHeap.getShortBits(i));
+            assertEquals(bits, fromNative.getShortBits(i));
+            assertEquals(Float.float16ToFloat(bits), fromHeap.getFloat(i), 0.0f);
+            assertEquals(fromHeap.get(i).getFloat32(), fromHeap.getFloat(i), 0.0f);
+        }
+
+        float[] converted = fromHeap.toFloatHeapArray();
+        FloatArray convertedArray = fromHeap.toFloatArray();
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(values[i], converted[i], 0.1f);
+            assertEquals(converted[i], convertedArray.get(i), 0.0f);
+        }
+
+        fromHeap.setFloat(0, 1.5f);
+        assertEquals(1.5f, fromHeap.getFloat(0), 0.0f);
+        fromHeap.setShortBits(1, Float.floatToFloat16(-2.0f));
+        assertEquals(-2.0f, fromHeap.getFloat(1), 0.0f);
+        assertEquals(Float.floatToFloat16(-2.0f), fromHeap.toShortArray()[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentSizes() {
+        FloatOps.axpy(1.0f, new FloatArray(SIZE), new FloatArray(SIZE + 1));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.arrays;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.QuantizedInt4Array;
+import uk.ac.manchester.tornado.api.types.arrays.QuantizedInt8Array;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the block-quantized arrays {@link QuantizedInt8Array} and {@link QuantizedInt4Array}.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.arrays.TestQuantizedArrays
+ * </code>
+ */
+public class TestQuantizedArrays extends TornadoTestBase {
+
+    private static final int ROWS = 256;
+    private static final int COLUMNS = 512;
+
+    private static FloatArray randomArray(int size, Random random) {
+        FloatArray array = new FloatArray(size);
+        for (int i = 0; i < size; i++) {
+            array.set(i, random.nextFloat() * 2 - 1);
+        }
+        return array;
+    }
+
+    private static float dotRow(FloatArray matrix, FloatArray x, int row) {
+        float sum = 0;
+        for (int column = 0; column < COLUMNS; column++) {
+            sum += matrix.get(row * COLUMNS + column) * x.get(column);
+        }
+        return sum;
+    }
+
+    public static void matVecInt8(IntArray quants, FloatArray scales, FloatArray x, FloatArray y, int columns) {
+        for (@Parallel int row = 0; row < y.getSize(); row++) {
+            y.set(row, QuantizedInt8Array.dotRow(quants, scales, x, row, columns));
+        }
+    }
+
+    public static void matVecInt4(IntArray quants, FloatArray scales, FloatArray x, FloatArray y, int columns) {
+        for (@Parallel int row = 0; row < y.getSize(); row++) {
+            y.set(row, QuantizedInt4Array.dotRow(quants, scales, x, row, columns));
+        }
+    }
+
+    public static void matVecInt4Int8(IntArray quants, FloatArray scales, IntArray xQuants, FloatArray xScales, FloatArray y, int columns) {
+        for (@Parallel int row = 0; row < y.getSize(); row++) {
+            y.set(row, QuantizedInt4Array.dotRow(quants, scales, xQuants, xScales, row, columns));
+        }
+    }
+
+    public static void dequantizeInt4(IntArray quants, FloatArray scales, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, QuantizedInt4Array.dequantize(quants, scales, i));
+        }
+    }
+
+    @Test
+    public void testQuantization() {
+        FloatArray values = randomArray(COLUMNS, new Random(7));
+        QuantizedInt8Array int8 = QuantizedInt8Array.quantize(values);
+        QuantizedInt4Array int4 = QuantizedInt4Array.quantize(values);
+        assertEquals(COLUMNS / QuantizedInt8Array.BLOCK_SIZE, int8.getNumberOfBlocks());
+        assertEquals(COLUMNS / 4, int8.getQuants().getSize());
+        assertEquals(COLUMNS / 8, int4.getQuants().getSize());
+        for (int i = 0; i < COLUMNS; i++) {
+            // Half a quantization step of each format
+            assertEquals(values.get(i), int8.get(i), int8.getScales().get(i / QuantizedInt8Array.BLOCK_SIZE) / 2 + 1e-6f);
+            assertEquals(values.get(i), int4.get(i), Math.abs(int4.getScales().get(i / QuantizedInt4Array.BLOCK_SIZE)) / 2 + 1e-6f);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        QuantizedInt8Array.quantize(new FloatArray(QuantizedInt8Array.BLOCK_SIZE + 1));
+    }
+
+    @Test
+    public void testMatVecInt8() throws TornadoExecutionPlanException {
+        Random random = new Random(11);
+        FloatArray matrix = randomArray(ROWS * COLUMNS, random);
+        FloatArray x = randomArray(COLUMNS, random);
+        QuantizedInt8Array weights = QuantizedInt8Array.quantize(matrix);
+        FloatArray dequantized = weights.dequantize();
+        FloatArray y = new FloatArray(ROWS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, weights.getQuants(), weights.getScales(), x) //
+                .task("t0", TestQuantizedArrays::matVecInt8, weights.getQuants(), weights.getScales(), x, y, COLUMNS) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int row = 0; row < ROWS; row++) {
+            assertEquals(dotRow(dequantized, x, row), y.get(row), 1e-3f);
+        }
+    }
+
+    @Test
+    public void testMatVecInt4() throws TornadoExecutionPlanException {
+        Random random = new Random(13);
+        FloatArray matrix = randomArray(ROWS * COLUMNS, random);
+        FloatArray x = randomArray(COLUMNS, random);
+        QuantizedInt4Array weights = QuantizedInt4Array.quantize(matrix);
+        QuantizedInt8Array activations = QuantizedInt8Array.quantize(x);
+        FloatArray dequantized = weights.dequantize();
+        FloatArray dequantizedX = activations.dequantize();
+        FloatArray y = new FloatArray(ROWS);
+        FloatArray yInt8 = new FloatArray(ROWS);
+        FloatArray output = new FloatArray(ROWS * COLUMNS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, weights.getQuants(), weights.getScales(), x, activations.getQuants(), activations.getScales()) //
+                .task("t0", TestQuantizedArrays::matVecInt4, weights.getQuants(), weights.getScales(), x, y, COLUMNS) //
+                .task("t1", TestQuantizedArrays::matVecInt4Int8, weights.getQuants(), weights.getScales(), activations.getQuants(), activations.getScales(), yInt8, COLUMNS) //
+                .task("t2", TestQuantizedArrays::dequantizeInt4, weights.getQuants(), weights.getScales(), output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y, yInt8, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int row = 0; row < ROWS; row++) {
+            assertEquals(dotRow(dequantized, x, row), y.get(row), 1e-3f);
+            assertEquals(dotRow(dequantized, dequantizedX, row), yInt8.get(row), 1e-3f);
+        }
+        for (int i = 0; i < output.getSize(); i++) {
+            assertEquals(dequantized.get(i), output.get(i), 0.0f);
+        }
+    }
+}
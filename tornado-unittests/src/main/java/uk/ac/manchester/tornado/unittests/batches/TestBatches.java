@@ -19,6 +19,7 @@
 package uk.ac.manchester.tornado.unittests.batches;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeFalse;
 
 import java.util.Random;
 import java.util.stream.IntStream;
@@ -32,6 +33,7 @@ import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 import uk.ac.manchester.tornado.api.TornadoExecutionResult;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
@@ -55,6 +57,8 @@ public class TestBatches extends TornadoTestBase {
     @Override
     public void before() {
         super.before();
+        // Batches are rejected by the JVM backend (see TestJVMBackend#testBatchesAreRejected)
+        assumeFalse(getTornadoRuntime().getDefaultDevice().getTornadoVMBackend() == TornadoVMBackendType.JAVA);
         System.setProperty("tornado.reuse.device.buffers", "False");
     }
 
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.fallback;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.primitives.Scan;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the vectorised Java fallback of parallel loops. The loops of the
+ * tasks start at a parameter, so the sketch of each task bails out when the
+ * task is added. The task graph records the bailout and runs its tasks in Java
+ * when executed, and the results are compared with the methods run in plain
+ * Java.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V --jvm="-Dtornado.recover.bailout=True -Dtornado.bailout.vectorize=True" uk.ac.manchester.tornado.unittests.fallback.TestVectorizedFallback
+ * </code>
+ */
+public class TestVectorizedFallback extends TornadoTestBase {
+
+    // Not a multiple of the number of lanes, so the original loop runs the remaining iterations
+    private static final int NUM_ELEMENTS = 8191;
+
+    public static void saxpy(int start, float alpha, FloatArray x, FloatArray y, FloatArray z) {
+        for (@Parallel int i = start; i < z.getSize(); i++) {
+            z.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void multiplySubtract(int start, IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = start; i < c.getSize(); i++) {
+            c.set(i, a.get(i) * b.get(i) - a.get(i));
+        }
+    }
+
+    public static void reduceSum(int start, IntArray input, @Reduce IntArray result) {
+        for (@Parallel int i = start; i < input.getSize(); i++) {
+            result.set(0, result.get(0) + input.get(i));
+        }
+    }
+
+    public static void reduceSum(int start, FloatArray input, @Reduce FloatArray result) {
+        for (@Parallel int i = start; i < input.getSize(); i++) {
+            result.set(0, result.get(0) + input.get(i));
+        }
+    }
+
+    /**
+     * Each iteration reads the element written by the previous one, so the
+     * vectoriser must reject the loop.
+     */
+    public static void prefixSum(int start, IntArray a) {
+        for (@Parallel int i = start; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + a.get(i - 1));
+        }
+    }
+
+    public static void increment(int start, IntArray input, IntArray output) {
+        for (@Parallel int i = start; i < output.getSize(); i++) {
+            output.set(i, input.get(i) + 1);
+        }
+    }
+
+    private static FloatArray randomFloats(Random random) {
+        FloatArray array = new FloatArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            array.set(i, random.nextFloat());
+        }
+        return array;
+    }
+
+    private static IntArray randomInts(Random random) {
+        IntArray array = new IntArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            array.set(i, random.nextInt(1000) - 500);
+        }
+        return array;
+    }
+
+    private static void execute(TaskGraph taskGraph) throws TornadoExecutionPlanException {
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+    }
+
+    @Test
+    public void testMap() throws TornadoExecutionPlanException {
+        Random random = new Random(7);
+        FloatArray x = randomFloats(random);
+        FloatArray y = randomFloats(random);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+        FloatArray expected = new FloatArray(NUM_ELEMENTS);
+        saxpy(0, 2.5f, x, y, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y);
+        assertThrows(TornadoBailoutRuntimeException.class, () -> taskGraph.task("t0", TestVectorizedFallback::saxpy, 0, 2.5f, x, y, z));
+        execute(taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, z));
+
+        // Element-wise operations are not reassociated, so the results are identical
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(expected.get(i), z.get(i), 0.0f);
+        }
+    }
+
+    /**
+     * The loop starts at an offset and its number of iterations is not a
+     * multiple of the number of lanes: the vector loop must neither write the
+     * elements before the offset nor the elements handled by the original loop.
+     */
+    @Test
+    public void testPartialRange() throws TornadoExecutionPlanException {
+        final int start = 5;
+        Random random = new Random(11);
+        IntArray a = randomInts(random);
+        IntArray b = randomInts(random);
+        IntArray c = new IntArray(NUM_ELEMENTS);
+        IntArray expected = new IntArray(NUM_ELEMENTS);
+        c.init(-1);
+        expected.init(-1);
+        multiplySubtract(start, a, b, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b, c);
+        assertThrows(TornadoBailoutRuntimeException.class, () -> taskGraph.task("t0", TestVectorizedFallback::multiplySubtract, start, a, b, c));
+        execute(taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, c));
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(expected.get(i), c.get(i));
+        }
+    }
+
+    @Test
+    public void testIntReduction() throws TornadoExecutionPlanException {
+        IntArray input = randomInts(new Random(13));
+        IntArray result = new IntArray(1);
+        IntArray expected = new IntArray(1);
+        reduceSum(0, input, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        assertThrows(TornadoBailoutRuntimeException.class, () -> taskGraph.task("t0", TestVectorizedFallback::reduceSum, 0, input, result));
+        execute(taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, result));
+
+        // Integer additions are associative, so the result is exact
+        assertEquals(expected.get(0), result.get(0));
+    }
+
+    /**
+     * The lanes accumulate partial sums that are added at the end, so the
+     * result is reassociated and compared with a relative tolerance.
+     */
+    @Test
+    public void testFloatReduction() throws TornadoExecutionPlanException {
+        FloatArray input = randomFloats(new Random(17));
+        FloatArray result = new FloatArray(1);
+        FloatArray expected = new FloatArray(1);
+        reduceSum(0, input, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        assertThrows(TornadoBailoutRuntimeException.class, () -> taskGraph.task("t0", TestVectorizedFallback::reduceSum, 0, input, result));
+        execute(taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, result));
+
+        assertEquals(expected.get(0), result.get(0), Math.abs(expected.get(0)) * 1e-5f);
+    }
+
+    @Test
+    public void testRejectedLoop() throws TornadoExecutionPlanException {
+        Random random = new Random(19);
+        IntArray a = randomInts(random);
+        IntArray expected = new IntArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            expected.set(i, a.get(i));
+        }
+        prefixSum(1, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a);
+        assertThrows(TornadoBailoutRuntimeException.class, () -> taskGraph.task("t0", TestVectorizedFallback::prefixSum, 1, a));
+        execute(taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, a));
+
+        // The fallback must run the loop sequentially
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(expected.get(i), a.get(i));
+        }
+    }
+
+    /**
+     * The output is a view of the same array as the input, one element ahead, so
+     * each iteration reads the element written by the previous one. The vector
+     * loop must detect the overlap at run time and leave the iterations to the
+     * original loop.
+     */
+    @Test
+    public void testOverlappingViews() throws TornadoExecutionPlanException {
+        IntArray array = randomInts(new Random(29));
+        IntArray expected = new IntArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            expected.set(i, array.get(i));
+        }
+        increment(0, expected.view(0, NUM_ELEMENTS - 1), expected.view(1, NUM_ELEMENTS - 1));
+
+        IntArray input = array.view(0, NUM_ELEMENTS - 1);
+        IntArray output = array.view(1, NUM_ELEMENTS - 1);
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        assertThrows(TornadoBailoutRuntimeException.class, () -> taskGraph.task("t0", TestVectorizedFallback::increment, 0, input, output));
+        execute(taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, output));
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(expected.get(i), array.get(i));
+        }
+    }
+
+    /**
+     * The tasks of a scan use a {@code KernelContext}, so they run in the kernel
+     * emulator when the task graph falls back to Java.
+     */
+    @Test
+    public void testScanKernels() throws TornadoExecutionPlanException {
+        Random random = new Random(23);
+        IntArray a = randomInts(random);
+        IntArray b = randomInts(random);
+        IntArray c = new IntArray(NUM_ELEMENTS);
+        IntArray scanned = new IntArray(NUM_ELEMENTS);
+        IntArray expected = new IntArray(NUM_ELEMENTS);
+        Scan.inclusiveScan(a, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .inclusiveScan("scan", a, scanned);
+        assertThrows(TornadoBailoutRuntimeException.class, () -> taskGraph.task("t0", TestVectorizedFallback::multiplySubtract, 0, a, b, c));
+        execute(taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, scanned, c));
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(expected.get(i), scanned.get(i));
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.jvm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoBackend;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the JVM backend, which runs the tasks with Java threads on the
+ * host. The tests are skipped if the JVM backend is not loaded.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V --jvm="-Dtornado.jvm.backend=True -Dtornado.jvm.threads=4" uk.ac.manchester.tornado.unittests.jvm.TestJVMBackend
+ * </code>
+ */
+public class TestJVMBackend extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 8192;
+    private static final int LOCAL_SIZE = 256;
+    // Not a multiple of the block size, so a block starts beyond the end of the iteration space
+    private static final int NUM_LAST_INDICES = 1000;
+
+    private TornadoDevice jvmDevice;
+
+    @Before
+    public void findJVMDevice() {
+        jvmDevice = null;
+        for (int i = 0; i < getTornadoRuntime().getNumBackends(); i++) {
+            TornadoBackend backend = getTornadoRuntime().getBackend(i);
+            if (backend.getBackendType() == TornadoVMBackendType.JAVA) {
+                jvmDevice = backend.getDevice(0);
+            }
+        }
+        assumeTrue("The JVM backend is not enabled", jvmDevice != null);
+    }
+
+    private static boolean isCausedBy(Throwable throwable, Class<? extends Throwable> klass) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (klass.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void vectorAdd(IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray z) {
+        for (@Parallel int i = 0; i < z.getSize(); i++) {
+            z.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void reduceSum(IntArray input, @Reduce IntArray result) {
+        result.set(0, 0);
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, result.get(0) + input.get(i));
+        }
+    }
+
+    public static void reduceSum(FloatArray input, @Reduce FloatArray result) {
+        result.set(0, 0.0f);
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, result.get(0) + input.get(i));
+        }
+    }
+
+    public static void groupSums(KernelContext context, IntArray input, IntArray sums) {
+        int localIdx = context.localIdx;
+        int[] localSums = context.allocateIntLocalArray(LOCAL_SIZE);
+        localSums[localIdx] = input.get(context.globalIdx);
+        for (int stride = context.localGroupSizeX / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                localSums[localIdx] += localSums[localIdx + stride];
+            }
+        }
+        if (localIdx == 0) {
+            sums.set(context.groupIdx, localSums[0]);
+        }
+    }
+
+    /**
+     * The parallel loop is nested in a sequential loop, so the splitter must
+     * leave the task sequential: a shared block counter would be exhausted in
+     * the first iteration of the outer loop.
+     */
+    public static void repeatedIncrement(IntArray a, int steps) {
+        for (int step = 0; step < steps; step++) {
+            for (@Parallel int i = 0; i < a.getSize(); i++) {
+                a.set(i, a.get(i) + 1);
+            }
+        }
+    }
+
+    public static void countLastIndices(IntArray counts, int end) {
+        for (@Parallel int i = Integer.MAX_VALUE - NUM_LAST_INDICES; i < end; i++) {
+            int index = i - (Integer.MAX_VALUE - NUM_LAST_INDICES);
+            counts.set(index, counts.get(index) + 1);
+        }
+    }
+
+    public static void countPrologue(IntArray counter, IntArray output) {
+        counter.set(0, counter.get(0) + 1);
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, i);
+        }
+    }
+
+    public static void divide(IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) / b.get(i));
+        }
+    }
+
+    @Test
+    public void testParallelMap() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(NUM_ELEMENTS);
+        FloatArray y = new FloatArray(NUM_ELEMENTS);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+        FloatArray expected = new FloatArray(NUM_ELEMENTS);
+        Random random = new Random(7);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            x.set(i, random.nextFloat());
+            y.set(i, random.nextFloat());
+        }
+        saxpy(2.0f, x, y, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestJVMBackend::saxpy, 2.0f, x, y, z) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDevice(jvmDevice).execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(expected.get(i), z.get(i), 0.0f);
+        }
+    }
+
+    /**
+     * The result starts with a non-zero value and the plan runs twice, so
+     * neither the initial value nor the result of the first execution must
+     * leak into the reduction.
+     */
+    @Test
+    public void testReduction() throws TornadoExecutionPlanException {
+        IntArray input = new IntArray(NUM_ELEMENTS);
+        IntArray result = new IntArray(1);
+        IntArray expected = new IntArray(1);
+        result.init(42);
+        IntStream.range(0, NUM_ELEMENTS).forEach(i -> input.set(i, i % 100));
+        reduceSum(input, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestJVMBackend::reduceSum, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDevice(jvmDevice);
+            for (int execution = 0; execution < 2; execution++) {
+                executionPlan.execute();
+                assertEquals(expected.get(0), result.get(0));
+            }
+        }
+    }
+
+    /**
+     * The partial sums of the threads are added in a different order than in
+     * the sequential loop, so the result is compared with a relative
+     * tolerance. As in {@link #testReduction()}, the result starts with a
+     * non-zero value and the plan runs twice.
+     */
+    @Test
+    public void testReductionFloat() throws TornadoExecutionPlanException {
+        FloatArray input = new FloatArray(NUM_ELEMENTS);
+        FloatArray result = new FloatArray(1);
+        FloatArray expected = new FloatArray(1);
+        result.init(42.0f);
+        Random random = new Random(7);
+        IntStream.range(0, NUM_ELEMENTS).forEach(i -> input.set(i, random.nextFloat()));
+        reduceSum(input, expected);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestJVMBackend::reduceSum, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDevice(jvmDevice);
+            for (int execution = 0; execution < 2; execution++) {
+                executionPlan.execute();
+                assertEquals(expected.get(0), result.get(0), Math.abs(expected.get(0)) * 1e-5f);
+            }
+        }
+    }
+
+    @Test
+    public void testKernelContext() throws TornadoExecutionPlanException {
+        IntArray input = new IntArray(NUM_ELEMENTS);
+        IntArray sums = new IntArray(NUM_ELEMENTS / LOCAL_SIZE);
+        IntStream.range(0, NUM_ELEMENTS).forEach(i -> input.set(i, i));
+
+        WorkerGrid worker = new WorkerGrid1D(NUM_ELEMENTS);
+        worker.setLocalWork(LOCAL_SIZE, 1, 1);
+        GridScheduler gridScheduler = new GridScheduler("s0.t0", worker);
+        KernelContext context = new KernelContext();
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestJVMBackend::groupSums, context, input, sums) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, sums);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withGridScheduler(gridScheduler).withDevice(jvmDevice).execute();
+        }
+
+        for (int group = 0; group < sums.getSize(); group++) {
+            int first = group * LOCAL_SIZE;
+            int last = first + LOCAL_SIZE - 1;
+            assertEquals((first + last) * LOCAL_SIZE / 2, sums.get(group));
+        }
+    }
+
+    @Test
+    public void testSequentialTask() throws TornadoExecutionPlanException {
+        final int steps = 4;
+        IntArray a = new IntArray(NUM_ELEMENTS);
+        a.init(0);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestJVMBackend::repeatedIncrement, a, steps) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDevice(jvmDevice).execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(steps, a.get(i));
+        }
+    }
+
+    /**
+     * The exception thrown by a task is kept as the cause of the exception
+     * reported to the user.
+     */
+    @Test
+    public void testTaskFailureCause() {
+        IntArray a = new IntArray(NUM_ELEMENTS);
+        IntArray b = new IntArray(NUM_ELEMENTS);
+        IntArray c = new IntArray(NUM_ELEMENTS);
+        a.init(1);
+        b.init(0);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestJVMBackend::divide, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDevice(jvmDevice).execute();
+            fail("The task divides by zero");
+        } catch (TornadoExecutionPlanException | RuntimeException e) {
+            assertTrue("The division by zero is not the cause of the failure", isCausedBy(e, ArithmeticException.class));
+        }
+    }
+
+    /**
+     * Tasks on the JVM backend access the whole arrays on the host, so batched
+     * execution is rejected.
+     */
+    @Test
+    public void testBatchesAreRejected() throws TornadoExecutionPlanException {
+        IntArray a = new IntArray(NUM_ELEMENTS);
+        IntArray b = new IntArray(NUM_ELEMENTS);
+        IntArray c = new IntArray(NUM_ELEMENTS);
+        a.init(1);
+        b.init(2);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestJVMBackend::vectorAdd, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withBatch("1MB").withDevice(jvmDevice).execute();
+            fail("Batches are not supported by the JVM backend");
+        } catch (TornadoBailoutRuntimeException e) {
+            assertTrue(e.getMessage().contains("Batches are not supported by the JVM backend"));
+        }
+    }
+
+    /**
+     * Each thread takes one last block after the end of the iteration space.
+     * The first index of these blocks is beyond {@link Integer#MAX_VALUE}, so
+     * each index must be visited once. The test needs more than one thread in
+     * the JVM backend ({@code -Dtornado.jvm.threads}).
+     */
+    @Test
+    public void testLoopBoundNearMaxValue() throws TornadoExecutionPlanException {
+        IntArray counts = new IntArray(NUM_LAST_INDICES);
+        counts.init(0);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, counts) //
+                .task("t0", TestJVMBackend::countLastIndices, counts, Integer.MAX_VALUE) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, counts);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDevice(jvmDevice).execute();
+        }
+
+        for (int i = 0; i < NUM_LAST_INDICES; i++) {
+            assertEquals(1, counts.get(i));
+        }
+    }
+
+    /**
+     * The code before the parallel loop has a side effect, so the splitter
+     * must leave the task sequential: each thread of a split method would run
+     * the prologue again. The test needs more than one thread in the JVM
+     * backend ({@code -Dtornado.jvm.threads}).
+     */
+    @Test
+    public void testPrologueRunsOnce() throws TornadoExecutionPlanException {
+        IntArray counter = new IntArray(1);
+        IntArray output = new IntArray(NUM_ELEMENTS);
+        counter.init(0);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, counter) //
+                .task("t0", TestJVMBackend::countPrologue, counter, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, counter, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDevice(jvmDevice).execute();
+        }
+
+        assertEquals(1, counter.get(0));
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(i, output.get(i));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.kernelcontext.api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.KernelEmulator;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.WorkerGrid2D;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the {@link KernelEmulator}, which runs {@link KernelContext} kernels
+ * in Java with work-groups, barriers and local memory.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.kernelcontext.api.TestKernelEmulator
+ * </code>
+ */
+public class TestKernelEmulator extends TornadoTestBase {
+
+    private static final int TS = 8;
+
+    public static void reduceLocalMemory(KernelContext context, FloatArray input, FloatArray output) {
+        int localIdx = context.localIdx;
+        int localGroupSize = context.localGroupSizeX;
+
+        float[] localA = context.allocateFloatLocalArray(256);
+        localA[localIdx] = input.get(context.globalIdx);
+        for (int stride = localGroupSize / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                localA[localIdx] += localA[localIdx + stride];
+            }
+        }
+        if (localIdx == 0) {
+            output.set(context.groupIdx, localA[0]);
+        }
+    }
+
+    public static void matrixMultiplicationTiled(KernelContext context, FloatArray a, FloatArray b, FloatArray c, int size) {
+        int row = context.localIdx;
+        int col = context.localIdy;
+        int globalRow = context.globalIdx;
+        int globalCol = context.globalIdy;
+
+        float[] aSub = context.allocateFloatLocalArray(TS * TS);
+        float[] bSub = context.allocateFloatLocalArray(TS * TS);
+
+        float sum = 0.0f;
+        for (int tile = 0; tile < size / TS; tile++) {
+            aSub[row * TS + col] = a.get(globalRow * size + tile * TS + col);
+            bSub[row * TS + col] = b.get((tile * TS + row) * size + globalCol);
+            context.localBarrier();
+            for (int k = 0; k < TS; k++) {
+                sum += aSub[row * TS + k] * bSub[k * TS + col];
+            }
+            context.localBarrier();
+        }
+        c.set(globalRow * size + globalCol, sum);
+    }
+
+    public static void writeIndices(KernelContext context, IntArray globalIds, IntArray groupIds, IntArray localIds) {
+        int index = context.globalIdx - 8;
+        globalIds.set(index, context.globalIdx);
+        groupIds.set(index, context.groupIdx);
+        localIds.set(index, context.localIdx);
+    }
+
+    public static void guardedCopy(KernelContext context, FloatArray input, FloatArray output, int size) {
+        int i = context.globalIdx;
+        float[] localA = context.allocateFloatLocalArray(64);
+        localA[context.localIdx] = (i < size) ? input.get(i) : 0.0f;
+        context.localBarrier();
+        output.set(i, localA[context.localIdx]);
+    }
+
+    @Test
+    public void testReductionWithLocalMemory() {
+        final int size = 4096;
+        final int localSize = 256;
+        FloatArray input = new FloatArray(size);
+        FloatArray output = new FloatArray(size / localSize);
+        Random random = new Random(7);
+        for (int i = 0; i < size; i++) {
+            input.set(i, random.nextInt(100));
+        }
+
+        WorkerGrid grid = new WorkerGrid1D(size);
+        grid.setLocalWork(localSize, 1, 1);
+        new KernelEmulator(4).execute(grid, context -> reduceLocalMemory(context, input, output));
+
+        for (int group = 0; group < size / localSize; group++) {
+            float expected = 0;
+            for (int i = 0; i < localSize; i++) {
+                expected += input.get(group * localSize + i);
+            }
+            assertEquals(expected, output.get(group), 0.0f);
+        }
+    }
+
+    @Test
+    public void testTiledMatrixMultiplication() {
+        final int size = 64;
+        FloatArray a = new FloatArray(size * size);
+        FloatArray b = new FloatArray(size * size);
+        FloatArray c = new FloatArray(size * size);
+        Random random = new Random(11);
+        for (int i = 0; i < size * size; i++) {
+            a.set(i, random.nextFloat());
+            b.set(i, random.nextFloat());
+        }
+
+        WorkerGrid grid = new WorkerGrid2D(size, size);
+        grid.setLocalWork(TS, TS, 1);
+        new KernelEmulator().execute(grid, context -> matrixMultiplicationTiled(context, a, b, c, size));
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                float expected = 0.0f;
+                for (int k = 0; k < size; k++) {
+                    expected += a.get(i * size + k) * b.get(k * size + j);
+                }
+                assertEquals(expected, c.get(i * size + j), 1e-3f);
+            }
+        }
+    }
+
+    @Test
+    public void testIndicesWithOffset() {
+        final int size = 256;
+        IntArray globalIds = new IntArray(size);
+        IntArray groupIds = new IntArray(size);
+        IntArray localIds = new IntArray(size);
+
+        WorkerGrid grid = new WorkerGrid1D(size);
+        grid.setLocalWork(32, 1, 1);
+        grid.setGlobalOffset(8, 0, 0);
+        new KernelEmulator(2).execute(grid, context -> writeIndices(context, globalIds, groupIds, localIds));
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(i + 8, globalIds.get(i));
+            assertEquals(i / 32, groupIds.get(i));
+            assertEquals(i % 32, localIds.get(i));
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testExceptionInKernel() {
+        float[] local = new float[16];
+        WorkerGrid grid = new WorkerGrid1D(64);
+        grid.setLocalWork(16, 1, 1);
+        new KernelEmulator().execute(grid, context -> {
+            context.localBarrier();
+            local[context.globalIdx] = 1.0f;
+        });
+    }
+
+    @Test(expected = TornadoRuntimeException.class)
+    public void testInvalidLocalWork() {
+        WorkerGrid grid = new WorkerGrid1D(100);
+        grid.setLocalWork(32, 1, 1);
+        new KernelEmulator().execute(grid, context -> {
+        });
+    }
+
+    /**
+     * A kernel that has run many times in the emulator has profiling
+     * information on the host, which must not be used to build the sketch of the
+     * kernel for the device.
+     */
+    @Test
+    public void testEmulateThenCompile() throws TornadoExecutionPlanException {
+        final int size = 64;
+        FloatArray input = new FloatArray(size);
+        FloatArray output = new FloatArray(size);
+        input.init(1.0f);
+
+        WorkerGrid grid = new WorkerGrid1D(size);
+        grid.setLocalWork(size, 1, 1);
+        for (int i = 0; i < 2000; i++) {
+            new KernelEmulator(1).execute(grid, context -> guardedCopy(context, input, output, size));
+        }
+
+        output.init(0.0f);
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestKernelEmulator::guardedCopy, new KernelContext(), input, output, size) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withGridScheduler(new GridScheduler("s0.t0", grid)).execute();
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(1.0f, output.get(i), 0.0f);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.kernelcontext.matrices;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.KernelEmulator;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.QuantizedInt8Array;
+import uk.ac.manchester.tornado.matrix.GemmKernels;
+import uk.ac.manchester.tornado.matrix.GemmTasks;
+import uk.ac.manchester.tornado.matrix.GemmTile;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the tuned GEMM and GEMV kernels of {@link GemmKernels}. The kernels
+ * run in the {@link KernelEmulator} with the grids of {@link GemmTile} and
+ * {@link GemmTasks}, and with sizes that are not multiples of the tiles.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.kernelcontext.matrices.TestGemmKernels
+ * </code>
+ */
+public class TestGemmKernels extends TornadoTestBase {
+
+    private static final int M = 37;
+    private static final int N = 45;
+    private static final int K = 96;
+
+    private static FloatArray randomFloats(int size, long seed) {
+        Random random = new Random(seed);
+        FloatArray array = new FloatArray(size);
+        for (int i = 0; i < size; i++) {
+            array.set(i, random.nextFloat() - 0.5f);
+        }
+        return array;
+    }
+
+    private static HalfFloatArray toHalfFloats(FloatArray values) {
+        HalfFloatArray array = new HalfFloatArray(values.getSize());
+        for (int i = 0; i < values.getSize(); i++) {
+            array.setFloat(i, values.get(i));
+        }
+        return array;
+    }
+
+    private static FloatArray toFloats(HalfFloatArray values) {
+        FloatArray array = new FloatArray(values.getSize());
+        for (int i = 0; i < values.getSize(); i++) {
+            array.set(i, values.getFloat(i));
+        }
+        return array;
+    }
+
+    private static void gemmJava(FloatArray a, FloatArray b, FloatArray c, int m, int n, int k) {
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                float sum = 0.0f;
+                for (int l = 0; l < k; l++) {
+                    sum += a.get(i * k + l) * b.get(l * n + j);
+                }
+                c.set(i * n + j, sum);
+            }
+        }
+    }
+
+    private static void assertMatrixEquals(FloatArray expected, FloatArray actual) {
+        assertArrayEquals(expected.toHeapArray(), actual.toHeapArray(), 1e-3f);
+    }
+
+    private static WorkerGrid gemvGrid(int m, int localSize) {
+        WorkerGrid grid = new WorkerGrid1D(m * localSize);
+        grid.setLocalWork(localSize, 1, 1);
+        return grid;
+    }
+
+    @Test
+    public void testSgemmSmallTile() {
+        FloatArray a = randomFloats(M * K, 1);
+        FloatArray b = randomFloats(K * N, 2);
+        FloatArray c = new FloatArray(M * N);
+        FloatArray expected = new FloatArray(M * N);
+        gemmJava(a, b, expected, M, N, K);
+
+        new KernelEmulator(4).execute(GemmTile.SMALL.createWorkerGrid(M, N), context -> GemmKernels.sgemmTile16(context, a, b, c, M, N, K));
+
+        assertMatrixEquals(expected, c);
+    }
+
+    @Test
+    public void testSgemmLargeTile() {
+        FloatArray a = randomFloats(M * K, 3);
+        FloatArray b = randomFloats(K * N, 4);
+        FloatArray c = new FloatArray(M * N);
+        FloatArray expected = new FloatArray(M * N);
+        gemmJava(a, b, expected, M, N, K);
+
+        new KernelEmulator(4).execute(GemmTile.LARGE.createWorkerGrid(M, N), context -> GemmKernels.sgemmTile32(context, a, b, c, M, N, K));
+
+        assertMatrixEquals(expected, c);
+    }
+
+    @Test
+    public void testHgemm() {
+        HalfFloatArray a = toHalfFloats(randomFloats(M * K, 5));
+        HalfFloatArray b = toHalfFloats(randomFloats(K * N, 6));
+        FloatArray c16 = new FloatArray(M * N);
+        FloatArray c32 = new FloatArray(M * N);
+        FloatArray expected = new FloatArray(M * N);
+        // The FP16 values are exact in FP32, so only the accumulation order differs
+        gemmJava(toFloats(a), toFloats(b), expected, M, N, K);
+
+        new KernelEmulator(4).execute(GemmTile.SMALL.createWorkerGrid(M, N), context -> GemmKernels.hgemmTile16(context, a, b, c16, M, N, K));
+        new KernelEmulator(4).execute(GemmTile.LARGE.createWorkerGrid(M, N), context -> GemmKernels.hgemmTile32(context, a, b, c32, M, N, K));
+
+        assertMatrixEquals(expected, c16);
+        assertMatrixEquals(expected, c32);
+    }
+
+    @Test
+    public void testQgemm() {
+        QuantizedInt8Array a = QuantizedInt8Array.quantize(randomFloats(M * K, 7));
+        FloatArray b = randomFloats(K * N, 8);
+        FloatArray c16 = new FloatArray(M * N);
+        FloatArray c32 = new FloatArray(M * N);
+        FloatArray expected = new FloatArray(M * N);
+        gemmJava(a.dequantize(), b, expected, M, N, K);
+
+        new KernelEmulator(4).execute(GemmTile.SMALL.createWorkerGrid(M, N), context -> GemmKernels.qgemmTile16(context, a.getQuants(), a.getScales(), b, c16, M, N, K));
+        new KernelEmulator(4).execute(GemmTile.LARGE.createWorkerGrid(M, N), context -> GemmKernels.qgemmTile32(context, a.getQuants(), a.getScales(), b, c32, M, N, K));
+
+        assertMatrixEquals(expected, c16);
+        assertMatrixEquals(expected, c32);
+    }
+
+    @Test
+    public void testGemv() {
+        final int localSize = 64;
+        FloatArray a = randomFloats(M * K, 9);
+        FloatArray x = randomFloats(K, 10);
+        QuantizedInt8Array q = QuantizedInt8Array.quantize(a);
+        HalfFloatArray h = toHalfFloats(a);
+        FloatArray ys = new FloatArray(M);
+        FloatArray yh = new FloatArray(M);
+        FloatArray yq = new FloatArray(M);
+        FloatArray expected = new FloatArray(M);
+        FloatArray expectedHalf = new FloatArray(M);
+        FloatArray expectedQuantized = new FloatArray(M);
+        gemmJava(a, x, expected, M, 1, K);
+        gemmJava(toFloats(h), x, expectedHalf, M, 1, K);
+        gemmJava(q.dequantize(), x, expectedQuantized, M, 1, K);
+
+        new KernelEmulator(4).execute(gemvGrid(M, localSize), context -> GemmKernels.sgemv(context, a, x, ys, K));
+        new KernelEmulator(4).execute(gemvGrid(M, localSize), context -> GemmKernels.hgemv(context, h, x, yh, K));
+        new KernelEmulator(4).execute(gemvGrid(M, localSize), context -> GemmKernels.qgemv(context, q.getQuants(), q.getScales(), x, yq, K));
+
+        assertMatrixEquals(expected, ys);
+        assertMatrixEquals(expectedHalf, yh);
+        assertMatrixEquals(expectedQuantized, yq);
+    }
+
+    @Test
+    public void testWorkerGrids() {
+        WorkerGrid grid = GemmTile.LARGE.createWorkerGrid(M, N);
+        // Rounded up to whole tiles, with one thread per LARGE_WORK_PER_THREAD rows
+        assertArrayEquals(new long[] { 64, 8, 1 }, grid.getGlobalWork());
+        assertArrayEquals(new long[] { 32, 4, 1 }, grid.getLocalWork());
+        assertEquals(4, GemmTile.LARGE.getNumberOfGroups(M, N));
+        assertEquals(2L * 32 * 32 * Float.BYTES, GemmTile.LARGE.getLocalMemorySize());
+
+        GemmTasks gemm = new GemmTasks(getTornadoRuntime().getDefaultDevice());
+        assertEquals(1, gemm.getGemvLocalSize(1));
+        assertEquals(16, gemm.getGemvLocalSize(10));
+        assertEquals(true, gemm.getGemvLocalSize(100_000) <= GemmKernels.GEMV_MAX_LOCAL_SIZE);
+
+        FloatArray a = new FloatArray(M * K);
+        TaskGraph taskGraph = new TaskGraph("s0");
+        gemm.sgemm(taskGraph, "sgemm", a, new FloatArray(K * N), new FloatArray(M * N), M, N, K);
+        gemm.sgemv(taskGraph, "sgemv", a, new FloatArray(K), new FloatArray(M), M, K);
+        assertNotNull(gemm.getGridScheduler().get("s0.sgemm"));
+        assertEquals(M * gemm.getGemvLocalSize(K), gemm.getGridScheduler().get("s0.sgemv").getGlobalWork()[0]);
+    }
+
+    @Test
+    public void testSgemmTask() throws TornadoExecutionPlanException {
+        FloatArray a = randomFloats(M * K, 11);
+        FloatArray b = randomFloats(K * N, 12);
+        FloatArray c = new FloatArray(M * N);
+        FloatArray expected = new FloatArray(M * N);
+        gemmJava(a, b, expected, M, N, K);
+
+        GemmTasks gemm = new GemmTasks(getTornadoRuntime().getDefaultDevice());
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b);
+        gemm.sgemm(taskGraph, "sgemm", a, b, c, M, N, K) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withGridScheduler(gemm.getGridScheduler()).execute();
+        }
+
+        assertMatrixEquals(expected, c);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSizeMismatch() {
+        new GemmTasks(getTornadoRuntime().getDefaultDevice()).sgemm(new TaskGraph("s0"), "sgemm", new FloatArray(M * K), new FloatArray(K * N), new FloatArray(M * N), M, N, K + 1);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.foreign.Arena;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.NativeArrayPool;
+import uk.ac.manchester.tornado.api.types.arrays.PageAlignedAllocator;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for native arrays allocated from an explicit arena, from a
+ * {@link NativeArrayPool} and from a {@link PageAlignedAllocator}.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestArenaAllocation
+ * </code>
+ */
+public class TestArenaAllocation extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 4096;
+
+    public static void add(FloatArray a, FloatArray b, FloatArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    @Test
+    public void testArenaAllocation() throws TornadoExecutionPlanException {
+        FloatArray c;
+        try (Arena arena = Arena.ofShared()) {
+            FloatArray a = FloatArray.allocate(arena, NUM_ELEMENTS);
+            FloatArray b = FloatArray.allocate(arena, NUM_ELEMENTS);
+            c = FloatArray.allocate(arena, NUM_ELEMENTS);
+            assertEquals(NUM_ELEMENTS, a.getSize());
+            assertEquals(NUM_ELEMENTS, a.getSegmentWithHeader().getAtIndex(JAVA_INT, 0));
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                a.set(i, i);
+                b.set(i, 2 * i);
+            }
+
+            TaskGraph taskGraph = new TaskGraph("s0") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                    .task("t0", TestArenaAllocation::add, a, b, c) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+                executionPlan.execute();
+            }
+
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(3 * i, c.get(i), 0.0f);
+            }
+        }
+        assertFalse(c.getSegmentWithHeader().scope().isAlive());
+    }
+
+    @Test
+    public void testPoolRecycling() {
+        try (NativeArrayPool pool = new NativeArrayPool()) {
+            FloatArray first = FloatArray.allocate(pool, NUM_ELEMENTS);
+            long address = first.getSegmentWithHeader().address();
+            pool.release(first);
+
+            // Same bucket: the memory is recycled, and the header is written again
+            IntArray second = IntArray.allocate(pool, NUM_ELEMENTS + 10);
+            assertEquals(address, second.getSegmentWithHeader().address());
+            assertEquals(NUM_ELEMENTS + 10, second.getSize());
+
+            // Different bucket
+            FloatArray third = FloatArray.allocate(pool, NUM_ELEMENTS * 4);
+            assertNotEquals(address, third.getSegmentWithHeader().address());
+
+            assertEquals(1, pool.getHits());
+            assertEquals(2, pool.getMisses());
+            assertEquals(1.0 / 3, pool.getHitRate(), 1e-9);
+            assertEquals(0.5, pool.getHitRate(TornadoNativeArray.ARRAY_HEADER + NUM_ELEMENTS * Float.BYTES), 1e-9);
+            assertEquals(0, pool.getPooledBytes());
+
+            pool.release(second);
+            pool.release(third);
+            assertEquals(pool.getAllocatedBytes(), pool.getPooledBytes());
+        }
+    }
+
+    @Test
+    public void testPoolLimit() {
+        try (NativeArrayPool pool = new NativeArrayPool(0)) {
+            FloatArray array = FloatArray.allocate(pool, NUM_ELEMENTS);
+            pool.release(array);
+            assertEquals(0, pool.getPooledBytes());
+            assertEquals(0, pool.getAllocatedBytes());
+
+            FloatArray.allocate(pool, NUM_ELEMENTS);
+            assertEquals(0, pool.getHits());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReleaseArrayOfAnotherAllocator() {
+        try (NativeArrayPool pool = new NativeArrayPool()) {
+            pool.release(new FloatArray(NUM_ELEMENTS));
+        }
+    }
+
+    @Test
+    public void testPageAlignedAllocation() throws TornadoExecutionPlanException {
+        // Large enough to be backed by huge pages
+        final int size = (int) (PageAlignedAllocator.getHugePageSize() / Float.BYTES) * 2;
+        FloatArray a = FloatArray.allocate(PageAlignedAllocator.ofAuto(true), size);
+        FloatArray b = FloatArray.allocate(PageAlignedAllocator.ofAuto(false), size);
+        FloatArray c = new FloatArray(size);
+        assertEquals(0, a.getSegmentWithHeader().address() % PageAlignedAllocator.getPageSize());
+        assertEquals(0, b.getSegmentWithHeader().address() % PageAlignedAllocator.getPageSize());
+        assertTrue(PageAlignedAllocator.ofAuto(true).isHugePages());
+        a.init(1.0f);
+        b.init(2.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestArenaAllocation::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(3.0f, c.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testHugePagesInArena() {
+        // Not a multiple of the huge page size, so the mapping has a partial huge page
+        final int size = (int) (PageAlignedAllocator.getHugePageSize() / Float.BYTES) * 2 + 17;
+        FloatArray array;
+        try (Arena arena = Arena.ofConfined()) {
+            array = FloatArray.allocate(PageAlignedAllocator.of(arena, true), size);
+            assertEquals(0, array.getSegmentWithHeader().address() % PageAlignedAllocator.getPageSize());
+            if (System.getProperty("os.name", "").toLowerCase().startsWith("linux")) {
+                assertEquals(0, array.getSegmentWithHeader().address() % PageAlignedAllocator.getHugePageSize());
+            }
+            // The memory is mapped, not allocated by the arena, and it must still be zero-filled
+            for (int i = 0; i < size; i++) {
+                assertEquals(0.0f, array.get(i), 0.0f);
+            }
+            array.init(1.0f);
+            assertEquals(1.0f, array.get(size - 1), 0.0f);
+        }
+        assertFalse(array.getSegmentWithHeader().scope().isAlive());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoBackend;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.common.TornadoVMMultiDeviceNotSupported;
+
+/**
+ * Tests for the migration of device buffers when an execution plan changes
+ * its device. The data that is resident on the old device must be available
+ * on the new device without a new copy from the host.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestDeviceBufferMigration
+ * </code>
+ */
+public class TestDeviceBufferMigration extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 4096;
+
+    public static void accumulate(IntArray a, int value) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + value);
+        }
+    }
+
+    @Test
+    public void testMigrateResidentData() throws TornadoExecutionPlanException {
+        TornadoBackend backend = TornadoRuntime.getTornadoRuntime().getBackend(0);
+        if (backend.getDeviceCount() < 2) {
+            throw new TornadoVMMultiDeviceNotSupported("This test needs at least 2 devices enabled");
+        }
+
+        IntArray data = new IntArray(NUM_ELEMENTS);
+        data.init(10);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestDeviceBufferMigration::accumulate, data, 1) //
+                .transferToHost(DataTransferMode.UNDER_DEMAND, data);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withDevice(backend.getDevice(0)).execute();
+
+            // The host copy is stale from now on. A copy from the host would produce a wrong result.
+            data.init(-1);
+
+            TornadoExecutionResult executionResult = executionPlan.withDevice(backend.getDevice(1)).execute();
+            executionResult.transferToHost(data);
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(12, data.get(i));
+        }
+    }
+}
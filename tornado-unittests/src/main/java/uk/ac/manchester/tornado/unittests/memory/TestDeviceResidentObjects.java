@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for objects that stay on the device and are shared between execution
+ * plans.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestDeviceResidentObjects
+ * </code>
+ */
+public class TestDeviceResidentObjects extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 8192;
+
+    public static void multiply(FloatArray weights, FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, weights.get(i) * input.get(i));
+        }
+    }
+
+    public static void add(FloatArray weights, FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, weights.get(i) + input.get(i));
+        }
+    }
+
+    /**
+     * The second plan must use the weights that are on the device. The host
+     * copy is modified after the first plan runs, so a new copy from the host
+     * would produce a different result.
+     */
+    @Test
+    public void testConsumeFromAnotherPlan() throws TornadoExecutionPlanException {
+        FloatArray weights = new FloatArray(NUM_ELEMENTS);
+        FloatArray input = new FloatArray(NUM_ELEMENTS);
+        FloatArray outputA = new FloatArray(NUM_ELEMENTS);
+        FloatArray outputB = new FloatArray(NUM_ELEMENTS);
+        weights.init(2.0f);
+        input.init(3.0f);
+
+        TaskGraph taskGraphA = new TaskGraph("a") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, weights) //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestDeviceResidentObjects::multiply, weights, input, outputA) //
+                .persistOnDevice(weights) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, outputA);
+
+        TaskGraph taskGraphB = new TaskGraph("b") //
+                .consumeFromDevice(weights) //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestDeviceResidentObjects::add, weights, input, outputB) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, outputB);
+
+        try (TornadoExecutionPlan planA = new TornadoExecutionPlan(taskGraphA.snapshot()); //
+                TornadoExecutionPlan planB = new TornadoExecutionPlan(taskGraphB.snapshot())) {
+            planA.execute();
+
+            weights.init(100.0f);
+            planB.execute();
+
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(6.0f, outputA.get(i), 0.01f);
+                assertEquals(5.0f, outputB.get(i), 0.01f);
+            }
+
+            // Both plans keep using the resident buffer
+            input.init(1.0f);
+            planA.execute();
+            planB.execute();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(2.0f, outputA.get(i), 0.01f);
+                assertEquals(3.0f, outputB.get(i), 0.01f);
+            }
+        }
+    }
+
+    /**
+     * If the object is not resident on the device, it is copied from the host.
+     */
+    @Test
+    public void testConsumeWithoutResidentCopy() throws TornadoExecutionPlanException {
+        FloatArray weights = new FloatArray(NUM_ELEMENTS);
+        FloatArray input = new FloatArray(NUM_ELEMENTS);
+        FloatArray output = new FloatArray(NUM_ELEMENTS);
+        weights.init(4.0f);
+        input.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("b") //
+                .consumeFromDevice(weights) //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestDeviceResidentObjects::add, weights, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(5.0f, output.get(i), 0.01f);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for execution plans that infer the data transfers of the task-graphs
+ * from the accesses of the tasks.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestImplicitDataTransfers
+ * </code>
+ */
+public class TestImplicitDataTransfers extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 4096;
+
+    public static void scale(FloatArray input, FloatArray output, float factor) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * factor);
+        }
+    }
+
+    public static void add(FloatArray a, FloatArray b, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    /**
+     * The intermediate array is declared as an output, but it is only used on
+     * the device. The unused array is declared as an input, but no task uses
+     * it.
+     */
+    @Test
+    public void testIntermediatesAreNotTransferred() throws TornadoExecutionPlanException {
+        FloatArray input = new FloatArray(NUM_ELEMENTS);
+        FloatArray intermediate = new FloatArray(NUM_ELEMENTS);
+        FloatArray output = new FloatArray(NUM_ELEMENTS);
+        FloatArray unused = new FloatArray(NUM_ELEMENTS);
+        input.init(2.0f);
+        intermediate.init(-1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input, unused) //
+                .task("t0", TestImplicitDataTransfers::scale, input, intermediate, 3.0f) //
+                .task("t1", TestImplicitDataTransfers::add, input, intermediate, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, intermediate, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            TornadoExecutionResult executionResult = executionPlan.withImplicitDataTransfers().execute();
+
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(8.0f, output.get(i), 0.01f);
+                // Device-only intermediate: the host copy is not updated
+                assertEquals(-1.0f, intermediate.get(i), 0.01f);
+            }
+            long savedBytes = unused.getNumBytesOfSegmentWithHeader() + intermediate.getNumBytesOfSegmentWithHeader();
+            assertEquals(savedBytes, executionResult.getImplicitTransferSavedBytes());
+
+            executionResult = executionPlan.execute();
+            assertEquals(2 * savedBytes, executionResult.getImplicitTransferSavedBytes());
+        }
+    }
+
+    /**
+     * Inputs that are not declared are copied to the device in every execution
+     * when they are read before being written.
+     */
+    @Test
+    public void testUndeclaredInputs() throws TornadoExecutionPlanException {
+        FloatArray input = new FloatArray(NUM_ELEMENTS);
+        FloatArray output = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .task("t0", TestImplicitDataTransfers::scale, input, output, 2.0f);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withImplicitDataTransfers();
+            for (int iteration = 0; iteration < 3; iteration++) {
+                input.init(iteration);
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals(2.0f * iteration, output.get(i), 0.01f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSwitchMode() throws TornadoExecutionPlanException {
+        FloatArray input = new FloatArray(NUM_ELEMENTS);
+        FloatArray intermediate = new FloatArray(NUM_ELEMENTS);
+        FloatArray output = new FloatArray(NUM_ELEMENTS);
+        input.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestImplicitDataTransfers::scale, input, intermediate, 2.0f) //
+                .task("t1", TestImplicitDataTransfers::add, input, intermediate, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, intermediate, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withImplicitDataTransfers().execute();
+            intermediate.init(0.0f);
+
+            TornadoExecutionResult executionResult = executionPlan.withoutImplicitDataTransfers().execute();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(2.0f, intermediate.get(i), 0.01f);
+                assertEquals(3.0f, output.get(i), 0.01f);
+            }
+            assertEquals(intermediate.getNumBytesOfSegmentWithHeader(), executionResult.getImplicitTransferSavedBytes());
+        }
+    }
+}
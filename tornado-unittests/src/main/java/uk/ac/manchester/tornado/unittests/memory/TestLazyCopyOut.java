@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the lazy copy-out of results. Arrays transferred with
+ * {@link DataTransferMode#LAZY} stay on the device, and they are copied to the
+ * host only when the host accesses them.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestLazyCopyOut
+ * </code>
+ */
+public class TestLazyCopyOut extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 8192;
+
+    private void assumeDeviceCopy() {
+        // Tasks on the JVM backend access the host copy of the arrays, so they are never newer on the device
+        assumeFalse(getTornadoRuntime().getDefaultDevice().getTornadoVMBackend() == TornadoVMBackendType.JAVA);
+    }
+
+    public static void accumulate(IntArray a, int value) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + value);
+        }
+    }
+
+    public static void jacobiStep(FloatArray input, FloatArray output, FloatArray residual) {
+        for (@Parallel int i = 1; i < input.getSize() - 1; i++) {
+            float value = 0.5f * (input.get(i - 1) + input.get(i + 1));
+            output.set(i, value);
+            residual.set(i, Math.abs(value - input.get(i)));
+        }
+    }
+
+    @Test
+    public void testRangeSync() throws TornadoExecutionPlanException {
+        assumeDeviceCopy();
+        IntArray data = new IntArray(NUM_ELEMENTS);
+        data.init(10);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestLazyCopyOut::accumulate, data, 1) //
+                .transferToHost(DataTransferMode.LAZY, data);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+            assertTrue(data.isDeviceNewer());
+
+            // Only the last element is copied to the host. The element accessors do not synchronise the array.
+            data.syncFromDevice(NUM_ELEMENTS - 1, 1);
+            assertEquals(11, data.get(NUM_ELEMENTS - 1));
+            assertEquals(10, data.get(0));
+            assertTrue(data.isDeviceNewer());
+
+            data.syncFromDevice();
+            assertEquals(11, data.get(0));
+            assertFalse(data.isDeviceNewer());
+
+            executionPlan.execute();
+            data.syncFromDevice(0, 1);
+            assertEquals(12, data.get(0));
+        }
+    }
+
+    @Test
+    public void testSyncBeforeElementAccess() throws TornadoExecutionPlanException {
+        IntArray data = new IntArray(NUM_ELEMENTS);
+        data.init(10);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestLazyCopyOut::accumulate, data, 1) //
+                .transferToHost(DataTransferMode.LAZY, data);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+            data.syncFromDevice();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(11, data.get(i));
+            }
+            assertFalse(data.isDeviceNewer());
+
+            // The execution result copies the whole array, and a write on the host keeps the rest of the elements
+            executionPlan.execute().transferToHost(data);
+            assertFalse(data.isDeviceNewer());
+            data.set(0, 100);
+            assertFalse(data.isDeviceNewer());
+            assertEquals(100, data.get(0));
+            for (int i = 1; i < NUM_ELEMENTS; i++) {
+                assertEquals(12, data.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testSyncOnSegmentAccess() throws TornadoExecutionPlanException {
+        IntArray data = new IntArray(NUM_ELEMENTS);
+        data.init(10);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestLazyCopyOut::accumulate, data, 5) //
+                .transferToHost(DataTransferMode.LAZY, data);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            for (int iteration = 0; iteration < 3; iteration++) {
+                executionPlan.execute();
+            }
+
+            MemorySegment segment = data.getSegment();
+            assertFalse(data.isDeviceNewer());
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(25, segment.getAtIndex(ValueLayout.JAVA_INT, i));
+            }
+
+            executionPlan.execute();
+            int[] heapArray = data.toHeapArray();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(30, heapArray[i]);
+            }
+        }
+    }
+
+    /**
+     * Iterative solver that checks a single value of the residual per
+     * iteration. The solution is read by the host once the loop finishes.
+     */
+    @Test
+    public void testIterativeSolver() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(NUM_ELEMENTS);
+        FloatArray y = new FloatArray(NUM_ELEMENTS);
+        FloatArray residual = new FloatArray(NUM_ELEMENTS);
+        x.init(0.0f);
+        x.set(0, 1.0f);
+        x.set(NUM_ELEMENTS - 1, 1.0f);
+        y.init(0.0f);
+        y.set(0, 1.0f);
+        y.set(NUM_ELEMENTS - 1, 1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, x, y) //
+                .task("t0", TestLazyCopyOut::jacobiStep, x, y, residual) //
+                .task("t1", TestLazyCopyOut::jacobiStep, y, x, residual) //
+                .transferToHost(DataTransferMode.LAZY, x, residual);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            for (int iteration = 0; iteration < 10; iteration++) {
+                executionPlan.execute();
+                residual.syncFromDevice(1, 1);
+                assertTrue(residual.get(1) >= 0.0f);
+            }
+        }
+
+        // Device memory is released, so the lazy results are copied to the host
+        assertFalse(x.isDeviceNewer());
+        assertEquals(1.0f, x.get(0), 0.001f);
+        assertTrue(x.get(1) > 0.0f);
+    }
+}
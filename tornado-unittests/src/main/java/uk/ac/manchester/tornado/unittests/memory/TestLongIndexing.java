@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.tensors.Shape;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP32;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the 64-bit indexing of native arrays and tensors.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestLongIndexing
+ * </code>
+ */
+public class TestLongIndexing extends TornadoTestBase {
+
+    private static final long NUM_ELEMENTS = 1L << 20;
+
+    public static void increment(FloatArray array) {
+        for (@Parallel int i = 0; i < array.getSize(); i++) {
+            array.set(i, array.get(i) + 1.0f);
+        }
+    }
+
+    @Test
+    public void testLongAccessors() {
+        DoubleArray array = new DoubleArray(NUM_ELEMENTS);
+        assertEquals(NUM_ELEMENTS, array.getSizeAsLong());
+        assertEquals((int) NUM_ELEMENTS, array.getSize());
+        for (long i = 0; i < array.getSizeAsLong(); i++) {
+            array.set(i, i);
+        }
+        for (int i = 0; i < array.getSize(); i++) {
+            assertEquals(i, array.get(i), 0.0);
+            assertEquals(array.get(i), array.get((long) i), 0.0);
+        }
+
+        IntArray view = new IntArray(NUM_ELEMENTS).view(NUM_ELEMENTS / 2, NUM_ELEMENTS / 4);
+        assertEquals(NUM_ELEMENTS / 4, view.getSizeAsLong());
+    }
+
+    @Test
+    public void testShapeSize() {
+        Shape shape = new Shape(1L << 20, 1L << 12);
+        assertEquals(1L << 32, shape.getSizeAsLong());
+        assertEquals(Integer.MAX_VALUE, shape.getSize());
+
+        TensorFP32 tensor = new TensorFP32(new Shape(NUM_ELEMENTS / 16, 16));
+        assertEquals(NUM_ELEMENTS, tensor.getSizeAsLong());
+        tensor.init(2.0f);
+        assertEquals(2.0f, tensor.get(NUM_ELEMENTS - 1), 0.0f);
+    }
+
+    @Test
+    public void testBatchesOfLongArray() throws TornadoExecutionPlanException {
+        FloatArray array = new FloatArray(NUM_ELEMENTS * 4);
+        array.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, array) //
+                .task("t0", TestLongIndexing::increment, array) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, array);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            // Arrays of more than Integer.MAX_VALUE elements are processed on the device in batches
+            executionPlan.withBatch("4MB").execute();
+        }
+
+        for (long i = 0; i < array.getSizeAsLong(); i++) {
+            assertEquals(2.0f, array.get(i), 0.0f);
+        }
+    }
+}
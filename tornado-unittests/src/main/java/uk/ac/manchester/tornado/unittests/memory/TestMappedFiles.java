@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
+import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.tensors.Shape;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP16;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for native arrays and tensors backed by memory-mapped files.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestMappedFiles
+ * </code>
+ */
+public class TestMappedFiles extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 4096;
+
+    // Bytes of the file before the data, e.g., the header of a weights file
+    private static final int FILE_HEADER = 64;
+
+    public static void scale(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * 2.0f);
+        }
+    }
+
+    private static Path writeFloats(int fileHeader) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(fileHeader + NUM_ELEMENTS * Float.BYTES).order(ByteOrder.nativeOrder());
+        buffer.position(fileHeader);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            buffer.putFloat(i);
+        }
+        Path path = Files.createTempFile("tornado-mapped", ".bin");
+        path.toFile().deleteOnExit();
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    @Test
+    public void testFloatArrayFromFile() throws IOException, TornadoExecutionPlanException {
+        Path path = writeFloats(FILE_HEADER);
+        FloatArray input = FloatArray.fromFile(path, FILE_HEADER, NUM_ELEMENTS);
+        FloatArray output = new FloatArray(NUM_ELEMENTS);
+
+        assertTrue(input.getSegmentWithHeader().isMapped());
+        assertEquals(NUM_ELEMENTS, input.getSize());
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(i, input.get(i), 0.0f);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestMappedFiles::scale, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(i * 2.0f, output.get(i), 0.01f);
+        }
+    }
+
+    /**
+     * A region that starts before the size of the array header cannot be
+     * mapped, so it is read into a new array.
+     */
+    @Test
+    public void testRegionAtStartOfFile() throws IOException {
+        Path path = writeFloats(0);
+        FloatArray input = FloatArray.fromFile(path, 0, NUM_ELEMENTS);
+
+        assertFalse(input.getSegmentWithHeader().isMapped());
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(i, input.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testTensorFP16Map() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_HEADER + NUM_ELEMENTS * Short.BYTES).order(ByteOrder.nativeOrder());
+        buffer.position(FILE_HEADER);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            buffer.putShort(new HalfFloat(i % 64).getHalfFloatValue());
+        }
+        Path path = Files.createTempFile("tornado-mapped", ".bin");
+        path.toFile().deleteOnExit();
+        Files.write(path, buffer.array());
+
+        TensorFP16 tensor = TensorFP16.map(path, FILE_HEADER, new Shape(64, NUM_ELEMENTS / 64));
+
+        assertEquals(NUM_ELEMENTS, tensor.getSize());
+        assertTrue(tensor.getSegmentWithHeader().isMapped());
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(i % 64, tensor.get(i).getFloat32(), 0.0f);
+        }
+    }
+
+    @Test(expected = TornadoRuntimeException.class)
+    public void testMappedArrayAsOutput() throws IOException {
+        Path path = writeFloats(FILE_HEADER);
+        FloatArray input = FloatArray.fromFile(path, FILE_HEADER, NUM_ELEMENTS);
+        new TaskGraph("s0") //
+                .task("t0", TestMappedFiles::scale, input, input) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, input);
+    }
+
+    /**
+     * With implicit data transfers, the outputs are derived from the accesses of
+     * the tasks, so the mapped array is not declared with transferToHost.
+     */
+    @Test(expected = TornadoTaskRuntimeException.class)
+    public void testMappedArrayAsImplicitOutput() throws IOException, TornadoExecutionPlanException {
+        Path path = writeFloats(FILE_HEADER);
+        FloatArray input = FloatArray.fromFile(path, FILE_HEADER, NUM_ELEMENTS);
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestMappedFiles::scale, input, input);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withImplicitDataTransfers().execute();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for views of native arrays. Views share the memory of their parent on
+ * the host, and views of an array of the same task-graph are backed by a region
+ * of the device buffer of the parent.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestSubBufferViews
+ * </code>
+ */
+public class TestSubBufferViews extends TornadoTestBase {
+
+    // 4KB per partition, so the views are aligned to the base address alignment of the device
+    private static final int PARTITION_SIZE = 1024;
+    private static final int NUM_PARTITIONS = 4;
+
+    public static void scale(FloatArray a, float factor) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) * factor);
+        }
+    }
+
+    public static void copy(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i));
+        }
+    }
+
+    private static FloatArray createInput(int size) {
+        FloatArray array = new FloatArray(size);
+        for (int i = 0; i < size; i++) {
+            array.set(i, i % 100);
+        }
+        return array;
+    }
+
+    @Test
+    public void testViewSharesHostMemory() {
+        FloatArray data = createInput(PARTITION_SIZE * NUM_PARTITIONS);
+        FloatArray view = data.view(PARTITION_SIZE, PARTITION_SIZE);
+        FloatArray nested = view.view(10, 20);
+
+        assertTrue(view.isView());
+        assertFalse(data.isView());
+        assertSame(data, nested.getViewParent());
+        assertEquals((long) (PARTITION_SIZE + 10) * Float.BYTES, nested.getViewOffset());
+        assertEquals(20, nested.getSize());
+
+        view.set(0, -1.0f);
+        nested.set(5, -2.0f);
+        assertEquals(-1.0f, data.get(PARTITION_SIZE), 0.0f);
+        assertEquals(-2.0f, data.get(PARTITION_SIZE + 15), 0.0f);
+
+        data.set(PARTITION_SIZE + 1, -3.0f);
+        assertEquals(-3.0f, view.get(1), 0.0f);
+
+        // The header of the view is never written: the element before the view is unchanged
+        assertEquals((PARTITION_SIZE - 1) % 100, data.get(PARTITION_SIZE - 1), 0.0f);
+    }
+
+    /**
+     * Each task scales a different partition of an array. The results are copied
+     * through the views.
+     */
+    @Test
+    public void testTasksOnPartitions() throws TornadoExecutionPlanException {
+        FloatArray data = createInput(PARTITION_SIZE * NUM_PARTITIONS);
+        FloatArray expected = createInput(PARTITION_SIZE * NUM_PARTITIONS);
+        FloatArray[] partitions = new FloatArray[NUM_PARTITIONS];
+        for (int i = 0; i < NUM_PARTITIONS; i++) {
+            partitions[i] = data.view(i * PARTITION_SIZE, PARTITION_SIZE);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestSubBufferViews::scale, partitions[0], 1.0f) //
+                .task("t1", TestSubBufferViews::scale, partitions[1], 2.0f) //
+                .task("t2", TestSubBufferViews::scale, partitions[2], 3.0f) //
+                .task("t3", TestSubBufferViews::scale, partitions[3], 4.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, (Object[]) partitions);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < data.getSize(); i++) {
+            assertEquals(expected.get(i) * (i / PARTITION_SIZE + 1), data.get(i), 0.01f);
+        }
+    }
+
+    /**
+     * The writes of a task to a view are read by a later task through the parent
+     * array. This requires the view to alias the device buffer of the parent.
+     */
+    @Test
+    public void testViewAliasesParentOnDevice() throws TornadoExecutionPlanException {
+        assertNotBackend(TornadoVMBackendType.SPIRV);
+
+        FloatArray data = createInput(PARTITION_SIZE * NUM_PARTITIONS);
+        FloatArray expected = createInput(PARTITION_SIZE * NUM_PARTITIONS);
+        FloatArray output = new FloatArray(PARTITION_SIZE * NUM_PARTITIONS);
+        FloatArray window = data.view(PARTITION_SIZE, PARTITION_SIZE * 2);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, data) //
+                .task("t0", TestSubBufferViews::scale, window, 2.0f) //
+                .task("t1", TestSubBufferViews::copy, data, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+            for (int i = 0; i < output.getSize(); i++) {
+                boolean inWindow = i >= PARTITION_SIZE && i < PARTITION_SIZE * 3;
+                assertEquals(inWindow ? expected.get(i) * 2.0f : expected.get(i), output.get(i), 0.01f);
+            }
+
+            // The data stays on the device, so the window is scaled again
+            executionPlan.execute();
+            for (int i = PARTITION_SIZE; i < PARTITION_SIZE * 3; i++) {
+                assertEquals(expected.get(i) * 4.0f, output.get(i), 0.01f);
+            }
+        }
+    }
+
+    /**
+     * A view that is not aligned to the base address alignment of the device is
+     * allocated and copied as any other array.
+     */
+    @Test
+    public void testUnalignedView() throws TornadoExecutionPlanException {
+        FloatArray data = createInput(PARTITION_SIZE);
+        FloatArray expected = createInput(PARTITION_SIZE);
+        FloatArray view = data.view(1, PARTITION_SIZE - 2);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, data) //
+                .task("t0", TestSubBufferViews::scale, view, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, view);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        assertEquals(expected.get(0), data.get(0), 0.0f);
+        assertEquals(expected.get(PARTITION_SIZE - 1), data.get(PARTITION_SIZE - 1), 0.0f);
+        for (int i = 1; i < PARTITION_SIZE - 1; i++) {
+            assertEquals(expected.get(i) * 2.0f, data.get(i), 0.01f);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.primitives;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.primitives.Histogram;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the histograms and group-by aggregations of
+ * {@link TaskGraph#histogram(String, IntArray, IntArray)} and
+ * {@link TaskGraph#groupBySum(String, IntArray, FloatArray, FloatArray)}.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.primitives.TestHistogram
+ * </code>
+ */
+public class TestHistogram extends TornadoTestBase {
+
+    // Not a multiple of the block size, with more than one block
+    private static final int SIZE = 100_003;
+
+    // More bins than the privatised histogram supports
+    private static final int MANY_BINS = Histogram.MAX_PRIVATE_BINS * 4;
+
+    private static void execute(TaskGraph taskGraph) throws TornadoExecutionPlanException {
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+    }
+
+    private static IntArray randomBins(int size, int numBins, long seed) {
+        Random random = new Random(seed);
+        IntArray input = new IntArray(size);
+        for (int i = 0; i < size; i++) {
+            // Some elements are out of range
+            input.set(i, random.nextInt(numBins + 20) - 10);
+        }
+        return input;
+    }
+
+    private static int[] expectedHistogram(IntArray input, int numBins) {
+        int[] expected = new int[numBins];
+        for (int i = 0; i < input.getSize(); i++) {
+            int bin = input.get(i);
+            if (bin >= 0 && bin < numBins) {
+                expected[bin]++;
+            }
+        }
+        return expected;
+    }
+
+    @Test
+    public void testHistogramPrivateBins() throws TornadoExecutionPlanException {
+        final int numBins = 256;
+        IntArray input = randomBins(SIZE, numBins, 3);
+        IntArray bins = new IntArray(numBins);
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .histogram("histogram", input, bins) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, bins));
+
+        int[] expected = expectedHistogram(input, numBins);
+        for (int bin = 0; bin < numBins; bin++) {
+            assertEquals(expected[bin], bins.get(bin));
+        }
+    }
+
+    @Test
+    public void testHistogramHotBin() throws TornadoExecutionPlanException {
+        final int numBins = 64;
+        IntArray input = new IntArray(SIZE);
+        input.init(7);
+        IntArray bins = new IntArray(numBins);
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .histogram("histogram", input, bins) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, bins));
+
+        for (int bin = 0; bin < numBins; bin++) {
+            assertEquals(bin == 7 ? SIZE : 0, bins.get(bin));
+        }
+    }
+
+    @Test
+    public void testHistogramManyBins() throws TornadoExecutionPlanException {
+        IntArray input = randomBins(SIZE, MANY_BINS, 5);
+        IntArray bins = new IntArray(MANY_BINS);
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .histogram("histogram", input, bins) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, bins));
+
+        int[] expected = expectedHistogram(input, MANY_BINS);
+        for (int bin = 0; bin < MANY_BINS; bin++) {
+            assertEquals(expected[bin], bins.get(bin));
+        }
+        // The input is not modified by the sort
+        assertEquals(randomBins(SIZE, MANY_BINS, 5).get(SIZE - 1), input.get(SIZE - 1));
+    }
+
+    @Test
+    public void testGroupBySumInt() throws TornadoExecutionPlanException {
+        final int numKeys = 1000;
+        IntArray keys = randomBins(SIZE, numKeys, 7);
+        IntArray values = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            values.set(i, i % 13 - 6);
+        }
+        IntArray sums = new IntArray(numKeys);
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, keys, values) //
+                .groupBySum("groupBy", keys, values, sums) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, sums));
+
+        int[] expected = new int[numKeys];
+        for (int i = 0; i < SIZE; i++) {
+            if (keys.get(i) >= 0 && keys.get(i) < numKeys) {
+                expected[keys.get(i)] += values.get(i);
+            }
+        }
+        for (int key = 0; key < numKeys; key++) {
+            assertEquals(expected[key], sums.get(key));
+        }
+    }
+
+    @Test
+    public void testGroupBySumFloatManyKeys() throws TornadoExecutionPlanException {
+        IntArray keys = randomBins(SIZE, MANY_BINS, 11);
+        FloatArray values = new FloatArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            values.set(i, (i % 7) * 0.25f);
+        }
+        FloatArray sums = new FloatArray(MANY_BINS);
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, keys, values) //
+                .groupBySum("groupBy", keys, values, sums) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, sums));
+
+        float[] expected = new float[MANY_BINS];
+        for (int i = 0; i < SIZE; i++) {
+            if (keys.get(i) >= 0 && keys.get(i) < MANY_BINS) {
+                expected[keys.get(i)] += values.get(i);
+            }
+        }
+        for (int key = 0; key < MANY_BINS; key++) {
+            // Multiples of 0.25 are exact in float
+            assertEquals(expected[key], sums.get(key), 0.0f);
+        }
+    }
+
+    @Test(expected = TornadoRuntimeException.class)
+    public void testNoBins() {
+        new TaskGraph("s0").histogram("histogram", new IntArray(16), new IntArray(0));
+    }
+}
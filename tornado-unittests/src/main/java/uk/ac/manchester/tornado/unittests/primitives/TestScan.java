@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.primitives;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.primitives.Scan;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the prefix sums of {@link TaskGraph#inclusiveScan(String, IntArray, IntArray)} and
+ * {@link TaskGraph#exclusiveScan(String, IntArray, IntArray)}.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.primitives.TestScan
+ * </code>
+ */
+public class TestScan extends TornadoTestBase {
+
+    // Not a multiple of the block size, with more than one block
+    private static final int SIZE = 100_003;
+
+    private static IntArray randomInts(int size) {
+        Random random = new Random(3);
+        IntArray array = new IntArray(size);
+        for (int i = 0; i < size; i++) {
+            array.set(i, random.nextInt(200) - 100);
+        }
+        return array;
+    }
+
+    @Test
+    public void testInclusiveScanInt() throws TornadoExecutionPlanException {
+        IntArray input = randomInts(SIZE);
+        IntArray output = new IntArray(SIZE);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .inclusiveScan("scan", input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        int sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += input.get(i);
+            assertEquals(sum, output.get(i));
+        }
+    }
+
+    /**
+     * More blocks than work-items in a work-group, so the work-group that scans
+     * the block sums goes through several chunks.
+     */
+    @Test
+    public void testInclusiveScanManyBlocks() throws TornadoExecutionPlanException {
+        final int size = Scan.WORK_GROUP_SIZE * Scan.MIN_BLOCK_SIZE + 3 * Scan.MIN_BLOCK_SIZE + 1;
+        IntArray input = randomInts(size);
+        IntArray output = new IntArray(size);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .inclusiveScan("scan", input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        IntArray expected = new IntArray(size);
+        Scan.inclusiveScan(input, expected);
+        for (int i = 0; i < size; i++) {
+            assertEquals(expected.get(i), output.get(i));
+        }
+    }
+
+    @Test
+    public void testExclusiveScanLong() throws TornadoExecutionPlanException {
+        LongArray input = new LongArray(SIZE);
+        LongArray output = new LongArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            input.set(i, i * 1_000_003L);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .exclusiveScan("scan", input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(sum, output.get(i));
+            sum += input.get(i);
+        }
+    }
+
+    @Test
+    public void testInclusiveScanFloatInPlace() throws TornadoExecutionPlanException {
+        FloatArray data = new FloatArray(SIZE);
+        data.init(0.5f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, data) //
+                .inclusiveScan("scan", data, data) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, data);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            // Multiples of 0.5 are exact in float up to 2^23
+            assertEquals(0.5f * (i + 1), data.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testExclusiveScanDoubleSmall() throws TornadoExecutionPlanException {
+        final int size = 17;
+        DoubleArray input = new DoubleArray(size);
+        DoubleArray output = new DoubleArray(size);
+        for (int i = 0; i < size; i++) {
+            input.set(i, i + 0.25);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .exclusiveScan("scan", input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        DoubleArray expected = new DoubleArray(size);
+        Scan.exclusiveScan(input, expected);
+        for (int i = 0; i < size; i++) {
+            assertEquals(expected.get(i), output.get(i), 1e-9);
+        }
+    }
+
+    @Test
+    public void testHostScan() {
+        IntArray input = randomInts(SIZE);
+        IntArray inclusive = new IntArray(SIZE);
+        IntArray exclusive = new IntArray(SIZE);
+        Scan.inclusiveScan(input, inclusive);
+        Scan.exclusiveScan(input, exclusive);
+
+        assertEquals(0, exclusive.get(0));
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(inclusive.get(i), exclusive.get(i) + input.get(i));
+        }
+    }
+
+    @Test(expected = TornadoRuntimeException.class)
+    public void testSizeMismatch() {
+        new TaskGraph("s0").inclusiveScan("scan", new IntArray(16), new IntArray(8));
+    }
+}
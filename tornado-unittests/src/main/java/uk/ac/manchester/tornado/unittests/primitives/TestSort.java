@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.primitives;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the device sorts of {@link TaskGraph#sort(String, IntArray)},
+ * {@link TaskGraph#sortByKey(String, IntArray, IntArray)} and
+ * {@link TaskGraph#segmentedSort(String, IntArray, int)}.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.primitives.TestSort
+ * </code>
+ */
+public class TestSort extends TornadoTestBase {
+
+    // Not a multiple of the block size, with more than one block
+    private static final int SIZE = 50_001;
+
+    private static void execute(TaskGraph taskGraph) throws TornadoExecutionPlanException {
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+    }
+
+    @Test
+    public void testRadixSortInt() throws TornadoExecutionPlanException {
+        Random random = new Random(5);
+        IntArray keys = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            keys.set(i, random.nextInt());
+        }
+        int[] expected = keys.toHeapArray();
+        Arrays.sort(expected);
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys) //
+                .sort("sort", keys) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, keys));
+
+        assertArrayEquals(expected, keys.toHeapArray());
+    }
+
+    @Test
+    public void testRadixSortFloat() throws TornadoExecutionPlanException {
+        Random random = new Random(7);
+        FloatArray keys = new FloatArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            keys.set(i, (float) random.nextGaussian() * 1000);
+        }
+        keys.set(0, -0.0f);
+        keys.set(1, 0.0f);
+        keys.set(2, Float.NEGATIVE_INFINITY);
+        keys.set(3, Float.POSITIVE_INFINITY);
+        float[] expected = keys.toHeapArray();
+        Arrays.sort(expected);
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys) //
+                .sort("sort", keys) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, keys));
+
+        assertArrayEquals(expected, keys.toHeapArray(), 0.0f);
+    }
+
+    @Test
+    public void testRadixSortByKeyIsStable() throws TornadoExecutionPlanException {
+        Random random = new Random(11);
+        IntArray keys = new IntArray(SIZE);
+        IntArray values = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            // Many repeated keys
+            keys.set(i, random.nextInt(100) - 50);
+            values.set(i, i);
+        }
+        int[] originalKeys = keys.toHeapArray();
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys, values) //
+                .sortByKey("sort", keys, values) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, keys, values));
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(originalKeys[values.get(i)], keys.get(i));
+            if (i > 0) {
+                boolean ordered = keys.get(i - 1) < keys.get(i) || (keys.get(i - 1) == keys.get(i) && values.get(i - 1) < values.get(i));
+                assertEquals(true, ordered);
+            }
+        }
+    }
+
+    @Test
+    public void testSegmentedSortFloat() throws TornadoExecutionPlanException {
+        final int segmentSize = 64;
+        final int size = segmentSize * 32;
+        Random random = new Random(13);
+        FloatArray keys = new FloatArray(size);
+        for (int i = 0; i < size; i++) {
+            keys.set(i, random.nextFloat() - 0.5f);
+        }
+        float[] expected = keys.toHeapArray();
+        for (int segment = 0; segment < size; segment += segmentSize) {
+            Arrays.sort(expected, segment, segment + segmentSize);
+        }
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys) //
+                .segmentedSort("sort", keys, segmentSize) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, keys));
+
+        assertArrayEquals(expected, keys.toHeapArray(), 0.0f);
+    }
+
+    @Test
+    public void testSegmentedSortByKeyInt() throws TornadoExecutionPlanException {
+        final int segmentSize = 16;
+        final int size = segmentSize * 64;
+        Random random = new Random(17);
+        IntArray keys = new IntArray(size);
+        IntArray values = new IntArray(size);
+        for (int i = 0; i < size; i++) {
+            keys.set(i, random.nextInt(1000));
+            values.set(i, i);
+        }
+        int[] originalKeys = keys.toHeapArray();
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, keys, values) //
+                .segmentedSortByKey("sort", keys, values, segmentSize) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, keys, values));
+
+        for (int i = 0; i < size; i++) {
+            // Values stay in their segment
+            assertEquals(i / segmentSize, values.get(i) / segmentSize);
+            assertEquals(originalKeys[values.get(i)], keys.get(i));
+            if (i % segmentSize != 0) {
+                assertEquals(true, keys.get(i - 1) <= keys.get(i));
+            }
+        }
+    }
+
+    @Test(expected = TornadoRuntimeException.class)
+    public void testInvalidSegmentSize() {
+        new TaskGraph("s0").segmentedSort("sort", new IntArray(96), 48);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.random.Philox;
+import uk.ac.manchester.tornado.api.random.RandomBits;
+import uk.ac.manchester.tornado.api.random.Threefry;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.api.types.vectors.Int4;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the counter-based random number generators of {@link Philox} and
+ * {@link Threefry}. The known answers are the ones of the Random123 library.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.random.TestRandom
+ * </code>
+ */
+public class TestRandom extends TornadoTestBase {
+
+    private static final int SIZE = 4096;
+
+    private static final long SEED = 0x13198A2E03707344L;
+
+    public static void philox(IntArray output, long seed) {
+        for (@Parallel int i = 0; i < output.getSize() / 4; i++) {
+            Int4 bits = Philox.philox4x32(RandomBits.counter(i, 7), 0, seed);
+            output.set(4 * i, bits.getX());
+            output.set(4 * i + 1, bits.getY());
+            output.set(4 * i + 2, bits.getZ());
+            output.set(4 * i + 3, bits.getW());
+        }
+    }
+
+    public static void threefry(LongArray output, long seed) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, Threefry.threefry2x32(RandomBits.counter(i, 7), seed));
+        }
+    }
+
+    public static void multiplyHigh(IntArray a, IntArray b, IntArray signed, IntArray unsigned) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            signed.set(i, Philox.multiplyHigh(a.get(i), b.get(i)));
+            unsigned.set(i, Philox.multiplyHighUnsigned(a.get(i), b.get(i)));
+        }
+    }
+
+    public static void uniformFloats(FloatArray output, long seed) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, RandomBits.uniformFloat(RandomBits.low(Threefry.threefry2x32(RandomBits.counter(i, 0), seed))));
+        }
+    }
+
+    private static void assertWords(int[] expected, Int4 actual) {
+        assertEquals(expected[0], actual.getX());
+        assertEquals(expected[1], actual.getY());
+        assertEquals(expected[2], actual.getZ());
+        assertEquals(expected[3], actual.getW());
+    }
+
+    private static void execute(TaskGraph taskGraph) throws TornadoExecutionPlanException {
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+    }
+
+    @Test
+    public void testPhiloxKnownAnswers() {
+        assertWords(new int[] { 0x6627E8D5, 0xE169C58D, 0xBC57AC4C, 0x9B00DBD8 }, Philox.philox4x32(0L, 0L, 0L));
+        assertWords(new int[] { 0x408F276D, 0x41C83B0E, 0xA20BC7C6, 0x6D5451FD }, Philox.philox4x32(-1L, -1L, -1L));
+        assertWords(new int[] { 0xD16CFE09, 0x94FDCCEB, 0x5001E420, 0x24126EA1 }, Philox.philox4x32( //
+                RandomBits.counter(0x243F6A88, 0x85A308D3), RandomBits.counter(0x13198A2E, 0x03707344), RandomBits.counter(0xA4093822, 0x299F31D0)));
+    }
+
+    @Test
+    public void testThreefryKnownAnswers() {
+        assertEquals(RandomBits.counter(0x6B200159, 0x99BA4EFE), Threefry.threefry2x32(0L, 0L));
+        assertEquals(RandomBits.counter(0x1CB996FC, 0xBB002BE7), Threefry.threefry2x32(-1L, -1L));
+        assertEquals(RandomBits.counter(0xC4923A9C, 0x483DF7A0), Threefry.threefry2x32(RandomBits.counter(0x243F6A88, 0x85A308D3), RandomBits.counter(0x13198A2E, 0x03707344)));
+    }
+
+    @Test
+    public void testMultiplyHigh() throws TornadoExecutionPlanException {
+        IntArray a = new IntArray(SIZE);
+        IntArray b = new IntArray(SIZE);
+        IntArray signed = new IntArray(SIZE);
+        IntArray unsigned = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            a.set(i, Threefry.KEY_PARITY * (i + 1));
+            b.set(i, Philox.MULTIPLIER_1 - i * 7919);
+        }
+
+        execute(new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                .task("t0", TestRandom::multiplyHigh, a, b, signed, unsigned) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, signed, unsigned));
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals((int) (((long) a.get(i) * b.get(i)) >> 32), signed.get(i));
+            assertEquals((int) (((a.get(i) & 0xFFFFFFFFL) * (b.get(i) & 0xFFFFFFFFL)) >>> 32), unsigned.get(i));
+        }
+    }
+
+    @Test
+    public void testPhiloxKernel() throws TornadoExecutionPlanException {
+        IntArray output = new IntArray(SIZE);
+
+        execute(new TaskGraph("s0") //
+                .task("t0", TestRandom::philox, output, SEED) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output));
+
+        for (int i = 0; i < SIZE / 4; i++) {
+            Int4 expected = Philox.philox4x32(RandomBits.counter(i, 7), 0, SEED);
+            assertWords(new int[] { expected.getX(), expected.getY(), expected.getZ(), expected.getW() }, //
+                    new Int4(output.get(4 * i), output.get(4 * i + 1), output.get(4 * i + 2), output.get(4 * i + 3)));
+        }
+    }
+
+    @Test
+    public void testThreefryKernel() throws TornadoExecutionPlanException {
+        LongArray output = new LongArray(SIZE);
+
+        execute(new TaskGraph("s0") //
+                .task("t0", TestRandom::threefry, output, SEED) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output));
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(Threefry.threefry2x32(RandomBits.counter(i, 7), SEED), output.get(i));
+        }
+    }
+
+    @Test
+    public void testUniformFloat() throws TornadoExecutionPlanException {
+        FloatArray output = new FloatArray(SIZE);
+
+        execute(new TaskGraph("s0") //
+                .task("t0", TestRandom::uniformFloats, output, SEED) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output));
+
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            float value = output.get(i);
+            assertEquals(true, value >= 0.0f && value < 1.0f);
+            sum += value;
+            if (i > 0) {
+                // Neighbouring threads have independent streams
+                assertNotEquals(output.get(i - 1), value, 0.0f);
+            }
+        }
+        // The standard deviation of the mean is 1 / sqrt(12 * SIZE), about 0.0045
+        assertEquals(0.5, sum / SIZE, 0.02);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for independent tasks of a task-graph that run concurrently in
+ * different command queues of the same device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.tasks.TestConcurrentTasks
+ * </code>
+ */
+public class TestConcurrentTasks extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 16384;
+
+    public static void scale(FloatArray input, FloatArray output, float factor) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * factor);
+        }
+    }
+
+    public static void square(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * input.get(i));
+        }
+    }
+
+    public static void addInPlace(FloatArray a, float value) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + value);
+        }
+    }
+
+    public static void merge(FloatArray a, FloatArray b, FloatArray c, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, a.get(i) + b.get(i) + c.get(i));
+        }
+    }
+
+    private static FloatArray createInput() {
+        FloatArray input = new FloatArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            input.set(i, i % 100);
+        }
+        return input;
+    }
+
+    /**
+     * Three independent feature transforms of the same input, followed by a
+     * merge task that depends on all of them.
+     */
+    @Test
+    public void testIndependentTransformsAndMerge() throws TornadoExecutionPlanException {
+        FloatArray input = createInput();
+        FloatArray featureA = new FloatArray(NUM_ELEMENTS);
+        FloatArray featureB = new FloatArray(NUM_ELEMENTS);
+        FloatArray featureC = new FloatArray(NUM_ELEMENTS);
+        FloatArray output = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestConcurrentTasks::scale, input, featureA, 2.0f) //
+                .task("t1", TestConcurrentTasks::square, input, featureB) //
+                .task("t2", TestConcurrentTasks::scale, input, featureC, 0.5f) //
+                .task("t3", TestConcurrentTasks::merge, featureA, featureB, featureC, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withConcurrentTasks();
+            for (int iteration = 0; iteration < 5; iteration++) {
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    float value = input.get(i);
+                    assertEquals(value * 2.0f + value * value + value * 0.5f, output.get(i), 0.01f);
+                }
+            }
+        }
+    }
+
+    /**
+     * Two independent chains of dependent tasks. Each chain keeps its own
+     * order, and both results are copied back to the host.
+     */
+    @Test
+    public void testIndependentChains() throws TornadoExecutionPlanException {
+        FloatArray inputA = createInput();
+        FloatArray inputB = createInput();
+        FloatArray outputA = new FloatArray(NUM_ELEMENTS);
+        FloatArray outputB = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, inputA, inputB) //
+                .task("a0", TestConcurrentTasks::scale, inputA, outputA, 3.0f) //
+                .task("b0", TestConcurrentTasks::square, inputB, outputB) //
+                .task("a1", TestConcurrentTasks::addInPlace, outputA, 1.0f) //
+                .task("b1", TestConcurrentTasks::addInPlace, outputB, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, outputA, outputB);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withConcurrentTasks().execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(inputA.get(i) * 3.0f + 1.0f, outputA.get(i), 0.01f);
+            assertEquals(inputB.get(i) * inputB.get(i) + 2.0f, outputB.get(i), 0.01f);
+        }
+    }
+
+    @Test
+    public void testConcurrentAndSequentialModes() throws TornadoExecutionPlanException {
+        FloatArray input = createInput();
+        FloatArray featureA = new FloatArray(NUM_ELEMENTS);
+        FloatArray featureB = new FloatArray(NUM_ELEMENTS);
+        FloatArray featureC = new FloatArray(NUM_ELEMENTS);
+        FloatArray output = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestConcurrentTasks::scale, input, featureA, 1.0f) //
+                .task("t1", TestConcurrentTasks::scale, input, featureB, 2.0f) //
+                .task("t2", TestConcurrentTasks::scale, input, featureC, 3.0f) //
+                .task("t3", TestConcurrentTasks::merge, featureA, featureB, featureC, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(input.get(i) * 6.0f, output.get(i), 0.01f);
+            }
+
+            output.init(0.0f);
+            executionPlan.withConcurrentTasks().withOutOfOrderExecution().execute();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(input.get(i) * 6.0f, output.get(i), 0.01f);
+            }
+
+            output.init(0.0f);
+            executionPlan.withoutConcurrentTasks().withoutOutOfOrderExecution().execute();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals(input.get(i) * 6.0f, output.get(i), 0.01f);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for execution plans that submit commands to out-of-order command
+ * queues. The results must be the same as with in-order queues, since the
+ * commands are ordered by the dependencies of the task graph.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.tasks.TestOutOfOrderExecution
+ * </code>
+ */
+public class TestOutOfOrderExecution extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 8192;
+
+    public static void init(IntArray a, int value) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, value);
+        }
+    }
+
+    public static void scale(IntArray a, int alpha) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) * alpha);
+        }
+    }
+
+    public static void add(IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void copy(IntArray a, IntArray b) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            b.set(i, a.get(i));
+        }
+    }
+
+    public static void addOne(FloatArray a, FloatArray b) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            b.set(i, a.get(i) + 1.0f);
+        }
+    }
+
+    /**
+     * Two independent chains of tasks that can overlap on the device, joined by
+     * a final task.
+     */
+    @Test
+    public void testIndependentTasks() throws TornadoExecutionPlanException {
+        IntArray a = new IntArray(NUM_ELEMENTS);
+        IntArray b = new IntArray(NUM_ELEMENTS);
+        IntArray c = new IntArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestOutOfOrderExecution::init, a, 10) //
+                .task("t1", TestOutOfOrderExecution::init, b, 20) //
+                .task("t2", TestOutOfOrderExecution::scale, a, 2) //
+                .task("t3", TestOutOfOrderExecution::scale, b, 3) //
+                .task("t4", TestOutOfOrderExecution::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withOutOfOrderExecution().execute();
+        }
+
+        for (int i = 0; i < c.getSize(); i++) {
+            assertEquals(80, c.get(i));
+        }
+    }
+
+    /**
+     * The task {@code t1} overwrites an array that is read by {@code t0}. The
+     * runtime must not start {@code t1} before {@code t0} finishes.
+     */
+    @Test
+    public void testWriteAfterRead() throws TornadoExecutionPlanException {
+        IntArray a = new IntArray(NUM_ELEMENTS);
+        IntArray b = new IntArray(NUM_ELEMENTS);
+        a.init(5);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestOutOfOrderExecution::copy, a, b) //
+                .task("t1", TestOutOfOrderExecution::init, a, 100) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a, b);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withOutOfOrderExecution();
+            for (int iteration = 0; iteration < 10; iteration++) {
+                a.init(5);
+                executionPlan.execute();
+                for (int i = 0; i < b.getSize(); i++) {
+                    assertEquals(5, b.get(i));
+                    assertEquals(100, a.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSwitchQueueMode() throws TornadoExecutionPlanException {
+        IntArray a = new IntArray(NUM_ELEMENTS);
+        IntArray b = new IntArray(NUM_ELEMENTS);
+        IntArray c = new IntArray(NUM_ELEMENTS);
+        a.init(1);
+        b.init(2);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestOutOfOrderExecution::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+            for (int i = 0; i < c.getSize(); i++) {
+                assertEquals(3, c.get(i));
+            }
+
+            a.init(10);
+            executionPlan.withOutOfOrderExecution().execute();
+            for (int i = 0; i < c.getSize(); i++) {
+                assertEquals(12, c.get(i));
+            }
+
+            b.init(20);
+            executionPlan.withoutOutOfOrderExecution().execute();
+            for (int i = 0; i < c.getSize(); i++) {
+                assertEquals(30, c.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testBatches() throws TornadoExecutionPlanException {
+        // 64MB per array, processed in batches of 16MB
+        final int size = 1024 * 1024 * 16;
+        FloatArray a = new FloatArray(size);
+        FloatArray b = new FloatArray(size);
+        for (int i = 0; i < size; i++) {
+            a.set(i, i % 1000);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestOutOfOrderExecution::addOne, a, b) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withOutOfOrderExecution() //
+                    .withBatch("16MB") //
+                    .execute();
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(a.get(i) + 1.0f, b.get(i), 0.01f);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for execution plans with several task-graphs that run in pipelined
+ * mode. The task-graphs exchange data through the host, so the runtime must
+ * order the transfers of each stage after the transfers of the previous ones.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.tasks.TestPipelinedExecution
+ * </code>
+ */
+public class TestPipelinedExecution extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 16384;
+
+    public static void scale(FloatArray input, FloatArray output, float factor) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * factor);
+        }
+    }
+
+    public static void add(FloatArray input, FloatArray output, float value) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) + value);
+        }
+    }
+
+    private static FloatArray createInput(int seed) {
+        FloatArray input = new FloatArray(NUM_ELEMENTS);
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            input.set(i, (i + seed) % 100);
+        }
+        return input;
+    }
+
+    /**
+     * Three stages, in which each stage reads the output of the previous one
+     * from the host.
+     */
+    @Test
+    public void testThreeStages() throws TornadoExecutionPlanException {
+        FloatArray input = createInput(0);
+        FloatArray stage0 = new FloatArray(NUM_ELEMENTS);
+        FloatArray stage1 = new FloatArray(NUM_ELEMENTS);
+        FloatArray output = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph0 = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestPipelinedExecution::scale, input, stage0, 2.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, stage0);
+
+        TaskGraph taskGraph1 = new TaskGraph("s1") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, stage0) //
+                .task("t0", TestPipelinedExecution::add, stage0, stage1, 10.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, stage1);
+
+        TaskGraph taskGraph2 = new TaskGraph("s2") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, stage1) //
+                .task("t0", TestPipelinedExecution::scale, stage1, output, 0.5f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph0 = taskGraph0.snapshot();
+        ImmutableTaskGraph immutableTaskGraph1 = taskGraph1.snapshot();
+        ImmutableTaskGraph immutableTaskGraph2 = taskGraph2.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph0, immutableTaskGraph1, immutableTaskGraph2)) {
+            executionPlan.withPipelinedExecution();
+            for (int iteration = 0; iteration < 10; iteration++) {
+                FloatArray frame = createInput(iteration);
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    input.set(i, frame.get(i));
+                }
+                executionPlan.execute();
+                for (int i = 0; i < NUM_ELEMENTS; i++) {
+                    assertEquals((input.get(i) * 2.0f + 10.0f) * 0.5f, output.get(i), 0.01f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPipelinedAndSequentialModes() throws TornadoExecutionPlanException {
+        FloatArray input = createInput(0);
+        FloatArray intermediate = new FloatArray(NUM_ELEMENTS);
+        FloatArray output = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph0 = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestPipelinedExecution::add, input, intermediate, 1.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, intermediate);
+
+        TaskGraph taskGraph1 = new TaskGraph("s1") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, intermediate) //
+                .task("t0", TestPipelinedExecution::scale, intermediate, output, 3.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph0.snapshot(), taskGraph1.snapshot())) {
+            executionPlan.execute();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals((input.get(i) + 1.0f) * 3.0f, output.get(i), 0.01f);
+            }
+
+            output.init(0.0f);
+            executionPlan.withPipelinedExecution().execute();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals((input.get(i) + 1.0f) * 3.0f, output.get(i), 0.01f);
+            }
+
+            output.init(0.0f);
+            executionPlan.withoutPipelinedExecution().execute();
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                assertEquals((input.get(i) + 1.0f) * 3.0f, output.get(i), 0.01f);
+            }
+        }
+    }
+}
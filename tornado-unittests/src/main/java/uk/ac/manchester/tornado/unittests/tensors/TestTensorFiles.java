@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tensors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.tensors.DType;
+import uk.ac.manchester.tornado.api.types.tensors.NpyFile;
+import uk.ac.manchester.tornado.api.types.tensors.SafeTensorsFile;
+import uk.ac.manchester.tornado.api.types.tensors.Shape;
+import uk.ac.manchester.tornado.api.types.tensors.Tensor;
+import uk.ac.manchester.tornado.api.types.tensors.TensorBF16;
+import uk.ac.manchester.tornado.api.types.tensors.TensorByte;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP16;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP32;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP64;
+import uk.ac.manchester.tornado.api.types.tensors.TensorInt16;
+import uk.ac.manchester.tornado.api.types.tensors.TensorInt32;
+import uk.ac.manchester.tornado.api.types.tensors.TensorInt64;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the loaders and writers of tensors in the {@code .npy} and
+ * safetensors formats. The fixtures are small files in the format written by
+ * NumPy and by the safetensors library.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.tensors.TestTensorFiles
+ * </code>
+ */
+public class TestTensorFiles extends TornadoTestBase {
+
+    public static void scale(TensorFP32 input, TensorFP32 output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * 2.0f);
+        }
+    }
+
+    private static Path fixture(String name) throws IOException {
+        Path path = Files.createTempFile("tornado-tensors", name);
+        path.toFile().deleteOnExit();
+        try (InputStream stream = TestTensorFiles.class.getResourceAsStream(name)) {
+            Files.copy(stream, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return path;
+    }
+
+    private static Path tempFile(String suffix) throws IOException {
+        Path path = Files.createTempFile("tornado-tensors", suffix);
+        path.toFile().deleteOnExit();
+        return path;
+    }
+
+    @Test
+    public void testLoadNpyFloat() throws IOException {
+        Tensor tensor = NpyFile.load(fixture("fp32.npy"));
+
+        assertTrue(tensor instanceof TensorFP32);
+        assertArrayEquals(new long[] { 2, 3 }, tensor.getShape().getDimensions());
+        assertTrue(tensor.getSegmentWithHeader().isMapped());
+        TensorFP32 tensorFP32 = (TensorFP32) tensor;
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i * 0.5f, tensorFP32.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testLoadNpyShort() throws IOException {
+        Tensor tensor = NpyFile.load(fixture("int16.npy"));
+
+        assertTrue(tensor instanceof TensorInt16);
+        assertEquals(DType.INT16, tensor.getDType());
+        assertArrayEquals(new long[] { 5 }, tensor.getShape().getDimensions());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i - 2, ((TensorInt16) tensor).get(i));
+        }
+    }
+
+    @Test
+    public void testSaveNpy() throws IOException {
+        TensorFP64 tensor = new TensorFP64(new Shape(3, 4, 5));
+        for (int i = 0; i < tensor.getSize(); i++) {
+            tensor.set(i, i / 3.0);
+        }
+        Path path = tempFile(".npy");
+        NpyFile.save(path, tensor);
+
+        // The data is aligned to 64 bytes, so the loader maps it
+        assertEquals(0, (Files.size(path) - tensor.getNumBytesOfSegment()) % 64);
+        TensorFP64 loaded = (TensorFP64) NpyFile.load(path);
+        assertTrue(loaded.getSegmentWithHeader().isMapped());
+        assertArrayEquals(tensor.getShape().getDimensions(), loaded.getShape().getDimensions());
+        for (int i = 0; i < tensor.getSize(); i++) {
+            assertEquals(tensor.get(i), loaded.get(i), 0.0);
+        }
+    }
+
+    @Test
+    public void testLoadSafeTensors() throws IOException {
+        Map<String, Tensor> tensors = SafeTensorsFile.load(fixture("model.safetensors"));
+
+        assertEquals(List.of("weight", "ids", "bias", "mask"), List.copyOf(tensors.keySet()));
+
+        TensorFP32 weight = (TensorFP32) tensors.get("weight");
+        assertArrayEquals(new long[] { 2, 2 }, weight.getShape().getDimensions());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i + 1, weight.get(i), 0.0f);
+        }
+
+        TensorInt64 ids = (TensorInt64) tensors.get("ids");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 7, ids.get(i));
+        }
+
+        TensorFP16 bias = (TensorFP16) tensors.get("bias");
+        assertEquals(0.5f, bias.get(0).getFloat32(), 0.0f);
+        assertEquals(-1.0f, bias.get(1).getFloat32(), 0.0f);
+
+        TensorByte mask = (TensorByte) tensors.get("mask");
+        assertEquals(DType.BOOL, mask.getDType());
+        assertEquals(1, mask.get(0));
+        assertEquals(0, mask.get(1));
+        assertEquals(1, mask.get(2));
+    }
+
+    @Test
+    public void testSaveSafeTensors() throws IOException {
+        TensorFP16 half = new TensorFP16(new Shape(3));
+        TensorInt32 ints = new TensorInt32(new Shape(2, 4));
+        TensorByte bytes = new TensorByte(new Shape(5));
+        for (int i = 0; i < 3; i++) {
+            half.set(i, new HalfFloat(i + 0.25f));
+        }
+        for (int i = 0; i < 8; i++) {
+            ints.set(i, i * i);
+        }
+        for (int i = 0; i < 5; i++) {
+            bytes.set(i, (byte) -i);
+        }
+        Map<String, Tensor> tensors = new LinkedHashMap<>();
+        tensors.put("half", half);
+        tensors.put("ints", ints);
+        tensors.put("bytes", bytes);
+
+        Path path = tempFile(".safetensors");
+        SafeTensorsFile.save(path, tensors);
+        Map<String, Tensor> loaded = SafeTensorsFile.load(path);
+
+        // The tensors are stored in decreasing order of element size
+        assertEquals(List.of("ints", "half", "bytes"), List.copyOf(loaded.keySet()));
+        for (Map.Entry<String, Tensor> entry : loaded.entrySet()) {
+            assertTrue(entry.getValue().getSegmentWithHeader().isMapped());
+            assertArrayEquals(tensors.get(entry.getKey()).getShape().getDimensions(), entry.getValue().getShape().getDimensions());
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 0.25f, ((TensorFP16) loaded.get("half")).get(i).getFloat32(), 0.0f);
+        }
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i * i, ((TensorInt32) loaded.get("ints")).get(i));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals(-i, ((TensorByte) loaded.get("bytes")).get(i));
+        }
+    }
+
+    @Test
+    public void testSaveSafeTensorsBFloat16() throws IOException {
+        TensorBF16 weights = new TensorBF16(new Shape(2, 3));
+        for (int i = 0; i < 6; i++) {
+            weights.set(i, i - 2.5f);
+        }
+
+        Path path = tempFile(".safetensors");
+        SafeTensorsFile.save(path, Map.of("weights", weights));
+        TensorBF16 loaded = (TensorBF16) SafeTensorsFile.load(path).get("weights");
+
+        assertEquals(DType.BFLOAT16, loaded.getDType());
+        assertArrayEquals(new long[] { 2, 3 }, loaded.getShape().getDimensions());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i - 2.5f, loaded.get(i), 0.0f);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testSaveNpyBFloat16() throws IOException {
+        NpyFile.save(tempFile(".npy"), new TensorBF16(new Shape(4)));
+    }
+
+    @Test
+    public void testLoadedTensorAsInput() throws IOException, TornadoExecutionPlanException {
+        TensorFP32 weight = (TensorFP32) SafeTensorsFile.load(fixture("model.safetensors")).get("weight");
+        TensorFP32 output = new TensorFP32(weight.getShape());
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, weight) //
+                .task("t0", TestTensorFiles::scale, weight, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals((i + 1) * 2.0f, output.get(i), 0.0f);
+        }
+    }
+}